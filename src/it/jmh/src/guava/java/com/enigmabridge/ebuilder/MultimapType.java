@@ -0,0 +1,13 @@
+package com.enigmabridge.ebuilder;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.SetMultimap;
+
+/** A value type dominated by Guava multimap properties. */
+@EBuilder
+public interface MultimapType {
+  ListMultimap<String, Integer> getScores();
+  SetMultimap<String, String> getTags();
+
+  class Builder extends MultimapType_Builder {}
+}
@@ -0,0 +1,50 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+public class MultimapTypeBenchmark
+    extends GeneratedTypeBenchmark<MultimapType, MultimapType_Builder> {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private String[] keys;
+
+  public MultimapTypeBenchmark() {
+    super(MultimapType.Builder::new,
+        MultimapType_Builder::build,
+        MultimapType_Builder::mergeFrom,
+        MultimapType_Builder::mergeFrom,
+        MultimapType_Builder::clear);
+  }
+
+  @Override
+  protected MultimapType_Builder populate(MultimapType_Builder builder) {
+    keys = new String[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = "key" + (i % 16);
+    }
+    for (int i = 0; i < size; i++) {
+      builder.putScores(keys[i], i).putTags(keys[i], "tag" + i);
+    }
+    return builder;
+  }
+
+  @Benchmark
+  public MultimapType putOneByOne() {
+    MultimapType_Builder builder = new MultimapType.Builder();
+    for (int i = 0; i < size; i++) {
+      builder.putScores(keys[i], i).putTags(keys[i], keys[i]);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public MultimapType putAll() {
+    return new MultimapType.Builder()
+        .putAllScores(value.getScores())
+        .putAllTags(value.getTags())
+        .build();
+  }
+}
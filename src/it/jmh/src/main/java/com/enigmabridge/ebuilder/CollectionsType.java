@@ -0,0 +1,16 @@
+package com.enigmabridge.ebuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** A value type dominated by collection properties. */
+@EBuilder
+public interface CollectionsType {
+  String getName();
+  List<String> getItems();
+  Set<Integer> getIds();
+  Map<String, Integer> getCounts();
+
+  class Builder extends CollectionsType_Builder {}
+}
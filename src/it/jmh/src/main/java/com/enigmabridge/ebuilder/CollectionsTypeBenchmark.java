@@ -0,0 +1,58 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CollectionsTypeBenchmark
+    extends GeneratedTypeBenchmark<CollectionsType, CollectionsType_Builder> {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private String[] strings;
+  private List<String> itemList;
+
+  public CollectionsTypeBenchmark() {
+    super(CollectionsType.Builder::new,
+        CollectionsType_Builder::build,
+        CollectionsType_Builder::mergeFrom,
+        CollectionsType_Builder::mergeFrom,
+        CollectionsType_Builder::clear);
+  }
+
+  @Override
+  protected CollectionsType_Builder populate(CollectionsType_Builder builder) {
+    strings = new String[size];
+    for (int i = 0; i < size; i++) {
+      strings[i] = "item" + i;
+    }
+    itemList = Arrays.asList(strings);
+    builder.setName("collections");
+    for (int i = 0; i < size; i++) {
+      builder.addItems(strings[i]).addIds(i).putCounts(strings[i], i);
+    }
+    return builder;
+  }
+
+  @Benchmark
+  public CollectionsType addOneByOne() {
+    CollectionsType_Builder builder = new CollectionsType.Builder().setName("collections");
+    for (int i = 0; i < size; i++) {
+      builder.addItems(strings[i]).addIds(i).putCounts(strings[i], i);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public CollectionsType addAll() {
+    return new CollectionsType.Builder()
+        .setName("collections")
+        .addAllItems(itemList)
+        .addAllIds(value.getIds())
+        .putAllCounts(value.getCounts())
+        .build();
+  }
+}
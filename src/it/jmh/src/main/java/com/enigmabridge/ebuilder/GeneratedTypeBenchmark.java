@@ -0,0 +1,104 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks shared by every generated type: build, mergeFrom(value), mergeFrom(builder), clear,
+ * equals, hashCode and toString.
+ *
+ * <p>Generated builders share no interface, so subclasses pass their methods in as references.
+ *
+ * @param <T> the value type
+ * @param <B> the generated builder type
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public abstract class GeneratedTypeBenchmark<T, B> {
+
+  private final Supplier<B> newBuilder;
+  private final Function<B, T> build;
+  private final BiFunction<B, T, B> mergeFromValue;
+  private final BiFunction<B, B, B> mergeFromBuilder;
+  private final Function<B, B> clear;
+
+  protected B builder;
+  protected T value;
+  private T equalValue;
+
+  protected GeneratedTypeBenchmark(
+      Supplier<B> newBuilder,
+      Function<B, T> build,
+      BiFunction<B, T, B> mergeFromValue,
+      BiFunction<B, B, B> mergeFromBuilder,
+      Function<B, B> clear) {
+    this.newBuilder = newBuilder;
+    this.build = build;
+    this.mergeFromValue = mergeFromValue;
+    this.mergeFromBuilder = mergeFromBuilder;
+    this.clear = clear;
+  }
+
+  /** Adds the benchmarked property values to a new builder, and sets up any other state. */
+  protected abstract B populate(B builder);
+
+  @Setup
+  public void setUp() {
+    builder = populate(newBuilder.get());
+    value = build.apply(builder);
+    equalValue = build.apply(mergeFromValue.apply(newBuilder.get(), value));
+  }
+
+  @Benchmark
+  public T build() {
+    return build.apply(builder);
+  }
+
+  @Benchmark
+  public B mergeFromValue() {
+    return mergeFromValue.apply(newBuilder.get(), value);
+  }
+
+  @Benchmark
+  public B mergeFromBuilder() {
+    return mergeFromBuilder.apply(newBuilder.get(), builder);
+  }
+
+  /** Clears a freshly populated builder; subtract {@link #mergeFromValue} for the clear alone. */
+  @Benchmark
+  public B clear() {
+    return clear.apply(mergeFromValue.apply(newBuilder.get(), value));
+  }
+
+  @Benchmark
+  public boolean valueEquals() {
+    return value.equals(equalValue);
+  }
+
+  @Benchmark
+  public int valueHashCode() {
+    return value.hashCode();
+  }
+
+  @Benchmark
+  public String valueToString() {
+    return value.toString();
+  }
+}
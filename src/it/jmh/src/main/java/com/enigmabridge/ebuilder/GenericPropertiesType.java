@@ -0,0 +1,14 @@
+package com.enigmabridge.ebuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** A value type whose properties have nested, parameterized types. */
+@EBuilder
+public interface GenericPropertiesType {
+  Map<String, List<Integer>> getSeries();
+  Map<String, Set<String>> getGroups();
+
+  class Builder extends GenericPropertiesType_Builder {}
+}
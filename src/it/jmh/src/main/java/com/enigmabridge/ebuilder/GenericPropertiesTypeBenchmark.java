@@ -0,0 +1,51 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class GenericPropertiesTypeBenchmark
+    extends GeneratedTypeBenchmark<GenericPropertiesType, GenericPropertiesType_Builder> {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private String[] keys;
+  private List<Integer> series;
+  private Set<String> group;
+
+  public GenericPropertiesTypeBenchmark() {
+    super(GenericPropertiesType.Builder::new,
+        GenericPropertiesType_Builder::build,
+        GenericPropertiesType_Builder::mergeFrom,
+        GenericPropertiesType_Builder::mergeFrom,
+        GenericPropertiesType_Builder::clear);
+  }
+
+  @Override
+  protected GenericPropertiesType_Builder populate(GenericPropertiesType_Builder builder) {
+    keys = new String[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = "key" + i;
+    }
+    series = Arrays.asList(1, 2, 3);
+    group = new HashSet<String>(Arrays.asList("a", "b"));
+    for (int i = 0; i < size; i++) {
+      builder.putSeries(keys[i], series).putGroups(keys[i], group);
+    }
+    return builder;
+  }
+
+  @Benchmark
+  public GenericPropertiesType putOneByOne() {
+    GenericPropertiesType_Builder builder = new GenericPropertiesType.Builder();
+    for (int i = 0; i < size; i++) {
+      builder.putSeries(keys[i], series).putGroups(keys[i], group);
+    }
+    return builder.build();
+  }
+}
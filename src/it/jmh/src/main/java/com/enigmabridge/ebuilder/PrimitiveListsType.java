@@ -0,0 +1,13 @@
+package com.enigmabridge.ebuilder;
+
+import java.util.List;
+
+/** Numeric lists, stored as primitive arrays via {@link EBuilder#primitiveLists()}. */
+@EBuilder(primitiveLists = true)
+public interface PrimitiveListsType {
+  List<Integer> getInts();
+  List<Long> getLongs();
+  List<Double> getDoubles();
+
+  class Builder extends PrimitiveListsType_Builder {}
+}
@@ -0,0 +1,55 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.List;
+
+public class PrimitiveListsTypeBenchmark
+    extends GeneratedTypeBenchmark<PrimitiveListsType, PrimitiveListsType_Builder> {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private List<Integer> intList;
+
+  public PrimitiveListsTypeBenchmark() {
+    super(PrimitiveListsType.Builder::new,
+        PrimitiveListsType_Builder::build,
+        PrimitiveListsType_Builder::mergeFrom,
+        PrimitiveListsType_Builder::mergeFrom,
+        PrimitiveListsType_Builder::clear);
+  }
+
+  @Override
+  protected PrimitiveListsType_Builder populate(PrimitiveListsType_Builder builder) {
+    for (int i = 0; i < size; i++) {
+      builder.addInts(i).addLongs(i * 31L).addDoubles(i / 2.0);
+    }
+    intList = builder.build().getInts();
+    return builder;
+  }
+
+  @Benchmark
+  public PrimitiveListsType addOneByOne() {
+    PrimitiveListsType_Builder builder = new PrimitiveListsType.Builder();
+    for (int i = 0; i < size; i++) {
+      builder.addInts(i).addLongs(i * 31L).addDoubles(i / 2.0);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public PrimitiveListsType addAll() {
+    return new PrimitiveListsType.Builder().addAllInts(intList).build();
+  }
+
+  @Benchmark
+  public long sumInts() {
+    long sum = 0;
+    for (int element : value.getInts()) {
+      sum += element;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,16 @@
+package com.enigmabridge.ebuilder;
+
+/** A value type made only of primitive properties. */
+@EBuilder
+public interface PrimitivesType {
+  byte getByteValue();
+  short getShortValue();
+  char getCharValue();
+  int getIntValue();
+  long getLongValue();
+  float getFloatValue();
+  double getDoubleValue();
+  boolean isBooleanValue();
+
+  class Builder extends PrimitivesType_Builder {}
+}
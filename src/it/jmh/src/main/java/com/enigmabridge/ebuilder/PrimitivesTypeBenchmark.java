@@ -0,0 +1,26 @@
+package com.enigmabridge.ebuilder;
+
+public class PrimitivesTypeBenchmark
+    extends GeneratedTypeBenchmark<PrimitivesType, PrimitivesType_Builder> {
+
+  public PrimitivesTypeBenchmark() {
+    super(PrimitivesType.Builder::new,
+        PrimitivesType_Builder::build,
+        PrimitivesType_Builder::mergeFrom,
+        PrimitivesType_Builder::mergeFrom,
+        PrimitivesType_Builder::clear);
+  }
+
+  @Override
+  protected PrimitivesType_Builder populate(PrimitivesType_Builder builder) {
+    return builder
+        .setByteValue((byte) 1)
+        .setShortValue((short) 2)
+        .setCharValue('c')
+        .setIntValue(4)
+        .setLongValue(5L)
+        .setFloatValue(6.0f)
+        .setDoubleValue(7.0)
+        .setBooleanValue(true);
+  }
+}
@@ -0,0 +1,11 @@
+package com.enigmabridge.ebuilder;
+
+/** A small value type: a handful of simple properties. */
+@EBuilder
+public interface SmallType {
+  String getName();
+  int getAge();
+  boolean isActive();
+
+  class Builder extends SmallType_Builder {}
+}
@@ -0,0 +1,17 @@
+package com.enigmabridge.ebuilder;
+
+public class SmallTypeBenchmark extends GeneratedTypeBenchmark<SmallType, SmallType_Builder> {
+
+  public SmallTypeBenchmark() {
+    super(SmallType.Builder::new,
+        SmallType_Builder::build,
+        SmallType_Builder::mergeFrom,
+        SmallType_Builder::mergeFrom,
+        SmallType_Builder::clear);
+  }
+
+  @Override
+  protected SmallType_Builder populate(SmallType_Builder builder) {
+    return builder.setName("Alice").setAge(42).setActive(true);
+  }
+}
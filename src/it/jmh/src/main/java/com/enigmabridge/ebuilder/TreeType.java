@@ -0,0 +1,36 @@
+package com.enigmabridge.ebuilder;
+
+/** A four-level tree of nested buildable types. */
+@EBuilder
+public interface TreeType {
+  String getName();
+  Branch getLeft();
+  Branch getRight();
+
+  class Builder extends TreeType_Builder {}
+
+  @EBuilder
+  interface Branch {
+    String getName();
+    Twig getFirst();
+    Twig getSecond();
+
+    class Builder extends TreeType_Branch_Builder {}
+  }
+
+  @EBuilder
+  interface Twig {
+    String getName();
+    Leaf getLeaf();
+
+    class Builder extends TreeType_Twig_Builder {}
+  }
+
+  @EBuilder
+  interface Leaf {
+    String getName();
+    int getValue();
+
+    class Builder extends TreeType_Leaf_Builder {}
+  }
+}
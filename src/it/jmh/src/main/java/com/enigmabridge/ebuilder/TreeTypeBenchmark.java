@@ -0,0 +1,58 @@
+package com.enigmabridge.ebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class TreeTypeBenchmark extends GeneratedTypeBenchmark<TreeType, TreeType_Builder> {
+
+  private TreeType_Builder nestedBuilder;
+
+  public TreeTypeBenchmark() {
+    super(TreeType.Builder::new,
+        TreeType_Builder::build,
+        TreeType_Builder::mergeFrom,
+        TreeType_Builder::mergeFrom,
+        TreeType_Builder::clear);
+  }
+
+  @Override
+  protected TreeType_Builder populate(TreeType_Builder builder) {
+    builder.setName("root")
+        .setLeft(branch("left"))
+        .setRight(branch("right"));
+    nestedBuilder = new TreeType.Builder().mergeFrom(builder);
+    nestedBuilder.getLeftBuilder().getFirstBuilder().getLeafBuilder().setValue(7);
+    nestedBuilder.getRightBuilder().getSecondBuilder().getLeafBuilder().setValue(8);
+    return builder;
+  }
+
+  /** Builds with nested builders materialized at every level, so each level is rebuilt. */
+  @Benchmark
+  public TreeType buildFromNestedBuilders() {
+    return nestedBuilder.build();
+  }
+
+  /** Updates a leaf through the nested builders, then builds. */
+  @Benchmark
+  public TreeType modifyLeafAndBuild() {
+    nestedBuilder.getLeftBuilder().getFirstBuilder().getLeafBuilder().setName("leaf");
+    return nestedBuilder.build();
+  }
+
+  private static TreeType.Branch branch(String name) {
+    return new TreeType.Branch.Builder()
+        .setName(name)
+        .setFirst(twig(name + "/first"))
+        .setSecond(twig(name + "/second"))
+        .build();
+  }
+
+  private static TreeType.Twig twig(String name) {
+    return new TreeType.Twig.Builder()
+        .setName(name)
+        .setLeaf(new TreeType.Leaf.Builder()
+            .setName(name + "/leaf")
+            .setValue(name.length())
+            .build())
+        .build();
+  }
+}
@@ -0,0 +1,38 @@
+package com.enigmabridge.ebuilder;
+
+/** A wide value type: 30 required properties of mixed types. */
+@EBuilder
+public interface WideType {
+  String getField01();
+  int getField02();
+  long getField03();
+  String getField04();
+  int getField05();
+  long getField06();
+  String getField07();
+  int getField08();
+  long getField09();
+  String getField10();
+  int getField11();
+  long getField12();
+  String getField13();
+  int getField14();
+  long getField15();
+  String getField16();
+  int getField17();
+  long getField18();
+  String getField19();
+  int getField20();
+  long getField21();
+  String getField22();
+  int getField23();
+  long getField24();
+  String getField25();
+  int getField26();
+  long getField27();
+  String getField28();
+  int getField29();
+  long getField30();
+
+  class Builder extends WideType_Builder {}
+}
@@ -0,0 +1,47 @@
+package com.enigmabridge.ebuilder;
+
+public class WideTypeBenchmark extends GeneratedTypeBenchmark<WideType, WideType_Builder> {
+
+  public WideTypeBenchmark() {
+    super(WideType.Builder::new,
+        WideType_Builder::build,
+        WideType_Builder::mergeFrom,
+        WideType_Builder::mergeFrom,
+        WideType_Builder::clear);
+  }
+
+  @Override
+  protected WideType_Builder populate(WideType_Builder builder) {
+    return builder
+        .setField01("value1")
+        .setField02(2)
+        .setField03(3000000021L)
+        .setField04("value4")
+        .setField05(5)
+        .setField06(6000000042L)
+        .setField07("value7")
+        .setField08(8)
+        .setField09(9000000063L)
+        .setField10("value10")
+        .setField11(11)
+        .setField12(12000000084L)
+        .setField13("value13")
+        .setField14(14)
+        .setField15(15000000105L)
+        .setField16("value16")
+        .setField17(17)
+        .setField18(18000000126L)
+        .setField19("value19")
+        .setField20(20)
+        .setField21(21000000147L)
+        .setField22("value22")
+        .setField23(23)
+        .setField24(24000000168L)
+        .setField25("value25")
+        .setField26(26)
+        .setField27(27000000189L)
+        .setField28("value28")
+        .setField29(29)
+        .setField30(30000000210L);
+  }
+}
@@ -53,6 +53,53 @@ import java.lang.annotation.Target;
  * <a href="http://freebuilder.inferred.org/">Full documentation at freebuilder.inferred.org</a>
  */
 @Target(ElementType.TYPE)
-@Retention(RetentionPolicy.SOURCE)
-public @interface EBuilder {}
+@Retention(RetentionPolicy.CLASS)
+public @interface EBuilder {
+
+  /**
+   * Whether the generated value type should compute its hash code once and cache it.
+   *
+   * <p>The hash code is computed on the first call to {@code hashCode()} and stored in a field;
+   * {@code equals} will also return false early when both hash codes are already known and
+   * differ. Only enable this for types whose property values are deeply immutable, as later
+   * changes to a mutable property value will not be reflected in the cached hash code. Ignored
+   * if the type provides its own {@code hashCode} implementation.
+   */
+  boolean cacheHashCode() default false;
+
+  /**
+   * Whether {@code List} properties of {@code Integer}, {@code Long} or {@code Double} elements
+   * should be stored in primitive arrays.
+   *
+   * <p>The builder accumulates elements into a growable {@code int[]}, {@code long[]} or
+   * {@code double[]}, and the value type exposes an immutable {@code List} view of a trimmed
+   * copy, so elements are only boxed when read. The builder's {@code mutateFoo} method, if
+   * generated, operates on a list view writing through to the array. Properties declared as
+   * {@code ImmutableList} are not affected.
+   */
+  boolean primitiveLists() default false;
+
+  /**
+   * Whether {@code build()} should return the previously built instance if the builder has not
+   * been modified since.
+   *
+   * <p>Every generated builder method that modifies the builder discards the memoized instance.
+   * Nested buildable properties are rebuilt if a builder for them has been requested, unless
+   * their type also enables this option, in which case the previous instance is kept as long as
+   * the nested builder still returns the same value. As {@code setFoo} and {@code clear} update
+   * a requested nested builder in place, rather than discarding it, this lasts for the lifetime
+   * of the builder. Collections returned by
+   * {@code mutateFoo} consumers must not be modified after the consumer returns.
+   */
+  boolean memoizeBuild() default false;
+
+  /**
+   * Whether {@code Set}, {@code Map} and {@code Multiset} properties with an enum element or key
+   * type should use {@code EnumSet}, {@code EnumMap} and {@code EnumMultiset} in the builder.
+   *
+   * <p>The value type holds an immutable enum set or map where one is available. Iteration
+   * order becomes the enum's declaration order, instead of insertion order.
+   */
+  boolean enumCollections() default false;
+}
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates the accessor of a collection property of an &#64;{@link EBuilder} type with the
+ * number of elements it usually holds, so the builder can size its collection up front instead
+ * of growing it one reallocation at a time.
+ *
+ * <p>The size counts elements of a list, set or multiset, entries of a map, and keys of a
+ * multimap. It is only a hint: more or fewer elements may still be added. For example:
+ *
+ * <blockquote><pre>&#64;EBuilder
+ * public interface Batch {
+ *   &#64;ExpectedSize(1024)
+ *   List&lt;Double&gt; getReadings();
+ *
+ *   class Builder extends Batch_Builder { }
+ * }</pre></blockquote>
+ *
+ * <p>When Guava is available, an empty builder still reuses an immutable collection passed to
+ * {@code addAllFoo} or {@code mergeFrom} rather than copying it. The hint sizes the mutable copy
+ * the builder makes when it is first modified, including after {@code clearFoo()}. Enum-keyed
+ * collections stored in an {@code EnumSet} or {@code EnumMap} ignore the hint.
+ *
+ * <p>List builders also have an {@code ensureFooCapacity(int)} method, for sizes only known at
+ * runtime.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface ExpectedSize {
+
+  /** The expected number of elements. Values less than 1 are ignored. */
+  int value();
+}
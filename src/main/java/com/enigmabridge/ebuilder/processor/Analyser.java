@@ -32,7 +32,7 @@ import static javax.tools.Diagnostic.Kind.NOTE;
 
 import static com.enigmabridge.ebuilder.processor.BuilderFactory.NO_ARGS_CONSTRUCTOR;
 import static com.enigmabridge.ebuilder.processor.GwtSupport.gwtMetadata;
-import static com.enigmabridge.ebuilder.processor.MethodFinder.methodsOn;
+import static com.enigmabridge.ebuilder.processor.Util.ebuilderFlag;
 import static com.enigmabridge.ebuilder.processor.naming.NamingConventions.determineNamingConvention;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.asElement;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.getReturnType;
@@ -109,6 +109,7 @@ class Analyser {
    */
   private static final List<PropertyCodeGenerator.Factory> PROPERTY_FACTORIES = ImmutableList.of(
       new NullablePropertyFactory(), // Must be first, as no other factory supports nulls
+      new PrimitiveListPropertyFactory(), // Must precede ListPropertyFactory
       new ListPropertyFactory(),
       new SetPropertyFactory(),
       new MapPropertyFactory(),
@@ -125,12 +126,23 @@ class Analyser {
   private static final String USER_ABUILDER_NAME = "ABuilder";
   private static final String USER_DEFAULT_VALUES_NAME = "defaultValues";
   private static final String BUILDER_ANNOTATION = EBuilder.class.getCanonicalName();
+  private static final String WITHER_PREFIX = "with";
 
   private final Elements elements;
   private final Messager messager;
   private final MethodIntrospector methodIntrospector;
   private final Types types;
 
+  // Per-round caches, so types shared by many hierarchies are only introspected once per round.
+  // Keyed by element, as each round has its own elements; cleared by endRound.
+  private final Map<TypeElement, Metadata> metadataCache = new HashMap<TypeElement, Metadata>();
+  private final Map<TypeElement, ImmutableSet<ExecutableElement>> methodsCache =
+      new HashMap<TypeElement, ImmutableSet<ExecutableElement>>();
+  private final Map<TypeElement, ImmutableSet<ExecutableElement>> ownMethodsCache =
+      new HashMap<TypeElement, ImmutableSet<ExecutableElement>>();
+  private final Map<TypeElement, Map<ExecutableElement, Property>> propertiesCache =
+      new HashMap<TypeElement, Map<ExecutableElement, Property>>();
+
   Analyser(
       Elements elements, Messager messager, MethodIntrospector methodIntrospector, Types types) {
     this.elements = elements;
@@ -150,13 +162,33 @@ class Analyser {
   /**
    * Returns a {@link Metadata} metadata object for {@code type}.
    *
+   * <p>Results are cached until {@link #endRound}, so supertypes shared by many types analysed
+   * in the same round are only analysed once.
+   *
    * @throws CannotGenerateCodeException if code cannot be generated, e.g. if the type is private
    */
   Metadata analyse(TypeElement type) throws CannotGenerateCodeException {
+    Metadata metadata = metadataCache.get(type);
+    if (metadata == null) {
+      metadata = analyseUncached(type);
+      metadataCache.put(type, metadata);
+    }
+    return metadata;
+  }
+
+  /** Discards everything cached during the current round. */
+  void endRound() {
+    metadataCache.clear();
+    methodsCache.clear();
+    ownMethodsCache.clear();
+    propertiesCache.clear();
+  }
+
+  private Metadata analyseUncached(TypeElement type) throws CannotGenerateCodeException {
     PackageElement pkg = elements.getPackageOf(type);
     verifyType(type, pkg);
-    ImmutableSet<ExecutableElement> ownMethods = MethodFinder.methodsOn(type, elements, false);
-    ImmutableSet<ExecutableElement> methods = MethodFinder.methodsOn(type, elements);
+    ImmutableSet<ExecutableElement> ownMethods = methodsOn(type, false);
+    ImmutableSet<ExecutableElement> methods = methodsOn(type, true);
 
     QualifiedName generatedABuilder = QualifiedName.of(
         pkg.getQualifiedName().toString(), generatedABuilderSimpleName(type));
@@ -178,7 +210,8 @@ class Analyser {
       //List<? extends TypeParameterElement> abuilderTypeParameters = abuilder.get().getTypeParameters();
 
       // A builder types - specific
-      ArrayList abuilderExtParamsSpec = new ArrayList(Arrays.asList(type, generatedBuilder));
+      List<Object> abuilderExtParamsSpec =
+          new ArrayList<Object>(Arrays.asList(type, generatedBuilder));
       // abuilderExtParamsSpec.addAll(abuilderTypeParameters);
 
       log(type, "ABuilderExt name: %s", generatedABuilderExt);
@@ -190,26 +223,55 @@ class Analyser {
     QualifiedName propertyType = generatedABuilder.nestedType("Property");
 
     // A builder types: T extends EntA, B extends EntA_Builder
-    ArrayList abuilderParams = new ArrayList(Arrays.asList("T extends " + type, "B extends " + generatedABuilder));
+    // Renamed if the type declares a T or B of its own.
+    String typeGen = unusedTypeVariable("T", typeParameters);
+    String buildGen = unusedTypeVariable("B", typeParameters);
+    // A generic type's bounds are parameterized, or T and B would erase its property types.
+    Object typeBound = type;
+    Object abuilderBound = generatedABuilder;
+    Object typeSpec = type;
+    Object builderSpec = generatedBuilder;
+    if (!typeParameters.isEmpty()) {
+      List<Object> abuilderBoundParams = new ArrayList<Object>(Arrays.asList(typeGen, buildGen));
+      abuilderBoundParams.addAll(typeParameters);
+      typeBound = QualifiedName.of(type).withParameters(typeParameters);
+      abuilderBound = generatedABuilder.withParameters(abuilderBoundParams);
+      typeSpec = typeBound;
+      builderSpec = generatedBuilder.withParameters(typeParameters);
+    }
+    List<Object> abuilderParams = new ArrayList<Object>(Arrays.asList(
+        typeGen + " extends " + typeBound, buildGen + " extends " + abuilderBound));
     abuilderParams.addAll(typeParameters);
     log(type, "ABuilder typeParams %s", typeParameters);
 
     // A builder types - specific
-    ArrayList abuilderParamsSpec = new ArrayList(Arrays.asList(type, generatedBuilder));
+    List<Object> abuilderParamsSpec = new ArrayList<Object>(Arrays.asList(typeSpec, builderSpec));
     abuilderParamsSpec.addAll(typeParameters);
     log(type, "ABuilderSpec typeParams %s", abuilderParamsSpec);
 
-    Map<ExecutableElement, Metadata.Property> properties = findProperties(type,
-            removeUnderriddenAndConcreteMethods(methods));
+    // A builder type as referenced by generated code: wildcards for T and B, then the type's own
+    // parameters. A non-generic type's A builder is referenced raw.
+    List<Object> abuilderParamsRef = new ArrayList<Object>(Arrays.asList("?", "?"));
+    abuilderParamsRef.addAll(typeParameters);
+    ParameterizedType generatedABuilderRef = typeParameters.isEmpty()
+        ? generatedABuilder.withParameters()
+        : generatedABuilder.withParameters(abuilderParamsRef);
+
+    Set<ExecutableElement> abstractMethods = removeUnderriddenAndConcreteMethods(methods);
+    Map<ExecutableElement, Metadata.Property> properties = findProperties(type, abstractMethods);
+    Optional<BuilderFactory> builderFactory = builderFactory(builder);
+    verifyWithers(type, abstractMethods, properties.values(), builderFactory);
+    Map<ExecutableElement, Metadata.Property> ownProperties =
+        findProperties(type, removeUnderriddenAndConcreteMethods(ownMethods));
 
     Metadata.Builder metadataBuilder = new Metadata.Builder()
         .setType(QualifiedName.of(type).withParameters(typeParameters))
         .setInterfaceType(type.getKind().isInterface())
         .setABuilder(parameterized(abuilder, typeParameters))
         .setBuilder(parameterized(builder, typeParameters))
-        .setBuilderFactory(builderFactory(builder))
+        .setBuilderFactory(builderFactory)
         .setGeneratedBuilder(generatedBuilder.withParameters(typeParameters))
-        .setGeneratedABuilder(generatedABuilder.withParameters(typeParameters))
+        .setGeneratedABuilder(generatedABuilderRef)
         .setGeneratedABuilderParametrized(generatedABuilder.withParameters(abuilderParams))
         .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(abuilderParamsSpec))
         .setOptionalABuilderExtension(generatedABuilderExt)
@@ -222,11 +284,16 @@ class Analyser {
         .addAllVisibleNestedTypes(visibleTypesIn(type))  // Because we inherit from type
         .putAllStandardMethodUnderrides(findUnderriddenMethods(methods))
         .setBuilderSerializable(shouldBuilderBeSerializable(builder))
+        .setHashCodeCached(ebuilderFlag(type, "cacheHashCode"))
+        .setPrimitiveLists(ebuilderFlag(type, "primitiveLists"))
+        .setBuildMemoized(ebuilderFlag(type, "memoizeBuild"))
+        .setEnumCollections(ebuilderFlag(type, "enumCollections"))
+        .setBuildOverridden(builder.isPresent() && overrides(builder.get(), types, "build"))
         .addAllProperties(properties.values())
-        .addAllOwnProperties(findProperties(type, ownMethods).values())
+        .addAllOwnProperties(ownProperties.values())
         .setValueTypeVisibility(Metadata.Visibility.PROTECTED)
-        .setTypeGen("T")
-        .setBuildGen("B");
+        .setTypeGen(typeGen)
+        .setBuildGen(buildGen);
 
     // Super class has EBuilder also?
     analyseSuperclass(type, metadataBuilder, methods, properties);
@@ -276,9 +343,7 @@ class Analyser {
         continue;
       }
 
-      final ImmutableSet<ExecutableElement> superMethods = methodsOn(superType, elements);
-      final Map<ExecutableElement, Property> superPropertiesRet =
-              findProperties(superType, superMethods);
+      final Map<ExecutableElement, Property> superPropertiesRet = propertiesOn(superType);
       if (superPropertiesRet.isEmpty()) {
         continue;
       }
@@ -370,7 +435,8 @@ class Analyser {
     Optional<TypeElement> abuilder = tryFindABuilder(generatedABuilder, scTElem, USER_ABUILDER_NAME);
     List<? extends TypeParameterElement> typeParameters = scTElem.getTypeParameters();
 
-    List abuilderParams = Arrays.asList(metadataBuilder.getTypeGen(), metadataBuilder.getBuildGen());
+    List<Object> abuilderParams = new ArrayList<Object>(
+        Arrays.asList(metadataBuilder.getTypeGen(), metadataBuilder.getBuildGen()));
     abuilderParams.addAll(typeParameters);
 
     Optional<ParameterizedType> ancestorBuilder = Optional.absent();
@@ -383,6 +449,19 @@ class Analyser {
     metadataBuilder.setOptionalABuilderAncestor(ancestorBuilder);
   }
 
+  /** Returns {@code name}, suffixed with underscores until no type parameter shares it. */
+  private static String unusedTypeVariable(
+      String name, List<? extends TypeParameterElement> typeParameters) {
+    Set<String> used = new HashSet<String>();
+    for (TypeParameterElement typeParameter : typeParameters) {
+      used.add(typeParameter.getSimpleName().toString());
+    }
+    while (used.contains(name)) {
+      name += "_";
+    }
+    return name;
+  }
+
   private static Set<QualifiedName> visibleTypesIn(TypeElement type) {
     ImmutableSet.Builder<QualifiedName> visibleTypes = ImmutableSet.builder();
     for (TypeElement nestedType : typesIn(type.getEnclosedElements())) {
@@ -638,21 +717,130 @@ class Analyser {
     return BuilderFactory.from(builder.get());
   }
 
+  /** Returns the methods on {@code type}, including inherited ones if {@code superTypes}. */
+  private ImmutableSet<ExecutableElement> methodsOn(TypeElement type, boolean superTypes)
+      throws CannotGenerateCodeException {
+    Map<TypeElement, ImmutableSet<ExecutableElement>> cache =
+        superTypes ? methodsCache : ownMethodsCache;
+    ImmutableSet<ExecutableElement> methods = cache.get(type);
+    if (methods == null) {
+      methods = MethodFinder.methodsOn(type, elements, superTypes);
+      cache.put(type, methods);
+    }
+    return methods;
+  }
+
+  /**
+   * Returns the properties of all methods on {@code type}, including inherited ones, as a new map
+   * the caller may modify.
+   */
+  private Map<ExecutableElement, Metadata.Property> propertiesOn(TypeElement type)
+      throws CannotGenerateCodeException {
+    Map<ExecutableElement, Property> properties = propertiesCache.get(type);
+    if (properties == null) {
+      properties = findProperties(type, methodsOn(type, true));
+      propertiesCache.put(type, properties);
+    }
+    return new LinkedHashMap<ExecutableElement, Property>(properties);
+  }
+
   private Map<ExecutableElement, Metadata.Property> findProperties(
       TypeElement type, Iterable<ExecutableElement> methods) {
-    NamingConvention namingConvention = determineNamingConvention(type, methods, messager, types);
+    Map<String, ExecutableElement> withers = newLinkedHashMap();
+    List<ExecutableElement> propertyMethods = new ArrayList<ExecutableElement>();
+    for (ExecutableElement method : methods) {
+      if (isWither(type, method)) {
+        withers.put(method.getSimpleName().toString(), method);
+      } else {
+        propertyMethods.add(method);
+      }
+    }
+    NamingConvention namingConvention =
+        determineNamingConvention(type, propertyMethods, messager, types);
     Map<ExecutableElement, Property> propertiesByMethod = newLinkedHashMap();
     Optional<JacksonSupport> jacksonSupport = JacksonSupport.create(type);
-    for (ExecutableElement method : methods) {
+    for (ExecutableElement method : propertyMethods) {
       Property.Builder propertyBuilder = namingConvention.getPropertyNames(type, method).orNull();
       if (propertyBuilder != null) {
         addPropertyData(propertyBuilder, type, method, jacksonSupport);
+        ExecutableElement wither =
+            withers.get(WITHER_PREFIX + propertyBuilder.getCapitalizedName());
+        if (wither != null
+            && types.isSameType(getParameterType(type, wither), propertyBuilder.getType())) {
+          propertyBuilder.setWitherDeclared(true);
+        }
         propertiesByMethod.put(method, propertyBuilder.build());
       }
     }
     return propertiesByMethod;
   }
 
+  /**
+   * Issues an error for every {@code withX} method that does not match a property, or that cannot
+   * be implemented because there is no way to create a Builder.
+   *
+   * @throws CannotGenerateCodeException if any error was issued
+   */
+  private void verifyWithers(
+      TypeElement type,
+      Iterable<ExecutableElement> methods,
+      Iterable<Metadata.Property> properties,
+      Optional<BuilderFactory> builderFactory) throws CannotGenerateCodeException {
+    Map<String, Metadata.Property> propertiesByWither = newLinkedHashMap();
+    for (Metadata.Property property : properties) {
+      propertiesByWither.put(WITHER_PREFIX + property.getCapitalizedName(), property);
+    }
+    boolean valid = true;
+    for (ExecutableElement method : methods) {
+      if (!isWither(type, method)) {
+        continue;
+      }
+      Metadata.Property property = propertiesByWither.get(method.getSimpleName().toString());
+      if (property == null) {
+        messager.printMessage(ERROR, "No property found for " + method.getSimpleName(), method);
+        valid = false;
+      } else if (!property.isWitherDeclared()) {
+        messager.printMessage(ERROR, String.format(
+            "Parameter of %s must be of the property type, %s",
+            method.getSimpleName(), property.getType()), method);
+        valid = false;
+      } else if (!builderFactory.isPresent()) {
+        messager.printMessage(ERROR, String.format(
+            "%s requires a Builder that is not abstract and has a no-args constructor or a static"
+                + " builder() or newBuilder() method", method.getSimpleName()), method);
+        valid = false;
+      }
+    }
+    if (!valid) {
+      throw new CannotGenerateCodeException();
+    }
+  }
+
+  /**
+   * Returns true if {@code method} looks like {@code Type withX(X x)}, to be implemented on the
+   * value type rather than treated as a property.
+   */
+  private boolean isWither(TypeElement type, ExecutableElement method) {
+    String name = method.getSimpleName().toString();
+    return method.getModifiers().contains(Modifier.ABSTRACT)
+        && name.length() > WITHER_PREFIX.length()
+        && name.startsWith(WITHER_PREFIX)
+        && Character.isUpperCase(name.charAt(WITHER_PREFIX.length()))
+        && method.getParameters().size() == 1
+        && types.isAssignable(type.asType(), getReturnType(type, method, types));
+  }
+
+  private TypeMirror getParameterType(TypeElement type, ExecutableElement method) {
+    try {
+      ExecutableType executableType = (ExecutableType)
+          types.asMemberOf((DeclaredType) type.asType(), method);
+      return executableType.getParameterTypes().get(0);
+    } catch (IllegalArgumentException e) {
+      // Same Eclipse workaround as ModelUtils.getReturnType.
+      return method.getParameters().get(0).asType();
+    }
+  }
+
   private List<Metadata.Property> codeGenerators(
       Map<ExecutableElement, Metadata.Property> properties,
       Metadata metadata,
@@ -939,7 +1127,7 @@ class Analyser {
   }
 
   private static Optional<ParameterizedType> parameterized(
-      Optional<TypeElement> type, List<? extends TypeParameterElement> typeParameters) {
+      Optional<TypeElement> type, List<?> typeParameters) {
     if (!type.isPresent()) {
       return Optional.absent();
     }
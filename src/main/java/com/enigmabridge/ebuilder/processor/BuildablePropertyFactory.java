@@ -19,19 +19,28 @@ import static com.google.common.collect.Iterables.any;
 import static com.google.common.collect.Iterables.tryFind;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.util.ElementFilter.typesIn;
+import static com.enigmabridge.ebuilder.processor.BuilderFactory.TypeInference.EXPLICIT_TYPES;
 import static com.enigmabridge.ebuilder.processor.BuilderFactory.TypeInference.INFERRED_TYPES;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.getBuilderMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.mutator;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.setter;
+import static com.enigmabridge.ebuilder.processor.Util.ebuilderFlag;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.asElement;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.findAnnotationMirror;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
 
+import static com.enigmabridge.ebuilder.processor.util.PreconditionExcerpts.checkNotNull;
+import static com.enigmabridge.ebuilder.processor.util.PreconditionExcerpts.checkNotNullInline;
+import static com.enigmabridge.ebuilder.processor.util.PreconditionExcerpts.checkNotNullPreamble;
+
+import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.util.Block;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
 import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
-import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 
@@ -88,7 +97,7 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
     }
 
     MergeBuilderMethod mergeFromBuilderMethod;
-    if (findAnnotationMirror(element, "EBuilder").isPresent()) {
+    if (findAnnotationMirror(element, EBuilder.class).isPresent()) {
       /*
        * If the element is annotated @EBuilder, assume the necessary methods will be added. We
        * can't check directly as the builder superclass may not have been generated yet. To be
@@ -136,12 +145,29 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
       }
     }
 
+    // Parameterize the builder as the property is, e.g. Pair.Builder<String, Integer> for a
+    // Pair<String, Integer> property, assuming the builder declares the type's parameters.
+    ParameterizedType builderType = ParameterizedType.from(builder.get());
+    if (builderType.isParameterized()
+        && builder.get().getTypeParameters().size() == type.getTypeArguments().size()) {
+      builderType = builderType.withParameters(
+          type.getTypeArguments().toArray(new TypeMirror[0]));
+    }
+
+    boolean buildMemoized = ebuilderFlag(element, "memoizeBuild");
+    boolean overridesSetter = overrides(
+        config.getBuilder(),
+        config.getTypes(),
+        setter(config.getProperty()),
+        config.getProperty().getType());
     return Optional.of(new CodeGenerator(
         config.getMetadata(),
         config.getProperty(),
-        ParameterizedType.from(builder.get()),
+        builderType,
         builderFactory.get(),
-        mergeFromBuilderMethod));
+        mergeFromBuilderMethod,
+        buildMemoized,
+        overridesSetter));
   }
 
   @VisibleForTesting static class CodeGenerator extends PropertyCodeGenerator {
@@ -149,23 +175,31 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
     final ParameterizedType builderType;
     final BuilderFactory builderFactory;
     final MergeBuilderMethod mergeFromBuilderMethod;
+    /** Whether the nested builder's build() returns the same value until it is modified. */
+    final boolean buildMemoized;
+    final boolean overridesSetter;
 
     CodeGenerator(
         Metadata metadata,
         Property property,
         ParameterizedType builderType,
         BuilderFactory builderFactory,
-        MergeBuilderMethod mergeFromBuilderMethod) {
+        MergeBuilderMethod mergeFromBuilderMethod,
+        boolean buildMemoized,
+        boolean overridesSetter) {
       super(metadata, property);
       this.builderType = builderType;
       this.builderFactory = builderFactory;
       this.mergeFromBuilderMethod = mergeFromBuilderMethod;
+      this.buildMemoized = buildMemoized;
+      this.overridesSetter = overridesSetter;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
-      code.addLine("final %s %s = %s;",
-          builderType, property.getName(), builderFactory.newBuilder(builderType, INFERRED_TYPES));
+      // Holds either a built value or a builder, so values passed to the setter are only copied
+      // into a builder if one is needed. Null until first set.
+      code.addLine("%s %s = null;", Object.class, property.getName());
     }
 
     @Override
@@ -191,11 +225,17 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
               setter(property),
               property.getType(),
               property.getName())
-          .addLine("  this.%s.clear();", property.getName())
-          .addLine("  this.%1$s.mergeFrom(%2$s.checkNotNull(%1$s));",
-              property.getName(), Preconditions.class)
+          .add(checkNotNullPreamble(property.getName()))
+          .addLine("  if (this.%s instanceof %s) {",
+              property.getName(), builderType.getQualifiedName())
+          .addLine("    // Keep any builder returned by %s up to date", getBuilderMethod(property))
+          .addLine("    %s builder = (%s) this.%s;", builderType, builderType, property.getName())
+          .addLine("    builder.clear();")
+          .addLine("    builder.mergeFrom(%s);", checkNotNullInline(property.getName()))
+          .addLine("  } else {")
+          .addLine("    this.%1$s = %2$s;", property.getName(), checkNotNullInline(property.getName()))
+          .addLine("  }")
           .addLine("  return getThisBuilder();")
-          //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
     }
 
@@ -209,7 +249,7 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * @throws NullPointerException if {@code builder} is null")
           .addLine(" */")
           .addLine("public %s %s(%s builder) {",
-              metadata.getBuilder(),
+              metadata.getBuildGen(),
               setter(property),
               builderType)
           .addLine("  return %s(builder.build());", setter(property))
@@ -238,7 +278,7 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
               mutator(property),
               consumer.getQualifiedName(),
               builderType)
-          .addLine("  mutator.accept(%s);", property.getName())
+          .addLine("  mutator.accept(%s());", getBuilderMethod(property))
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
@@ -249,29 +289,62 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine("/**")
           .addLine(" * Returns a builder for the value that will be returned by %s.",
               metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
-          .addLine(" */")
-          .addLine("public %s %s() {", builderType, getBuilderMethod(property))
-          .addLine("  return %s;", property.getName())
+          .addLine(" */");
+      if (builderType.isParameterized()) {
+        code.addLine("@%s(\"unchecked\")", SuppressWarnings.class);
+      }
+      code.addLine("public %s %s() {", builderType, getBuilderMethod(property))
+          .addLine("  if (!(this.%s instanceof %s)) {",
+              property.getName(), builderType.getQualifiedName())
+          .addLine("    %s builder = %s;",
+              builderType, builderFactory.newBuilder(builderType, INFERRED_TYPES))
+          .addLine("    if (this.%s != null) {", property.getName())
+          .addLine("      builder.mergeFrom((%s) this.%s);", property.getType(), property.getName())
+          .addLine("    }")
+          .addLine("    this.%s = builder;", property.getName())
+          .addLine("  }")
+          .addLine("  return (%s) this.%s;", builderType, property.getName())
           .addLine("}");
     }
 
     @Override
     public void addFinalFieldAssignment(SourceBuilder code, String finalField, String builder) {
-      code.addLine("%s = %s.%s.build();", finalField, builder, property.getName());
+      addFieldAssignment(code, finalField, builder, "build");
     }
 
     @Override
     public void addPartialFieldAssignment(SourceBuilder code, String finalField, String builder) {
-      code.addLine("%s = %s.%s.buildPartial();", finalField, builder, property.getName());
+      addFieldAssignment(code, finalField, builder, "buildPartial");
+    }
+
+    private void addFieldAssignment(
+        SourceBuilder code, String finalField, String builder, String buildMethod) {
+      // Reuse a value that was set directly, rather than round-tripping it through a builder. An
+      // unset property is built from a local builder, so building never modifies the builder.
+      code.addLine("if (%s.%s == null) {", builder, property.getName())
+          .addLine("  %s = %s.%s();",
+              finalField, builderFactory.newBuilder(builderType, EXPLICIT_TYPES), buildMethod)
+          .addLine("} else if (%s.%s instanceof %s) {",
+              builder, property.getName(), builderType.getQualifiedName())
+          .addLine("  %s = ((%s) %s.%s).%s();",
+              finalField, builderType, builder, property.getName(), buildMethod)
+          .addLine("} else {")
+          .addLine("  %s = (%s) %s.%s;", finalField, property.getType(), builder, property.getName())
+          .addLine("}");
     }
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      String propertyName = property.getName();
-      if (propertyName.equals(value)) {
-        propertyName = "this." + propertyName;  // see issue #78
-      }
-      code.addLine("%s.mergeFrom(%s.%s());", propertyName, value, property.getGetterName());
+      addMergeValue(code, Excerpts.add("%s.%s()", value, property.getGetterName()));
+    }
+
+    /** Merges {@code value}, storing it directly if no value has been set yet. */
+    private void addMergeValue(Block code, Excerpt value) {
+      code.addLine("if (this.%s == null) {", property.getName())
+          .addLine("  this.%s = %s;", property.getName(), value)
+          .addLine("} else {")
+          .addLine("  %s().mergeFrom(%s);", getBuilderMethod(property), value)
+          .addLine("}");
     }
 
     @Override
@@ -281,11 +354,23 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      String propertyName = property.getName();
-      if (propertyName.equals(builder)) {
-        propertyName = "this." + propertyName;  // see issue #78
+      Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+      Excerpt source = Excerpts.add("(%s) %s.%s", builderType, base, property.getName());
+      if (mergeFromBuilderMethod == MergeBuilderMethod.BUILD_PARTIAL_AND_MERGE) {
+        source = Excerpts.add("(%s).buildPartial()", source);
       }
-      code.add("%s.mergeFrom(%s.%s()", propertyName, builder, getBuilderMethod(property));
+      code.addLine("if (%s.%s instanceof %s) {",
+              base, property.getName(), builderType.getQualifiedName())
+          .addLine("  %s().mergeFrom(%s);", getBuilderMethod(property), source)
+          .addLine("} else if (%s.%s != null) {", base, property.getName());
+      addMergeValue(code, Excerpts.add("(%s) %s.%s", property.getType(), base, property.getName()));
+      code.addLine("}");
+    }
+
+    @Override
+    public void addMergeFromSuperBuilder(Block code, String builder) {
+      code.add("%s().mergeFrom(%s.%s()",
+          getBuilderMethod(property), builder, getBuilderMethod(property));
       if (mergeFromBuilderMethod == MergeBuilderMethod.BUILD_PARTIAL_AND_MERGE) {
         code.add(".buildPartial()");
       }
@@ -293,8 +378,27 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
     }
 
     @Override
-    public void addMergeFromSuperBuilder(Block code, String builder) {
-      addMergeFromBuilder(code, builder);
+    public Optional<Excerpt> changedSinceBuild(String built) {
+      // A nested builder may have been modified directly. If it memoizes its own build method,
+      // checking it is cheap; otherwise, assume it has changed. The setter and clear() keep
+      // the nested builder, as callers may still hold it, so this holds until it is discarded.
+      Excerpt isBuilder = Excerpts.add("%s instanceof %s",
+          property.getName(), builderType.getQualifiedName());
+      if (!buildMemoized) {
+        return Optional.of(isBuilder);
+      }
+      return Optional.of(Excerpts.add("(%s && !((%s) %s).build().equals(%s.%s()))",
+          isBuilder, builderType, property.getName(), built, property.getGetterName()));
+    }
+
+    @Override
+    public boolean isWitherDirect() {
+      return !overridesSetter;
+    }
+
+    @Override
+    public void addWitherPreconditions(SourceBuilder code, String variable) {
+      code.add(checkNotNull(variable));
     }
 
     @Override
@@ -304,7 +408,11 @@ public class BuildablePropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addClearField(Block code) {
-      code.addLine("%s.clear();", property.getName());
+      code.addLine("if (%s instanceof %s) {", property.getName(), builderType.getQualifiedName())
+          .addLine("  ((%s) %s).clear();", builderType, property.getName())
+          .addLine("} else {")
+          .addLine("  %s = null;", property.getName())
+          .addLine("}");
     }
   }
 
@@ -73,6 +73,10 @@ public class BuilderMethods {
     return "mutate" + property.getCapitalizedName();
   }
 
+  public static String ensureCapacityMethod(Property property) {
+    return "ensure" + property.getCapitalizedName() + "Capacity";
+  }
+
   public static String clearMethod(Property property) {
     return "clear" + property.getCapitalizedName();
   }
@@ -81,5 +85,10 @@ public class BuilderMethods {
     return "isProperty" + property.getCapitalizedName() + "Set";
   }
 
+  /** Returns the name of the value type's copy-on-write method, e.g. withMyProperty. */
+  public static String wither(Property property) {
+    return "with" + property.getCapitalizedName();
+  }
+
   private BuilderMethods() {}
 }
@@ -16,6 +16,7 @@
 package com.enigmabridge.ebuilder.processor;
 
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.isPropertySetMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.wither;
 import static com.google.common.collect.Iterables.any;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -24,17 +25,19 @@ import static com.enigmabridge.ebuilder.processor.BuilderFactory.TypeInference.E
 import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.util.*;
 import com.enigmabridge.ebuilder.processor.util.feature.GuavaLibrary;
-import com.enigmabridge.ebuilder.processor.util.feature.SourceLevel;
 import com.enigmabridge.ebuilder.processor.Metadata.Property;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 
+import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.EqualsCost;
 import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.Type;
 
 import java.io.Serializable;
@@ -47,6 +50,7 @@ import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
 import com.enigmabridge.ebuilder.processor.util.ParameterizedType;
 import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -149,7 +153,7 @@ public class CodeGenerator {
     final Optional<ParameterizedType> optionalABuilderExtension = metadata.getOptionalABuilderExtension();
     Excerpt extendsWhat = optionalABuilderExtension.isPresent() ?
             optionalABuilderExtension.get().fullDeclaration() :
-            metadata.getGeneratedABuilderParametrizedSpec().declaration();
+            metadata.getGeneratedABuilderParametrizedSpec();
 
     code.add("abstract class %s extends %s",
             metadata.getGeneratedBuilder().declaration(),
@@ -191,11 +195,37 @@ public class CodeGenerator {
       codeGenerator.addBuilderFieldDeclaration(code);
     }
     // Unset properties
-    if (any(metadata.getProperties(), IS_REQUIRED)) {
-      code.addLine("final %s<%s> _unsetProperties =",
-              EnumSet.class, metadata.getPropertyEnum())
-          .addLine("    %s.allOf(%s.class);", EnumSet.class, metadata.getPropertyEnum());
+    long[] unsetProperties = unsetPropertiesMasks(metadata);
+    for (int i = 0; i < unsetProperties.length; i++) {
+      code.addLine("long %s = %s;",
+          UnsetProperties.field(i), UnsetProperties.literal(unsetProperties[i]));
+    }
+  }
+
+  /**
+   * Returns the initial values of the fields tracking unset required properties, one per field.
+   * Trailing fields with no required properties are omitted.
+   */
+  private static long[] unsetPropertiesMasks(Metadata metadata) {
+    long[] masks = new long[UnsetProperties.fieldCount(metadata)];
+    int fieldCount = 0;
+    for (Metadata.Property property : metadata.getProperties()) {
+      if (IS_REQUIRED.apply(property)) {
+        int field = UnsetProperties.fieldIndex(metadata, property);
+        masks[field] |= UnsetProperties.bit(metadata, property);
+        fieldCount = Math.max(fieldCount, field + 1);
+      }
     }
+    return Arrays.copyOf(masks, fieldCount);
+  }
+
+  /** Returns the names of the fields tracking unset required properties. */
+  private static List<String> unsetPropertiesFields(Metadata metadata) {
+    ImmutableList.Builder<String> fields = ImmutableList.builder();
+    for (int i = 0; i < unsetPropertiesMasks(metadata).length; i++) {
+      fields.add(UnsetProperties.field(i));
+    }
+    return fields.build();
   }
 
   private static void addBuilderConstructor(SourceBuilder code, Metadata metadata) {
@@ -237,6 +267,16 @@ public class CodeGenerator {
         .addLine(" */")
         .addLine("protected abstract %s getNewBuilder();", metadata.getBuildGen());
 
+    code.addLine("")
+        .addLine("/**")
+        .addLine(" * Abstract method returns a shared builder instance of the high type holding")
+        .addLine(" * the default values. It is used instead of {@link #getNewBuilder()} to detect")
+        .addLine(" * default values when merging and clearing, and must never be modified.")
+        .addLine(" * ")
+        .addLine(" * @return a {@code %s} object holding the default values", metadata.getBuildGen())
+        .addLine(" */")
+        .addLine("protected abstract %s getDefaultsBuilder();", metadata.getBuildGen());
+
     code.addLine("")
         .addLine("/**")
         .addLine(" * Method for setting default values to builder properties.")
@@ -253,14 +293,23 @@ public class CodeGenerator {
   }
 
   private static void addAbstractMethodsImpl(SourceBuilder code, Metadata metadata) {
+    if (metadata.isBuildMemoized()) {
+      code.addLine("")
+          .addLine("/** The value last returned by {@link #build()}, if unmodified since. */")
+          .addLine("private transient %s %s;", metadata.getType(), BUILT_FIELD);
+    }
     code.addLine("")
         .addLine("/**")
         .addLine(" * Returns this builder object as a top-level {@link %s} builder ", metadata.getBuilder())
         .addLine(" * class extending this abstract class {@link %s}.", metadata.getGeneratedBuilder())
         .addLine(" */")
         .addLine("@Override")
-        .addLine("protected %s getThisBuilder() {", metadata.getBuilder())
-        .addLine("  return (%s)this;", metadata.getBuilder())
+        .addLine("protected %s getThisBuilder() {", metadata.getBuilder());
+    if (metadata.isBuildMemoized()) {
+      code.addLine("  // Every builder method that modifies the builder returns through here")
+          .addLine("  %s = null;", BUILT_FIELD);
+    }
+    code.addLine("  return (%s)this;", metadata.getBuilder())
         .addLine("}")
         .addLine("");
 
@@ -275,12 +324,14 @@ public class CodeGenerator {
         .addLine("protected %s getNewBuilder() {", metadata.getBuilder());
 
     if (builderFactory == null) {
-      code.addLine("  throw new IllegalStateException(\"Abstract builder cannot be instantianted\");");
+      code.addLine("  throw new IllegalStateException(\"Abstract builder cannot be instantiated\");");
     } else {
       code.addLine("  return %s;", builderFactory.newBuilder(metadata.getBuilder(), EXPLICIT_TYPES));
     }
     code.addLine("}");
 
+    addDefaultsBuilderMethod(code, metadata);
+
     code.addLine("")
         .addLine("/**")
         .addLine(" * Initializes the builder object with default values.")
@@ -293,6 +344,49 @@ public class CodeGenerator {
         .addLine("}");
   }
 
+  private static void addDefaultsBuilderMethod(SourceBuilder code, Metadata metadata) {
+    BuilderFactory builderFactory = metadata.getBuilderFactory().orNull();
+    if (builderFactory == null) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Abstract builders have no default values to share.")
+          .addLine(" */")
+          .addLine("@Override")
+          .addLine("protected %s getDefaultsBuilder() {", metadata.getBuilder())
+          .addLine("  throw new IllegalStateException(\"Abstract builder cannot be instantiated\");")
+          .addLine("}");
+      return;
+    }
+    // A single instance is shared by all builders of this type. It is published through a
+    // volatile field once fully constructed; racing threads may each create one, which is
+    // harmless as it is never modified.
+    ParameterizedType sharedType = metadata.getBuilder().withWildcards();
+    code.addLine("")
+        .addLine("private static volatile %s _defaultsBuilder;", sharedType)
+        .addLine("")
+        .addLine("/**")
+        .addLine(" * Returns a builder holding the default values, created on first use and then")
+        .addLine(" * shared by all {@link %s} instances. Used for default value detection.",
+            metadata.getBuilder().getQualifiedName())
+        .addLine(" */")
+        .addLine("@Override");
+    if (metadata.getBuilder().isParameterized()) {
+      code.addLine("@SuppressWarnings(\"unchecked\")");
+    }
+    code.addLine("protected %s getDefaultsBuilder() {", metadata.getBuilder())
+        .addLine("  %s defaults = _defaultsBuilder;", sharedType)
+        .addLine("  if (defaults == null) {")
+        .addLine("    defaults = getNewBuilder();")
+        .addLine("    _defaultsBuilder = defaults;")
+        .addLine("  }");
+    if (metadata.getBuilder().isParameterized()) {
+      code.addLine("  return (%s) defaults;", metadata.getBuilder());
+    } else {
+      code.addLine("  return defaults;");
+    }
+    code.addLine("}");
+  }
+
   private static void addAccessors(Metadata metadata, SourceBuilder body) {
     for (Metadata.Property property : metadata.getProperties()) {
       property.getCodeGenerator().addBuilderFieldAccessors(body);
@@ -305,6 +399,11 @@ public class CodeGenerator {
         .addLine("/**")
         .addLine(" * Returns a newly-created %s based on the contents of the {@code %s}.",
             metadata.getType().javadocLink(), metadata.getBuilder().getSimpleName());
+    if (metadata.isBuildMemoized()) {
+      code.addLine(" * If the {@code %s} has not been modified since the last call, the same",
+              metadata.getBuilder().getSimpleName())
+          .addLine(" * instance is returned again.");
+    }
     if (hasRequiredProperties) {
       code.addLine(" *")
           .addLine(" * @throws IllegalStateException if any field has not been set");
@@ -312,11 +411,29 @@ public class CodeGenerator {
     code.addLine(" */")
         .addLine("public %s build() {", metadata.getType());
     if (hasRequiredProperties) {
-      code.add(PreconditionExcerpts.checkState(
-          "_unsetProperties.isEmpty()", "Not set: %s", "_unsetProperties"));
+      List<String> unsetProperties = unsetPropertiesFields(metadata);
+      code.addLine("  if (%s) {", Joiner.on(" || ").join(
+              Lists.transform(unsetProperties, IS_NON_ZERO)))
+          .addLine("    throw new %s(\"Not set: \" + %s.unset(%s));",
+              IllegalStateException.class,
+              metadata.getPropertyEnum(),
+              Joiner.on(", ").join(unsetProperties))
+          .addLine("  }");
     }
-    code.addLine("  return %s(this);", metadata.getValueType().constructor())
-        .addLine("}");
+    if (metadata.isBuildMemoized()) {
+      List<Excerpt> changed = Lists.newArrayList();
+      changed.add(Excerpts.add("%s == null", BUILT_FIELD));
+      for (Metadata.Property property : metadata.getProperties()) {
+        changed.addAll(property.getCodeGenerator().changedSinceBuild(BUILT_FIELD).asSet());
+      }
+      code.addLine("  if (%s) {", Excerpts.join(" || ", changed))
+          .addLine("    %s = %s(this);", BUILT_FIELD, metadata.getValueType().constructor())
+          .addLine("  }")
+          .addLine("  return %s;", BUILT_FIELD);
+    } else {
+      code.addLine("  return %s(this);", metadata.getValueType().constructor());
+    }
+    code.addLine("}");
   }
 
   private static void addMergeFromValueMethod(SourceBuilder code, Metadata metadata) {
@@ -408,14 +525,15 @@ public class CodeGenerator {
     for (PropertyCodeGenerator codeGenerator : codeGenerators) {
       codeGenerator.addClearField(body);
     }
-    code.add(body);
     if (any(metadata.getProperties(), IS_REQUIRED)) {
       Optional<Excerpt> defaults = Declarations.freshBuilder(body, metadata);
       if (defaults.isPresent()) {
-        code.addLine("  _unsetProperties.clear();")
-            .addLine("  _unsetProperties.addAll(%s._unsetProperties);", defaults.get());
+        for (String unsetProperties : unsetPropertiesFields(metadata)) {
+          body.addLine("%1$s = %2$s.%1$s;", unsetProperties, defaults.get());
+        }
       }
     }
+    code.add(body);
     code.addLine("  return getThisBuilder();")
       //.addLine("  return (%s) this;", metadata.getBuilder())
         .addLine("}");
@@ -439,8 +557,7 @@ public class CodeGenerator {
                   property.getGetterName()))
           .addLine(" */")
           .addLine("public boolean %s() {", isPropertySetMethod(property))
-          .addLine("  return _unsetProperties.contains(%s.%s);",
-                  metadata.getPropertyEnum(), property.getAllCapsName())
+          .addLine("  return %s;", UnsetProperties.isSet(metadata, property))
           .addLine("}");
     }
   }
@@ -473,16 +590,41 @@ public class CodeGenerator {
         .addLine("enum %s {", metadata.getPropertyEnum().getSimpleName());
     for (Metadata.Property property : metadata.getProperties()) {
       if (property.getCodeGenerator().getType() == Type.REQUIRED) {
-        code.addLine("  %s(\"%s\"),", property.getAllCapsName(), property.getName());
+        code.addLine("  %s(\"%s\", %s, %s),",
+            property.getAllCapsName(),
+            property.getName(),
+            UnsetProperties.fieldIndex(metadata, property),
+            UnsetProperties.literal(UnsetProperties.bit(metadata, property)));
       }
     }
     code.addLine("  ;")
         .addLine("")
         .addLine("  final %s name;", String.class)
+        .addLine("  final int field;")
+        .addLine("  final long mask;")
         .addLine("")
-        .addLine("  %s(%s name) {",
+        .addLine("  %s(%s name, int field, long mask) {",
             metadata.getPropertyEnum().getSimpleName(), String.class)
         .addLine("    this.name = name;")
+        .addLine("    this.field = field;")
+        .addLine("    this.mask = mask;")
+        .addLine("  }")
+        .addLine("")
+        .addLine("  /**")
+        .addLine("   * Returns the properties marked as unset in the given tracking fields.")
+        .addLine("   * Only used when reporting errors.")
+        .addLine("   */")
+        .addLine("  static %1$s<%2$s> unset(long... unsetProperties) {",
+            EnumSet.class, metadata.getPropertyEnum().getSimpleName())
+        .addLine("    %1$s<%2$s> result = %1$s.noneOf(%2$s.class);",
+            EnumSet.class, metadata.getPropertyEnum().getSimpleName())
+        .addLine("    for (%1$s property : %1$s.values()) {",
+            metadata.getPropertyEnum().getSimpleName())
+        .addLine("      if ((unsetProperties[property.field] & property.mask) != 0) {")
+        .addLine("        result.add(property);")
+        .addLine("      }")
+        .addLine("    }")
+        .addLine("    return result;")
         .addLine("  }")
         .addLine("")
         .addLine("  @%s public %s toString() {", Override.class, String.class)
@@ -504,6 +646,9 @@ public class CodeGenerator {
     for (Metadata.Property property : metadata.getProperties()) {
       property.getCodeGenerator().addValueFieldDeclaration(code, property.getName());
     }
+    if (isHashCodeCached(metadata)) {
+      code.addLine("  private transient int %s;", HASH_CODE_FIELD);
+    }
     // Constructor
     code.addLine("")
         .addLine("  private %s(%s builder) {",
@@ -526,6 +671,8 @@ public class CodeGenerator {
       code.add(";\n");
       code.addLine("  }");
     }
+    // Withers
+    addValueTypeWithers(code, metadata);
     // Equals
     switch (metadata.standardMethodUnderride(Metadata.StandardMethod.EQUALS)) {
       case ABSENT:
@@ -547,17 +694,28 @@ public class CodeGenerator {
         break;
     }
     // Hash code
-    if (metadata.standardMethodUnderride(Metadata.StandardMethod.HASH_CODE) == Metadata.UnderrideLevel.ABSENT) {
-      String properties = Joiner.on(", ").join(getNames(metadata.getProperties()));
+    if (isHashCodeCached(metadata)) {
+      // Racy single-check: the computation is idempotent, so a lost update only costs a recompute.
+      code.addLine("")
+          .addLine("  @%s", Override.class)
+          .addLine("  public int hashCode() {")
+          .addLine("    int result = %s;", HASH_CODE_FIELD)
+          .addLine("    if (result == 0) {")
+          .addLine("      result = %s();", COMPUTE_HASH_CODE_METHOD)
+          .addLine("      %s = result;", HASH_CODE_FIELD)
+          .addLine("    }")
+          .addLine("    return result;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  private int %s() {", COMPUTE_HASH_CODE_METHOD);
+      addHashCodeBody(code, metadata.getProperties(), IS_OPTIONAL, ImmutableList.<String>of());
+      code.addLine("  }");
+    } else if (metadata.standardMethodUnderride(Metadata.StandardMethod.HASH_CODE)
+        == Metadata.UnderrideLevel.ABSENT) {
       code.addLine("")
           .addLine("  @%s", Override.class)
           .addLine("  public int hashCode() {");
-      if (code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().isPresent()) {
-        code.addLine("    return %s.hash(%s);",
-            code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().get(), properties);
-      } else {
-        code.addLine("    return %s.hashCode(new Object[] { %s });", Arrays.class, properties);
-      }
+      addHashCodeBody(code, metadata.getProperties(), IS_OPTIONAL, ImmutableList.<String>of());
       code.addLine("  }");
     }
     // toString
@@ -572,48 +730,121 @@ public class CodeGenerator {
     code.addLine("")
         .addLine("  @%s", Override.class)
         .addLine("  public boolean equals(Object obj) {")
+        .addLine("    if (obj == this) {")
+        .addLine("      return true;")
+        .addLine("    }")
         .addLine("    if (!(obj instanceof %s)) {", metadata.getValueType().getQualifiedName())
         .addLine("      return false;")
         .addLine("    }")
         .addLine("    %1$s other = (%1$s) obj;", metadata.getValueType().withWildcards());
-    if (metadata.getProperties().isEmpty()) {
-      code.addLine("    return true;");
-    } else if (code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().isPresent()) {
-      String prefix = "    return ";
-      for (Metadata.Property property : metadata.getProperties()) {
-        code.add(prefix);
-        code.add("%1$s.equals(%2$s, other.%2$s)",
-            code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().get(), property.getName());
-        prefix = "\n        && ";
-      }
-      code.add(";\n");
-    } else {
-      for (Metadata.Property property : metadata.getProperties()) {
-        switch (property.getType().getKind()) {
-          case FLOAT:
-          case DOUBLE:
-            code.addLine("    if (%s.doubleToLongBits(%s)", Double.class, property.getName())
-                .addLine("        != %s.doubleToLongBits(other.%s)) {",
-                    Double.class, property.getName());
-            break;
+    if (isHashCodeCached(metadata)) {
+      code.addLine("    if (%1$s != 0 && other.%1$s != 0 && %1$s != other.%1$s) {", HASH_CODE_FIELD)
+          .addLine("      return false;")
+          .addLine("    }");
+    }
+    for (Metadata.Property property : BY_EQUALS_COST.sortedCopy(metadata.getProperties())) {
+      addFieldEqualsCheck(code, property, IS_OPTIONAL.apply(property));
+    }
+    code.addLine("    return true;")
+        .addLine("  }");
+  }
 
-          default:
-            if (property.getType().getKind().isPrimitive()) {
-              code.addLine("    if (%1$s != other.%1$s) {", property.getName());
-            } else if (property.getCodeGenerator().getType() == Type.OPTIONAL) {
-              code.addLine("    if (%1$s != other.%1$s", property.getName())
-                  .addLine("        && (%1$s == null || !%1$s.equals(other.%1$s))) {",
-                      property.getName());
-            } else {
-              code.addLine("    if (!%1$s.equals(other.%1$s)) {", property.getName());
-            }
+  /**
+   * Returns whether the value type should cache its hash code. Only honoured if the user has
+   * not supplied their own hashCode implementation.
+   */
+  private static boolean isHashCodeCached(Metadata metadata) {
+    return metadata.isHashCodeCached()
+        && metadata.standardMethodUnderride(Metadata.StandardMethod.HASH_CODE)
+            == Metadata.UnderrideLevel.ABSENT;
+  }
+
+  /**
+   * Adds an if-block returning false if {@code property} differs between {@code this} and
+   * {@code other}. Primitives are compared directly, so no values are boxed.
+   */
+  private static void addFieldEqualsCheck(
+      SourceBuilder code, Metadata.Property property, boolean nullable) {
+    switch (property.getType().getKind()) {
+      case FLOAT:
+        code.addLine("    if (%s.floatToIntBits(%s)", Float.class, property.getName())
+            .addLine("        != %s.floatToIntBits(other.%s)) {", Float.class, property.getName());
+        break;
+
+      case DOUBLE:
+        code.addLine("    if (%s.doubleToLongBits(%s)", Double.class, property.getName())
+            .addLine("        != %s.doubleToLongBits(other.%s)) {",
+                Double.class, property.getName());
+        break;
+
+      default:
+        if (property.getType().getKind().isPrimitive()) {
+          code.addLine("    if (%1$s != other.%1$s) {", property.getName());
+        } else if (nullable) {
+          code.addLine("    if (%1$s != other.%1$s", property.getName())
+              .addLine("        && (%1$s == null || !%1$s.equals(other.%1$s))) {",
+                  property.getName());
+        } else {
+          code.addLine("    if (!%1$s.equals(other.%1$s)) {", property.getName());
         }
-        code.addLine("      return false;")
-            .addLine("    }");
+    }
+    code.addLine("      return false;")
+        .addLine("    }");
+  }
+
+  /**
+   * Adds a hashCode implementation combining {@code properties} and the {@code long} fields
+   * {@code extraLongFields}. The result matches {@code Arrays.hashCode} over the boxed values,
+   * but is computed inline without allocating.
+   */
+  private static void addHashCodeBody(
+      SourceBuilder code,
+      Iterable<Metadata.Property> properties,
+      Predicate<Metadata.Property> nullable,
+      Iterable<String> extraLongFields) {
+    code.addLine("    int result = 1;");
+    for (Metadata.Property property : properties) {
+      code.add("    result = 31 * result + ");
+      String name = property.getName();
+      switch (property.getType().getKind()) {
+        case BOOLEAN:
+          code.add("(%s ? 1231 : 1237)", name);
+          break;
+
+        case BYTE:
+        case SHORT:
+        case CHAR:
+        case INT:
+          code.add("%s", name);
+          break;
+
+        case LONG:
+          code.add("(int) (%1$s ^ (%1$s >>> 32))", name);
+          break;
+
+        case FLOAT:
+          code.add("%s.floatToIntBits(%s)", Float.class, name);
+          break;
+
+        case DOUBLE:
+          code.add("(int) (%1$s.doubleToLongBits(%2$s) ^ (%1$s.doubleToLongBits(%2$s) >>> 32))",
+              Double.class, name);
+          break;
+
+        default:
+          if (nullable.apply(property)) {
+            code.add("(%1$s == null ? 0 : %1$s.hashCode())", name);
+          } else {
+            code.add("%s.hashCode()", name);
+          }
+          break;
       }
-      code.addLine("    return true;");
+      code.add(";\n");
     }
-    code.addLine("  }");
+    for (String field : extraLongFields) {
+      code.addLine("    result = 31 * result + (int) (%1$s ^ (%1$s >>> 32));", field);
+    }
+    code.addLine("    return result;");
   }
 
   private static void addValueTypeToString(SourceBuilder code, Metadata metadata) {
@@ -682,8 +913,100 @@ public class CodeGenerator {
     code.addLine("  }");
   }
 
+  private static void addValueTypeWithers(SourceBuilder code, Metadata metadata) {
+    List<Metadata.Property> withers = new ArrayList<Metadata.Property>();
+    boolean anyDirect = false;
+    for (Metadata.Property property : metadata.getProperties()) {
+      if (property.isWitherDeclared()) {
+        withers.add(property);
+        anyDirect |= isWitherDirect(metadata, property);
+      }
+    }
+    if (withers.isEmpty()) {
+      return;
+    }
+    if (anyDirect) {
+      // Used by withX methods to copy the other fields without going through a builder
+      code.addLine("")
+          .add("  private %s(", metadata.getValueType().getSimpleName());
+      String separator = "";
+      for (Metadata.Property property : metadata.getProperties()) {
+        code.add("%s%s %s", separator, property.getCodeGenerator().getValueFieldType(),
+            property.getName());
+        separator = ", ";
+      }
+      code.add(") {\n");
+      for (Metadata.Property property : metadata.getProperties()) {
+        code.addLine("    this.%1$s = %1$s;", property.getName());
+      }
+      code.addLine("  }");
+    }
+    for (Metadata.Property changed : withers) {
+      PropertyCodeGenerator codeGenerator = changed.getCodeGenerator();
+      code.addLine("")
+          .addLine("  @%s", Override.class)
+          .addLine("  public %s %s(%s %s) {",
+              metadata.getType(), wither(changed), changed.getType(), changed.getName());
+      if (isWitherDirect(metadata, changed)) {
+        codeGenerator.addWitherPreconditions(code, changed.getName());
+        code.add("    return %s(", metadata.getValueType().constructor());
+        String separator = "";
+        for (Metadata.Property property : metadata.getProperties()) {
+          code.add(separator);
+          if (property.getName().equals(changed.getName())) {
+            code.add("%s", property.getName());
+          } else {
+            code.add("this.%s", property.getName());
+          }
+          separator = ", ";
+        }
+        code.add(");\n");
+      } else {
+        // Go through the builder so that setter and build() overrides can validate the new value
+        addWitherThroughBuilder(code, metadata, changed, false);
+      }
+      code.addLine("  }");
+    }
+  }
+
+  /**
+   * Returns whether the {@code withX} method for {@code property} can call the value constructor
+   * directly. Otherwise it must go through the builder, as the user's Builder overrides build() or
+   * the property's setter.
+   */
+  private static boolean isWitherDirect(Metadata metadata, Metadata.Property property) {
+    return !metadata.isBuildOverridden() && property.getCodeGenerator().isWitherDirect();
+  }
+
+  /**
+   * Adds the body of a {@code withX} method that copies every property into a fresh builder,
+   * replacing {@code changed}. Partial values skip required properties that are still unset, and
+   * are rebuilt with buildPartial.
+   */
+  private static void addWitherThroughBuilder(
+      SourceBuilder code, Metadata metadata, Metadata.Property changed, boolean partial) {
+    // The Analyser rejects withers on types that have no builder factory
+    BuilderFactory builderFactory = metadata.getBuilderFactory().get();
+    code.addLine("    %s builder = %s;",
+        metadata.getBuilder(),
+        builderFactory.newBuilder(metadata.getBuilder(), EXPLICIT_TYPES));
+    for (Metadata.Property property : metadata.getProperties()) {
+      if (property.getName().equals(changed.getName())) {
+        property.getCodeGenerator().addSetFromResult(code, "builder", property.getName());
+      } else if (partial && property.getCodeGenerator().getType() == Type.REQUIRED) {
+        code.addLine("    if (%s) {", UnsetProperties.isSet(metadata, property));
+        property.getCodeGenerator()
+            .addSetFromResult(code, "builder", property.getGetterName() + "()");
+        code.addLine("    }");
+      } else {
+        property.getCodeGenerator()
+            .addSetFromResult(code, "builder", property.getGetterName() + "()");
+      }
+    }
+    code.addLine("    return builder.%s();", partial ? "buildPartial" : "build");
+  }
+
   private static void addPartialType(SourceBuilder code, Metadata metadata) {
-    boolean hasRequiredProperties = any(metadata.getProperties(), IS_REQUIRED);
     code.addLine("")
         .addLine("private static final class %s %s {",
             metadata.getPartialType().declaration(),
@@ -692,9 +1015,9 @@ public class CodeGenerator {
     for (Metadata.Property property : metadata.getProperties()) {
       property.getCodeGenerator().addValueFieldDeclaration(code, property.getName());
     }
-    if (hasRequiredProperties) {
-      code.addLine("  private final %s<%s> _unsetProperties;",
-          EnumSet.class, metadata.getPropertyEnum());
+    List<String> unsetProperties = unsetPropertiesFields(metadata);
+    for (String unsetField : unsetProperties) {
+      code.addLine("  private final long %s;", unsetField);
     }
     // Constructor
     code.addLine("")
@@ -705,8 +1028,8 @@ public class CodeGenerator {
       property.getCodeGenerator()
           .addPartialFieldAssignment(code, "this." + property.getName(), "builder");
     }
-    if (hasRequiredProperties) {
-      code.addLine("    this._unsetProperties = builder._unsetProperties.clone();");
+    for (String unsetField : unsetProperties) {
+      code.addLine("    this.%1$s = builder.%1$s;", unsetField);
     }
     code.addLine("  }");
     // Getters
@@ -717,8 +1040,7 @@ public class CodeGenerator {
       property.getCodeGenerator().addGetterAnnotations(code);
       code.addLine("  public %s %s() {", property.getType(), property.getGetterName());
       if (property.getCodeGenerator().getType() == Type.REQUIRED) {
-        code.addLine("    if (_unsetProperties.contains(%s.%s)) {",
-                metadata.getPropertyEnum(), property.getAllCapsName())
+        code.addLine("    if (%s) {", UnsetProperties.isUnset(metadata, property))
             .addLine("      throw new %s(\"%s not set\");",
                 UnsupportedOperationException.class, property.getName())
             .addLine("    }");
@@ -728,82 +1050,47 @@ public class CodeGenerator {
       code.add(";\n");
       code.addLine("  }");
     }
+    // Withers
+    for (Metadata.Property property : metadata.getProperties()) {
+      if (property.isWitherDeclared()) {
+        code.addLine("")
+            .addLine("  @%s", Override.class)
+            .addLine("  public %s %s(%s %s) {",
+                metadata.getType(), wither(property), property.getType(), property.getName());
+        addWitherThroughBuilder(code, metadata, property, true);
+        code.addLine("  }");
+      }
+    }
     // Equals
     if (metadata.standardMethodUnderride(Metadata.StandardMethod.EQUALS) != Metadata.UnderrideLevel.FINAL) {
       code.addLine("")
           .addLine("  @%s", Override.class)
           .addLine("  public boolean equals(Object obj) {")
+          .addLine("    if (obj == this) {")
+          .addLine("      return true;")
+          .addLine("    }")
           .addLine("    if (!(obj instanceof %s)) {", metadata.getPartialType().getQualifiedName())
           .addLine("      return false;")
           .addLine("    }")
           .addLine("    %1$s other = (%1$s) obj;", metadata.getPartialType().withWildcards());
-      if (metadata.getProperties().isEmpty()) {
-        code.addLine("    return true;");
-      } else if (code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().isPresent()) {
-        String prefix = "    return ";
-        for (Metadata.Property property : metadata.getProperties()) {
-          code.add(prefix);
-          code.add("%1$s.equals(%2$s, other.%2$s)",
-              code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().get(), property.getName());
-          prefix = "\n        && ";
-        }
-        if (hasRequiredProperties) {
-          code.add(prefix);
-          code.add("%1$s.equals(_unsetProperties, other._unsetProperties)",
-              code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().get());
-        }
-        code.add(";\n");
-      } else {
-        for (Metadata.Property property : metadata.getProperties()) {
-          switch (property.getType().getKind()) {
-            case FLOAT:
-            case DOUBLE:
-              code.addLine("    if (%s.doubleToLongBits(%s)", Double.class, property.getName())
-                  .addLine("        != %s.doubleToLongBits(other.%s)) {",
-                      Double.class, property.getName());
-              break;
-
-            default:
-              if (property.getType().getKind().isPrimitive()) {
-                code.addLine("    if (%1$s != other.%1$s) {", property.getName());
-              } else if (property.getCodeGenerator().getType() == Type.HAS_DEFAULT) {
-                code.addLine("    if (!%1$s.equals(other.%1$s)) {", property.getName());
-              } else {
-                code.addLine("    if (%1$s != other.%1$s", property.getName())
-                    .addLine("        && (%1$s == null || !%1$s.equals(other.%1$s))) {",
-                        property.getName());
-              }
-          }
-          code.addLine("      return false;")
-              .addLine("    }");
-        }
-        if (hasRequiredProperties) {
-          code.addLine("    return _unsetProperties.equals(other._unsetProperties);");
-        } else {
-          code.addLine("    return true;");
-        }
+      for (String unsetField : unsetProperties) {
+        code.addLine("    if (%1$s != other.%1$s) {", unsetField)
+            .addLine("      return false;")
+            .addLine("    }");
       }
-      code.addLine("  }");
+      for (Metadata.Property property : BY_EQUALS_COST.sortedCopy(metadata.getProperties())) {
+        addFieldEqualsCheck(code, property, !HAS_DEFAULT.apply(property));
+      }
+      code.addLine("    return true;")
+          .addLine("  }");
     }
     // Hash code
     if (metadata.standardMethodUnderride(Metadata.StandardMethod.HASH_CODE) != Metadata.UnderrideLevel.FINAL) {
       code.addLine("")
           .addLine("  @%s", Override.class)
           .addLine("  public int hashCode() {");
-
-      List<String> namesList = getNames(metadata.getProperties());
-      if (hasRequiredProperties) {
-        namesList =
-            ImmutableList.<String>builder().addAll(namesList).add("_unsetProperties").build();
-      }
-      String properties = Joiner.on(", ").join(namesList);
-
-      if (code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().isPresent()) {
-        code.addLine("    return %s.hash(%s);",
-            code.feature(SourceLevel.SOURCE_LEVEL).javaUtilObjects().get(), properties);
-      } else {
-        code.addLine("    return %s.hashCode(new Object[] { %s });", Arrays.class, properties);
-      }
+      addHashCodeBody(
+          code, metadata.getProperties(), Predicates.not(HAS_DEFAULT), unsetProperties);
       code.addLine("  }");
     }
     // toString
@@ -846,8 +1133,7 @@ public class CodeGenerator {
 
         case REQUIRED:
           if (isPartial) {
-            code.addLine("if (!_unsetProperties.contains(%s.%s)) {",
-                    metadata.getPropertyEnum(), property.getAllCapsName());
+            code.addLine("if (%s) {", UnsetProperties.isSet(metadata, property));
           }
           break;
       }
@@ -905,8 +1191,7 @@ public class CodeGenerator {
 
           case REQUIRED:
             code.add("\"\n")
-                .addLine("        + (!_unsetProperties.contains(%s.%s)",
-                    metadata.getPropertyEnum(), property.getAllCapsName())
+                .addLine("        + (%s", UnsetProperties.isSet(metadata, property))
                 .addLine("            ? \"%1$s=\" + %1$s : \"\")", property.getName())
                 .addLine("        + \"}\";");
             break;
@@ -930,8 +1215,7 @@ public class CodeGenerator {
               break;
 
             case REQUIRED:
-              code.add("(!_unsetProperties.contains(%s.%s)\n",
-                      metadata.getPropertyEnum(), property.getAllCapsName())
+              code.add("(%s\n", UnsetProperties.isSet(metadata, property))
                   .add("                ? \"%1$s=\" + %1$s : null)", property.getName());
               break;
           }
@@ -971,13 +1255,29 @@ public class CodeGenerator {
     return Excerpts.add(isInterface ? "implements %s" : "extends %s", type);
   }
 
-  private static ImmutableList<String> getNames(Iterable<Metadata.Property> properties) {
-    ImmutableList.Builder<String> result = ImmutableList.builder();
-    for (Metadata.Property property : properties) {
-      result.add(property.getName());
+  /** Field memoizing the last value built, if enabled. */
+  private static final String BUILT_FIELD = "_built";
+
+  /** Field caching the hash code of the value type, if enabled. */
+  private static final String HASH_CODE_FIELD = "_hashCode";
+  private static final String COMPUTE_HASH_CODE_METHOD = "_computeHashCode";
+
+  /**
+   * Orders properties by how expensive they are to compare, cheapest first, keeping declaration
+   * order otherwise.
+   */
+  private static final Ordering<Metadata.Property> BY_EQUALS_COST = Ordering.natural()
+      .onResultOf(new Function<Metadata.Property, EqualsCost>() {
+        @Override public EqualsCost apply(Metadata.Property property) {
+          return property.getCodeGenerator().getEqualsCost();
+        }
+      });
+
+  private static final Function<String, String> IS_NON_ZERO = new Function<String, String>() {
+    @Override public String apply(String field) {
+      return field + " != 0";
     }
-    return result.build();
-  }
+  };
 
   private static final Predicate<Metadata.Property> IS_REQUIRED = new Predicate<Metadata.Property>() {
     @Override public boolean apply(Metadata.Property property) {
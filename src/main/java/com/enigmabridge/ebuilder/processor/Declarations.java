@@ -25,22 +25,40 @@ class Declarations {
   }
 
   /**
-   * Declares a fresh Builder to copy default property values from.
+   * Declares a Builder to read default property values from. The Builder is shared between all
+   * instances of the concrete Builder type, and must not be modified.
    *
-   * @returns an Excerpt referencing a fresh Builder, if a no-args factory method is available to
-   *     create one with
+   * @returns an Excerpt referencing a defaults Builder, if a no-args factory method is available
+   *     to create one with
    */
   public static Optional<Excerpt> freshBuilder(Block block, Metadata metadata) {
     if (!metadata.getBuilderFactory().isPresent()) {
       return Optional.absent();
     }
-    Excerpt defaults = block.declare("_defaults", "%s _defaults = getNewBuilder();",
+    Excerpt defaults = block.declare("_defaults", "%s _defaults = getDefaultsBuilder();",
           metadata.getGeneratedABuilder());
 //          metadata.getBuilderFactory().get()
 //              .newBuilder(metadata.getBuilder(), TypeInference.INFERRED_TYPES));
     return Optional.of(defaults);
   }
 
+  /**
+   * Declares a Builder for clear() to copy a property's default value from. If the value is
+   * {@code shareable} (immutable), this is the shared defaults Builder; otherwise a new Builder is
+   * created, so that cleared builders never alias a mutable default value, like an array.
+   *
+   * @returns an Excerpt referencing a defaults Builder, if a no-args factory method is available
+   *     to create one with
+   */
+  public static Optional<Excerpt> defaultsToCopy(
+      Block block, Metadata metadata, boolean shareable) {
+    if (shareable || !metadata.getBuilderFactory().isPresent()) {
+      return freshBuilder(block, metadata);
+    }
+    return Optional.of(block.declare("_newDefaults", "%s _newDefaults = getNewBuilder();",
+        metadata.getGeneratedABuilder()));
+  }
+
   private Declarations() {}
 
 }
@@ -17,6 +17,7 @@ package com.enigmabridge.ebuilder.processor;
 
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.*;
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
 
 import static com.enigmabridge.ebuilder.processor.util.PreconditionExcerpts.checkNotNullInline;
 import static com.enigmabridge.ebuilder.processor.util.PreconditionExcerpts.checkNotNullPreamble;
@@ -44,17 +45,27 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
   public Optional<? extends PropertyCodeGenerator> create(Config config) {
     Property property = config.getProperty();
     boolean hasDefault = config.getMethodsInvokedInBuilderConstructor().contains(setter(property));
-    return Optional.of(new CodeGenerator(config.getMetadata(), property, hasDefault));
+    boolean overridesSetter = overrides(
+        config.getBuilder(), config.getTypes(), setter(property), property.getType());
+    return Optional.of(
+        new CodeGenerator(config.getMetadata(), property, hasDefault, overridesSetter));
   }
 
   @VisibleForTesting static class CodeGenerator extends PropertyCodeGenerator {
 
     private final boolean hasDefault;
+    private final boolean overridesSetter;
     private final boolean isPrimitive;
 
     CodeGenerator(Metadata metadata, Property property, boolean hasDefault) {
+      this(metadata, property, hasDefault, false);
+    }
+
+    CodeGenerator(
+        Metadata metadata, Property property, boolean hasDefault, boolean overridesSetter) {
       super(metadata, property);
       this.hasDefault = hasDefault;
+      this.overridesSetter = overridesSetter;
       this.isPrimitive = property.getType().getKind().isPrimitive();
     }
 
@@ -96,8 +107,7 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
             .addLine("  this.%s = %s;", property.getName(), checkNotNullInline(property.getName()));
       }
       if (!hasDefault) {
-        code.addLine("  _unsetProperties.remove(%s.%s);",
-            metadata.getPropertyEnum(), property.getAllCapsName());
+        code.addLine("  %s;", UnsetProperties.markSet(metadata, property));
       }
       code.addLine("  return getThisBuilder();");
 //      if ((metadata.getBuilder() == metadata.getGeneratedABuilder())) {
@@ -150,9 +160,10 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
       code.addLine(" */")
           .addLine("public %s %s() {", property.getType(), getter(property));
       if (!hasDefault) {
-        Excerpt propertyIsSet = Excerpts.add("!_unsetProperties.contains(%s.%s)",
-                metadata.getPropertyEnum(), property.getAllCapsName());
-        code.add(PreconditionExcerpts.checkState(propertyIsSet, property.getName() + " not set"));
+        code.addLine("  if (%s) {", UnsetProperties.isUnset(metadata, property))
+            .addLine("    throw new %s(\"%s not set\");",
+                IllegalStateException.class, property.getName())
+            .addLine("  }");
       }
       code.addLine("  return %s;", property.getName())
           .addLine("}");
@@ -163,6 +174,18 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
       code.add("private final %s %s;\n", property.getType(), finalField);
     }
 
+    @Override
+    public boolean isWitherDirect() {
+      return !overridesSetter;
+    }
+
+    @Override
+    public void addWitherPreconditions(SourceBuilder code, String variable) {
+      if (!isPrimitive) {
+        code.add(PreconditionExcerpts.checkNotNull(variable));
+      }
+    }
+
     @Override
     public void addFinalFieldAssignment(SourceBuilder code, String finalField, String builder) {
       code.addLine("%s = %s.%s;", finalField, builder, property.getName());
@@ -174,8 +197,7 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
       if (defaults != null) {
         code.add("if (");
         if (!hasDefault) {
-          code.add("%s._unsetProperties.contains(%s.%s) || ",
-              defaults, metadata.getPropertyEnum(), property.getAllCapsName());
+          code.add("%s || ", UnsetProperties.isUnset(metadata, property, defaults));
         }
         if (isPrimitive) {
           code.add("%s.%s() != %s.%s()",
@@ -211,23 +233,17 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
       Excerpt base = hasDefault || fromSuper ? null : Declarations.upcastToGeneratedBuilder(
               code, metadata, builder);
       Excerpt defaults = Declarations.freshBuilder(code, metadata).orNull();
-      Block unsetContains = new Block(code);
-      String isPropertySetPositive = fromSuper ? ""  : "!";
-      String isPropertySetNegative = fromSuper ? "!" : "";
+      Excerpt isSetOnBuilder;
       if (fromSuper) {
-        unsetContains.add("%s()", isPropertySetMethod(property));
-        base = new Block(code).add(builder);
+        isSetOnBuilder = Excerpts.add("%s.%s()", builder, isPropertySetMethod(property));
       } else {
-        unsetContains.add("_unsetProperties.contains(%s.%s)",
-                metadata.getPropertyEnum(), property.getAllCapsName());
+        isSetOnBuilder = UnsetProperties.isSet(metadata, property, base);
       }
       if (defaults != null) {
         code.add("if (");
         if (!hasDefault) {
-          code.add("%s%s.%s && ",
-                  isPropertySetPositive, base, unsetContains)
-              .add("(%s%s.%s ||",
-                  isPropertySetNegative, defaults, unsetContains);
+          code.add("%s && ", isSetOnBuilder)
+              .add("(%s || ", UnsetProperties.isUnset(metadata, property, defaults));
         }
         if (isPrimitive) {
           code.add("%1$s.%2$s() != %3$s.%2$s()", builder, getter(property), defaults);
@@ -239,8 +255,7 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
         }
         code.add(") {%n");
       } else if (!hasDefault) {
-        code.addLine("if (%s%s.%s) {",
-                isPropertySetPositive, base, unsetContains);
+        code.addLine("if (%s) {", isSetOnBuilder);
       }
       code.addLine("  %s(%s.%s());", setter(property), builder, getter(property));
       if (defaults != null || !hasDefault) {
@@ -255,7 +270,8 @@ public class DefaultPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addClearField(Block code) {
-      Optional<Excerpt> defaults = Declarations.freshBuilder(code, metadata);
+      Optional<Excerpt> defaults = Declarations.defaultsToCopy(
+          code, metadata, isSimpleType(property.getType()));
       // Cannot clear property without defaults
       if (defaults.isPresent()) {
         code.addLine("%1$s = %2$s.%1$s;", property.getName(), defaults.get());
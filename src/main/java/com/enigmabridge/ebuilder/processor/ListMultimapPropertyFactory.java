@@ -23,13 +23,17 @@ import static com.enigmabridge.ebuilder.processor.BuilderMethods.putMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.removeAllMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.removeMethod;
 import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
 import static com.enigmabridge.ebuilder.processor.Util.upperBound;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeUnbox;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
 
 import com.enigmabridge.ebuilder.processor.excerpt.CheckedListMultimap;
+import com.enigmabridge.ebuilder.processor.excerpt.SettableEntriesListMultimap;
 import com.enigmabridge.ebuilder.processor.util.Block;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
 import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
 import com.google.common.base.Optional;
@@ -37,13 +41,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Multimaps;
 
 import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.Config;
 import com.enigmabridge.ebuilder.processor.util.ParameterizedType;
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.StaticExcerpt;
 
 import java.util.Collection;
@@ -86,7 +91,8 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
         keyType,
         unboxedKeyType,
         valueType,
-        unboxedValueType));
+        unboxedValueType,
+        expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasPutMethodOverride(
@@ -106,6 +112,7 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
     private final Optional<TypeMirror> unboxedKeyType;
     private final TypeMirror valueType;
     private final Optional<TypeMirror> unboxedValueType;
+    private final Optional<Integer> expectedSize;
 
     CodeGenerator(
         Metadata metadata,
@@ -114,19 +121,44 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
         TypeMirror keyType,
         Optional<TypeMirror> unboxedKeyType,
         TypeMirror valueType,
-        Optional<TypeMirror> unboxedValueType) {
+        Optional<TypeMirror> unboxedValueType,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.overridesPutMethod = overridesPutMethod;
       this.keyType = keyType;
       this.unboxedKeyType = unboxedKeyType;
       this.valueType = valueType;
       this.unboxedValueType = unboxedValueType;
+      this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
-      code.addLine("final %1$s<%2$s, %3$s> %4$s = %1$s.create();",
-          LinkedListMultimap.class, keyType, valueType, property.getName());
+      // Any expected size is applied when the multimap is first copied to be modified
+      code.addLine("%s<%s, %s> %s = %s.of();",
+          ListMultimap.class,
+          keyType,
+          valueType,
+          property.getName(),
+          ImmutableListMultimap.class);
+    }
+
+    /** Replaces an adopted immutable multimap with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      // Array-backed values, in key insertion order: the same order ImmutableListMultimap keeps
+      // them in, so build() copies each key's values in one go.
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableListMultimap.class)
+          .addLine("    this.%s = %s.linkedHashKeys(%s).arrayListValues()",
+              property.getName(),
+              MultimapBuilder.class,
+              expectedSize.isPresent() ? expectedSize.get() : "")
+          .addLine("        .<%s, %s>build(this.%s);", keyType, valueType, property.getName())
+          .addLine("  }");
     }
 
     @Override
@@ -172,6 +204,7 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
       if (!unboxedValueType.isPresent()) {
         code.addLine("  %s.checkNotNull(value);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.put(key, value);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -224,8 +257,19 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
               putAllMethod(property),
               Multimap.class,
               keyType,
-              valueType)
-          .addLine("  for (%s<? extends %s, ? extends %s<? extends %s>> entry",
+              valueType);
+      if (!overridesPutMethod) {
+        code.addLine("  if (multimap instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableListMultimap.class, property.getName())
+            .addLine("    // Adopt the immutable multimap; it will be copied if this builder is")
+            .addLine("    // modified")
+            .addLine("    this.%s = %s.copyOf(multimap);",
+                property.getName(), ImmutableListMultimap.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
+      code.addLine("  for (%s<? extends %s, ? extends %s<? extends %s>> entry",
               Entry.class, keyType, Collection.class, valueType)
           .addLine("      : multimap.asMap().entrySet()) {")
           .addLine("    %s(entry.getKey(), entry.getValue());", putAllMethod(property))
@@ -269,6 +313,7 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
       if (!unboxedValueType.isPresent()) {
         code.addLine("  %s.checkNotNull(value);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.remove(key, value);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -294,6 +339,7 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
       if (!unboxedKeyType.isPresent()) {
         code.addLine("  %s.checkNotNull(key);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.removeAll(key);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -323,13 +369,20 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
               ListMultimap.class,
               keyType,
               valueType);
+      addConvertToMutable(code);
       if (overridesPutMethod) {
-        code.addLine("  mutator.accept(new CheckedListMultimap<>(%s, this::%s));",
-            property.getName(), putMethod(property));
+        code.addLine("  mutator.accept(new %s.CheckedListMultimap<>(%s, this::%s));",
+            metadata.getGeneratedBuilder().getQualifiedName(),
+            property.getName(),
+            putMethod(property));
       } else {
+        // The array-backed field's entries cannot be set, so pass a view whose entries write
+        // through to its value lists.
         code.addLine("  // If %s is overridden, this method will be updated to delegate to it",
                 putMethod(property))
-            .addLine("  mutator.accept(%s);", property.getName());
+            .addLine("  mutator.accept(new %s.SettableEntriesListMultimap<>(%s));",
+                metadata.getGeneratedBuilder().getQualifiedName(),
+                property.getName());
       }
       code.addLine("  return getThisBuilder();")
         //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -345,7 +398,11 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
           .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
           .addLine(" */")
           .addLine("public %s %s() {", metadata.getBuildGen(), clearMethod(property))
-          .addLine("  %s.clear();", property.getName())
+          .addLine("  if (%s instanceof %s) {", property.getName(), ImmutableListMultimap.class)
+          .addLine("    %s = %s.of();", property.getName(), ImmutableListMultimap.class)
+          .addLine("  } else {")
+          .addLine("    %s.clear();", property.getName())
+          .addLine("  }")
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
@@ -362,8 +419,9 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
               ListMultimap.class,
               keyType,
               valueType,
-              getter(property))
-          .addLine("  return %s.unmodifiableListMultimap(%s);",
+              getter(property));
+      addConvertToMutable(code);
+      code.addLine("  return %s.unmodifiableListMultimap(%s);",
               Multimaps.class, property.getName())
           .addLine("}");
     }
@@ -376,21 +434,52 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
+      Excerpt entries = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (overridesPutMethod) {
+        code.addLine("%s(%s);", putAllMethod(property), entries);
+      } else {
+        // Entrys of a built value were checked when they were put, so skip putAll
+        QualifiedName valueType = metadata.getValueType().getQualifiedName();
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", putAllMethod(property), entries)
+            .add("} else ");
+        addTrustedPutAll(code, entries);
+      }
     }
 
     @Override
     public void addMergeFromSuperValue(Block code, String value) {
-      addMergeFromValue(code, value);
+      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
     }
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      code.addLine("%s(((%s) %s).%s);",
-          putAllMethod(property),
-          metadata.getGeneratedABuilder(),
-          builder,
-          property.getName());
+      if (overridesPutMethod) {
+        code.addLine("%s(((%s) %s).%s);",
+            putAllMethod(property),
+            metadata.getGeneratedABuilder(),
+            builder,
+            property.getName());
+      } else {
+        Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+        addTrustedPutAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Puts all of {@code entries}, a multimap from a value or builder of this type, without
+     * checking each entry again. An immutable multimap is adopted, if this one is still an
+     * empty immutable multimap.
+     */
+    private void addTrustedPutAll(Block code, Excerpt entries) {
+      code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+              entries, ImmutableListMultimap.class, property.getName())
+          .addLine("  %s = %s.copyOf(%s);",
+              property.getName(), ImmutableListMultimap.class, entries)
+          .addLine("} else {");
+      addConvertToMutable(code);
+      code.addLine("  %s.putAll(%s);", property.getName(), entries)
+          .addLine("}");
     }
 
     @Override
@@ -408,7 +497,7 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
 
     @Override
     public void addClearField(Block code) {
-      code.addLine("%s.clear();", property.getName());
+      code.addLine("%s();", clearMethod(property));
     }
 
     @Override
@@ -416,6 +505,8 @@ public class ListMultimapPropertyFactory implements PropertyCodeGenerator.Factor
       ImmutableSet.Builder<StaticExcerpt> staticMethods = ImmutableSet.builder();
       if (overridesPutMethod) {
         staticMethods.addAll(CheckedListMultimap.excerpts());
+      } else {
+        staticMethods.addAll(SettableEntriesListMultimap.excerpts());
       }
       return staticMethods.build();
     }
@@ -18,9 +18,11 @@ package com.enigmabridge.ebuilder.processor;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.addAllMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.addMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.clearMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.ensureCapacityMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.mutator;
 import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
 import static com.enigmabridge.ebuilder.processor.Util.upperBound;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeUnbox;
@@ -80,7 +82,8 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
         config.getProperty(),
         overridesAddMethod,
         elementType,
-        unboxedType));
+        unboxedType,
+        expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasAddMethodOverride(Config config, TypeMirror keyType) {
@@ -99,6 +102,7 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
     private final boolean overridesAddMethod;
     private final TypeMirror elementType;
     private final Optional<TypeMirror> unboxedType;
+    private final Optional<Integer> expectedSize;
 
     @VisibleForTesting
     CodeGenerator(
@@ -106,21 +110,36 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
         Property property,
         boolean overridesAddMethod,
         TypeMirror elementType,
-        Optional<TypeMirror> unboxedType) {
+        Optional<TypeMirror> unboxedType,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.overridesAddMethod = overridesAddMethod;
       this.elementType = elementType;
       this.unboxedType = unboxedType;
+      this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
       if (code.feature(GUAVA).isAvailable()) {
+        // Any expected size is applied when the list is first copied to be modified
         code.addLine("%s<%s> %s = %s.of();",
             List.class,
             elementType,
             property.getName(),
             ImmutableList.class);
+      } else if (expectedSize.isPresent()) {
+        code.addLine("final %1$s<%2$s> %3$s = new %1$s%4$s(%5$s);",
+            ArrayList.class,
+            elementType,
+            property.getName(),
+            diamondOperator(elementType),
+            expectedSize.get());
       } else {
         code.addLine("final %1$s<%2$s> %3$s = new %1$s%4$s();",
             ArrayList.class,
@@ -135,11 +154,36 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
       addAdd(code, metadata);
       addVarargsAdd(code, metadata);
       addAddAll(code, metadata);
+      addEnsureCapacity(code, metadata);
       addMutate(code, metadata);
       addClear(code, metadata);
       addGetter(code, metadata);
     }
 
+    /** Replaces an adopted immutable list with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      if (!code.feature(GUAVA).isAvailable()) {
+        return;
+      }
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableList.class);
+      if (expectedSize.isPresent()) {
+        addCopyToMutable(code, Excerpts.add("%s", expectedSize.get()));
+      } else {
+        code.addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
+            property.getName(), ArrayList.class, diamondOperator(elementType));
+      }
+      code.addLine("  }");
+    }
+
+    /** Adds code copying the immutable list into an array list of at least {@code minCapacity}. */
+    private void addCopyToMutable(SourceBuilder code, Excerpt minCapacity) {
+      code.addLine("    %1$s<%2$s> mutable = new %1$s%3$s(%4$s.max(%5$s, this.%6$s.size()));",
+              ArrayList.class, elementType, diamondOperator(elementType), Math.class,
+              minCapacity, property.getName())
+          .addLine("    mutable.addAll(this.%s);", property.getName())
+          .addLine("    this.%s = mutable;", property.getName());
+    }
+
     private void addAdd(SourceBuilder code, Metadata metadata) {
       code.addLine("")
           .addLine("/**")
@@ -153,14 +197,7 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
       code.addLine(" */")
           .addLine("public %s %s(%s element) {",
               metadata.getBuildGen(), addMethod(property), unboxedType.or(elementType));
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableList.class)
-            .addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
-                property.getName(),
-                ArrayList.class,
-                diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       if (unboxedType.isPresent()) {
         code.addLine("  this.%s.add(element);", property.getName());
       } else {
@@ -219,29 +256,64 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
               addAllMethod(property),
               Iterable.class,
               elementType);
+      if (code.feature(GUAVA).isAvailable() && !overridesAddMethod) {
+        code.addLine("  if (elements instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableList.class, property.getName())
+            .addLine("    // Adopt the immutable list; it will be copied if this builder is modified")
+            .addLine("    this.%s = %s.copyOf(elements);", property.getName(), ImmutableList.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
       code.addLine("  if (elements instanceof %s) {", Collection.class)
           .addLine("    int elementsSize = ((%s<?>) elements).size();", Collection.class);
       if (code.feature(GUAVA).isAvailable()) {
+        // Leaves an adopted immutable list alone if there is nothing to add
         code.addLine("    if (elementsSize != 0) {")
-            .addLine("      if (%s instanceof %s) {", property.getName(), ImmutableList.class)
-            .addLine("        %1$s = new %2$s%3$s(%1$s);",
-                property.getName(), ArrayList.class, diamondOperator(elementType))
-            .addLine("      }")
-            .add("      ((%s<?>) %s)", ArrayList.class, property.getName());
+            .addLine("      %s(this.%s.size() + elementsSize);",
+                ensureCapacityMethod(property), property.getName())
+            .addLine("    }");
       } else {
-        code.add("    %s", property.getName());
-      }
-      code.add(".ensureCapacity(%s.size() + elementsSize);%n", property.getName())
-          .addLine("  }");
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  }");
+        code.addLine("    %s(this.%s.size() + elementsSize);",
+            ensureCapacityMethod(property), property.getName());
       }
-      code.add(Excerpts.forEach(unboxedType.or(elementType), "elements", addMethod(property)))
+      code.addLine("  }")
+          .add(Excerpts.forEach(unboxedType.or(elementType), "elements", addMethod(property)))
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
     }
 
+    private void addEnsureCapacity(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Ensures the list to be returned from %s can hold at least",
+              metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" * {@code minCapacity} elements without reallocating.")
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" */")
+          .addLine("public %s %s(int minCapacity) {",
+              metadata.getBuildGen(), ensureCapacityMethod(property));
+      if (code.feature(GUAVA).isAvailable()) {
+        code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableList.class);
+        if (expectedSize.isPresent()) {
+          addCopyToMutable(code,
+              Excerpts.add("%s.max(minCapacity, %s)", Math.class, expectedSize.get()));
+        } else {
+          addCopyToMutable(code, Excerpts.add("minCapacity"));
+        }
+        code.addLine("  } else {")
+            .addLine("    ((%s<?>) this.%s).ensureCapacity(minCapacity);",
+                ArrayList.class, property.getName())
+            .addLine("  }");
+      } else {
+        code.addLine("  %s.ensureCapacity(minCapacity);", property.getName());
+      }
+      code.addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
     private void addMutate(SourceBuilder code, Metadata metadata) {
       ParameterizedType consumer = code.feature(FUNCTION_PACKAGE).consumer().orNull();
       if (consumer == null) {
@@ -266,14 +338,7 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
               consumer.getQualifiedName(),
               List.class,
               elementType);
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableList.class)
-            .addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
-                property.getName(),
-                ArrayList.class,
-                diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       if (overridesAddMethod) {
         code.addLine("  mutator.accept(new CheckedList<>(%s, this::%s));",
             property.getName(), addMethod(property));
@@ -318,12 +383,7 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * Changes to this builder will be reflected in the view.")
           .addLine(" */")
           .addLine("public %s<%s> %s() {", List.class, elementType, getter(property));
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (%s instanceof %s) {", property.getName(), ImmutableList.class)
-            .addLine("    %1$s = new %2$s%3$s(%1$s);",
-                property.getName(), ArrayList.class, diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       code.addLine("  return %s.unmodifiableList(%s);", Collections.class, property.getName())
           .addLine("}");
     }
@@ -358,7 +418,25 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      addMergeFromValue(code, value, code.feature(GUAVA).isAvailable());
+      if (overridesAddMethod) {
+        addMergeFromValue(code, value, code.feature(GUAVA).isAvailable());
+        return;
+      }
+      // Elements of a built value were checked when they were added, so skip addAll
+      QualifiedName valueType = metadata.getValueType().getQualifiedName();
+      Excerpt elements = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (code.feature(GUAVA).isAvailable()) {
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", addAllMethod(property), elements)
+            .add("} else ");
+        addTrustedAddAll(code, elements);
+      } else {
+        code.addLine("if (%s instanceof %s) {", value, valueType)
+            .addLine("  %s.addAll(%s);", property.getName(), elements)
+            .addLine("} else {")
+            .addLine("  %s(%s);", addAllMethod(property), elements)
+            .addLine("}");
+      }
     }
 
     @Override
@@ -369,7 +447,30 @@ public class ListPropertyFactory implements PropertyCodeGenerator.Factory {
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
       Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
-      code.addLine("%s(%s.%s);", addAllMethod(property), base, property.getName());
+      if (overridesAddMethod) {
+        code.addLine("%s(%s.%s);", addAllMethod(property), base, property.getName());
+      } else {
+        addTrustedAddAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Adds all of {@code elements}, a list from a value or builder of this type, without checking
+     * each element again. An immutable list is adopted, if this one is still an
+     * empty immutable list.
+     */
+    private void addTrustedAddAll(Block code, Excerpt elements) {
+      if (code.feature(GUAVA).isAvailable()) {
+        code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+                elements, ImmutableList.class, property.getName())
+            .addLine("  %s = %s.copyOf(%s);", property.getName(), ImmutableList.class, elements)
+            .addLine("} else {");
+        addConvertToMutable(code);
+        code.addLine("  %s.addAll(%s);", property.getName(), elements)
+            .addLine("}");
+      } else {
+        code.addLine("%s.addAll(%s);", property.getName(), elements);
+      }
     }
 
     @Override
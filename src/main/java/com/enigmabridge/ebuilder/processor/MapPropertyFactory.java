@@ -29,6 +29,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 
 import com.enigmabridge.ebuilder.processor.util.Block;
 import com.enigmabridge.ebuilder.processor.util.Excerpts;
@@ -40,6 +41,7 @@ import com.enigmabridge.ebuilder.processor.util.StaticExcerpt;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +67,7 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
     Optional<TypeMirror> unboxedValueType = ModelUtils.maybeUnbox(valueType, config.getTypes());
     boolean overridesPutMethod = hasPutMethodOverride(
         config, unboxedKeyType.or(keyType), unboxedValueType.or(valueType));
+    boolean enumKeys = config.getMetadata().isEnumCollections() && ModelUtils.isEnum(keyType);
     return Optional.of(new CodeGenerator(
         config.getMetadata(),
         config.getProperty(),
@@ -72,7 +75,9 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
         keyType,
         unboxedKeyType,
         valueType,
-        unboxedValueType));
+        unboxedValueType,
+        enumKeys,
+        Util.expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasPutMethodOverride(
@@ -96,6 +101,8 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
     private final Optional<TypeMirror> unboxedKeyType;
     private final TypeMirror valueType;
     private final Optional<TypeMirror> unboxedValueType;
+    private final boolean enumKeys;
+    private final Optional<Integer> expectedSize;
 
     CodeGenerator(
         Metadata metadata,
@@ -104,23 +111,85 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
         TypeMirror keyType,
         Optional<TypeMirror> unboxedKeyType,
         TypeMirror valueType,
-        Optional<TypeMirror> unboxedValueType) {
+        Optional<TypeMirror> unboxedValueType,
+        boolean enumKeys,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.overridesPutMethod = overridesPutMethod;
       this.keyType = keyType;
       this.unboxedKeyType = unboxedKeyType;
       this.valueType = valueType;
       this.unboxedValueType = unboxedValueType;
+      this.enumKeys = enumKeys;
+      // An EnumMap is backed by an array of all the enum's values, so needs no sizing
+      this.expectedSize = enumKeys ? Optional.<Integer>absent() : expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
-      code.addLine("final %1$s<%2$s, %3$s> %4$s = new %1$s%5$s();",
-          LinkedHashMap.class,
-          keyType,
-          valueType,
-          property.getName(),
-          SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)));
+      if (code.feature(GuavaLibrary.GUAVA).isAvailable()) {
+        // Any expected size is applied when the map is first copied to be modified
+        code.addLine("%s<%s, %s> %s = %s.of();",
+            Map.class, keyType, valueType, property.getName(), ImmutableMap.class);
+      } else if (enumKeys) {
+        code.addLine("final %1$s<%2$s, %3$s> %4$s = new %1$s%5$s(%2$s.class);",
+            EnumMap.class,
+            keyType,
+            valueType,
+            property.getName(),
+            SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)));
+      } else if (expectedSize.isPresent()) {
+        code.addLine("final %1$s<%2$s, %3$s> %4$s = new %1$s%5$s(%6$s);",
+            LinkedHashMap.class,
+            keyType,
+            valueType,
+            property.getName(),
+            SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)),
+            Util.hashCapacity(expectedSize.get()));
+      } else {
+        code.addLine("final %1$s<%2$s, %3$s> %4$s = new %1$s%5$s();",
+            LinkedHashMap.class,
+            keyType,
+            valueType,
+            property.getName(),
+            SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)));
+      }
+    }
+
+    /** Replaces an adopted immutable map with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      if (!code.feature(GuavaLibrary.GUAVA).isAvailable()) {
+        return;
+      }
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableMap.class);
+      if (enumKeys) {
+        // An EnumMap can only be copied from an empty map if that map is itself an EnumMap
+        code.addLine("    this.%1$s = this.%1$s.isEmpty()", property.getName())
+            .addLine("        ? new %1$s<%2$s, %3$s>(%2$s.class)", EnumMap.class, keyType, valueType)
+            .addLine("        : new %s<%s, %s>(this.%s);",
+                EnumMap.class, keyType, valueType, property.getName());
+      } else if (expectedSize.isPresent()) {
+        code.addLine("    %1$s<%2$s, %3$s> mutable = new %4$s%5$s(%6$s);",
+                Map.class,
+                keyType,
+                valueType,
+                LinkedHashMap.class,
+                SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)),
+                Util.hashCapacity(expectedSize.get()))
+            .addLine("    mutable.putAll(this.%s);", property.getName())
+            .addLine("    this.%s = mutable;", property.getName());
+      } else {
+        code.addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
+            property.getName(),
+            LinkedHashMap.class,
+            SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)));
+      }
+      code.addLine("  }");
     }
 
     @Override
@@ -165,6 +234,7 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
       if (!unboxedValueType.isPresent()) {
         code.add(PreconditionExcerpts.checkNotNull("value"));
       }
+      addConvertToMutable(code);
       code.addLine("  %s.put(key, value);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -187,8 +257,17 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
               putAllMethod(property),
               Map.class,
               keyType,
-              valueType)
-          .addLine("  for (%s<? extends %s, ? extends %s> entry : map.entrySet()) {",
+              valueType);
+      if (code.feature(GuavaLibrary.GUAVA).isAvailable() && !overridesPutMethod) {
+        code.addLine("  if (map instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableMap.class, property.getName())
+            .addLine("    // Adopt the immutable map; it will be copied if this builder is modified")
+            .addLine("    this.%s = %s.copyOf(map);", property.getName(), ImmutableMap.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
+      code.addLine("  for (%s<? extends %s, ? extends %s> entry : map.entrySet()) {",
               Map.Entry.class, keyType, valueType)
           .addLine("    %s(entry.getKey(), entry.getValue());", BuilderMethods.putMethod(property))
           .addLine("  }")
@@ -216,6 +295,7 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
       if (!unboxedKeyType.isPresent()) {
         code.add(PreconditionExcerpts.checkNotNull("key"));
       }
+      addConvertToMutable(code);
       code.addLine("  %s.remove(key);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -247,6 +327,7 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
               Map.class,
               keyType,
               valueType);
+      addConvertToMutable(code);
       if (overridesPutMethod) {
         code.addLine("  mutator.accept(new CheckedMap<>(%s, this::%s));",
             property.getName(), BuilderMethods.putMethod(property));
@@ -268,9 +349,17 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" *")
           .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
           .addLine(" */")
-          .addLine("public %s %s() {", metadata.getBuildGen(), BuilderMethods.clearMethod(property))
-          .addLine("  %s.clear();", property.getName())
-          .addLine("  return getThisBuilder();")
+          .addLine("public %s %s() {", metadata.getBuildGen(), BuilderMethods.clearMethod(property));
+      if (code.feature(GuavaLibrary.GUAVA).isAvailable()) {
+        code.addLine("  if (%s instanceof %s) {", property.getName(), ImmutableMap.class)
+            .addLine("    %s = %s.of();", property.getName(), ImmutableMap.class)
+            .addLine("  } else {")
+            .addLine("    %s.clear();", property.getName())
+            .addLine("  }");
+      } else {
+        code.addLine("  %s.clear();", property.getName());
+      }
+      code.addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
     }
@@ -282,39 +371,95 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * %s.", metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
           .addLine(" * Changes to this builder will be reflected in the view.")
           .addLine(" */")
-          .addLine("public %s<%s, %s> %s() {", Map.class, keyType, valueType, getter(property))
-          .addLine("  return %s.unmodifiableMap(%s);", Collections.class, property.getName())
+          .addLine("public %s<%s, %s> %s() {", Map.class, keyType, valueType, getter(property));
+      addConvertToMutable(code);
+      code.addLine("  return %s.unmodifiableMap(%s);", Collections.class, property.getName())
           .addLine("}");
     }
 
     @Override
     public void addFinalFieldAssignment(SourceBuilder code, String finalField, String builder) {
+      boolean guava = code.feature(GuavaLibrary.GUAVA).isAvailable();
+      if (enumKeys && !guava) {
+        code.addLine("%s = %s.unmodifiableMap(new %s%s(%s.%s));",
+            finalField,
+            Collections.class,
+            EnumMap.class,
+            SourceLevel.diamondOperator(Excerpts.add("%s, %s", keyType, valueType)),
+            builder,
+            property.getName());
+        return;
+      }
       code.add("%s = ", finalField);
-      if (code.feature(GuavaLibrary.GUAVA).isAvailable()) {
-        code.add("%s.copyOf", ImmutableMap.class);
-      } else {
+      if (!guava) {
         code.add("immutableMap");
+      } else if (enumKeys) {
+        code.add("%s.immutableEnumMap", Maps.class);
+      } else {
+        code.add("%s.copyOf", ImmutableMap.class);
       }
       code.add("(%s.%s);\n", builder, property.getName());
     }
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
+      Excerpt entries = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (overridesPutMethod) {
+        code.addLine("%s(%s);", putAllMethod(property), entries);
+        return;
+      }
+      // Entries of a built value were checked when they were put, so skip putAll
+      QualifiedName valueType = metadata.getValueType().getQualifiedName();
+      if (code.feature(GuavaLibrary.GUAVA).isAvailable()) {
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", putAllMethod(property), entries)
+            .add("} else ");
+        addTrustedPutAll(code, entries);
+      } else {
+        code.addLine("if (%s instanceof %s) {", value, valueType)
+            .addLine("  %s.putAll(%s);", property.getName(), entries)
+            .addLine("} else {")
+            .addLine("  %s(%s);", putAllMethod(property), entries)
+            .addLine("}");
+      }
     }
 
     @Override
     public void addMergeFromSuperValue(Block code, String value) {
-      addMergeFromValue(code, value);
+      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
     }
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      code.addLine("%s(((%s) %s).%s);",
-          putAllMethod(property),
-          metadata.getGeneratedABuilder(),
-          builder,
-          property.getName());
+      if (overridesPutMethod) {
+        code.addLine("%s(((%s) %s).%s);",
+            putAllMethod(property),
+            metadata.getGeneratedABuilder(),
+            builder,
+            property.getName());
+      } else {
+        Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+        addTrustedPutAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Puts all of {@code entries}, a map from a value or builder of this type, without checking
+     * each entry again. An immutable map is adopted, if this one is still an
+     * empty immutable map.
+     */
+    private void addTrustedPutAll(Block code, Excerpt entries) {
+      if (code.feature(GuavaLibrary.GUAVA).isAvailable()) {
+        code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+                entries, ImmutableMap.class, property.getName())
+            .addLine("  %s = %s.copyOf(%s);", property.getName(), ImmutableMap.class, entries)
+            .addLine("} else {");
+        addConvertToMutable(code);
+        code.addLine("  %s.putAll(%s);", property.getName(), entries)
+            .addLine("}");
+      } else {
+        code.addLine("%s.putAll(%s);", property.getName(), entries);
+      }
     }
 
     @Override
@@ -332,7 +477,7 @@ public class MapPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addClearField(Block code) {
-      code.addLine("%s.clear();", property.getName());
+      code.addLine("%s();", BuilderMethods.clearMethod(property));
     }
 
     @Override
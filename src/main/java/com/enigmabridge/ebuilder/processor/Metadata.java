@@ -171,6 +171,21 @@ public abstract class Metadata {
   /** Returns whether the builder type should be serializable. */
   public abstract boolean isBuilderSerializable();
 
+  /** Returns whether the value type should lazily cache its hash code. */
+  public abstract boolean isHashCodeCached();
+
+  /** Returns whether lists of boxed primitives should be stored in primitive arrays. */
+  public abstract boolean isPrimitiveLists();
+
+  /** Returns whether build() should return the previous value if the builder is unchanged. */
+  public abstract boolean isBuildMemoized();
+
+  /** Returns whether enum-keyed sets, maps and multisets should use enum-specific storage. */
+  public abstract boolean isEnumCollections();
+
+  /** Returns whether the user's Builder overrides build(). */
+  public abstract boolean isBuildOverridden();
+
   /** Returns a list of annotations that should be applied to the generated builder class. */
   public abstract ImmutableList<Excerpt> getGeneratedBuilderAnnotations();
 
@@ -225,6 +240,12 @@ public abstract class Metadata {
      */
     public abstract boolean isFullyCheckedCast();
 
+    /**
+     * Returns true if the type declares an abstract {@code withX} method for this property, to be
+     * implemented on the value type.
+     */
+    public abstract boolean isWitherDeclared();
+
     /**
      * Returns a list of annotations that should be applied to the accessor methods of this
      * property; that is, the getter method, and a single setter method that will accept the result
@@ -238,7 +259,12 @@ public abstract class Metadata {
     }
 
     /** Builder for {@link Metadata.Property}. */
-    public static class Builder extends Metadata_Property_Builder {}
+    public static class Builder extends Metadata_Property_Builder {
+
+      public Builder() {
+        super.setWitherDeclared(false);
+      }
+    }
   }
 
   public static final Function<Property, PropertyCodeGenerator> GET_CODE_GENERATOR =
@@ -254,6 +280,11 @@ public abstract class Metadata {
 
     public Builder() {
       super.setValueTypeVisibility(Visibility.PRIVATE);
+      super.setHashCodeCached(false);
+      super.setPrimitiveLists(false);
+      super.setBuildMemoized(false);
+      super.setEnumCollections(false);
+      super.setBuildOverridden(false);
     }
 
     /**
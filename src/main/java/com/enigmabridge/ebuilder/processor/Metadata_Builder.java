@@ -46,6 +46,11 @@ abstract class Metadata_Builder {
     PARTIAL_TYPE("partialType"),
     PROPERTY_ENUM("propertyEnum"),
     BUILDER_SERIALIZABLE("builderSerializable"),
+    BUILD_MEMOIZED("buildMemoized"),
+    ENUM_COLLECTIONS("enumCollections"),
+    BUILD_OVERRIDDEN("buildOverridden"),
+    PRIMITIVE_LISTS("primitiveLists"),
+    HASH_CODE_CACHED("hashCodeCached"),
     VALUE_TYPE_VISIBILITY("valueTypeVisibility"),
     ;
 
@@ -103,6 +108,11 @@ abstract class Metadata_Builder {
       standardMethodUnderrides =
           new LinkedHashMap<Metadata.StandardMethod, Metadata.UnderrideLevel>();
   private boolean builderSerializable;
+  private boolean buildMemoized;
+  private boolean enumCollections;
+  private boolean buildOverridden;
+  private boolean primitiveLists;
+  private boolean hashCodeCached;
   private List<Excerpt> generatedBuilderAnnotations = ImmutableList.of();
   private List<Excerpt> valueTypeAnnotations = ImmutableList.of();
   private Metadata.Visibility valueTypeVisibility;
@@ -1136,6 +1146,121 @@ abstract class Metadata_Builder {
     return builderSerializable;
   }
 
+  /**
+   * Sets the value to be returned by {@link Metadata#isBuildMemoized()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Builder setBuildMemoized(boolean buildMemoized) {
+    this.buildMemoized = buildMemoized;
+    _unsetProperties.remove(Metadata_Builder.Property.BUILD_MEMOIZED);
+    return (Metadata.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata#isBuildMemoized()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isBuildMemoized() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED),
+        "buildMemoized not set");
+    return buildMemoized;
+  }
+
+  /**
+   * Sets the value to be returned by {@link Metadata#isEnumCollections()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Builder setEnumCollections(boolean enumCollections) {
+    this.enumCollections = enumCollections;
+    _unsetProperties.remove(Metadata_Builder.Property.ENUM_COLLECTIONS);
+    return (Metadata.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata#isEnumCollections()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isEnumCollections() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS),
+        "enumCollections not set");
+    return enumCollections;
+  }
+
+  /**
+   * Sets the value to be returned by {@link Metadata#isBuildOverridden()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Builder setBuildOverridden(boolean buildOverridden) {
+    this.buildOverridden = buildOverridden;
+    _unsetProperties.remove(Metadata_Builder.Property.BUILD_OVERRIDDEN);
+    return (Metadata.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata#isBuildOverridden()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isBuildOverridden() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN),
+        "buildOverridden not set");
+    return buildOverridden;
+  }
+
+  /**
+   * Sets the value to be returned by {@link Metadata#isPrimitiveLists()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Builder setPrimitiveLists(boolean primitiveLists) {
+    this.primitiveLists = primitiveLists;
+    _unsetProperties.remove(Metadata_Builder.Property.PRIMITIVE_LISTS);
+    return (Metadata.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata#isPrimitiveLists()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isPrimitiveLists() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS),
+        "primitiveLists not set");
+    return primitiveLists;
+  }
+
+  /**
+   * Sets the value to be returned by {@link Metadata#isHashCodeCached()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Builder setHashCodeCached(boolean hashCodeCached) {
+    this.hashCodeCached = hashCodeCached;
+    _unsetProperties.remove(Metadata_Builder.Property.HASH_CODE_CACHED);
+    return (Metadata.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata#isHashCodeCached()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isHashCodeCached() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED),
+        "hashCodeCached not set");
+    return hashCodeCached;
+  }
+
   /**
    * Adds {@code element} to the list to be returned from {@link Metadata#getGeneratedBuilderAnnotations()}.
    *
@@ -1499,6 +1624,26 @@ abstract class Metadata_Builder {
         || value.isBuilderSerializable() != _defaults.isBuilderSerializable()) {
       setBuilderSerializable(value.isBuilderSerializable());
     }
+    if (_defaults._unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED)
+        || value.isBuildMemoized() != _defaults.isBuildMemoized()) {
+      setBuildMemoized(value.isBuildMemoized());
+    }
+    if (_defaults._unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS)
+        || value.isEnumCollections() != _defaults.isEnumCollections()) {
+      setEnumCollections(value.isEnumCollections());
+    }
+    if (_defaults._unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN)
+        || value.isBuildOverridden() != _defaults.isBuildOverridden()) {
+      setBuildOverridden(value.isBuildOverridden());
+    }
+    if (_defaults._unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS)
+        || value.isPrimitiveLists() != _defaults.isPrimitiveLists()) {
+      setPrimitiveLists(value.isPrimitiveLists());
+    }
+    if (_defaults._unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED)
+        || value.isHashCodeCached() != _defaults.isHashCodeCached()) {
+      setHashCodeCached(value.isHashCodeCached());
+    }
     if (value instanceof Metadata_Builder.Value
         && generatedBuilderAnnotations == ImmutableList.<Excerpt>of()) {
       generatedBuilderAnnotations = value.getGeneratedBuilderAnnotations();
@@ -1621,6 +1766,31 @@ abstract class Metadata_Builder {
             || template.isBuilderSerializable() != _defaults.isBuilderSerializable())) {
       setBuilderSerializable(template.isBuilderSerializable());
     }
+    if (!base._unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED)
+        && (_defaults._unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED)
+            || template.isBuildMemoized() != _defaults.isBuildMemoized())) {
+      setBuildMemoized(template.isBuildMemoized());
+    }
+    if (!base._unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS)
+        && (_defaults._unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS)
+            || template.isEnumCollections() != _defaults.isEnumCollections())) {
+      setEnumCollections(template.isEnumCollections());
+    }
+    if (!base._unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN)
+        && (_defaults._unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN)
+            || template.isBuildOverridden() != _defaults.isBuildOverridden())) {
+      setBuildOverridden(template.isBuildOverridden());
+    }
+    if (!base._unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS)
+        && (_defaults._unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS)
+            || template.isPrimitiveLists() != _defaults.isPrimitiveLists())) {
+      setPrimitiveLists(template.isPrimitiveLists());
+    }
+    if (!base._unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED)
+        && (_defaults._unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED)
+            || template.isHashCodeCached() != _defaults.isHashCodeCached())) {
+      setHashCodeCached(template.isHashCodeCached());
+    }
     addAllGeneratedBuilderAnnotations(base.generatedBuilderAnnotations);
     addAllValueTypeAnnotations(base.valueTypeAnnotations);
     if (!base._unsetProperties.contains(Metadata_Builder.Property.VALUE_TYPE_VISIBILITY)
@@ -1660,6 +1830,11 @@ abstract class Metadata_Builder {
     superTypeProperties.clear();
     standardMethodUnderrides.clear();
     builderSerializable = _defaults.builderSerializable;
+    buildMemoized = _defaults.buildMemoized;
+    enumCollections = _defaults.enumCollections;
+    buildOverridden = _defaults.buildOverridden;
+    primitiveLists = _defaults.primitiveLists;
+    hashCodeCached = _defaults.hashCodeCached;
     clearGeneratedBuilderAnnotations();
     clearValueTypeAnnotations();
     valueTypeVisibility = _defaults.valueTypeVisibility;
@@ -1734,6 +1909,11 @@ abstract class Metadata_Builder {
     private final ImmutableMap<StandardMethod, UnderrideLevel>
         standardMethodUnderrides;
     private final boolean builderSerializable;
+    private final boolean buildMemoized;
+    private final boolean enumCollections;
+    private final boolean buildOverridden;
+    private final boolean primitiveLists;
+    private final boolean hashCodeCached;
     private final ImmutableList<Excerpt> generatedBuilderAnnotations;
     private final ImmutableList<Excerpt> valueTypeAnnotations;
     private final Metadata.Visibility valueTypeVisibility;
@@ -1764,6 +1944,11 @@ abstract class Metadata_Builder {
       this.superTypeProperties = ImmutableMap.copyOf(builder.superTypeProperties);
       this.standardMethodUnderrides = ImmutableMap.copyOf(builder.standardMethodUnderrides);
       this.builderSerializable = builder.builderSerializable;
+      this.buildMemoized = builder.buildMemoized;
+      this.enumCollections = builder.enumCollections;
+      this.buildOverridden = builder.buildOverridden;
+      this.primitiveLists = builder.primitiveLists;
+      this.hashCodeCached = builder.hashCodeCached;
       this.generatedBuilderAnnotations = ImmutableList.copyOf(builder.generatedBuilderAnnotations);
       this.valueTypeAnnotations = ImmutableList.copyOf(builder.valueTypeAnnotations);
       this.valueTypeVisibility = builder.valueTypeVisibility;
@@ -1887,6 +2072,31 @@ abstract class Metadata_Builder {
       return builderSerializable;
     }
 
+    @Override
+    public boolean isBuildMemoized() {
+      return buildMemoized;
+    }
+
+    @Override
+    public boolean isEnumCollections() {
+      return enumCollections;
+    }
+
+    @Override
+    public boolean isBuildOverridden() {
+      return buildOverridden;
+    }
+
+    @Override
+    public boolean isPrimitiveLists() {
+      return primitiveLists;
+    }
+
+    @Override
+    public boolean isHashCodeCached() {
+      return hashCodeCached;
+    }
+
     @Override
     public ImmutableList<Excerpt> getGeneratedBuilderAnnotations() {
       return generatedBuilderAnnotations;
@@ -1990,6 +2200,21 @@ abstract class Metadata_Builder {
       if (builderSerializable != other.builderSerializable) {
         return false;
       }
+      if (buildMemoized != other.buildMemoized) {
+        return false;
+      }
+      if (enumCollections != other.enumCollections) {
+        return false;
+      }
+      if (buildOverridden != other.buildOverridden) {
+        return false;
+      }
+      if (primitiveLists != other.primitiveLists) {
+        return false;
+      }
+      if (hashCodeCached != other.hashCodeCached) {
+        return false;
+      }
       if (!generatedBuilderAnnotations.equals(other.generatedBuilderAnnotations)) {
         return false;
       }
@@ -2032,6 +2257,11 @@ abstract class Metadata_Builder {
             superTypeProperties,
             standardMethodUnderrides,
             builderSerializable,
+            buildMemoized,
+            enumCollections,
+            buildOverridden,
+            primitiveLists,
+            hashCodeCached,
             generatedBuilderAnnotations,
             valueTypeAnnotations,
             valueTypeVisibility,
@@ -2070,6 +2300,11 @@ abstract class Metadata_Builder {
               "superTypeProperties=" + superTypeProperties,
               "standardMethodUnderrides=" + standardMethodUnderrides,
               "builderSerializable=" + builderSerializable,
+              "buildMemoized=" + buildMemoized,
+              "enumCollections=" + enumCollections,
+              "buildOverridden=" + buildOverridden,
+              "primitiveLists=" + primitiveLists,
+              "hashCodeCached=" + hashCodeCached,
               "generatedBuilderAnnotations=" + generatedBuilderAnnotations,
               "valueTypeAnnotations=" + valueTypeAnnotations,
               "valueTypeVisibility=" + valueTypeVisibility,
@@ -2119,6 +2354,11 @@ abstract class Metadata_Builder {
     private final ImmutableMap<StandardMethod, UnderrideLevel>
         standardMethodUnderrides;
     private final boolean builderSerializable;
+    private final boolean buildMemoized;
+    private final boolean enumCollections;
+    private final boolean buildOverridden;
+    private final boolean primitiveLists;
+    private final boolean hashCodeCached;
     private final ImmutableList<Excerpt> generatedBuilderAnnotations;
     private final ImmutableList<Excerpt> valueTypeAnnotations;
     private final Metadata.Visibility valueTypeVisibility;
@@ -2150,6 +2390,11 @@ abstract class Metadata_Builder {
       this.superTypeProperties = ImmutableMap.copyOf(builder.superTypeProperties);
       this.standardMethodUnderrides = ImmutableMap.copyOf(builder.standardMethodUnderrides);
       this.builderSerializable = builder.builderSerializable;
+      this.buildMemoized = builder.buildMemoized;
+      this.enumCollections = builder.enumCollections;
+      this.buildOverridden = builder.buildOverridden;
+      this.primitiveLists = builder.primitiveLists;
+      this.hashCodeCached = builder.hashCodeCached;
       this.generatedBuilderAnnotations = ImmutableList.copyOf(builder.generatedBuilderAnnotations);
       this.valueTypeAnnotations = ImmutableList.copyOf(builder.valueTypeAnnotations);
       this.valueTypeVisibility = builder.valueTypeVisibility;
@@ -2311,6 +2556,46 @@ abstract class Metadata_Builder {
       return builderSerializable;
     }
 
+    @Override
+    public boolean isBuildMemoized() {
+      if (_unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED)) {
+        throw new UnsupportedOperationException("buildMemoized not set");
+      }
+      return buildMemoized;
+    }
+
+    @Override
+    public boolean isEnumCollections() {
+      if (_unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS)) {
+        throw new UnsupportedOperationException("enumCollections not set");
+      }
+      return enumCollections;
+    }
+
+    @Override
+    public boolean isBuildOverridden() {
+      if (_unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN)) {
+        throw new UnsupportedOperationException("buildOverridden not set");
+      }
+      return buildOverridden;
+    }
+
+    @Override
+    public boolean isPrimitiveLists() {
+      if (_unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS)) {
+        throw new UnsupportedOperationException("primitiveLists not set");
+      }
+      return primitiveLists;
+    }
+
+    @Override
+    public boolean isHashCodeCached() {
+      if (_unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED)) {
+        throw new UnsupportedOperationException("hashCodeCached not set");
+      }
+      return hashCodeCached;
+    }
+
     @Override
     public ImmutableList<Excerpt> getGeneratedBuilderAnnotations() {
       return generatedBuilderAnnotations;
@@ -2427,6 +2712,21 @@ abstract class Metadata_Builder {
       if (builderSerializable != other.builderSerializable) {
         return false;
       }
+      if (buildMemoized != other.buildMemoized) {
+        return false;
+      }
+      if (enumCollections != other.enumCollections) {
+        return false;
+      }
+      if (buildOverridden != other.buildOverridden) {
+        return false;
+      }
+      if (primitiveLists != other.primitiveLists) {
+        return false;
+      }
+      if (hashCodeCached != other.hashCodeCached) {
+        return false;
+      }
       if (!generatedBuilderAnnotations.equals(other.generatedBuilderAnnotations)) {
         return false;
       }
@@ -2471,6 +2771,11 @@ abstract class Metadata_Builder {
             superTypeProperties,
             standardMethodUnderrides,
             builderSerializable,
+            buildMemoized,
+            enumCollections,
+            buildOverridden,
+            primitiveLists,
+            hashCodeCached,
             generatedBuilderAnnotations,
             valueTypeAnnotations,
             valueTypeVisibility,
@@ -2534,6 +2839,21 @@ abstract class Metadata_Builder {
               (!_unsetProperties.contains(Metadata_Builder.Property.BUILDER_SERIALIZABLE)
                   ? "builderSerializable=" + builderSerializable
                   : null),
+              (!_unsetProperties.contains(Metadata_Builder.Property.BUILD_MEMOIZED)
+                  ? "buildMemoized=" + buildMemoized
+                  : null),
+              (!_unsetProperties.contains(Metadata_Builder.Property.ENUM_COLLECTIONS)
+                  ? "enumCollections=" + enumCollections
+                  : null),
+              (!_unsetProperties.contains(Metadata_Builder.Property.BUILD_OVERRIDDEN)
+                  ? "buildOverridden=" + buildOverridden
+                  : null),
+              (!_unsetProperties.contains(Metadata_Builder.Property.PRIMITIVE_LISTS)
+                  ? "primitiveLists=" + primitiveLists
+                  : null),
+              (!_unsetProperties.contains(Metadata_Builder.Property.HASH_CODE_CACHED)
+                  ? "hashCodeCached=" + hashCodeCached
+                  : null),
               "generatedBuilderAnnotations=" + generatedBuilderAnnotations,
               "valueTypeAnnotations=" + valueTypeAnnotations,
               (!_unsetProperties.contains(Metadata_Builder.Property.VALUE_TYPE_VISIBILITY)
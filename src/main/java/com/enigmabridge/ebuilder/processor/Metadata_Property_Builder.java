@@ -36,6 +36,7 @@ abstract class Metadata_Property_Builder {
     USING_BEAN_CONVENTION("usingBeanConvention"),
     GETTER_NAME("getterName"),
     FULLY_CHECKED_CAST("fullyCheckedCast"),
+    WITHER_DECLARED("witherDeclared"),
     ;
 
     private final String name;
@@ -59,6 +60,7 @@ abstract class Metadata_Property_Builder {
   private String getterName;
   @Nullable private PropertyCodeGenerator codeGenerator = null;
   private boolean fullyCheckedCast;
+  private boolean witherDeclared;
   private List<Excerpt> accessorAnnotations = ImmutableList.of();
   private final EnumSet<Property> _unsetProperties =
       EnumSet.allOf(Metadata_Property_Builder.Property.class);
@@ -263,6 +265,29 @@ abstract class Metadata_Property_Builder {
     return fullyCheckedCast;
   }
 
+  /**
+   * Sets the value to be returned by {@link Metadata.Property#isWitherDeclared()}.
+   *
+   * @return this {@code Builder} object
+   */
+  public Metadata.Property.Builder setWitherDeclared(boolean witherDeclared) {
+    this.witherDeclared = witherDeclared;
+    _unsetProperties.remove(Metadata_Property_Builder.Property.WITHER_DECLARED);
+    return (Metadata.Property.Builder) this;
+  }
+
+  /**
+   * Returns the value that will be returned by {@link Metadata.Property#isWitherDeclared()}.
+   *
+   * @throws IllegalStateException if the field has not been set
+   */
+  public boolean isWitherDeclared() {
+    Preconditions.checkState(
+        !_unsetProperties.contains(Metadata_Property_Builder.Property.WITHER_DECLARED),
+        "witherDeclared not set");
+    return witherDeclared;
+  }
+
   /**
    * Adds {@code element} to the list to be returned from {@link Metadata.Property#getAccessorAnnotations()}.
    *
@@ -376,6 +401,10 @@ abstract class Metadata_Property_Builder {
         || value.isFullyCheckedCast() != _defaults.isFullyCheckedCast()) {
       setFullyCheckedCast(value.isFullyCheckedCast());
     }
+    if (_defaults._unsetProperties.contains(Metadata_Property_Builder.Property.WITHER_DECLARED)
+        || value.isWitherDeclared() != _defaults.isWitherDeclared()) {
+      setWitherDeclared(value.isWitherDeclared());
+    }
     if (value instanceof Metadata_Property_Builder.Value
         && accessorAnnotations == ImmutableList.<Excerpt>of()) {
       accessorAnnotations = value.getAccessorAnnotations();
@@ -432,6 +461,12 @@ abstract class Metadata_Property_Builder {
             || template.isFullyCheckedCast() != _defaults.isFullyCheckedCast())) {
       setFullyCheckedCast(template.isFullyCheckedCast());
     }
+    if (!base._unsetProperties.contains(Metadata_Property_Builder.Property.WITHER_DECLARED)
+        && (_defaults._unsetProperties.contains(
+                Metadata_Property_Builder.Property.WITHER_DECLARED)
+            || template.isWitherDeclared() != _defaults.isWitherDeclared())) {
+      setWitherDeclared(template.isWitherDeclared());
+    }
     addAllAccessorAnnotations(base.accessorAnnotations);
     return (Metadata.Property.Builder) this;
   }
@@ -450,6 +485,7 @@ abstract class Metadata_Property_Builder {
     getterName = _defaults.getterName;
     codeGenerator = _defaults.codeGenerator;
     fullyCheckedCast = _defaults.fullyCheckedCast;
+    witherDeclared = _defaults.witherDeclared;
     clearAccessorAnnotations();
     _unsetProperties.clear();
     _unsetProperties.addAll(_defaults._unsetProperties);
@@ -490,6 +526,7 @@ abstract class Metadata_Property_Builder {
     private final String getterName;
     @Nullable private final PropertyCodeGenerator codeGenerator;
     private final boolean fullyCheckedCast;
+    private final boolean witherDeclared;
     private final ImmutableList<Excerpt> accessorAnnotations;
 
     private Value(Metadata_Property_Builder builder) {
@@ -502,6 +539,7 @@ abstract class Metadata_Property_Builder {
       this.getterName = builder.getterName;
       this.codeGenerator = builder.codeGenerator;
       this.fullyCheckedCast = builder.fullyCheckedCast;
+      this.witherDeclared = builder.witherDeclared;
       this.accessorAnnotations = ImmutableList.copyOf(builder.accessorAnnotations);
     }
 
@@ -552,6 +590,11 @@ abstract class Metadata_Property_Builder {
       return fullyCheckedCast;
     }
 
+    @Override
+    public boolean isWitherDeclared() {
+      return witherDeclared;
+    }
+
     @Override
     public ImmutableList<Excerpt> getAccessorAnnotations() {
       return accessorAnnotations;
@@ -592,6 +635,9 @@ abstract class Metadata_Property_Builder {
       if (fullyCheckedCast != other.fullyCheckedCast) {
         return false;
       }
+      if (witherDeclared != other.witherDeclared) {
+        return false;
+      }
       if (!accessorAnnotations.equals(other.accessorAnnotations)) {
         return false;
       }
@@ -611,6 +657,7 @@ abstract class Metadata_Property_Builder {
             getterName,
             codeGenerator,
             fullyCheckedCast,
+            witherDeclared,
             accessorAnnotations
           });
     }
@@ -628,6 +675,7 @@ abstract class Metadata_Property_Builder {
               "getterName=" + getterName,
               (codeGenerator != null ? "codeGenerator=" + codeGenerator : null),
               "fullyCheckedCast=" + fullyCheckedCast,
+              "witherDeclared=" + witherDeclared,
               "accessorAnnotations=" + accessorAnnotations)
           + "}";
     }
@@ -643,6 +691,7 @@ abstract class Metadata_Property_Builder {
     private final String getterName;
     @Nullable private final PropertyCodeGenerator codeGenerator;
     private final boolean fullyCheckedCast;
+    private final boolean witherDeclared;
     private final ImmutableList<Excerpt> accessorAnnotations;
     private final EnumSet<Property> _unsetProperties;
 
@@ -656,6 +705,7 @@ abstract class Metadata_Property_Builder {
       this.getterName = builder.getterName;
       this.codeGenerator = builder.codeGenerator;
       this.fullyCheckedCast = builder.fullyCheckedCast;
+      this.witherDeclared = builder.witherDeclared;
       this.accessorAnnotations = ImmutableList.copyOf(builder.accessorAnnotations);
       this._unsetProperties = builder._unsetProperties.clone();
     }
@@ -728,6 +778,14 @@ abstract class Metadata_Property_Builder {
       return fullyCheckedCast;
     }
 
+    @Override
+    public boolean isWitherDeclared() {
+      if (_unsetProperties.contains(Metadata_Property_Builder.Property.WITHER_DECLARED)) {
+        throw new UnsupportedOperationException("witherDeclared not set");
+      }
+      return witherDeclared;
+    }
+
     @Override
     public ImmutableList<Excerpt> getAccessorAnnotations() {
       return accessorAnnotations;
@@ -771,6 +829,9 @@ abstract class Metadata_Property_Builder {
       if (fullyCheckedCast != other.fullyCheckedCast) {
         return false;
       }
+      if (witherDeclared != other.witherDeclared) {
+        return false;
+      }
       if (!accessorAnnotations.equals(other.accessorAnnotations)) {
         return false;
       }
@@ -790,6 +851,7 @@ abstract class Metadata_Property_Builder {
             getterName,
             codeGenerator,
             fullyCheckedCast,
+            witherDeclared,
             accessorAnnotations,
             _unsetProperties
           });
@@ -822,6 +884,9 @@ abstract class Metadata_Property_Builder {
               (!_unsetProperties.contains(Metadata_Property_Builder.Property.FULLY_CHECKED_CAST)
                   ? "fullyCheckedCast=" + fullyCheckedCast
                   : null),
+              (!_unsetProperties.contains(Metadata_Property_Builder.Property.WITHER_DECLARED)
+                  ? "witherDeclared=" + witherDeclared
+                  : null),
               "accessorAnnotations=" + accessorAnnotations)
           + "}";
     }
@@ -18,17 +18,22 @@ package com.enigmabridge.ebuilder.processor;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.addAllMethod;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
 import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
 import static com.enigmabridge.ebuilder.processor.Util.upperBound;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.isEnum;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeUnbox;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
 
 import com.enigmabridge.ebuilder.processor.util.Block;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
 import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.EnumMultiset;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.LinkedHashMultiset;
@@ -64,12 +69,15 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
     Optional<TypeMirror> unboxedType = maybeUnbox(elementType, config.getTypes());
     boolean overridesSetCountMethod =
         hasSetCountMethodOverride(config, unboxedType.or(elementType));
+    boolean enumElements = config.getMetadata().isEnumCollections() && isEnum(elementType);
     return Optional.of(new CodeGenerator(
         config.getMetadata(),
         config.getProperty(),
         overridesSetCountMethod,
         elementType,
-        unboxedType));
+        unboxedType,
+        enumElements,
+        expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasSetCountMethodOverride(
@@ -89,23 +97,54 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
     private final boolean overridesSetCountMethod;
     private final TypeMirror elementType;
     private final Optional<TypeMirror> unboxedType;
+    private final boolean enumElements;
+    private final Optional<Integer> expectedSize;
 
     CodeGenerator(
         Metadata metadata,
         Metadata.Property property,
         boolean overridesSetCountMethod,
         TypeMirror elementType,
-        Optional<TypeMirror> unboxedType) {
+        Optional<TypeMirror> unboxedType,
+        boolean enumElements,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.overridesSetCountMethod = overridesSetCountMethod;
       this.elementType = elementType;
       this.unboxedType = unboxedType;
+      this.enumElements = enumElements;
+      // An EnumMultiset counts into an array of all the enum's values, so needs no sizing
+      this.expectedSize = enumElements ? Optional.<Integer>absent() : expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
-      code.addLine("final %1$s<%2$s> %3$s = %1$s.create();",
-          LinkedHashMultiset.class, elementType, property.getName());
+      // Any expected size is applied when the multiset is first copied to be modified
+      code.addLine("%s<%s> %s = %s.of();",
+          Multiset.class, elementType, property.getName(), ImmutableMultiset.class);
+    }
+
+    /** Replaces an adopted immutable multiset with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableMultiset.class);
+      if (enumElements) {
+        code.addLine("    this.%1$s = %2$s.create(this.%1$s, %3$s.class);",
+            property.getName(), EnumMultiset.class, elementType);
+      } else if (expectedSize.isPresent()) {
+        code.addLine("    %s<%s> mutable = %s.create(%s);",
+                Multiset.class, elementType, LinkedHashMultiset.class, expectedSize.get())
+            .addLine("    mutable.addAll(this.%s);", property.getName())
+            .addLine("    this.%s = mutable;", property.getName());
+      } else {
+        code.addLine("    this.%1$s = %2$s.create(this.%1$s);",
+            property.getName(), LinkedHashMultiset.class);
+      }
+      code.addLine("  }");
     }
 
     @Override
@@ -177,11 +216,22 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" */");
       addAccessorAnnotations(code);
       code.addLine("public %s %s(%s<? extends %s> elements) {",
-              metadata.getBuilder(),
+              metadata.getBuildGen(),
               addAllMethod(property),
               Iterable.class,
-              elementType)
-          .addLine("  for (%s element : elements) {", unboxedType.or(elementType))
+              elementType);
+      if (!overridesSetCountMethod) {
+        code.addLine("  if (elements instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableMultiset.class, property.getName())
+            .addLine("    // Adopt the immutable multiset; it will be copied if this builder is")
+            .addLine("    // modified")
+            .addLine("    this.%s = %s.copyOf(elements);",
+                property.getName(), ImmutableMultiset.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
+      code.addLine("  for (%s element : elements) {", unboxedType.or(elementType))
           .addLine("    %s(element, 1);", BuilderMethods.addCopiesMethod(property))
           .addLine("  }")
           .addLine("  return getThisBuilder();")
@@ -238,6 +288,7 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
               consumer.getQualifiedName(),
               Multiset.class,
               elementType);
+      addConvertToMutable(code);
       if (overridesSetCountMethod) {
         code.addLine("  mutator.accept(new CheckedMultiset<>(%s, this::%s));",
             property.getName(), BuilderMethods.setCountMethod(property));
@@ -260,7 +311,11 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
           .addLine(" */")
           .addLine("public %s %s() {", metadata.getBuildGen(), BuilderMethods.clearMethod(property))
-          .addLine("  this.%s.clear();", property.getName())
+          .addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableMultiset.class)
+          .addLine("    this.%s = %s.of();", property.getName(), ImmutableMultiset.class)
+          .addLine("  } else {")
+          .addLine("    this.%s.clear();", property.getName())
+          .addLine("  }")
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
@@ -287,6 +342,7 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
       if (!unboxedType.isPresent()) {
         code.addLine("  %s.checkNotNull(element);", Preconditions.class, property.getName());
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.setCount(element, occurrences);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -300,8 +356,9 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * %s.", metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
           .addLine(" * Changes to this builder will be reflected in the view.")
           .addLine(" */")
-          .addLine("public %s<%s> %s() {", Multiset.class, elementType, getter(property))
-          .addLine("  return %s.unmodifiableMultiset(%s);", Multisets.class, property.getName())
+          .addLine("public %s<%s> %s() {", Multiset.class, elementType, getter(property));
+      addConvertToMutable(code);
+      code.addLine("  return %s.unmodifiableMultiset(%s);", Multisets.class, property.getName())
           .addLine("}");
     }
 
@@ -313,21 +370,51 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      code.addLine("%s(%s.%s());", addAllMethod(property), value, property.getGetterName());
+      Excerpt elements = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (overridesSetCountMethod) {
+        code.addLine("%s(%s);", addAllMethod(property), elements);
+      } else {
+        // Elements of a built value were checked when they were added, so skip addAll
+        QualifiedName valueType = metadata.getValueType().getQualifiedName();
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", addAllMethod(property), elements)
+            .add("} else ");
+        addTrustedAddAll(code, elements);
+      }
     }
 
     @Override
     public void addMergeFromSuperValue(Block code, String value) {
-      addMergeFromValue(code, value);
+      code.addLine("%s(%s.%s());", addAllMethod(property), value, property.getGetterName());
     }
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      code.addLine("%s(((%s) %s).%s);",
-          addAllMethod(property),
-          metadata.getGeneratedABuilder(),
-          builder,
-          property.getName());
+      if (overridesSetCountMethod) {
+        code.addLine("%s(((%s) %s).%s);",
+            addAllMethod(property),
+            metadata.getGeneratedABuilder(),
+            builder,
+            property.getName());
+      } else {
+        Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+        addTrustedAddAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Adds all of {@code elements}, a multiset from a value or builder of this type, without
+     * checking each element again. An immutable multiset is adopted, if this one is still an
+     * empty immutable multiset.
+     */
+    private void addTrustedAddAll(Block code, Excerpt elements) {
+      code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+              elements, ImmutableMultiset.class, property.getName())
+          .addLine("  %s = %s.copyOf(%s);", property.getName(), ImmutableMultiset.class, elements)
+          .addLine("} else {");
+      addConvertToMutable(code);
+      code.addLine("  %s.addAll(%s);", property.getName(), elements)
+          .addLine("}");
     }
 
     @Override
@@ -340,12 +427,12 @@ public class MultisetPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addSetFromResult(SourceBuilder code, String builder, String variable) {
-      code.addLine("%s.%s%s(%s);", builder, addAllMethod(property), variable);
+      code.addLine("%s.%s(%s);", builder, addAllMethod(property), variable);
     }
 
     @Override
     public void addClearField(Block code) {
-      code.addLine("%s.clear();", property.getName());
+      code.addLine("%s();", BuilderMethods.clearMethod(property));
     }
 
     @Override
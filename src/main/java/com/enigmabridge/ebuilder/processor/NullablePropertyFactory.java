@@ -19,6 +19,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.mapper;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.setter;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
 
 import com.enigmabridge.ebuilder.processor.util.Block;
 import com.enigmabridge.ebuilder.processor.util.Excerpt;
@@ -49,7 +50,10 @@ public class NullablePropertyFactory implements PropertyCodeGenerator.Factory {
     if (isPrimitive || nullableAnnotations.isEmpty()) {
       return Optional.absent();
     }
-    return Optional.of(new CodeGenerator(config.getMetadata(), property, nullableAnnotations));
+    boolean overridesSetter = overrides(
+        config.getBuilder(), config.getTypes(), setter(property), property.getType());
+    return Optional.of(new CodeGenerator(
+        config.getMetadata(), property, nullableAnnotations, overridesSetter));
   }
 
   private static Set<TypeElement> nullablesIn(Iterable<? extends AnnotationMirror> annotations) {
@@ -68,10 +72,20 @@ public class NullablePropertyFactory implements PropertyCodeGenerator.Factory {
   @VisibleForTesting static class CodeGenerator extends PropertyCodeGenerator {
 
     private final Set<TypeElement> nullables;
+    private final boolean overridesSetter;
 
     CodeGenerator(Metadata metadata, Metadata.Property property, Iterable<TypeElement> nullableAnnotations) {
+      this(metadata, property, nullableAnnotations, false);
+    }
+
+    CodeGenerator(
+        Metadata metadata,
+        Metadata.Property property,
+        Iterable<TypeElement> nullableAnnotations,
+        boolean overridesSetter) {
       super(metadata, property);
       this.nullables = ImmutableSet.copyOf(nullableAnnotations);
+      this.overridesSetter = overridesSetter;
     }
 
     @Override
@@ -163,6 +177,11 @@ public class NullablePropertyFactory implements PropertyCodeGenerator.Factory {
       code.addLine("%s = %s.%s;", finalField, builder, property.getName());
     }
 
+    @Override
+    public boolean isWitherDirect() {
+      return !overridesSetter;
+    }
+
     @Override
     public void addMergeFromValue(Block code, String value) {
       code.addLine("%s(%s.%s());", setter(property), value, property.getGetterName());
@@ -197,7 +216,8 @@ public class NullablePropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addClearField(Block code) {
-      Optional<Excerpt> defaults = Declarations.freshBuilder(code, metadata);
+      Optional<Excerpt> defaults = Declarations.defaultsToCopy(
+          code, metadata, isSimpleType(property.getType()));
       if (defaults.isPresent()) {
         code.addLine("%1$s = %2$s.%1$s;", property.getName(), defaults.get());
       } else {
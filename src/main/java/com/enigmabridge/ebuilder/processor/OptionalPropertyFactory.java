@@ -166,12 +166,17 @@ public class OptionalPropertyFactory implements PropertyCodeGenerator.Factory {
       return Type.OPTIONAL;
     }
 
+    @Override
+    public Object getValueFieldType() {
+      return elementType;
+    }
+
     @Override
     public void addValueFieldDeclaration(SourceBuilder code, String finalField) {
       code.addLine("// Store a nullable object instead of an Optional. Escape analysis then")
           .addLine("// allows the JVM to optimize away the Optional objects created by our")
           .addLine("// getter method.")
-          .addLine("final %s %s;", elementType, finalField);
+          .addLine("final %s %s;", getValueFieldType(), finalField);
     }
 
     @Override
@@ -338,13 +343,18 @@ public class OptionalPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      String propertyValue = builder + "." + getter(property) + "()";
-      optional.invokeIfPresent(code, propertyValue, setter(property));
+      // Read the field rather than the getter: B is bound to the raw builder type, so the getter
+      // would return a raw Optional, which cannot be passed to the overloaded setter.
+      Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+      code.addLine("if (%s.%s != null) {", base, property.getName())
+          .addLine("  %s(%s.%s);", setter(property), base, property.getName())
+          .addLine("}");
     }
 
     @Override
     public void addMergeFromSuperBuilder(Block code, String builder) {
-      addMergeFromBuilder(code, builder);
+      String propertyValue = builder + "." + getter(property) + "()";
+      optional.invokeIfPresent(code, propertyValue, setter(property));
     }
 
     @Override
@@ -363,7 +373,8 @@ public class OptionalPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addClearField(Block code) {
-      Optional<Excerpt> defaults = Declarations.freshBuilder(code, metadata);
+      Optional<Excerpt> defaults = Declarations.defaultsToCopy(
+          code, metadata, isSimpleType(elementType));
       if (defaults.isPresent()) {
         code.addLine("%1$s = %2$s.%1$s;", property.getName(), defaults.get());
       } else {
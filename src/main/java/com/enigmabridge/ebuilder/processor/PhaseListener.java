@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Notified as the {@link Processor} moves a type through each phase of processing, so the cost of
+ * each phase can be measured.
+ *
+ * <p>A phase that throws is started but never finished.
+ */
+interface PhaseListener {
+
+  /** A phase of processing a single annotated type. */
+  enum Phase {
+    /** Building {@link Metadata} from the annotated type ({@link Analyser}). */
+    ANALYSIS,
+    /** Writing source into a compilation unit ({@link CodeGenerator}). */
+    GENERATION,
+    /**
+     * Resolving imports and formatting the compilation unit into its final text. When formatting
+     * in parallel, this is the time spent waiting for the text.
+     */
+    FORMATTING,
+    /**
+     * Handing the source to the compiler's filer. Unformatted source skips {@link #FORMATTING}
+     * and is streamed here instead.
+     */
+    WRITING
+  }
+
+  /** Called immediately before {@code phase} starts on {@code type}. */
+  void phaseStarted(TypeElement type, Phase phase);
+
+  /** Called immediately after {@code phase} completes on {@code type}. */
+  void phaseFinished(TypeElement type, Phase phase);
+
+  /** Called with the result of {@link Phase#ANALYSIS} on {@code type}. */
+  void typeAnalysed(TypeElement type, Metadata metadata);
+
+  /** Called with the length of the source file {@code name}, once it is known. */
+  void sourceGenerated(TypeElement type, QualifiedName name, int length);
+
+  /** Listener that ignores all notifications. */
+  PhaseListener NONE = new PhaseListener() {
+    @Override
+    public void phaseStarted(TypeElement type, Phase phase) {}
+
+    @Override
+    public void phaseFinished(TypeElement type, Phase phase) {}
+
+    @Override
+    public void typeAnalysed(TypeElement type, Metadata metadata) {}
+
+    @Override
+    public void sourceGenerated(TypeElement type, QualifiedName name, int length) {}
+  };
+}
@@ -0,0 +1,585 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.addAllMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.addMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.clearMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.ensureCapacityMethod;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
+import static com.enigmabridge.ebuilder.processor.BuilderMethods.mutator;
+import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
+import static com.enigmabridge.ebuilder.processor.Util.upperBound;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeUnbox;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
+import static com.enigmabridge.ebuilder.processor.util.StaticExcerpt.Type.TYPE;
+import static com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage.FUNCTION_PACKAGE;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+import com.enigmabridge.ebuilder.processor.Metadata.Property;
+import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.Config;
+import com.enigmabridge.ebuilder.processor.util.Block;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
+import com.enigmabridge.ebuilder.processor.util.ParameterizedType;
+import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.StaticExcerpt;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * {@link PropertyCodeGenerator.Factory} storing {@link List} properties of boxed {@code int},
+ * {@code long} or {@code double} elements in primitive arrays, if enabled with
+ * {@link com.enigmabridge.ebuilder.EBuilder#primitiveLists()}.
+ *
+ * <p>The builder accumulates elements into a growable primitive array, and the value type holds
+ * an immutable {@link List} view of a trimmed copy of that array, so elements are only boxed
+ * when read through the {@link List} interface.
+ */
+public class PrimitiveListPropertyFactory implements PropertyCodeGenerator.Factory {
+
+  @Override
+  public Optional<? extends PropertyCodeGenerator> create(Config config) {
+    if (!config.getMetadata().isPrimitiveLists()) {
+      return Optional.absent();
+    }
+    DeclaredType type = maybeDeclared(config.getProperty().getType()).orNull();
+    if (type == null || !erasesToAnyOf(type, Collection.class, List.class)) {
+      return Optional.absent();
+    }
+
+    TypeMirror elementType = upperBound(config.getElements(), type.getTypeArguments().get(0));
+    Optional<TypeMirror> unboxedType = maybeUnbox(elementType, config.getTypes());
+    if (!unboxedType.isPresent()) {
+      return Optional.absent();
+    }
+    Optional<Primitive> primitive = Primitive.forType(unboxedType.get());
+    if (!primitive.isPresent()) {
+      return Optional.absent();
+    }
+    boolean overridesAddMethod = overrides(
+        config.getBuilder(),
+        config.getTypes(),
+        addMethod(config.getProperty()),
+        unboxedType.get());
+    return Optional.of(new CodeGenerator(
+        config.getMetadata(),
+        config.getProperty(),
+        overridesAddMethod,
+        elementType,
+        unboxedType.get(),
+        primitive.get(),
+        expectedSize(config.getAnnotations())));
+  }
+
+  /** The primitive element types supported, and the list implementation storing each. */
+  @VisibleForTesting enum Primitive {
+    INT("int", Integer.class, "ImmutableIntList"),
+    LONG("long", Long.class, "ImmutableLongList"),
+    DOUBLE("double", Double.class, "ImmutableDoubleList");
+
+    final String type;
+    final Class<?> boxedType;
+    final String listType;
+
+    Primitive(String type, Class<?> boxedType, String listType) {
+      this.type = type;
+      this.boxedType = boxedType;
+      this.listType = listType;
+    }
+
+    static Optional<Primitive> forType(TypeMirror type) {
+      for (Primitive primitive : values()) {
+        if (type.toString().equals(primitive.type)) {
+          return Optional.of(primitive);
+        }
+      }
+      return Optional.absent();
+    }
+
+    /** Returns a boolean expression testing {@code a} and {@code b} for equality. */
+    Excerpt equal(String a, String b) {
+      if (this == DOUBLE) {
+        return Excerpts.add(
+            "%1$s.doubleToLongBits(%2$s) == %1$s.doubleToLongBits(%3$s)", Double.class, a, b);
+      }
+      return Excerpts.add("%s == %s", a, b);
+    }
+  }
+
+  @VisibleForTesting static class CodeGenerator extends PropertyCodeGenerator {
+
+    private final boolean overridesAddMethod;
+    private final TypeMirror elementType;
+    private final TypeMirror unboxedType;
+    private final Primitive primitive;
+    private final Optional<Integer> expectedSize;
+
+    @VisibleForTesting
+    CodeGenerator(
+        Metadata metadata,
+        Property property,
+        boolean overridesAddMethod,
+        TypeMirror elementType,
+        TypeMirror unboxedType,
+        Primitive primitive,
+        Optional<Integer> expectedSize) {
+      super(metadata, property);
+      this.overridesAddMethod = overridesAddMethod;
+      this.elementType = elementType;
+      this.unboxedType = unboxedType;
+      this.primitive = primitive;
+      this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
+    }
+
+    @Override
+    public void addBuilderFieldDeclaration(SourceBuilder code) {
+      // The array is allocated on first use; only the first size() elements are valid.
+      code.addLine("%s[] %s;", primitive.type, property.getName())
+          .addLine("int %s;", sizeField());
+    }
+
+    @Override
+    public void addBuilderFieldAccessors(SourceBuilder code) {
+      addEnsureCapacity(code, metadata);
+      addAdd(code, metadata);
+      addVarargsAdd(code, metadata);
+      addAddAll(code, metadata);
+      addMutate(code, metadata);
+      addClear(code, metadata);
+      addGetter(code, metadata);
+    }
+
+    private void addEnsureCapacity(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Ensures the list to be returned from %s can hold at least",
+              metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" * {@code minCapacity} elements without reallocating.")
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" */")
+          .addLine("public %s %s(int minCapacity) {",
+              metadata.getBuildGen(), ensureCapacityMethod(property))
+          .addLine("  if (%s == null) {", property.getName())
+          .addLine("    %s = new %s[%s.max(minCapacity, %s)];",
+              property.getName(), primitive.type, Math.class, expectedSize.or(10))
+          .addLine("  } else if (minCapacity > %s.length) {", property.getName())
+          .addLine("    %1$s = %2$s.copyOf(%1$s, %3$s.max(minCapacity, %1$s.length * 2));",
+              property.getName(), Arrays.class, Math.class)
+          .addLine("  }")
+          .addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    private void addAdd(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Adds {@code element} to the list to be returned from %s.",
+              metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" */")
+          .addLine("public %s %s(%s element) {",
+              metadata.getBuildGen(), addMethod(property), primitive.type)
+          .addLine("  %s(%s + 1);", ensureCapacityMethod(property), sizeField())
+          .addLine("  %s[%s++] = element;", property.getName(), sizeField())
+          .addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    private void addVarargsAdd(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Adds each element of {@code elements} to the list to be returned from")
+          .addLine(" * %s.", metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" * @throws NullPointerException if {@code elements} is null")
+          .addLine(" */")
+          .addLine("public %s %s(%s... elements) {",
+              metadata.getBuildGen(), addMethod(property), primitive.type)
+          .addLine("  %s(%s + elements.length);", ensureCapacityMethod(property), sizeField());
+      if (overridesAddMethod) {
+        code.addLine("  for (%s element : elements) {", primitive.type)
+            .addLine("    %s(element);", addMethod(property))
+            .addLine("  }");
+      } else {
+        code.addLine("  %s.arraycopy(elements, 0, %s, %s, elements.length);",
+                System.class, property.getName(), sizeField())
+            .addLine("  %s += elements.length;", sizeField());
+      }
+      code.addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    private void addAddAll(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Adds each element of {@code elements} to the list to be returned from")
+          .addLine(" * %s.", metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" * @throws NullPointerException if {@code elements} is null or contains a")
+          .addLine(" *     null element")
+          .addLine(" */");
+      addAccessorAnnotations(code);
+      code.addLine("public %s %s(%s<? extends %s> elements) {",
+          metadata.getBuildGen(), addAllMethod(property), Iterable.class, elementType);
+      if (!overridesAddMethod) {
+        code.addLine("  if (elements instanceof %s.%s) {",
+                metadata.getGeneratedBuilder().getQualifiedName(), primitive.listType)
+            .addLine("    return %s(((%s.%s) elements).elements);",
+                addMethod(property),
+                metadata.getGeneratedBuilder().getQualifiedName(),
+                primitive.listType)
+            .addLine("  }");
+      }
+      // Copying a collection to an array first sizes the storage once, and stops a view of this
+      // builder growing while it is being added to itself.
+      code.addLine("  if (elements instanceof %s) {", Collection.class)
+          .addLine("    Object[] array = ((%s<?>) elements).toArray();", Collection.class)
+          .addLine("    %s(%s + array.length);", ensureCapacityMethod(property), sizeField())
+          .addLine("    for (Object element : array) {");
+      if (overridesAddMethod) {
+        code.addLine("      %s((%s) element);", addMethod(property), primitive.boxedType);
+      } else {
+        code.addLine("      %s[%s] = (%s) element;",
+                property.getName(), sizeField(), primitive.boxedType)
+            .addLine("      %s++;", sizeField());
+      }
+      code.addLine("    }")
+          .addLine("    return getThisBuilder();")
+          .addLine("  }")
+          .add(Excerpts.forEach(unboxedType, "elements", addMethod(property)))
+          .addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    private void addMutate(SourceBuilder code, Metadata metadata) {
+      ParameterizedType consumer = code.feature(FUNCTION_PACKAGE).consumer().orNull();
+      if (consumer == null) {
+        return;
+      }
+      String builder = metadata.getGeneratedABuilder().getSimpleName();
+      String elements = builder + ".this." + property.getName();
+      String size = builder + ".this." + sizeField();
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Applies {@code mutator} to the list to be returned from %s.",
+              metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" *")
+          .addLine(" * <p>This method mutates the list in-place. {@code mutator} is a void")
+          .addLine(" * consumer, so any value returned from a lambda will be ignored.")
+          .addLine(" *")
+          .addLine(" * @return this {@code Builder} object")
+          .addLine(" * @throws NullPointerException if {@code mutator} is null")
+          .addLine(" */")
+          .addLine("public %s %s(%s<? super %s<%s>> mutator) {",
+              metadata.getBuildGen(),
+              mutator(property),
+              consumer.getQualifiedName(),
+              List.class,
+              elementType)
+          .addLine("  // Writes through to the array, so no copy of the elements is made")
+          .addLine("  %s<%s> elements = new %s<%s>() {",
+              List.class, elementType, AbstractList.class, elementType)
+          .addLine("    @%s public int size() {", Override.class)
+          .addLine("      return %s;", size)
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s public %s get(int index) {", Override.class, elementType)
+          .addLine("      checkIndex(index, %s);", size)
+          .addLine("      return %s[index];", elements)
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s public %s set(int index, %s element) {",
+              Override.class, elementType, elementType)
+          .addLine("      checkIndex(index, %s);", size);
+      addValueDeclaration(code, size, elements);
+      code.addLine("      %s previous = %s[index];", primitive.type, elements)
+          .addLine("      %s[index] = value;", elements)
+          .addLine("      return previous;")
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s public void add(int index, %s element) {", Override.class, elementType)
+          .addLine("      checkIndex(index, %s + 1);", size);
+      addValueDeclaration(code, size, elements);
+      code.addLine("      %s(%s + 1);", ensureCapacityMethod(property), size)
+          .addLine("      %s.arraycopy(%s, index, %s, index + 1, %s - index);",
+              System.class, elements, elements, size)
+          .addLine("      %s[index] = value;", elements)
+          .addLine("      %s++;", size)
+          .addLine("      modCount++;")
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s public %s remove(int index) {", Override.class, elementType)
+          .addLine("      checkIndex(index, %s);", size)
+          .addLine("      %s previous = %s[index];", primitive.type, elements)
+          .addLine("      %s.arraycopy(%s, index + 1, %s, index, %s - index - 1);",
+              System.class, elements, elements, size)
+          .addLine("      %s--;", size)
+          .addLine("      modCount++;")
+          .addLine("      return previous;")
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s protected void removeRange(int fromIndex, int toIndex) {",
+              Override.class)
+          .addLine("      if (fromIndex < toIndex) {")
+          .addLine("        %s.arraycopy(%s, toIndex, %s, fromIndex, %s - toIndex);",
+              System.class, elements, elements, size)
+          .addLine("        %s -= toIndex - fromIndex;", size)
+          .addLine("        modCount++;")
+          .addLine("      }")
+          .addLine("    }")
+          .addLine("")
+          .addLine("    private void checkIndex(int index, int size) {")
+          .addLine("      if (index < 0 || index >= size) {")
+          .addLine("        throw new %s(\"Index: \" + index);", IndexOutOfBoundsException.class)
+          .addLine("      }")
+          .addLine("    }")
+          .addLine("  };")
+          .addLine("  mutator.accept(elements);")
+          .addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    /**
+     * Declares {@code value}, the primitive to store for {@code element}. If the add method is
+     * overridden, {@code element} is first passed through it, then taken back off the end.
+     */
+    private void addValueDeclaration(SourceBuilder code, String size, String elements) {
+      if (overridesAddMethod) {
+        code.addLine("      %s(element);", addMethod(property))
+            .addLine("      %s value = %s[--%s];", primitive.type, elements, size);
+      } else {
+        code.addLine("      // If %s is overridden, this method will be updated to delegate to it",
+                addMethod(property))
+            .addLine("      %s value = element;", primitive.type);
+      }
+    }
+
+    private void addClear(SourceBuilder code, Metadata metadata) {
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Clears the list to be returned from %s.",
+              metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" *")
+          .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
+          .addLine(" */")
+          .addLine("public %s %s() {", metadata.getBuildGen(), clearMethod(property))
+          .addLine("  %s = 0;", sizeField())
+          .addLine("  return getThisBuilder();")
+          .addLine("}");
+    }
+
+    private void addGetter(SourceBuilder code, Metadata metadata) {
+      String builder = metadata.getGeneratedABuilder().getSimpleName();
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * Returns an unmodifiable view of the list that will be returned by")
+          .addLine(" * %s.", metadata.getType().javadocNoArgMethodLink(property.getGetterName()))
+          .addLine(" * Changes to this builder will be reflected in the view.")
+          .addLine(" */")
+          .addLine("public %s<%s> %s() {", List.class, elementType, getter(property))
+          .addLine("  return new %s<%s>() {", AbstractList.class, elementType)
+          .addLine("    @%s public int size() {", Override.class)
+          .addLine("      return %s.this.%s;", builder, sizeField())
+          .addLine("    }")
+          .addLine("")
+          .addLine("    @%s public %s get(int index) {", Override.class, elementType)
+          .addLine("      if (index < 0 || index >= %s.this.%s) {", builder, sizeField())
+          .addLine("        throw new %s(\"Index: \" + index);", IndexOutOfBoundsException.class)
+          .addLine("      }")
+          .addLine("      return %s.this.%s[index];", builder, property.getName())
+          .addLine("    }")
+          .addLine("  };")
+          .addLine("}");
+    }
+
+    @Override
+    public void addFinalFieldAssignment(SourceBuilder code, String finalField, String builder) {
+      code.addLine("%s = %s.copyOf(%s.%s, %s.%s);",
+          finalField, primitive.listType, builder, property.getName(), builder, sizeField());
+    }
+
+    @Override
+    public void addMergeFromValue(Block code, String value) {
+      code.addLine("%s(%s.%s());", addAllMethod(property), value, property.getGetterName());
+    }
+
+    @Override
+    public void addMergeFromSuperValue(Block code, String value) {
+      addMergeFromValue(code, value);
+    }
+
+    @Override
+    public void addMergeFromBuilder(Block code, String builder) {
+      Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+      if (overridesAddMethod) {
+        code.addLine("for (int i = 0; i < %s.%s; i++) {", base, sizeField())
+            .addLine("  %s(%s.%s[i]);", addMethod(property), base, property.getName())
+            .addLine("}");
+      } else {
+        code.addLine("if (%s.%s != 0) {", base, sizeField())
+            .addLine("  %s(%s + %s.%s);",
+                ensureCapacityMethod(property), sizeField(), base, sizeField())
+            .addLine("  %s.arraycopy(%s.%s, 0, %s, %s, %s.%s);",
+                System.class,
+                base,
+                property.getName(),
+                property.getName(),
+                sizeField(),
+                base,
+                sizeField())
+            .addLine("  %s += %s.%s;", sizeField(), base, sizeField())
+            .addLine("}");
+      }
+    }
+
+    @Override
+    public void addMergeFromSuperBuilder(Block code, String builder) {
+      code.addLine("%s(%s.%s());", addAllMethod(property), builder, getter(property));
+    }
+
+    @Override
+    public void addSetFromResult(SourceBuilder code, String builder, String variable) {
+      code.addLine("%s.%s(%s);", builder, addAllMethod(property), variable);
+    }
+
+    @Override
+    public void addClearField(Block code) {
+      code.addLine("%s();", clearMethod(property));
+    }
+
+    @Override
+    public Set<StaticExcerpt> getStaticExcerpts() {
+      return ImmutableSet.<StaticExcerpt>of(new PrimitiveListExcerpt(primitive));
+    }
+
+    private String sizeField() {
+      return property.getName() + "Size";
+    }
+  }
+
+  /** Excerpt defining an immutable list backed by an array of {@code primitive} values. */
+  private static final class PrimitiveListExcerpt extends StaticExcerpt {
+
+    private final Primitive primitive;
+
+    PrimitiveListExcerpt(Primitive primitive) {
+      super(TYPE, primitive.listType);
+      this.primitive = primitive;
+    }
+
+    @Override
+    public void addTo(SourceBuilder code) {
+      String name = primitive.listType;
+      String type = primitive.type;
+      Class<?> boxed = primitive.boxedType;
+      code.addLine("")
+          .addLine("/**")
+          .addLine(" * An immutable list of {@code %s} values, backed by a primitive array.", type)
+          .addLine(" */")
+          .addLine("static final class %s extends %s<%s> implements %s, %s {",
+              name, AbstractList.class, boxed, RandomAccess.class, Serializable.class)
+          .addLine("")
+          .addLine("  private static final long serialVersionUID = 1L;")
+          .addLine("")
+          .addLine("  private static final %1$s EMPTY = new %1$s(new %2$s[0]);", name, type)
+          .addLine("")
+          .addLine("  final %s[] elements;", type)
+          .addLine("")
+          .addLine("  private %s(%s[] elements) {", name, type)
+          .addLine("    this.elements = elements;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  /** Returns a list of the first {@code size} values of {@code elements}. */")
+          .addLine("  static %s copyOf(%s[] elements, int size) {", name, type)
+          .addLine("    return (size == 0) ? EMPTY : new %s(%s.copyOf(elements, size));",
+              name, Arrays.class)
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public int size() {", Override.class)
+          .addLine("    return elements.length;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public %s get(int index) {", Override.class, boxed)
+          .addLine("    return elements[index];")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public boolean contains(Object o) {", Override.class)
+          .addLine("    return indexOf(o) >= 0;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public int indexOf(Object o) {", Override.class)
+          .addLine("    if (o instanceof %s) {", boxed)
+          .addLine("      %s value = (%s) o;", type, boxed)
+          .addLine("      for (int i = 0; i < elements.length; i++) {")
+          .addLine("        if (%s) {", primitive.equal("elements[i]", "value"))
+          .addLine("          return i;")
+          .addLine("        }")
+          .addLine("      }")
+          .addLine("    }")
+          .addLine("    return -1;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public int lastIndexOf(Object o) {", Override.class)
+          .addLine("    if (o instanceof %s) {", boxed)
+          .addLine("      %s value = (%s) o;", type, boxed)
+          .addLine("      for (int i = elements.length - 1; i >= 0; i--) {")
+          .addLine("        if (%s) {", primitive.equal("elements[i]", "value"))
+          .addLine("          return i;")
+          .addLine("        }")
+          .addLine("      }")
+          .addLine("    }")
+          .addLine("    return -1;")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public boolean equals(Object o) {", Override.class)
+          .addLine("    if (o instanceof %s) {", name)
+          .addLine("      return %s.equals(elements, ((%s) o).elements);", Arrays.class, name)
+          .addLine("    }")
+          .addLine("    return super.equals(o);")
+          .addLine("  }")
+          .addLine("")
+          .addLine("  @%s public int hashCode() {", Override.class)
+          .addLine("    // Matches List.hashCode of the boxed values")
+          .addLine("    return %s.hashCode(elements);", Arrays.class)
+          .addLine("  }")
+          .addLine("}");
+    }
+  }
+}
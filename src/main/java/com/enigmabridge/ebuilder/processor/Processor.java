@@ -18,29 +18,50 @@ package com.enigmabridge.ebuilder.processor;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static javax.lang.model.util.ElementFilter.typesIn;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.findAnnotationMirror;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeAsTypeElement;
 import static com.enigmabridge.ebuilder.processor.util.RoundEnvironments.annotatedElementsIn;
 
 import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.PhaseListener.Phase;
 import com.enigmabridge.ebuilder.processor.util.FilerUtils;
+import com.enigmabridge.ebuilder.processor.util.FormatCache;
+import com.enigmabridge.ebuilder.processor.util.PackageSiblings;
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting;
 import com.google.auto.service.AutoService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import com.enigmabridge.ebuilder.processor.util.CompilationUnitBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.EnvironmentFeatureSet;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.FilerException;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic.Kind;
 
 /**
@@ -49,23 +70,66 @@ import javax.tools.Diagnostic.Kind;
  * <p>Processing is split into analysis (owned by the {@link Analyser}) and code generation (owned
  * by the {@link CodeGenerator}), communicating through the metadata object ({@link Metadata}), for
  * testability.
+ *
+ * <p>With {@code -Aebuilder.formatThreads=<n>}, formatting runs on a pool of {@code n} threads.
+ * Analysis and generation still run on the compiler thread, as they use the compiler's model of
+ * the source, and so does writing to the filer; only the finished compilation units, which are
+ * plain text, are handed to the pool.
  */
 @AutoService(javax.annotation.processing.Processor.class)
 public class Processor extends AbstractProcessor {
 
+  /** Processor option setting the number of threads to format generated source on. */
+  static final String FORMAT_THREADS_OPTION = "ebuilder.formatThreads";
+
+  /** Formatted sources held per formatting thread before waiting for the oldest to be written. */
+  private static final int PENDING_SOURCES_PER_THREAD = 4;
+
+  /** A compilation unit being formatted on the pool, waiting to be written. */
+  private static class PendingSource {
+    final TypeElement type;
+    final Element[] originatingElements;
+    final QualifiedName name;
+    final Future<String> source;
+
+    PendingSource(
+        TypeElement type,
+        Element[] originatingElements,
+        QualifiedName name,
+        Future<String> source) {
+      this.type = type;
+      this.originatingElements = originatingElements;
+      this.name = name;
+      this.source = source;
+    }
+  }
+
   private Analyser analyser;
   private final CodeGenerator codeGenerator = new CodeGenerator();
   private final FeatureSet features;
+  private final PhaseListener phaseListener;
 
   private transient FeatureSet environmentFeatures;
+  private transient Optional<FormatCache> formatCache;
+  private transient Profiler profiler;
+  private transient PhaseListener listener;
+  private transient int formatThreads;
+  private transient ExecutorService formatExecutor;
+  private transient Queue<PendingSource> pendingSources;
 
   public Processor() {
-    this.features = null;
+    this(null, PhaseListener.NONE);
   }
 
   @VisibleForTesting
   public Processor(FeatureSet features) {
+    this(features, PhaseListener.NONE);
+  }
+
+  @VisibleForTesting
+  Processor(FeatureSet features, PhaseListener phaseListener) {
     this.features = features;
+    this.phaseListener = phaseListener;
   }
 
   @Override
@@ -73,6 +137,16 @@ public class Processor extends AbstractProcessor {
     return ImmutableSet.of(EBuilder.class.getName());
   }
 
+  @Override
+  public Set<String> getSupportedOptions() {
+    return ImmutableSet.of(
+        Profiler.OPTION,
+        SourceFormatting.OPTION,
+        FormatCache.OPTION,
+        FormatCache.SIZE_OPTION,
+        FORMAT_THREADS_OPTION);
+  }
+
   @Override
   public SourceVersion getSupportedSourceVersion() {
     return SourceVersion.latestSupported();
@@ -89,66 +163,250 @@ public class Processor extends AbstractProcessor {
     if (features == null) {
       environmentFeatures = new EnvironmentFeatureSet(processingEnv);
     }
+    formatCache = formatCache(processingEnv);
+    formatThreads = formatThreads(processingEnv);
+    listener = phaseListener;
+    if (processingEnv.getOptions().get(Profiler.OPTION) != null) {
+      profiler = new Profiler(phaseListener);
+      listener = profiler;
+    }
   }
 
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    PackageSiblings siblings = new PackageSiblings(processingEnv.getElementUtils());
+    if (formatThreads > 1) {
+      formatExecutor = Executors.newFixedThreadPool(formatThreads, new ThreadFactoryBuilder()
+          .setDaemon(true)
+          .setNameFormat("ebuilder-format-%d")
+          .build());
+      pendingSources = new ArrayDeque<PendingSource>();
+    }
     for (TypeElement type : typesIn(annotatedElementsIn(roundEnv, EBuilder.class))) {
       try {
+        listener.phaseStarted(type, Phase.ANALYSIS);
         Metadata metadata = analyser.analyse(type);
-        CompilationUnitBuilder code = new CompilationUnitBuilder(
-            processingEnv,
-            metadata.getGeneratedABuilder().getQualifiedName(),
-            metadata.getVisibleNestedTypes(),
-            firstNonNull(features, environmentFeatures));
+        listener.phaseFinished(type, Phase.ANALYSIS);
+        listener.typeAnalysed(type, metadata);
+        Element[] originatingElements = originatingElements(type, metadata);
 
         // Abstract base builder
-        codeGenerator.writeABuilderSource(code, metadata);
-        FilerUtils.writeCompilationUnit(
-            processingEnv.getFiler(),
-            metadata.getGeneratedABuilder().getQualifiedName(),
-            type,
-            code.toString());
+        writeSource(siblings, type, originatingElements,
+            metadata.getGeneratedABuilder().getQualifiedName(), metadata, false);
 
         // Normal abstract builder
-        CompilationUnitBuilder code2 = new CompilationUnitBuilder(
-                processingEnv,
-                metadata.getGeneratedBuilder().getQualifiedName(),
-                metadata.getVisibleNestedTypes(),
-                firstNonNull(features, environmentFeatures));
-
-        codeGenerator.writeBuilderSource(code2, metadata);
-        FilerUtils.writeCompilationUnit(
-                processingEnv.getFiler(),
-                metadata.getGeneratedBuilder().getQualifiedName(),
-                type,
-                code2.toString());
+        writeSource(siblings, type, originatingElements,
+            metadata.getGeneratedBuilder().getQualifiedName(), metadata, true);
 
       } catch (Analyser.CannotGenerateCodeException e) {
         // Thrown to skip writing the builder source; the error will already have been issued.
-      } catch (FilerException e) {
-        processingEnv.getMessager().printMessage(
-            Kind.WARNING,
-            "Error producing Builder: " + e.getMessage(),
-            type,
-            findAnnotationMirror(type, "EBuilder").get());
       } catch (IOException e) {
-        processingEnv.getMessager().printMessage(
-            Kind.ERROR,
-            "I/O error: " + Throwables.getStackTraceAsString(e),
-            type,
-            findAnnotationMirror(type, "EBuilder").get());
+        reportFailure(type, e);
       } catch (RuntimeException e) {
-        processingEnv.getMessager().printMessage(
-            Kind.ERROR,
-            "Internal error: " + Throwables.getStackTraceAsString(e),
-            type,
-            findAnnotationMirror(type, "EBuilder").get());
+        reportFailure(type, e);
+      }
+    }
+    if (formatExecutor != null) {
+      try {
+        writePendingSources(0);
+      } finally {
+        formatExecutor.shutdownNow();
+        formatExecutor = null;
+        pendingSources = null;
+      }
+    }
+    analyser.endRound();
+    if (roundEnv.processingOver()) {
+      if (formatCache.isPresent()) {
+        formatCache.get().evict();
+      }
+      if (profiler != null) {
+        writeProfile();
       }
     }
     return false;
   }
 
+  private static Optional<FormatCache> formatCache(ProcessingEnvironment processingEnv) {
+    String directory = processingEnv.getOptions().get(FormatCache.OPTION);
+    if (directory == null) {
+      return Optional.absent();
+    }
+    int maxEntries = FormatCache.DEFAULT_SIZE;
+    String size = processingEnv.getOptions().get(FormatCache.SIZE_OPTION);
+    if (size != null) {
+      try {
+        maxEntries = Integer.parseInt(size);
+      } catch (NumberFormatException e) {
+        processingEnv.getMessager().printMessage(Kind.WARNING, "Invalid -A"
+            + FormatCache.SIZE_OPTION + ": '" + size + "'; using " + maxEntries);
+      }
+    }
+    return Optional.of(new FormatCache(new File(directory), maxEntries));
+  }
+
+  private static int formatThreads(ProcessingEnvironment processingEnv) {
+    String threads = processingEnv.getOptions().get(FORMAT_THREADS_OPTION);
+    if (threads == null) {
+      return 1;
+    }
+    try {
+      int formatThreads = Integer.parseInt(threads);
+      if (formatThreads > 0) {
+        return formatThreads;
+      }
+    } catch (NumberFormatException e) {
+      // Fall through to the warning below
+    }
+    processingEnv.getMessager().printMessage(Kind.WARNING, "Invalid -A"
+        + FORMAT_THREADS_OPTION + ": '" + threads + "'; formatting on the compiler thread");
+    return 1;
+  }
+
+  private void reportFailure(TypeElement type, Exception e) {
+    if (e instanceof FilerException) {
+      processingEnv.getMessager().printMessage(
+          Kind.WARNING,
+          "Error producing Builder: " + e.getMessage(),
+          type,
+          findAnnotationMirror(type, EBuilder.class).get());
+    } else if (e instanceof IOException) {
+      processingEnv.getMessager().printMessage(
+          Kind.ERROR,
+          "I/O error: " + Throwables.getStackTraceAsString(e),
+          type,
+          findAnnotationMirror(type, EBuilder.class).get());
+    } else {
+      processingEnv.getMessager().printMessage(
+          Kind.ERROR,
+          "Internal error: " + Throwables.getStackTraceAsString(e),
+          type,
+          findAnnotationMirror(type, EBuilder.class).get());
+    }
+  }
+
+  private void writeProfile() {
+    File file = new File(processingEnv.getOptions().get(Profiler.OPTION));
+    try {
+      profiler.writeReport(file);
+      processingEnv.getMessager().printMessage(
+          Kind.NOTE, profiler.summary() + "; profile written to " + file.getAbsolutePath());
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Kind.WARNING, "Could not write EBuilder profile to " + file + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the elements whose shape the sources generated for {@code type} depend on: the type
+   * itself, its supertypes, and the types of its properties (and their type arguments), which
+   * decide e.g. whether a property is buildable.
+   */
+  private static Element[] originatingElements(TypeElement type, Metadata metadata)
+      throws Analyser.CannotGenerateCodeException {
+    Set<Element> elements = new LinkedHashSet<Element>();
+    elements.add(type);
+    elements.addAll(MethodFinder.getSupertypes(type));
+    for (Metadata.Property property : metadata.getProperties()) {
+      addTypeElements(property.getType(), elements);
+    }
+    return elements.toArray(new Element[elements.size()]);
+  }
+
+  private static void addTypeElements(TypeMirror type, Set<Element> elements) {
+    Optional<TypeElement> element = maybeAsTypeElement(type);
+    if (element.isPresent() && elements.add(element.get())) {
+      for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+        addTypeElements(typeArgument, elements);
+      }
+    }
+  }
+
+  private void writeSource(
+      PackageSiblings siblings,
+      TypeElement type,
+      Element[] originatingElements,
+      QualifiedName name,
+      Metadata metadata,
+      boolean builder) throws IOException {
+    listener.phaseStarted(type, Phase.GENERATION);
+    CompilationUnitBuilder code = new CompilationUnitBuilder(
+        siblings,
+        formatCache,
+        name,
+        metadata.getVisibleNestedTypes(),
+        firstNonNull(features, environmentFeatures));
+    if (builder) {
+      codeGenerator.writeBuilderSource(code, metadata);
+    } else {
+      codeGenerator.writeABuilderSource(code, metadata);
+    }
+    listener.phaseFinished(type, Phase.GENERATION);
+
+    if (code.isStreamable()) {
+      listener.sourceGenerated(type, name, code.length());
+      listener.phaseStarted(type, Phase.WRITING);
+      FilerUtils.writeCompilationUnit(processingEnv.getFiler(), name, code, originatingElements);
+      listener.phaseFinished(type, Phase.WRITING);
+    } else if (formatExecutor != null) {
+      pendingSources.add(new PendingSource(
+          type, originatingElements, name, formatExecutor.submit(format(code))));
+      writePendingSources(formatThreads * PENDING_SOURCES_PER_THREAD);
+    } else {
+      listener.phaseStarted(type, Phase.FORMATTING);
+      String source = code.toString();
+      listener.phaseFinished(type, Phase.FORMATTING);
+      writeFormattedSource(type, originatingElements, name, source);
+    }
+    siblings.addGeneratedType(name);
+  }
+
+  private void writeFormattedSource(
+      TypeElement type, Element[] originatingElements, QualifiedName name, String source)
+      throws IOException {
+    listener.sourceGenerated(type, name, source.length());
+    listener.phaseStarted(type, Phase.WRITING);
+    FilerUtils.writeCompilationUnit(processingEnv.getFiler(), name, source, originatingElements);
+    listener.phaseFinished(type, Phase.WRITING);
+  }
+
+  /**
+   * Writes formatted sources, oldest first, until at most {@code maxPending} remain.
+   *
+   * <p>{@link Phase#FORMATTING} is reported as the time spent waiting for each source to be
+   * formatted, as the pool's threads cannot notify the listener themselves.
+   */
+  private void writePendingSources(int maxPending) {
+    while (pendingSources.size() > maxPending) {
+      PendingSource pending = pendingSources.remove();
+      try {
+        listener.phaseStarted(pending.type, Phase.FORMATTING);
+        String source;
+        try {
+          source = Uninterruptibles.getUninterruptibly(pending.source);
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause());
+          throw new RuntimeException(e.getCause());
+        }
+        listener.phaseFinished(pending.type, Phase.FORMATTING);
+        writeFormattedSource(pending.type, pending.originatingElements, pending.name, source);
+      } catch (IOException e) {
+        reportFailure(pending.type, e);
+      } catch (RuntimeException e) {
+        reportFailure(pending.type, e);
+      }
+    }
+  }
+
+  private static Callable<String> format(final CompilationUnitBuilder code) {
+    return new Callable<String>() {
+      @Override
+      public String call() {
+        return code.toString();
+      }
+    };
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof Processor)) {
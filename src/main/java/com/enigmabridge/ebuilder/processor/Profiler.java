@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * {@link PhaseListener} recording per-type, per-phase timings, property counts and generated
+ * source sizes, enabled with {@code -Aebuilder.profile=<path>}.
+ *
+ * <p>The report is written as CSV if the path ends in {@code .csv}, and as JSON otherwise.
+ */
+class Profiler implements PhaseListener {
+
+  /** Processor option naming the file to write the profile to. */
+  static final String OPTION = "ebuilder.profile";
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private static class TypeProfile {
+    final String name;
+    final long[] nanos = new long[PHASES.length];
+    int properties;
+    int generatedChars;
+
+    TypeProfile(String name) {
+      this.name = name;
+    }
+
+    long totalNanos() {
+      long total = 0;
+      for (long phaseNanos : nanos) {
+        total += phaseNanos;
+      }
+      return total;
+    }
+  }
+
+  private final PhaseListener delegate;
+  private final Map<String, TypeProfile> profiles = new LinkedHashMap<String, TypeProfile>();
+  private long phaseStartNanos;
+
+  Profiler(PhaseListener delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void phaseStarted(TypeElement type, Phase phase) {
+    delegate.phaseStarted(type, phase);
+    phaseStartNanos = System.nanoTime();
+  }
+
+  @Override
+  public void phaseFinished(TypeElement type, Phase phase) {
+    profile(type).nanos[phase.ordinal()] += System.nanoTime() - phaseStartNanos;
+    delegate.phaseFinished(type, phase);
+  }
+
+  @Override
+  public void typeAnalysed(TypeElement type, Metadata metadata) {
+    profile(type).properties = metadata.getProperties().size();
+    delegate.typeAnalysed(type, metadata);
+  }
+
+  @Override
+  public void sourceGenerated(TypeElement type, QualifiedName name, int length) {
+    profile(type).generatedChars += length;
+    delegate.sourceGenerated(type, name, length);
+  }
+
+  /**
+   * Returns a one-line summary of the profile: totals per phase, and the most expensive type.
+   */
+  String summary() {
+    long[] totals = new long[PHASES.length];
+    TypeProfile slowest = null;
+    for (TypeProfile profile : profiles.values()) {
+      for (int i = 0; i < PHASES.length; i++) {
+        totals[i] += profile.nanos[i];
+      }
+      if (slowest == null || profile.totalNanos() > slowest.totalNanos()) {
+        slowest = profile;
+      }
+    }
+    StringBuilder summary = new StringBuilder()
+        .append("EBuilder processed ").append(profiles.size()).append(" types (");
+    for (int i = 0; i < PHASES.length; i++) {
+      summary.append(i == 0 ? "" : ", ")
+          .append(phaseName(PHASES[i])).append(" ").append(millis(totals[i])).append(" ms");
+    }
+    summary.append(")");
+    if (slowest != null) {
+      summary.append("; slowest ").append(slowest.name)
+          .append(" (").append(millis(slowest.totalNanos())).append(" ms)");
+    }
+    return summary.toString();
+  }
+
+  /** Writes the report to {@code file}, as CSV or JSON depending on its extension. */
+  void writeReport(File file) throws IOException {
+    String report = file.getName().endsWith(".csv") ? csv() : json();
+    Files.asCharSink(file, UTF_8).write(report);
+  }
+
+  private String csv() {
+    StringBuilder csv = new StringBuilder("type,properties,generatedChars");
+    for (Phase phase : PHASES) {
+      csv.append(",").append(phaseName(phase)).append("Nanos");
+    }
+    csv.append("\n");
+    for (TypeProfile profile : profiles.values()) {
+      csv.append(profile.name)
+          .append(",").append(profile.properties)
+          .append(",").append(profile.generatedChars);
+      for (long phaseNanos : profile.nanos) {
+        csv.append(",").append(phaseNanos);
+      }
+      csv.append("\n");
+    }
+    return csv.toString();
+  }
+
+  private String json() {
+    StringBuilder json = new StringBuilder("{\"types\": [");
+    String separator = "\n";
+    for (TypeProfile profile : profiles.values()) {
+      json.append(separator)
+          .append("  {\"type\": \"").append(profile.name).append("\"")
+          .append(", \"properties\": ").append(profile.properties)
+          .append(", \"generatedChars\": ").append(profile.generatedChars);
+      for (Phase phase : PHASES) {
+        json.append(", \"").append(phaseName(phase)).append("Nanos\": ")
+            .append(profile.nanos[phase.ordinal()]);
+      }
+      json.append("}");
+      separator = ",\n";
+    }
+    return json.append("\n]}\n").toString();
+  }
+
+  private TypeProfile profile(TypeElement type) {
+    // Types are keyed by name, as each round has its own elements.
+    String name = type.getQualifiedName().toString();
+    TypeProfile profile = profiles.get(name);
+    if (profile == null) {
+      profile = new TypeProfile(name);
+      profiles.put(name, profile);
+    }
+    return profile;
+  }
+
+  private static String phaseName(Phase phase) {
+    return phase.name().toLowerCase();
+  }
+
+  private static long millis(long nanos) {
+    return nanos / 1000000;
+  }
+}
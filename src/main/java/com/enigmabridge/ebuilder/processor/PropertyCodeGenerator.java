@@ -15,6 +15,8 @@
  */
 package com.enigmabridge.ebuilder.processor;
 
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeAsTypeElement;
+
 import com.enigmabridge.ebuilder.processor.util.Block;
 import com.enigmabridge.ebuilder.processor.util.Excerpt;
 import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
@@ -33,7 +35,9 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
@@ -79,6 +83,17 @@ public abstract class PropertyCodeGenerator {
     Optional<? extends PropertyCodeGenerator> create(Config config);
   }
 
+  private static final ImmutableSet<String> SIMPLE_TYPES = ImmutableSet.of(
+      String.class.getName(),
+      Boolean.class.getName(),
+      Byte.class.getName(),
+      Short.class.getName(),
+      Character.class.getName(),
+      Integer.class.getName(),
+      Long.class.getName(),
+      Float.class.getName(),
+      Double.class.getName());
+
   protected final Metadata metadata;
   protected final Metadata.Property property;
 
@@ -95,9 +110,47 @@ public abstract class PropertyCodeGenerator {
     return Type.HAS_DEFAULT;
   }
 
+  /**
+   * Relative cost of comparing two values of a property, cheapest first. The generated equals
+   * methods compare cheaper properties first, so unequal values are usually rejected early.
+   */
+  public enum EqualsCost { PRIMITIVE, SIMPLE, NESTED, COLLECTION }
+
+  /**
+   * Returns the relative cost of comparing two values of the property. By default, primitives
+   * are {@link EqualsCost#PRIMITIVE}; enums, strings and boxed primitives are
+   * {@link EqualsCost#SIMPLE}; everything else is {@link EqualsCost#NESTED}.
+   */
+  public EqualsCost getEqualsCost() {
+    TypeMirror type = property.getType();
+    if (type.getKind().isPrimitive()) {
+      return EqualsCost.PRIMITIVE;
+    }
+    if (isSimpleType(type)) {
+      return EqualsCost.SIMPLE;
+    }
+    return EqualsCost.NESTED;
+  }
+
+  /** Returns true if {@code type} is a primitive, an enum, a string or a boxed primitive. */
+  protected static boolean isSimpleType(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return true;
+    }
+    Optional<TypeElement> element = maybeAsTypeElement(type);
+    return element.isPresent()
+        && (element.get().getKind() == ElementKind.ENUM
+            || SIMPLE_TYPES.contains(element.get().getQualifiedName().toString()));
+  }
+
   /** Add the field declaration for the property to the value's source code. */
   public void addValueFieldDeclaration(SourceBuilder code, String finalField) {
-    code.addLine("final %s %s;", property.getType(), finalField);
+    code.addLine("final %s %s;", getValueFieldType(), finalField);
+  }
+
+  /** Returns the type of the property's field on the value type. */
+  public Object getValueFieldType() {
+    return property.getType();
   }
 
   /** Add the field declaration for the property to the builder's source code. */
@@ -135,6 +188,29 @@ public abstract class PropertyCodeGenerator {
     code.add("%s", finalField);
   }
 
+  /**
+   * Returns a condition that is true if the property may have changed since {@code built} was
+   * built, without any method of the builder being called; for instance, through a nested
+   * builder. Returns {@link Optional#absent()} if the property cannot change that way.
+   */
+  public Optional<Excerpt> changedSinceBuild(@SuppressWarnings("unused") String built) {
+    return Optional.absent();
+  }
+
+  /**
+   * Returns true if the value type's {@code withX} method can store its argument in the field
+   * directly, after {@link #addWitherPreconditions}. Otherwise the new value is passed through the
+   * builder, so user overrides of the setter still run.
+   */
+  public boolean isWitherDirect() {
+    return false;
+  }
+
+  /** Adds the checks run on {@code variable} before a {@code withX} method stores it directly. */
+  public void addWitherPreconditions(
+      @SuppressWarnings("unused") SourceBuilder code,
+      @SuppressWarnings("unused") String variable) {}
+
   /** Adds a set call for the property from a function result to the builder's source code. */
   public abstract void addSetFromResult(SourceBuilder code, String builder, String variable);
 
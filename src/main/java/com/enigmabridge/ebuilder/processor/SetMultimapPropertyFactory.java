@@ -18,10 +18,13 @@ package com.enigmabridge.ebuilder.processor;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.putAllMethod;
 import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
 import static com.enigmabridge.ebuilder.processor.Util.upperBound;
 
 import com.enigmabridge.ebuilder.processor.excerpt.CheckedSetMultimap;
 import com.enigmabridge.ebuilder.processor.util.Block;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
 import com.enigmabridge.ebuilder.processor.util.ModelUtils;
 import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
@@ -36,6 +39,7 @@ import com.google.common.collect.SetMultimap;
 
 import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.Config;
 import com.enigmabridge.ebuilder.processor.util.ParameterizedType;
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.StaticExcerpt;
 
 import java.util.Collection;
@@ -71,7 +75,8 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
         keyType,
         unboxedKeyType,
         valueType,
-        unboxedValueType));
+        unboxedValueType,
+        expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasPutMethodOverride(
@@ -86,11 +91,15 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
 
   private static class CodeGenerator extends PropertyCodeGenerator {
 
+    /** Values per key {@link LinkedHashMultimap} sizes for when not told otherwise. */
+    private static final int DEFAULT_VALUES_PER_KEY = 2;
+
     private final boolean overridesPutMethod;
     private final TypeMirror keyType;
     private final Optional<TypeMirror> unboxedKeyType;
     private final TypeMirror valueType;
     private final Optional<TypeMirror> unboxedValueType;
+    private final Optional<Integer> expectedSize;
 
     CodeGenerator(
         Metadata metadata,
@@ -98,19 +107,47 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
         boolean overridesPutMethod,
         TypeMirror keyType,
         Optional<TypeMirror> unboxedKeyType,
-        TypeMirror valueType, Optional<TypeMirror> unboxedValueType) {
+        TypeMirror valueType, Optional<TypeMirror> unboxedValueType,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.overridesPutMethod = overridesPutMethod;
       this.keyType = keyType;
       this.unboxedKeyType = unboxedKeyType;
       this.valueType = valueType;
       this.unboxedValueType = unboxedValueType;
+      this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
-      code.addLine("final %1$s<%2$s, %3$s> %4$s = %1$s.create();",
-          LinkedHashMultimap.class, keyType, valueType, property.getName());
+      // Any expected size is applied when the multimap is first copied to be modified
+      code.addLine("%s<%s, %s> %s = %s.of();",
+          SetMultimap.class, keyType, valueType, property.getName(), ImmutableSetMultimap.class);
+    }
+
+    /** Replaces an adopted immutable multimap with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableSetMultimap.class);
+      if (expectedSize.isPresent()) {
+        code.addLine("    %s<%s, %s> mutable = %s.create(%s, %s);",
+                SetMultimap.class,
+                keyType,
+                valueType,
+                LinkedHashMultimap.class,
+                expectedSize.get(),
+                DEFAULT_VALUES_PER_KEY)
+            .addLine("    mutable.putAll(this.%s);", property.getName())
+            .addLine("    this.%s = mutable;", property.getName());
+      } else {
+        code.addLine("    this.%1$s = %2$s.create(this.%1$s);",
+            property.getName(), LinkedHashMultimap.class);
+      }
+      code.addLine("  }");
     }
 
     @Override
@@ -159,6 +196,7 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
       if (!unboxedValueType.isPresent()) {
         code.addLine("  %s.checkNotNull(value);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.put(key, value);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -214,8 +252,19 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
               putAllMethod(property),
               Multimap.class,
               keyType,
-              valueType)
-          .addLine("  for (%s<? extends %s, ? extends %s<? extends %s>> entry",
+              valueType);
+      if (!overridesPutMethod) {
+        code.addLine("  if (multimap instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableSetMultimap.class, property.getName())
+            .addLine("    // Adopt the immutable multimap; it will be copied if this builder is")
+            .addLine("    // modified")
+            .addLine("    this.%s = %s.copyOf(multimap);",
+                property.getName(), ImmutableSetMultimap.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
+      code.addLine("  for (%s<? extends %s, ? extends %s<? extends %s>> entry",
               Entry.class, keyType, Collection.class, valueType)
           .addLine("      : multimap.asMap().entrySet()) {")
           .addLine("    %s(entry.getKey(), entry.getValue());",
@@ -258,6 +307,7 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
       if (!unboxedValueType.isPresent()) {
         code.addLine("  %s.checkNotNull(value);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.remove(key, value);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -283,6 +333,7 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
       if (!unboxedKeyType.isPresent()) {
         code.addLine("  %s.checkNotNull(key);", Preconditions.class);
       }
+      addConvertToMutable(code);
       code.addLine("  this.%s.removeAll(key);", property.getName())
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
@@ -312,6 +363,7 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
               SetMultimap.class,
               keyType,
               valueType);
+      addConvertToMutable(code);
       if (overridesPutMethod) {
         code.addLine("  mutator.accept(new CheckedSetMultimap<>(%s, this::%s));",
             property.getName(), BuilderMethods.putMethod(property));
@@ -334,7 +386,11 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
           .addLine(" * @return this {@code %s} object", metadata.getBuilder().getSimpleName())
           .addLine(" */")
           .addLine("public %s %s() {", metadata.getBuildGen(), BuilderMethods.clearMethod(property))
-          .addLine("  %s.clear();", property.getName())
+          .addLine("  if (%s instanceof %s) {", property.getName(), ImmutableSetMultimap.class)
+          .addLine("    %s = %s.of();", property.getName(), ImmutableSetMultimap.class)
+          .addLine("  } else {")
+          .addLine("    %s.clear();", property.getName())
+          .addLine("  }")
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
@@ -351,8 +407,9 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
               SetMultimap.class,
               keyType,
               valueType,
-              getter(property))
-          .addLine("  return %s.unmodifiableSetMultimap(%s);",
+              getter(property));
+      addConvertToMutable(code);
+      code.addLine("  return %s.unmodifiableSetMultimap(%s);",
               Multimaps.class, property.getName())
           .addLine("}");
     }
@@ -365,21 +422,51 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
+      Excerpt entries = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (overridesPutMethod) {
+        code.addLine("%s(%s);", putAllMethod(property), entries);
+      } else {
+        // Entrys of a built value were checked when they were put, so skip putAll
+        QualifiedName valueType = metadata.getValueType().getQualifiedName();
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", putAllMethod(property), entries)
+            .add("} else ");
+        addTrustedPutAll(code, entries);
+      }
     }
 
     @Override
     public void addMergeFromSuperValue(Block code, String value) {
-      addMergeFromValue(code, value);
+      code.addLine("%s(%s.%s());", putAllMethod(property), value, property.getGetterName());
     }
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      code.addLine("%s(((%s) %s).%s);",
-          putAllMethod(property),
-          metadata.getGeneratedABuilder(),
-          builder,
-          property.getName());
+      if (overridesPutMethod) {
+        code.addLine("%s(((%s) %s).%s);",
+            putAllMethod(property),
+            metadata.getGeneratedABuilder(),
+            builder,
+            property.getName());
+      } else {
+        Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+        addTrustedPutAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Puts all of {@code entries}, a multimap from a value or builder of this type, without
+     * checking each entry again. An immutable multimap is adopted, if this one is still an
+     * empty immutable multimap.
+     */
+    private void addTrustedPutAll(Block code, Excerpt entries) {
+      code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+              entries, ImmutableSetMultimap.class, property.getName())
+          .addLine("  %s = %s.copyOf(%s);", property.getName(), ImmutableSetMultimap.class, entries)
+          .addLine("} else {");
+      addConvertToMutable(code);
+      code.addLine("  %s.putAll(%s);", property.getName(), entries)
+          .addLine("}");
     }
 
     @Override
@@ -397,7 +484,7 @@ public class SetMultimapPropertyFactory implements PropertyCodeGenerator.Factory
 
     @Override
     public void addClearField(Block code) {
-      code.addLine("%s.clear();", property.getName());
+      code.addLine("%s();", BuilderMethods.clearMethod(property));
     }
 
     @Override
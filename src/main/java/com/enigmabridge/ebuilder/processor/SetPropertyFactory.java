@@ -22,7 +22,10 @@ import static com.enigmabridge.ebuilder.processor.BuilderMethods.getter;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.mutator;
 import static com.enigmabridge.ebuilder.processor.BuilderMethods.removeMethod;
 import static com.enigmabridge.ebuilder.processor.Util.erasesToAnyOf;
+import static com.enigmabridge.ebuilder.processor.Util.expectedSize;
+import static com.enigmabridge.ebuilder.processor.Util.hashCapacity;
 import static com.enigmabridge.ebuilder.processor.Util.upperBound;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.isEnum;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeDeclared;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.maybeUnbox;
 import static com.enigmabridge.ebuilder.processor.util.ModelUtils.overrides;
@@ -37,6 +40,7 @@ import com.enigmabridge.ebuilder.processor.util.*;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 import com.enigmabridge.ebuilder.processor.Metadata.Property;
 import com.enigmabridge.ebuilder.processor.PropertyCodeGenerator.Config;
@@ -44,6 +48,7 @@ import com.enigmabridge.ebuilder.processor.excerpt.CheckedSet;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -66,8 +71,15 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
     TypeMirror elementType = upperBound(config.getElements(), type.getTypeArguments().get(0));
     Optional<TypeMirror> unboxedType = maybeUnbox(elementType, config.getTypes());
     boolean overridesAddMethod = hasAddMethodOverride(config, unboxedType.or(elementType));
+    boolean enumElements = config.getMetadata().isEnumCollections() && isEnum(elementType);
     return Optional.of(new CodeGenerator(
-        config.getMetadata(), config.getProperty(), elementType, unboxedType, overridesAddMethod));
+        config.getMetadata(),
+        config.getProperty(),
+        elementType,
+        unboxedType,
+        overridesAddMethod,
+        enumElements,
+        expectedSize(config.getAnnotations())));
   }
 
   private static boolean hasAddMethodOverride(Config config, TypeMirror elementType) {
@@ -86,24 +98,47 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
     private final TypeMirror elementType;
     private final Optional<TypeMirror> unboxedType;
     private final boolean overridesAddMethod;
+    private final boolean enumElements;
+    private final Optional<Integer> expectedSize;
 
     CodeGenerator(
         Metadata metadata,
         Property property,
         TypeMirror elementType,
         Optional<TypeMirror> unboxedType,
-        boolean overridesAddMethod) {
+        boolean overridesAddMethod,
+        boolean enumElements,
+        Optional<Integer> expectedSize) {
       super(metadata, property);
       this.elementType = elementType;
       this.unboxedType = unboxedType;
       this.overridesAddMethod = overridesAddMethod;
+      this.enumElements = enumElements;
+      // An EnumSet is a fixed-size bit vector, so needs no sizing
+      this.expectedSize = enumElements ? Optional.<Integer>absent() : expectedSize;
+    }
+
+    @Override
+    public EqualsCost getEqualsCost() {
+      return EqualsCost.COLLECTION;
     }
 
     @Override
     public void addBuilderFieldDeclaration(SourceBuilder code) {
       if (code.feature(GUAVA).isAvailable()) {
+        // Any expected size is applied when the set is first copied to be modified
         code.addLine("%s<%s> %s = %s.of();",
             Set.class, elementType, property.getName(), ImmutableSet.class);
+      } else if (enumElements) {
+        code.addLine("final %1$s<%2$s> %3$s = %1$s.noneOf(%2$s.class);",
+            EnumSet.class, elementType, property.getName());
+      } else if (expectedSize.isPresent()) {
+        code.addLine("final %1$s<%2$s> %3$s = new %1$s%4$s(%5$s);",
+            LinkedHashSet.class,
+            elementType,
+            property.getName(),
+            diamondOperator(elementType),
+            hashCapacity(expectedSize.get()));
       } else {
         code.addLine("final %1$s<%2$s> %3$s = new %1$s%4$s();",
             LinkedHashSet.class, elementType, property.getName(), diamondOperator(elementType));
@@ -139,12 +174,7 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
               metadata.getBuildGen(),
               addMethod(property),
               unboxedType.or(elementType));
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableSet.class)
-            .addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
-                property.getName(), LinkedHashSet.class, diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       if (unboxedType.isPresent()) {
         code.addLine("  this.%s.add(element);", property.getName());
       } else {
@@ -205,8 +235,17 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
               metadata.getBuildGen(),
               addAllMethod(property),
               Iterable.class,
-              elementType)
-          .add(Excerpts.forEach(unboxedType.or(elementType), "elements", addMethod(property)))
+              elementType);
+      if (code.feature(GUAVA).isAvailable() && !overridesAddMethod) {
+        code.addLine("  if (elements instanceof %1$s"
+                + " && this.%2$s instanceof %1$s && this.%2$s.isEmpty()) {",
+                ImmutableSet.class, property.getName())
+            .addLine("    // Adopt the immutable set; it will be copied if this builder is modified")
+            .addLine("    this.%s = %s.copyOf(elements);", property.getName(), ImmutableSet.class)
+            .addLine("    return getThisBuilder();")
+            .addLine("  }");
+      }
+      code.add(Excerpts.forEach(unboxedType.or(elementType), "elements", addMethod(property)))
           .addLine("  return getThisBuilder();")
           //.addLine("  return (%s) this;", metadata.getBuilder())
           .addLine("}");
@@ -228,12 +267,7 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
               metadata.getBuildGen(),
               removeMethod(property),
               unboxedType.or(elementType));
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableSet.class)
-            .addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
-                property.getName(), LinkedHashSet.class, diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       if (unboxedType.isPresent()) {
         code.addLine("  this.%s.remove(element);", property.getName());
       } else {
@@ -267,12 +301,7 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
                 consumer.get().getQualifiedName(),
                 Set.class,
                 elementType);
-        if (code.feature(GUAVA).isAvailable()) {
-          code.addLine("  if (%s instanceof %s) {", property.getName(), ImmutableSet.class)
-              .addLine("    %1$s = new %2$s%3$s(%1$s);",
-                  property.getName(), LinkedHashSet.class, diamondOperator(elementType))
-              .addLine("  }");
-        }
+        addConvertToMutable(code);
         if (overridesAddMethod) {
           code.addLine("  mutator.accept(new CheckedSet<%s>(%s, this::%s));",
                   elementType, property.getName(), addMethod(property));
@@ -318,23 +347,51 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
           .addLine(" * Changes to this builder will be reflected in the view.")
           .addLine(" */")
           .addLine("public %s<%s> %s() {", Set.class, elementType, getter(property));
-      if (code.feature(GUAVA).isAvailable()) {
-        code.addLine("  if (%s instanceof %s) {", property.getName(), ImmutableSet.class)
-            .addLine("    %1$s = new %2$s%3$s(%1$s);",
-                property.getName(), LinkedHashSet.class, diamondOperator(elementType))
-            .addLine("  }");
-      }
+      addConvertToMutable(code);
       code.addLine("  return %s.unmodifiableSet(%s);", Collections.class, property.getName())
           .addLine("}");
     }
 
+    /** Replaces an adopted immutable set with a mutable copy, before it is modified. */
+    private void addConvertToMutable(SourceBuilder code) {
+      if (!code.feature(GUAVA).isAvailable()) {
+        return;
+      }
+      code.addLine("  if (this.%s instanceof %s) {", property.getName(), ImmutableSet.class);
+      if (enumElements) {
+        code.addLine("    this.%1$s = %2$s.newEnumSet(this.%1$s, %3$s.class);",
+            property.getName(), Sets.class, elementType);
+      } else if (expectedSize.isPresent()) {
+        code.addLine("    %1$s<%2$s> mutable = new %3$s%4$s(%5$s);",
+                Set.class,
+                elementType,
+                LinkedHashSet.class,
+                diamondOperator(elementType),
+                hashCapacity(expectedSize.get()))
+            .addLine("    mutable.addAll(this.%s);", property.getName())
+            .addLine("    this.%s = mutable;", property.getName());
+      } else {
+        code.addLine("    this.%1$s = new %2$s%3$s(this.%1$s);",
+            property.getName(), LinkedHashSet.class, diamondOperator(elementType));
+      }
+      code.addLine("  }");
+    }
+
     @Override
     public void addFinalFieldAssignment(SourceBuilder code, String finalField, String builder) {
+      boolean guava = code.feature(GUAVA).isAvailable();
+      if (enumElements && !guava) {
+        code.addLine("%s = %s.unmodifiableSet(%s.copyOf(%s.%s));",
+            finalField, Collections.class, EnumSet.class, builder, property.getName());
+        return;
+      }
       code.add("%s = ", finalField);
-      if (code.feature(GUAVA).isAvailable()) {
-        code.add("%s.copyOf", ImmutableSet.class);
-      } else {
+      if (!guava) {
         code.add("immutableSet");
+      } else if (enumElements) {
+        code.add("%s.immutableEnumSet", Sets.class);
+      } else {
+        code.add("%s.copyOf", ImmutableSet.class);
       }
       code.add("(%s.%s);\n", builder, property.getName());
     }
@@ -354,7 +411,25 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromValue(Block code, String value) {
-      addMergeFromValue(code, value, code.feature(GUAVA).isAvailable());
+      if (overridesAddMethod) {
+        addMergeFromValue(code, value, code.feature(GUAVA).isAvailable());
+        return;
+      }
+      // Elements of a built value were checked when they were added, so skip addAll
+      QualifiedName valueType = metadata.getValueType().getQualifiedName();
+      Excerpt elements = Excerpts.add("%s.%s()", value, property.getGetterName());
+      if (code.feature(GUAVA).isAvailable()) {
+        code.addLine("if (!(%s instanceof %s)) {", value, valueType)
+            .addLine("  %s(%s);", addAllMethod(property), elements)
+            .add("} else ");
+        addTrustedAddAll(code, elements);
+      } else {
+        code.addLine("if (%s instanceof %s) {", value, valueType)
+            .addLine("  %s.addAll(%s);", property.getName(), elements)
+            .addLine("} else {")
+            .addLine("  %s(%s);", addAllMethod(property), elements)
+            .addLine("}");
+      }
     }
 
     @Override
@@ -364,11 +439,35 @@ public class SetPropertyFactory implements PropertyCodeGenerator.Factory {
 
     @Override
     public void addMergeFromBuilder(Block code, String builder) {
-      code.addLine("%s(((%s) %s).%s);",
-          addAllMethod(property),
-          metadata.getGeneratedBuilder(),
-          builder,
-          property.getName());
+      if (overridesAddMethod) {
+        code.addLine("%s(((%s) %s).%s);",
+            addAllMethod(property),
+            metadata.getGeneratedBuilder(),
+            builder,
+            property.getName());
+      } else {
+        Excerpt base = Declarations.upcastToGeneratedBuilder(code, metadata, builder);
+        addTrustedAddAll(code, Excerpts.add("%s.%s", base, property.getName()));
+      }
+    }
+
+    /**
+     * Adds all of {@code elements}, a set from a value or builder of this type, without checking
+     * each element again. An immutable set is adopted, if this one is still an
+     * empty immutable set.
+     */
+    private void addTrustedAddAll(Block code, Excerpt elements) {
+      if (code.feature(GUAVA).isAvailable()) {
+        code.addLine("if (%1$s instanceof %2$s && %3$s instanceof %2$s && %3$s.isEmpty()) {",
+                elements, ImmutableSet.class, property.getName())
+            .addLine("  %s = %s.copyOf(%s);", property.getName(), ImmutableSet.class, elements)
+            .addLine("} else {");
+        addConvertToMutable(code);
+        code.addLine("  %s.addAll(%s);", property.getName(), elements)
+            .addLine("}");
+      } else {
+        code.addLine("%s.addAll(%s);", property.getName(), elements);
+      }
     }
 
     @Override
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.enigmabridge.ebuilder.processor.Metadata.Property;
+import com.enigmabridge.ebuilder.processor.util.Excerpt;
+import com.enigmabridge.ebuilder.processor.util.Excerpts;
+
+/**
+ * Code snippets tracking which required properties of a builder have not been set yet.
+ *
+ * <p>Rather than allocating an {@code EnumSet} per builder, each property is assigned a bit in
+ * one of a series of {@code long} fields, {@code _unsetProperties}, {@code _unsetProperties1},
+ * and so on. A set bit means the property is required and has not been set.
+ *
+ * <p>Bits are assigned by the position of the property in {@link Metadata#getProperties()},
+ * as that is also known to the {@link PropertyCodeGenerator}s, which are created before the
+ * final metadata (and hence which properties are required) is available.
+ */
+class UnsetProperties {
+
+  private static final String FIELD_PREFIX = "_unsetProperties";
+  private static final int BITS_PER_FIELD = Long.SIZE;
+
+  /** Returns the number of {@code long} fields needed to track all of {@code metadata}. */
+  static int fieldCount(Metadata metadata) {
+    return (metadata.getProperties().size() + BITS_PER_FIELD - 1) / BITS_PER_FIELD;
+  }
+
+  /** Returns the name of the {@code index}th tracking field. */
+  static String field(int index) {
+    return (index == 0) ? FIELD_PREFIX : FIELD_PREFIX + index;
+  }
+
+  /** Returns the name of the tracking field holding the bit for {@code property}. */
+  static String field(Metadata metadata, Property property) {
+    return field(indexOf(metadata, property) / BITS_PER_FIELD);
+  }
+
+  /** Returns the index of the tracking field holding the bit for {@code property}. */
+  static int fieldIndex(Metadata metadata, Property property) {
+    return indexOf(metadata, property) / BITS_PER_FIELD;
+  }
+
+  /** Returns the bit for {@code property} within its tracking field. */
+  static long bit(Metadata metadata, Property property) {
+    return 1L << (indexOf(metadata, property) % BITS_PER_FIELD);
+  }
+
+  /** Returns {@code bits} as a hexadecimal {@code long} literal. */
+  static String literal(long bits) {
+    return String.format("0x%xL", bits);
+  }
+
+  /**
+   * Returns an excerpt of a condition that is true if {@code property} has not been set on
+   * {@code builder}.
+   */
+  static Excerpt isUnset(Metadata metadata, Property property, Object builder) {
+    return Excerpts.add("(%s%s & %s) != 0",
+        qualifier(builder), field(metadata, property), literal(bit(metadata, property)));
+  }
+
+  /**
+   * Returns an excerpt of a condition that is true if {@code property} has been set on
+   * {@code builder}.
+   */
+  static Excerpt isSet(Metadata metadata, Property property, Object builder) {
+    return Excerpts.add("(%s%s & %s) == 0",
+        qualifier(builder), field(metadata, property), literal(bit(metadata, property)));
+  }
+
+  /** Returns an excerpt of a condition that is true if {@code property} has not been set. */
+  static Excerpt isUnset(Metadata metadata, Property property) {
+    return isUnset(metadata, property, null);
+  }
+
+  /** Returns an excerpt of a condition that is true if {@code property} has been set. */
+  static Excerpt isSet(Metadata metadata, Property property) {
+    return isSet(metadata, property, null);
+  }
+
+  /** Returns an excerpt of an expression marking {@code property} as set. */
+  static Excerpt markSet(Metadata metadata, Property property) {
+    return Excerpts.add("%s &= ~%s",
+        field(metadata, property), literal(bit(metadata, property)));
+  }
+
+  private static Excerpt qualifier(Object builder) {
+    return (builder == null) ? Excerpts.empty() : Excerpts.add("%s.", builder);
+  }
+
+  private static int indexOf(Metadata metadata, Property property) {
+    int index = 0;
+    for (Property candidate : metadata.getProperties()) {
+      if (candidate.getName().equals(property.getName())) {
+        return index;
+      }
+      index++;
+    }
+    throw new IllegalArgumentException(
+        "Property " + property.getName() + " not found on " + metadata.getType());
+  }
+
+  private UnsetProperties() {}
+}
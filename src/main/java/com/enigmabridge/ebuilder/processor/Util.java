@@ -15,9 +15,18 @@
  */
 package com.enigmabridge.ebuilder.processor;
 
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.findAnnotationMirror;
+import static com.enigmabridge.ebuilder.processor.util.ModelUtils.findProperty;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.ExpectedSize;
 import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.Shading;
+import com.google.common.base.Optional;
 
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
@@ -49,6 +58,50 @@ public class Util {
     return type;
   }
 
+  /**
+   * Returns the value of the boolean option {@code option} of the &#64;{@link EBuilder}
+   * annotation on {@code type}, or false if it was not given.
+   */
+  static boolean ebuilderFlag(TypeElement type, String option) {
+    Optional<AnnotationMirror> annotation = findAnnotationMirror(type, EBuilder.class);
+    if (!annotation.isPresent()) {
+      return false;
+    }
+    Optional<AnnotationValue> value = findProperty(annotation.get(), option);
+    return value.isPresent() && Boolean.TRUE.equals(value.get().getValue());
+  }
+
+  /**
+   * Returns the size given by an &#64;{@link ExpectedSize} annotation among {@code annotations},
+   * if there is one and it is positive.
+   */
+  static Optional<Integer> expectedSize(Iterable<? extends AnnotationMirror> annotations) {
+    String expectedSizeName = Shading.unshadedName(ExpectedSize.class.getName());
+    for (AnnotationMirror mirror : annotations) {
+      TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+      if (type.getQualifiedName().contentEquals(expectedSizeName)) {
+        Optional<AnnotationValue> value = findProperty(mirror, "value");
+        if (value.isPresent()
+            && value.get().getValue() instanceof Integer
+            && (Integer) value.get().getValue() > 0) {
+          return Optional.of((Integer) value.get().getValue());
+        }
+      }
+    }
+    return Optional.absent();
+  }
+
+  /**
+   * Returns the initial capacity a hash-based collection needs to hold {@code expectedSize}
+   * elements without rehashing, at the default load factor.
+   */
+  static int hashCapacity(int expectedSize) {
+    if (expectedSize < 3) {
+      return expectedSize + 1;
+    }
+    return (int) (expectedSize / 0.75f + 1.0f);
+  }
+
   /** Returns true if {@code type} erases to any of {@code possibilities}. */
   static boolean erasesToAnyOf(DeclaredType type, QualifiedName... possibilities) {
     String erasedType = new TypeToStringVisitor().visit(type);
@@ -4,7 +4,6 @@ import static com.enigmabridge.ebuilder.processor.util.StaticExcerpt.Type.TYPE;
 
 import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ForwardingListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
@@ -30,6 +29,7 @@ public class CheckedListMultimap {
   public static List<StaticExcerpt> excerpts() {
     return ImmutableList.<StaticExcerpt>builder()
         .addAll(CheckedList.excerpts())
+        .addAll(SettableEntriesListMultimap.excerpts())
         .add(CHECKED_LIST_MULTIMAP)
         .build();
   }
@@ -46,23 +46,19 @@ public class CheckedListMultimap {
               .addLine("/**")
               .addLine(" * A multimap implementation that delegates to a provided put method")
               .addLine(" * to perform entry validation and insertion into a backing multimap.")
+              .addLine(" * Setting the value of an entry is checked the same way.")
               .addLine(" */")
-              .addLine("private static class CheckedListMultimap<K, V> extends %s<K, V> {",
-                  ForwardingListMultimap.class)
+              .addLine("static class CheckedListMultimap<K, V>")
+              .addLine("    extends SettableEntriesListMultimap<K, V> {")
               .addLine("")
-              .addLine("  private final %s<K, V> multimap;", ListMultimap.class)
               .addLine("  private final %s<K, V> put;", biConsumer.getQualifiedName())
               .addLine("")
               .addLine("  CheckedListMultimap(%s<K, V> multimap, %s<K, V> put) {",
                   ListMultimap.class, biConsumer.getQualifiedName())
-              .addLine("    this.multimap = multimap;")
+              .addLine("    super(multimap);")
               .addLine("    this.put = put;")
               .addLine("  }")
               .addLine("")
-              .addLine("  @Override protected %s<K, V> delegate() {", ListMultimap.class)
-              .addLine("    return multimap;")
-              .addLine("  }")
-              .addLine("")
               .addLine("  @Override public boolean put(@%1$s K key, @%1$s V value) {",
                   Nullable.class)
               .addLine("    put.accept(key, value);")
@@ -101,11 +97,11 @@ public class CheckedListMultimap {
               .addLine("")
               .addLine("  @Override public %s<V> get(@%s K key) {", List.class, Nullable.class)
               .addLine("    return new CheckedList<>(")
-              .addLine("        multimap.get(key), value -> put.accept(key, value));")
+              .addLine("        delegate().get(key), value -> put.accept(key, value));")
               .addLine("  }")
               .addLine("")
               .addLine("  @Override public %s<K, %s<V>> asMap() {", Map.class, Collection.class)
-              .addLine("    return %s.transformEntries(%s.asMap(multimap), (key, values) -> ",
+              .addLine("    return %s.transformEntries(%s.asMap(delegate()), (key, values) -> ",
                   Maps.class, Multimaps.class)
               .addLine("        new CheckedList<>(values, value -> put.accept(key, value)));")
               .addLine("  }")
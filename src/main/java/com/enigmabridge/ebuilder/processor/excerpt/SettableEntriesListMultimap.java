@@ -0,0 +1,129 @@
+package com.enigmabridge.ebuilder.processor.excerpt;
+
+import static com.enigmabridge.ebuilder.processor.util.StaticExcerpt.Type.TYPE;
+
+import com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage;
+import com.google.common.collect.ForwardingListMultimap;
+import com.google.common.collect.ForwardingMapEntry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+
+import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.StaticExcerpt;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Excerpts defining a multimap view whose entries can be set, writing through to the value lists
+ * of a backing multimap whose own entries are immutable.
+ */
+public class SettableEntriesListMultimap {
+
+  public static List<StaticExcerpt> excerpts() {
+    return ImmutableList.<StaticExcerpt>of(SETTABLE_ENTRIES_LIST_MULTIMAP);
+  }
+
+  private static final StaticExcerpt SETTABLE_ENTRIES_LIST_MULTIMAP =
+      new StaticExcerpt(TYPE, "SettableEntriesListMultimap") {
+        @Override
+        public void addTo(SourceBuilder code) {
+          if (!code.feature(FunctionPackage.FUNCTION_PACKAGE).consumer().isPresent()) {
+            return;
+          }
+          code.addLine("")
+              .addLine("/**")
+              .addLine(" * A multimap view whose entries can be set, writing through to the value")
+              .addLine(" * lists of a backing multimap whose own entries are immutable.")
+              .addLine(" */")
+              .addLine("static class SettableEntriesListMultimap<K, V>")
+              .addLine("    extends %s<K, V> {", ForwardingListMultimap.class)
+              .addLine("")
+              .addLine("  private final %s<K, V> multimap;", ListMultimap.class)
+              .addLine("")
+              .addLine("  SettableEntriesListMultimap(%s<K, V> multimap) {", ListMultimap.class)
+              .addLine("    this.multimap = multimap;")
+              .addLine("  }")
+              .addLine("")
+              .addLine("  @Override protected %s<K, V> delegate() {", ListMultimap.class)
+              .addLine("    return multimap;")
+              .addLine("  }")
+              .addLine("")
+              .addLine("  @Override public %s<%s<K, V>> entries() {",
+                  Collection.class, Map.Entry.class)
+              .addLine("    return new %s<%s<K, V>>() {",
+                  AbstractCollection.class, Map.Entry.class)
+              .addLine("      @Override public int size() {")
+              .addLine("        return SettableEntriesListMultimap.this.size();")
+              .addLine("      }")
+              .addLine("")
+              .addLine("      @Override public %s<%s<K, V>> iterator() {",
+                  Iterator.class, Map.Entry.class)
+              .addLine("        return new EntryIterator();")
+              .addLine("      }")
+              .addLine("    };")
+              .addLine("  }")
+              .addLine("")
+              .addLine("  /** Iterates the values of each key in turn, in key order. */")
+              .addLine("  private class EntryIterator implements %s<%s<K, V>> {",
+                  Iterator.class, Map.Entry.class)
+              .addLine("")
+              .addLine("    private final %s<%s<K, %s<V>>> keys =",
+                  Iterator.class, Map.Entry.class, List.class)
+              .addLine("        %s.asMap(SettableEntriesListMultimap.this).entrySet().iterator();",
+                  Multimaps.class)
+              .addLine("    private K key;")
+              .addLine("    private %s<V> values;", List.class)
+              .addLine("    private %s<V> valueIterator = %s.emptyListIterator();",
+                  ListIterator.class, Collections.class)
+              .addLine("")
+              .addLine("    @Override public boolean hasNext() {")
+              .addLine("      return valueIterator.hasNext() || keys.hasNext();")
+              .addLine("    }")
+              .addLine("")
+              .addLine("    @Override public %s<K, V> next() {", Map.Entry.class)
+              .addLine("      if (!valueIterator.hasNext()) {")
+              .addLine("        %s<K, %s<V>> entry = keys.next();", Map.Entry.class, List.class)
+              .addLine("        key = entry.getKey();")
+              .addLine("        values = entry.getValue();")
+              .addLine("        valueIterator = values.listIterator();")
+              .addLine("      }")
+              .addLine("      K entryKey = key;")
+              .addLine("      %s<V> entryValues = values;", List.class)
+              .addLine("      int index = valueIterator.nextIndex();")
+              .addLine("      valueIterator.next();")
+              .addLine("      return new %s<K, V>() {", ForwardingMapEntry.class)
+              .addLine("        @Override protected %s<K, V> delegate() {", Map.Entry.class)
+              .addLine("          return %s.immutableEntry(entryKey, entryValues.get(index));",
+                  Maps.class)
+              .addLine("        }")
+              .addLine("")
+              .addLine("        @Override public V setValue(V value) {")
+              .addLine("          return entryValues.set(index, value);")
+              .addLine("        }")
+              .addLine("      };")
+              .addLine("    }")
+              .addLine("")
+              .addLine("    @Override public void remove() {")
+              .addLine("      if (values != null && values.size() == 1) {")
+              .addLine("        // Emptying the list would remove its key under the key iterator")
+              .addLine("        keys.remove();")
+              .addLine("        valueIterator = %s.emptyListIterator();", Collections.class)
+              .addLine("      } else {")
+              .addLine("        valueIterator.remove();")
+              .addLine("      }")
+              .addLine("    }")
+              .addLine("  }")
+              .addLine("}");
+        }
+      };
+
+  private SettableEntriesListMultimap() {}
+}
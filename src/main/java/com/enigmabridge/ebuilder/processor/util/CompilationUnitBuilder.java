@@ -15,26 +15,31 @@
  */
 package com.enigmabridge.ebuilder.processor.util;
 
+import static com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting.SOURCE_FORMATTING;
+import static com.google.common.base.Preconditions.checkState;
+
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureType;
+import com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
 import com.google.googlejavaformat.java.Formatter;
 
 import com.enigmabridge.ebuilder.processor.util.feature.Feature;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 
 import javax.annotation.processing.ProcessingEnvironment;
-import javax.lang.model.element.PackageElement;
-import javax.lang.model.element.TypeElement;
-import javax.lang.model.util.ElementFilter;
 
 /** {@code SourceBuilder} which also handles package declaration and imports. */
 public class CompilationUnitBuilder implements SourceBuilder {
 
   private final ImportManager importManager;
-  private final SourceBuilder source;
+  private final SourceStringBuilder source;
   private final QualifiedName classToWrite;
+  private final Optional<FormatCache> formatCache;
 
   /**
    * Returns a {@link CompilationUnitBuilder} for {@code classToWrite} using {@code features}. The
@@ -46,14 +51,34 @@ public class CompilationUnitBuilder implements SourceBuilder {
       QualifiedName classToWrite,
       Collection<QualifiedName> nestedClasses,
       FeatureSet features) {
+    this(
+        new PackageSiblings(env.getElementUtils()),
+        Optional.<FormatCache>absent(),
+        classToWrite,
+        nestedClasses,
+        features);
+  }
+
+  /**
+   * Returns a {@link CompilationUnitBuilder} for {@code classToWrite} using {@code features}. The
+   * file preamble (package and imports) will be generated automatically, and the types in
+   * {@code siblings} will be checked for potential import collisions. Formatted source will be
+   * looked up in, and added to, {@code formatCache}, if present.
+   */
+  public CompilationUnitBuilder(
+      PackageSiblings siblings,
+      Optional<FormatCache> formatCache,
+      QualifiedName classToWrite,
+      Collection<QualifiedName> nestedClasses,
+      FeatureSet features) {
     this.classToWrite = classToWrite;
+    this.formatCache = formatCache;
     // Write the source code into an intermediate SourceStringBuilder, as the imports need to be
     // written first, but aren't known yet.
     ImportManager.Builder importManagerBuilder = new ImportManager.Builder();
     importManagerBuilder.addImplicitImport(classToWrite);
-    PackageElement pkg = env.getElementUtils().getPackageElement(classToWrite.getPackage());
-    for (TypeElement sibling : ElementFilter.typesIn(pkg.getEnclosedElements())) {
-      importManagerBuilder.addImplicitImport(QualifiedName.of(sibling));
+    for (QualifiedName sibling : siblings.typesIn(classToWrite.getPackage())) {
+      importManagerBuilder.addImplicitImport(sibling);
     }
     for (QualifiedName nestedClass : nestedClasses) {
       importManagerBuilder.addImplicitImport(nestedClass);
@@ -90,29 +115,93 @@ public class CompilationUnitBuilder implements SourceBuilder {
     return source.feature(feature);
   }
 
+  /**
+   * Returns true if the source will not be formatted, so it can be streamed with
+   * {@link #writeTo} without building the whole compilation unit in memory.
+   */
+  public boolean isStreamable() {
+    return source.feature(SOURCE_FORMATTING) == SourceFormatting.NONE;
+  }
+
+  /**
+   * Returns the length of the compilation unit, without building it.
+   *
+   * @throws IllegalStateException if not {@link #isStreamable() streamable}
+   */
+  public int length() {
+    checkState(isStreamable(), "Only the length of unformatted source is known");
+    return preamble().length() + source.length();
+  }
+
+  /**
+   * Writes the compilation unit to {@code writer}, streaming the generated source directly.
+   *
+   * @throws IllegalStateException if not {@link #isStreamable() streamable}
+   */
+  public void writeTo(Writer writer) throws IOException {
+    checkState(isStreamable(), "Only unformatted source can be streamed");
+    writer.write(preamble());
+    source.writeTo(writer);
+  }
+
   @Override
   public String toString() {
-    StringBuilder unit = new StringBuilder();
-    unit.append("// Autogenerated code. Do not modify.\n")
+    StringBuilder unit = new StringBuilder(preamble());
+    SourceFormatting formatting = source.feature(SOURCE_FORMATTING);
+    if (formatting == SourceFormatting.NONE) {
+      unit.append(source);
+    } else if (formatting == SourceFormatting.FAST) {
+      unit.append(FastFormatter.formatSource(source.toString()));
+    } else if (formatCache.isPresent()) {
+      unit.append(formatSourceWithCache(source.toString(), formatCache.get()));
+    } else {
+      unit.append(formatSource(source.toString()));
+    }
+    return unit.toString();
+  }
+
+  /** Returns the package declaration and imports. */
+  private String preamble() {
+    StringBuilder preamble = new StringBuilder();
+    preamble.append("// Autogenerated code. Do not modify.\n")
         .append("package ").append(classToWrite.getPackage()).append(";\n")
         .append("\n");
     if (!importManager.getClassImports().isEmpty()) {
       for (String classImport : importManager.getClassImports()) {
-        unit.append("import ").append(classImport).append(";\n");
+        preamble.append("import ").append(classImport).append(";\n");
       }
-      unit.append("\n");
+      preamble.append("\n");
     }
-    unit.append(formatSource(source.toString()));
-    return unit.toString();
+    return preamble.toString();
+  }
+
+  private static String formatSourceWithCache(String source, FormatCache formatCache) {
+    String key = formatCache.keyFor(source);
+    Optional<String> cached = formatCache.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    Optional<String> formatted = tryFormatSource(source);
+    if (!formatted.isPresent()) {
+      // Never cache unformatted source, which would be served once the formatter is available.
+      return source;
+    }
+    formatCache.put(key, formatted.get());
+    return formatted.get();
   }
 
   @VisibleForTesting
   public static String formatSource(String source) {
+    return tryFormatSource(source).or(source);
+  }
+
+  /** Returns the formatted source, or absent if the formatter cannot run on this JVM. */
+  private static Optional<String> tryFormatSource(String source) {
     try {
-      return new Formatter().formatSource(source);
+      return Optional.of(new Formatter().formatSource(source));
     } catch (UnsupportedClassVersionError e) {
       // Formatter requires Java 7+; do no formatting in Java 6.
-      return source;
+      return Optional.absent();
     } catch (Exception e) {
       StringBuilder message = new StringBuilder()
           .append("Formatter failed:\n")
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting;
+
+/**
+ * Single-pass formatter for generated source, used for {@link SourceFormatting#FAST}.
+ *
+ * <p>Rather than parsing the source, tracks brace and parenthesis depth (skipping string and
+ * character literals and comments) to re-indent each line, breaks lines after a block-opening
+ * brace, strips trailing whitespace, and collapses runs of blank lines. Long lines are left as
+ * they are.
+ */
+class FastFormatter {
+
+  private static final String INDENT = "  ";
+  private static final String CONTINUATION_INDENT = "    ";
+
+  private final StringBuilder result;
+  private int braceDepth = 0;
+  private int parenDepth = 0;
+  private boolean inBlockComment = false;
+  private boolean continuation = false;
+  private boolean lastLineBlank = true;
+
+  private FastFormatter(int length) {
+    result = new StringBuilder(length + length / 4);
+  }
+
+  static String formatSource(String source) {
+    FastFormatter formatter = new FastFormatter(source.length());
+    int start = 0;
+    while (start < source.length()) {
+      int end = source.indexOf('\n', start);
+      if (end < 0) {
+        end = source.length();
+      }
+      formatter.addLine(source, start, end);
+      start = end + 1;
+    }
+    return formatter.result.toString();
+  }
+
+  /** Formats the line {@code source[start, end)}, splitting it after any unclosed '{'. */
+  private void addLine(String source, int start, int end) {
+    start = trimStart(source, start, end);
+    end = trimEnd(source, start, end);
+    if (start == end) {
+      if (!lastLineBlank) {
+        result.append('\n');
+        lastLineBlank = true;
+      }
+      return;
+    }
+    int split = findSplit(source, start, end);
+    while (split >= 0) {
+      addCode(source, start, trimEnd(source, start, split));
+      start = trimStart(source, split, end);
+      split = findSplit(source, start, end);
+    }
+    addCode(source, start, end);
+  }
+
+  /** Appends the non-blank, trimmed line {@code source[start, end)}, re-indented. */
+  private void addCode(String source, int start, int end) {
+    boolean comment = inBlockComment;
+    int depth = braceDepth;
+    if (!comment) {
+      // Closing braces at the start of the line belong to the enclosing block.
+      for (int i = start; i < end && source.charAt(i) == '}' && depth > 0; i++) {
+        depth--;
+      }
+    }
+    for (int i = 0; i < depth; i++) {
+      result.append(INDENT);
+    }
+    if (comment) {
+      if (source.charAt(start) == '*') {
+        result.append(' ');
+      }
+    } else if (continuation || parenDepth > 0 || startsWithOperator(source, start, end)) {
+      result.append(CONTINUATION_INDENT);
+    }
+    result.append(source, start, end).append('\n');
+    lastLineBlank = false;
+    scan(source, start, end);
+    if (!comment && !source.startsWith("//", start)) {
+      continuation = isContinued(source, start, end);
+    }
+  }
+
+  /** Updates the brace, parenthesis and comment state from {@code source[start, end)}. */
+  private void scan(String source, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = source.charAt(i);
+      if (inBlockComment) {
+        if (c == '*' && i + 1 < end && source.charAt(i + 1) == '/') {
+          inBlockComment = false;
+          i++;
+        }
+      } else if (c == '/' && i + 1 < end && source.charAt(i + 1) == '/') {
+        return;
+      } else if (c == '/' && i + 1 < end && source.charAt(i + 1) == '*') {
+        inBlockComment = true;
+        i++;
+      } else if (c == '"' || c == '\'') {
+        i = skipLiteral(source, i, end);
+      } else if (c == '{') {
+        braceDepth++;
+      } else if (c == '}') {
+        braceDepth = Math.max(0, braceDepth - 1);
+      } else if (c == '(') {
+        parenDepth++;
+      } else if (c == ')') {
+        parenDepth = Math.max(0, parenDepth - 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the index at which to break {@code source[start, end)}, or -1 if it should not be
+   * broken: just after the first statement-ending ';', or the first '{' opening a block not closed
+   * on the same line, if more code follows it.
+   */
+  private int findSplit(String source, int start, int end) {
+    if (inBlockComment) {
+      return -1;
+    }
+    int firstSemicolon = -1;
+    int firstUnclosed = -1;
+    int openBraces = 0;
+    int openParens = parenDepth;
+    for (int i = start; i < end; i++) {
+      char c = source.charAt(i);
+      if (c == '/' && i + 1 < end
+          && (source.charAt(i + 1) == '/' || source.charAt(i + 1) == '*')) {
+        // Leave lines with comments alone.
+        return -1;
+      } else if (c == '"' || c == '\'') {
+        i = skipLiteral(source, i, end);
+      } else if (c == '{') {
+        if (openBraces == 0 && openParens == 0) {
+          firstUnclosed = i;
+        }
+        openBraces++;
+      } else if (c == '}') {
+        openBraces--;
+        if (openBraces <= 0) {
+          openBraces = 0;
+          firstUnclosed = -1;
+        }
+      } else if (c == '(') {
+        openParens++;
+      } else if (c == ')') {
+        openParens--;
+      } else if (c == ';' && openBraces == 0 && openParens == 0 && firstSemicolon < 0) {
+        firstSemicolon = i;
+      }
+    }
+    int split = firstUnclosed;
+    if (firstSemicolon >= 0 && (split < 0 || firstSemicolon < split)) {
+      split = firstSemicolon;
+    }
+    if (split < 0 || trimStart(source, split + 1, end) == end) {
+      return -1;
+    }
+    return split + 1;
+  }
+
+  /** Returns the index of the closing quote of the literal starting at {@code start}. */
+  private static int skipLiteral(String source, int start, int end) {
+    char quote = source.charAt(start);
+    int i = start + 1;
+    while (i < end && source.charAt(i) != quote) {
+      if (source.charAt(i) == '\\') {
+        i++;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  /** Returns whether the statement on {@code source[start, end)} continues on the next line. */
+  private static boolean isContinued(String source, int start, int end) {
+    char last = source.charAt(end - 1);
+    return last == '=' || last == '+' || last == '?' || last == '.'
+        || (last == '&' && end - start > 1 && source.charAt(end - 2) == '&')
+        || (last == '|' && end - start > 1 && source.charAt(end - 2) == '|');
+  }
+
+  /** Returns whether {@code source[start, end)} continues the previous line's expression. */
+  private static boolean startsWithOperator(String source, int start, int end) {
+    char first = source.charAt(start);
+    char second = (end - start > 1) ? source.charAt(start + 1) : ' ';
+    if (first == '.' || first == '?' || first == ':') {
+      return true;
+    } else if (first == '+') {
+      return second != '+';
+    } else if (first == '&' || first == '|') {
+      return second == first;
+    }
+    return false;
+  }
+
+  private static int trimStart(String source, int start, int end) {
+    while (start < end && isWhitespace(source.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(String source, int start, int end) {
+    while (end > start && isWhitespace(source.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\r';
+  }
+}
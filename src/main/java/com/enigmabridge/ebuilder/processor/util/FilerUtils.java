@@ -30,6 +30,9 @@ public class FilerUtils {
   /**
    * Writes {@code source} to the correct file for {@code classToWrite}.
    *
+   * <p>{@code originatingElements} should include every element the source depends on, so
+   * incremental builds know when to regenerate it.
+   *
    * <p>This is complicated mainly by an EJC bug that returns the wrong object from
    * {@link Writer#append(CharSequence)}, plus how to handle any exception thrown from
    * {@link Writer#close()}.
@@ -37,31 +40,59 @@ public class FilerUtils {
   public static void writeCompilationUnit(
       Filer filer,
       QualifiedName classToWrite,
-      Element originatingElement,
-      String source) throws IOException {
+      String source,
+      Element... originatingElements) throws IOException {
     Writer writer = filer
-        .createSourceFile(classToWrite.toString(), originatingElement)
+        .createSourceFile(classToWrite.toString(), originatingElements)
         .openWriter();
     try {
       writer.append(source);
     } catch (Throwable e) {
-      try {
-        writer.close();
-      } catch (Throwable t) {
-        // Use suppressed exceptions in Java 7+
-        if (ADD_SUPPRESSED != null) {
-          try {
-            ADD_SUPPRESSED.invoke(e, t);
-          } catch (Exception x) {
-            throw new RuntimeException("Failed to add suppressed exception: " + x.getMessage(), e);
-          }
+      throw closeAfterFailure(writer, e);
+    }
+    writer.close();
+  }
+
+  /**
+   * Streams {@code code} to the correct file for {@code classToWrite}, without building the
+   * compilation unit in memory first.
+   *
+   * @throws IllegalStateException if {@code code} is not
+   *     {@link CompilationUnitBuilder#isStreamable() streamable}
+   */
+  public static void writeCompilationUnit(
+      Filer filer,
+      QualifiedName classToWrite,
+      CompilationUnitBuilder code,
+      Element... originatingElements) throws IOException {
+    Writer writer = filer
+        .createSourceFile(classToWrite.toString(), originatingElements)
+        .openWriter();
+    try {
+      code.writeTo(writer);
+    } catch (Throwable e) {
+      throw closeAfterFailure(writer, e);
+    }
+    writer.close();
+  }
+
+  /** Closes {@code writer} after {@code e} was thrown writing to it, then rethrows {@code e}. */
+  private static IOException closeAfterFailure(Writer writer, Throwable e) throws IOException {
+    try {
+      writer.close();
+    } catch (Throwable t) {
+      // Use suppressed exceptions in Java 7+
+      if (ADD_SUPPRESSED != null) {
+        try {
+          ADD_SUPPRESSED.invoke(e, t);
+        } catch (Exception x) {
+          throw new RuntimeException("Failed to add suppressed exception: " + x.getMessage(), e);
         }
-        // Ignore any error thrown calling close() in Java 6
       }
-      Throwables.propagateIfPossible(e, IOException.class);
-      throw Throwables.propagate(e);
+      // Ignore any error thrown calling close() in Java 6
     }
-    writer.close();
+    Throwables.propagateIfPossible(e, IOException.class);
+    throw Throwables.propagate(e);
   }
 
   private static final Method ADD_SUPPRESSED;
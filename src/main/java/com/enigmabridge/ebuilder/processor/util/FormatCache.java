@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.common.primitives.Longs;
+import com.google.googlejavaformat.java.Formatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * On-disk cache of formatted source, keyed by a hash of the unformatted source, the processor
+ * version and the formatter version, enabled with {@code -Aebuilder.formatCache=<dir>}.
+ *
+ * <p>Each entry is a file named by its key. Entries are written to a temporary file and renamed
+ * into place, so concurrent compilations sharing the cache never see a partial entry. A hit
+ * touches the entry; {@link #evict} deletes the least recently used entries beyond the size
+ * limit. Any I/O failure is treated as a miss: the cache never fails the build.
+ */
+public class FormatCache {
+
+  /** Processor option naming the cache directory. */
+  public static final String OPTION = "ebuilder.formatCache";
+  /** Processor option setting the maximum number of cache entries. */
+  public static final String SIZE_OPTION = "ebuilder.formatCacheSize";
+  /** Default maximum number of cache entries. */
+  public static final int DEFAULT_SIZE = 20000;
+
+  private static final String SUFFIX = ".java";
+  private static final String TEMP_SUFFIX = ".tmp";
+  /** Temporary files older than this were abandoned by a killed compilation. */
+  private static final long STALE_TEMP_MILLIS = 60 * 60 * 1000;
+
+  private final File directory;
+  private final int maxEntries;
+  private String version;
+
+  public FormatCache(File directory, int maxEntries) {
+    this.directory = directory;
+    this.maxEntries = maxEntries;
+  }
+
+  @VisibleForTesting
+  FormatCache(File directory, int maxEntries, String version) {
+    this(directory, maxEntries);
+    this.version = version;
+  }
+
+  /** Returns the cache key of {@code unformattedSource}. */
+  public String keyFor(String unformattedSource) {
+    if (version == null) {
+      // Computed lazily, so the formatter is not loaded unless it is used.
+      version = codeVersion(FormatCache.class) + "|" + formatterVersion();
+    }
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(version, UTF_8);
+    hasher.putChar('\0');
+    hasher.putString(unformattedSource, UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /** Returns the formatted source cached under {@code key}, if any. */
+  public Optional<String> get(String key) {
+    File entry = new File(directory, key + SUFFIX);
+    try {
+      String formatted = Files.toString(entry, UTF_8);
+      entry.setLastModified(System.currentTimeMillis());
+      return Optional.of(formatted);
+    } catch (IOException e) {
+      return Optional.absent();
+    }
+  }
+
+  /** Caches {@code formattedSource} under {@code key}. */
+  public void put(String key, String formattedSource) {
+    File entry = new File(directory, key + SUFFIX);
+    File temp = new File(directory, key + "." + UUID.randomUUID() + TEMP_SUFFIX);
+    try {
+      directory.mkdirs();
+      Files.write(formattedSource, temp, UTF_8);
+      if (!temp.renameTo(entry)) {
+        // Another compilation won the race to write the same entry.
+        temp.delete();
+      }
+    } catch (IOException e) {
+      temp.delete();
+    }
+  }
+
+  /**
+   * Deletes the least recently used entries until at most the maximum remain, along with any
+   * abandoned temporary files.
+   */
+  public void evict() {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    int entries = 0;
+    for (int i = 0; i < files.length; i++) {
+      String name = files[i].getName();
+      if (name.endsWith(SUFFIX)) {
+        entries++;
+      } else if (name.endsWith(TEMP_SUFFIX)
+          && now - files[i].lastModified() > STALE_TEMP_MILLIS) {
+        files[i].delete();
+      }
+    }
+    if (entries <= maxEntries) {
+      return;
+    }
+    final long[] lastModified = new long[files.length];
+    Integer[] order = new Integer[files.length];
+    for (int i = 0; i < files.length; i++) {
+      lastModified[i] = files[i].lastModified();
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Longs.compare(lastModified[a], lastModified[b]);
+      }
+    });
+    for (int i = 0; i < order.length && entries > maxEntries; i++) {
+      File file = files[order[i]];
+      if (file.getName().endsWith(SUFFIX)) {
+        // A concurrent compilation may already have deleted it.
+        file.delete();
+        entries--;
+      }
+    }
+  }
+
+  private static String formatterVersion() {
+    try {
+      return codeVersion(Formatter.class);
+    } catch (UnsupportedClassVersionError e) {
+      // Formatter requires Java 7+. Nothing is cached without it, so any key will miss.
+      return "unavailable";
+    }
+  }
+
+  /** Returns a string that changes whenever the code of {@code cls} does. */
+  private static String codeVersion(Class<?> cls) {
+    StringBuilder version = new StringBuilder(cls.getName());
+    Package pkg = cls.getPackage();
+    if (pkg != null && pkg.getImplementationVersion() != null) {
+      version.append('@').append(pkg.getImplementationVersion());
+    }
+    CodeSource codeSource = cls.getProtectionDomain().getCodeSource();
+    if (codeSource != null && codeSource.getLocation() != null) {
+      try {
+        File location = new File(codeSource.getLocation().toURI());
+        version.append('@').append(location).append('@').append(location.lastModified());
+      } catch (URISyntaxException e) {
+        version.append('@').append(codeSource.getLocation());
+      } catch (IllegalArgumentException e) {
+        version.append('@').append(codeSource.getLocation());
+      }
+    }
+    return version.toString();
+  }
+}
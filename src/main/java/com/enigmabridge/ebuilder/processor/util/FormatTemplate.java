@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * A format string parsed once, so it can be applied repeatedly without going through
+ * {@link String#format}.
+ *
+ * <p>Only {@code %s}, {@code %n}, {@code %%} and explicitly indexed {@code %N$s} specifiers are
+ * handled directly; they are all the code generators use. A format string with any other
+ * specifier is passed to {@link String#format} unchanged, so output is always identical.
+ */
+final class FormatTemplate {
+
+  /**
+   * Templates keyed by the identity of their format string, which is almost always a constant.
+   * Keys are weak, so format strings built on the fly do not leak.
+   */
+  private static final LoadingCache<String, FormatTemplate> TEMPLATES = CacheBuilder.newBuilder()
+      .weakKeys()
+      .build(new CacheLoader<String, FormatTemplate>() {
+        @Override
+        public FormatTemplate load(String fmt) {
+          return parse(fmt);
+        }
+      });
+
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+  /** Returns the template for {@code fmt}. */
+  static FormatTemplate of(String fmt) {
+    return TEMPLATES.getUnchecked(fmt);
+  }
+
+  private final String fmt;
+  /** Literal text before each specifier, then after the last; null if unsupported. */
+  private final String[] literals;
+  /** Argument index of each specifier. */
+  private final int[] argIndexes;
+  /** Source text of each specifier, for error messages. */
+  private final String[] specifiers;
+
+  private FormatTemplate(String fmt, String[] literals, int[] argIndexes, String[] specifiers) {
+    this.fmt = fmt;
+    this.literals = literals;
+    this.argIndexes = argIndexes;
+    this.specifiers = specifiers;
+  }
+
+  /** Appends {@code fmt} formatted with {@code args} to {@code destination}. */
+  void appendTo(StringBuilder destination, Object... args) {
+    if (literals == null) {
+      destination.append(String.format(fmt, args));
+      return;
+    }
+    // Check up-front, as String.format does not write partial output.
+    for (int i = 0; i < argIndexes.length; i++) {
+      if (argIndexes[i] >= args.length) {
+        throw new MissingFormatArgumentException(specifiers[i]);
+      }
+    }
+    destination.append(literals[0]);
+    for (int i = 0; i < argIndexes.length; i++) {
+      Object arg = args[argIndexes[i]];
+      if (arg instanceof Formattable) {
+        destination.append(String.format("%s", arg));
+      } else {
+        destination.append(arg);
+      }
+      destination.append(literals[i + 1]);
+    }
+  }
+
+  private static FormatTemplate parse(String fmt) {
+    List<String> literals = new ArrayList<String>();
+    List<Integer> argIndexes = new ArrayList<Integer>();
+    List<String> specifiers = new ArrayList<String>();
+    StringBuilder literal = new StringBuilder();
+    int ordinaryIndex = 0;
+    int i = 0;
+    while (i < fmt.length()) {
+      char c = fmt.charAt(i);
+      if (c != '%') {
+        literal.append(c);
+        i++;
+        continue;
+      }
+      int start = i++;
+      if (i >= fmt.length()) {
+        return unsupported(fmt);
+      }
+      c = fmt.charAt(i);
+      if (c == '%') {
+        literal.append('%');
+        i++;
+      } else if (c == 'n') {
+        literal.append(LINE_SEPARATOR);
+        i++;
+      } else if (c == 's') {
+        argIndexes.add(ordinaryIndex++);
+        i++;
+      } else if (c >= '1' && c <= '9') {
+        int argIndex = 0;
+        while (i < fmt.length() && fmt.charAt(i) >= '0' && fmt.charAt(i) <= '9') {
+          argIndex = argIndex * 10 + (fmt.charAt(i) - '0');
+          i++;
+        }
+        if (!fmt.startsWith("$s", i)) {
+          return unsupported(fmt);
+        }
+        argIndexes.add(argIndex - 1);
+        i += 2;
+      } else {
+        return unsupported(fmt);
+      }
+      if (argIndexes.size() > literals.size()) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+        specifiers.add(fmt.substring(start, i));
+      }
+    }
+    literals.add(literal.toString());
+    int[] indexes = new int[argIndexes.size()];
+    for (int j = 0; j < indexes.length; j++) {
+      indexes[j] = argIndexes.get(j);
+    }
+    return new FormatTemplate(
+        fmt,
+        literals.toArray(new String[literals.size()]),
+        indexes,
+        specifiers.toArray(new String[specifiers.size()]));
+  }
+
+  private static FormatTemplate unsupported(String fmt) {
+    return new FormatTemplate(fmt, null, null, null);
+  }
+}
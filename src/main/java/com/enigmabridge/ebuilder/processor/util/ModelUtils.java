@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
@@ -109,6 +110,12 @@ public class ModelUtils {
     }
   }
 
+  /** Returns whether {@code type} is an enum type. */
+  public static boolean isEnum(TypeMirror type) {
+    Optional<TypeElement> element = maybeAsTypeElement(type);
+    return element.isPresent() && element.get().getKind() == ElementKind.ENUM;
+  }
+
   /** Returns the {@link TypeElement} corresponding to {@code type}. */
   public static TypeElement asElement(DeclaredType type) {
     return maybeType(type.asElement()).get();
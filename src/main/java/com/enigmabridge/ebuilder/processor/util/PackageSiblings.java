@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * The top-level types of each package, scanned at most once per processing round.
+ *
+ * <p>Types generated during a round only become visible through {@link Elements} in the next
+ * round, so they are registered with {@link #addGeneratedType} instead of rescanning the package.
+ */
+public class PackageSiblings {
+
+  private final Elements elements;
+  private final Map<String, Set<QualifiedName>> typesByPackage =
+      new HashMap<String, Set<QualifiedName>>();
+
+  /** Returns an empty cache. A new one should be used for each processing round. */
+  public PackageSiblings(Elements elements) {
+    this.elements = elements;
+  }
+
+  /** Returns the types in {@code packageName}, including any generated so far this round. */
+  public Set<QualifiedName> typesIn(String packageName) {
+    return Collections.unmodifiableSet(types(packageName));
+  }
+
+  /** Registers {@code type} as generated this round. */
+  public void addGeneratedType(QualifiedName type) {
+    types(type.getPackage()).add(type);
+  }
+
+  private Set<QualifiedName> types(String packageName) {
+    Set<QualifiedName> types = typesByPackage.get(packageName);
+    if (types == null) {
+      types = new LinkedHashSet<QualifiedName>();
+      PackageElement pkg = elements.getPackageElement(packageName);
+      for (TypeElement sibling : ElementFilter.typesIn(pkg.getEnclosedElements())) {
+        types.add(QualifiedName.of(sibling));
+      }
+      typesByPackage.put(packageName, types);
+    }
+    return types;
+  }
+}
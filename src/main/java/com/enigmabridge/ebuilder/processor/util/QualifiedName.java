@@ -25,7 +25,6 @@ import com.google.common.collect.ImmutableList;
 
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.element.TypeParameterElement;
 
 /**
  * The qualified name of a type. Lets us pass a type to a {@link TypeShortener} without a Class or
@@ -117,7 +116,7 @@ public class QualifiedName extends ValueType {
     return new ParameterizedType(this, ImmutableList.copyOf(typeParameters));
   }
 
-  public ParameterizedType withParameters(Iterable<? extends TypeParameterElement> typeParameters) {
+  public ParameterizedType withParameters(Iterable<?> typeParameters) {
     return new ParameterizedType(this, ImmutableList.copyOf(typeParameters));
   }
 
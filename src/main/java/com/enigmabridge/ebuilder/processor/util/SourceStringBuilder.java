@@ -23,6 +23,9 @@ import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureType;
 import com.enigmabridge.ebuilder.processor.util.feature.StaticFeatureSet;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
@@ -37,6 +40,8 @@ import javax.lang.model.type.TypeMirror;
  */
 public final class SourceStringBuilder implements SourceBuilder {
 
+  private static final int WRITE_CHUNK_SIZE = 8192;
+
   private final TypeShortener shortener;
   private final StringBuilder destination = new StringBuilder();
   private final FeatureSet features;
@@ -67,13 +72,15 @@ public final class SourceStringBuilder implements SourceBuilder {
     for (int i = 0; i < args.length; i++) {
       substituteArgs[i] = substitute(args[i]);
     }
-    destination.append(String.format(fmt, substituteArgs));
+    FormatTemplate.of(fmt).appendTo(destination, substituteArgs);
     return this;
   }
 
   @Override
   public SourceBuilder addLine(String fmt, Object... args) {
-    return add(fmt + "\n", args);
+    add(fmt, args);
+    destination.append('\n');
+    return this;
   }
 
   @Override
@@ -86,6 +93,21 @@ public final class SourceStringBuilder implements SourceBuilder {
     return features.get(feature);
   }
 
+  /** Returns the length of the source code written so far. */
+  int length() {
+    return destination.length();
+  }
+
+  /** Writes the source code written so far to {@code writer}, without copying it first. */
+  void writeTo(Writer writer) throws IOException {
+    char[] chunk = new char[Math.min(WRITE_CHUNK_SIZE, destination.length())];
+    for (int start = 0; start < destination.length(); start += chunk.length) {
+      int end = Math.min(start + chunk.length, destination.length());
+      destination.getChars(start, end, chunk, 0);
+      writer.write(chunk, 0, end - start);
+    }
+  }
+
   /** Returns the source code written so far. */
   @Override
   public String toString() {
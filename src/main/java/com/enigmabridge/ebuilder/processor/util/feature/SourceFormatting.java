@@ -0,0 +1,71 @@
+package com.enigmabridge.ebuilder.processor.util.feature;
+
+import com.enigmabridge.ebuilder.processor.util.SourceBuilder;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * How generated source is formatted, set with the {@code ebuilder.format} processor option.
+ * Defaults to {@link #PRETTY}.
+ */
+public enum SourceFormatting implements Feature<SourceFormatting> {
+
+  /** Reformat with google-java-format. Slow, but the output matches handwritten code. */
+  PRETTY("Pretty formatting"),
+
+  /**
+   * Only fix indentation and line breaks, without parsing the source. Much faster, and
+   * google-java-format is never loaded, but long lines are not wrapped.
+   */
+  FAST("Fast formatting"),
+
+  /**
+   * Write the source exactly as generated. It is streamed straight to the compiler, without
+   * building the whole file in memory first.
+   */
+  NONE("No formatting");
+
+  /** Processor option selecting the formatting: {@code pretty}, {@code fast} or {@code none}. */
+  public static final String OPTION = "ebuilder.format";
+
+  /**
+   * Constant to pass to {@link SourceBuilder#feature(FeatureType)} to get the current
+   * {@link SourceFormatting}.
+   */
+  public static final FeatureType<SourceFormatting> SOURCE_FORMATTING =
+      new FeatureType<SourceFormatting>() {
+
+        @Override
+        protected SourceFormatting testDefault(FeatureSet features) {
+          return PRETTY;
+        }
+
+        @Override
+        protected SourceFormatting forEnvironment(
+            ProcessingEnvironment env, FeatureSet features) {
+          String option = env.getOptions().get(OPTION);
+          if (option == null || option.equalsIgnoreCase("pretty")) {
+            return PRETTY;
+          } else if (option.equalsIgnoreCase("fast")) {
+            return FAST;
+          } else if (option.equalsIgnoreCase("none")) {
+            return NONE;
+          }
+          env.getMessager().printMessage(Kind.WARNING, "Unknown value for -A" + OPTION + ": '"
+              + option + "' (expected 'pretty', 'fast' or 'none'); using pretty formatting");
+          return PRETTY;
+        }
+      };
+
+  private final String humanReadableFormat;
+
+  SourceFormatting(String humanReadableFormat) {
+    this.humanReadableFormat = humanReadableFormat;
+  }
+
+  @Override
+  public String toString() {
+    return humanReadableFormat;
+  }
+}
@@ -20,7 +20,6 @@ import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-<<<<<<< HEAD:src/test/java/com/enigmabridge/ebuilder/processor/AnalyserTest.java
 import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.Analyser.CannotGenerateCodeException;
 import com.enigmabridge.ebuilder.processor.Metadata.Property;
@@ -33,21 +32,6 @@ import com.enigmabridge.ebuilder.processor.util.QualifiedName;
 import com.enigmabridge.ebuilder.processor.util.SourceStringBuilder;
 import com.enigmabridge.ebuilder.processor.util.testing.FakeMessager;
 import com.enigmabridge.ebuilder.processor.util.testing.ModelRule;
-=======
-
-import org.inferred.freebuilder.FreeBuilder;
-import org.inferred.freebuilder.processor.Analyser.CannotGenerateCodeException;
-import org.inferred.freebuilder.processor.Metadata.Property;
-import org.inferred.freebuilder.processor.Metadata.StandardMethod;
-import org.inferred.freebuilder.processor.Metadata.UnderrideLevel;
-import org.inferred.freebuilder.processor.PropertyCodeGenerator.Type;
-import org.inferred.freebuilder.processor.util.Excerpt;
-import org.inferred.freebuilder.processor.util.ParameterizedType;
-import org.inferred.freebuilder.processor.util.QualifiedName;
-import org.inferred.freebuilder.processor.util.SourceStringBuilder;
-import org.inferred.freebuilder.processor.util.testing.FakeMessager;
-import org.inferred.freebuilder.processor.util.testing.ModelRule;
->>>>>>> b1c924e15b143fa7b70eddf4c54b680b6c34047f:src/test/java/org/inferred/freebuilder/processor/AnalyserTest.java
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -56,6 +40,7 @@ import org.junit.runners.JUnit4;
 
 import javax.annotation.Generated;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
 import java.util.Map;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -65,6 +50,10 @@ import static com.enigmabridge.ebuilder.processor.BuilderFactory.*;
 import static com.enigmabridge.ebuilder.processor.Metadata.Visibility.PACKAGE;
 import static com.enigmabridge.ebuilder.processor.Metadata.Visibility.PRIVATE;
 import static org.junit.Assert.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /** Unit tests for {@link Analyser}. */
 @RunWith(JUnit4.class)
@@ -720,6 +709,32 @@ public class AnalyserTest {
     assertThat(messager.getMessagesByElement().asMap()).isEmpty();
   }
 
+  @Test
+  public void ownProperties_skipConcreteAndStandardMethods() throws CannotGenerateCodeException {
+    TypeElement dataType = model.newType(
+        "package com.example;",
+        "public abstract class DataType {",
+        "  public abstract String getName();",
+        "  public abstract int getAge();",
+        "  public String describe() {",
+        "    return getName() + \" (\" + getAge() + \")\";",
+        "  }",
+        "  @Override public int hashCode() {",
+        "    return getName().hashCode();",
+        "  }",
+        "  @Override public boolean equals(Object obj) {",
+        "    return (obj instanceof DataType) && getName().equals(((DataType) obj).getName());",
+        "  }",
+        "  public static class Builder extends DataType_Builder {}",
+        "}");
+
+    Metadata metadata = analyser.analyse(dataType);
+
+    Map<String, Property> ownProperties = uniqueIndex(metadata.getOwnProperties(), GET_NAME);
+    assertThat(ownProperties.keySet()).containsExactly("name", "age");
+    assertThat(messager.getMessagesByElement().asMap()).isEmpty();
+  }
+
   @Test
   public void underriddenToString() throws CannotGenerateCodeException {
     TypeElement dataType = model.newType(
@@ -1418,22 +1433,14 @@ public class AnalyserTest {
       throws CannotGenerateCodeException {
     model.newType(
         "package com.example;",
-<<<<<<< HEAD:src/test/java/com/enigmabridge/ebuilder/processor/AnalyserTest.java
         "@" + EBuilder.class.getCanonicalName(),
-=======
-        "@" + FreeBuilder.class.getCanonicalName(),
->>>>>>> b1c924e15b143fa7b70eddf4c54b680b6c34047f:src/test/java/org/inferred/freebuilder/processor/AnalyserTest.java
         "public abstract class SuperType {",
         "  public abstract String getAlpha();",
         "  public static class Builder extends SuperType_Builder {}",
         "}");
     TypeElement dataType = model.newType(
         "package com.example;",
-<<<<<<< HEAD:src/test/java/com/enigmabridge/ebuilder/processor/AnalyserTest.java
         "@" + EBuilder.class.getCanonicalName(),
-=======
-        "@" + FreeBuilder.class.getCanonicalName(),
->>>>>>> b1c924e15b143fa7b70eddf4c54b680b6c34047f:src/test/java/org/inferred/freebuilder/processor/AnalyserTest.java
         "public abstract class DataType extends SuperType {",
         "  public abstract String getBeta();",
         "  public static class Builder extends DataType_Builder {}",
@@ -1452,6 +1459,45 @@ public class AnalyserTest {
             isEqualTo("alpha");
   }
 
+  @Test
+  public void endRoundClearsCaches() throws CannotGenerateCodeException {
+    // Every scan of a type's methods looks up java.lang.Object, so repeated lookups show that
+    // nothing was served from a cache.
+    Elements elements = mock(Elements.class, delegatesTo(model.elementUtils()));
+    String object = Object.class.getCanonicalName();
+    analyser = new Analyser(
+        elements,
+        messager,
+        MethodIntrospector.instance(model.environment()),
+        model.typeUtils());
+    model.newType(
+        "package com.example;",
+        "@" + EBuilder.class.getCanonicalName(),
+        "public abstract class SuperType {",
+        "  public abstract String getAlpha();",
+        "  public static class Builder extends SuperType_Builder {}",
+        "}");
+    TypeElement dataType = model.newType(
+        "package com.example;",
+        "@" + EBuilder.class.getCanonicalName(),
+        "public abstract class DataType extends SuperType {",
+        "  public abstract String getBeta();",
+        "  public static class Builder extends DataType_Builder {}",
+        "}");
+
+    Metadata metadata = analyser.analyse(dataType);
+    verify(elements, times(5)).getTypeElement(object);
+
+    assertSame(metadata, analyser.analyse(dataType));
+    verify(elements, times(5)).getTypeElement(object);
+
+    analyser.endRound();
+    Metadata reanalysed = analyser.analyse(dataType);
+    assertNotSame(metadata, reanalysed);
+    assertEquals(metadata, reanalysed);
+    verify(elements, times(10)).getTypeElement(object);
+  }
+
   private static String asSource(Excerpt annotation) {
     return SourceStringBuilder.simple().add(annotation).toString().trim();
   }
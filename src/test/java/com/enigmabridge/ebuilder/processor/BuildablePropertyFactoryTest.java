@@ -253,6 +253,26 @@ public class BuildablePropertyFactoryTest {
         .runTest();
   }
 
+  @Test
+  public void testBuild_defaultsThenSetToValue() {
+    // Building an unset property must not leave a nested builder behind in the parent builder.
+    behaviorTester
+        .with(new Processor(features))
+        .with(DEFAULTS_TYPE)
+        .with(new TestBuilder()
+            .addLine("com.example.DataType.Builder builder = new com.example.DataType.Builder();")
+            .addLine("assertEquals(\"Air\", builder.build().getItem1().getName());")
+            .addLine("com.example.DataType.Item.Builder itemBuilder =")
+            .addLine("    new com.example.DataType.Item.Builder();")
+            .addLine("itemBuilder.setName(\"Foo\");")
+            .addLine("com.example.DataType.Item item = itemBuilder.build();")
+            .addLine("builder.setItem1(item);")
+            .addLine("assertSame(item, builder.build().getItem1());")
+            .addLine("assertSame(item, builder.buildPartial().getItem1());")
+            .build())
+        .runTest();
+  }
+
   @Test
   public void testBuildPartial() {
     behaviorTester
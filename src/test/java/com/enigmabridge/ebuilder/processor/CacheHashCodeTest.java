@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.List;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for {@code @EBuilder(cacheHashCode = true)}. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class CacheHashCodeTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final JavaFileObject CACHED_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s(cacheHashCode = true)", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  int getCount();")
+      .addLine("  double getRatio();")
+      .addLine("  String getName();")
+      .addLine("  %s<String> getItems();", List.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  private static final JavaFileObject UNCACHED_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface UncachedType {")
+      .addLine("  int getCount();")
+      .addLine("  double getRatio();")
+      .addLine("  String getName();")
+      .addLine("  %s<String> getItems();", List.class)
+      .addLine("")
+      .addLine("  public static class Builder extends UncachedType_Builder {}")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testHashCodeIsStableAndMatchesUncachedValue() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(CACHED_TYPE)
+        .with(UNCACHED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addImport("com.example.UncachedType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.setRatio(0.5);")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.addItems(\"a\", \"b\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("UncachedType.Builder uncachedBuilder = new UncachedType.Builder();")
+            .addLine("uncachedBuilder.setCount(3);")
+            .addLine("uncachedBuilder.setRatio(0.5);")
+            .addLine("uncachedBuilder.setName(\"name\");")
+            .addLine("uncachedBuilder.addItems(\"a\", \"b\");")
+            .addLine("UncachedType uncached = uncachedBuilder.build();")
+            .addLine("int hashCode = value.hashCode();")
+            .addLine("assertEquals(uncached.hashCode(), hashCode);")
+            .addLine("assertEquals(hashCode, value.hashCode());")
+            .addLine("assertEquals(hashCode, value.hashCode());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testEqualsWithHashPrecheck() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(CACHED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.setRatio(0.5);")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.addItems(\"a\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("DataType same = builder.build();")
+            .addLine("builder.setCount(4);")
+            .addLine("DataType different = builder.build();")
+            .addLine("// Neither hash code computed yet")
+            .addLine("assertTrue(value.equals(same));")
+            .addLine("assertFalse(value.equals(different));")
+            .addLine("// Only one hash code computed")
+            .addLine("value.hashCode();")
+            .addLine("assertTrue(value.equals(same));")
+            .addLine("assertTrue(same.equals(value));")
+            .addLine("assertFalse(value.equals(different));")
+            .addLine("// Both hash codes computed")
+            .addLine("same.hashCode();")
+            .addLine("different.hashCode();")
+            .addLine("assertTrue(value.equals(same));")
+            .addLine("assertTrue(same.equals(value));")
+            .addLine("assertFalse(value.equals(different));")
+            .addLine("assertFalse(different.equals(value));")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testIgnoredWhenUserSuppliesHashCode() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s(cacheHashCode = true)", EBuilder.class)
+            .addLine("public abstract class DataType {")
+            .addLine("  public static int hashCodeCalls = 0;")
+            .addLine("")
+            .addLine("  public abstract int getCount();")
+            .addLine("")
+            .addLine("  @Override public boolean equals(Object obj) {")
+            .addLine("    return (obj instanceof DataType)")
+            .addLine("        && getCount() == ((DataType) obj).getCount();")
+            .addLine("  }")
+            .addLine("")
+            .addLine("  @Override public int hashCode() {")
+            .addLine("    hashCodeCalls++;")
+            .addLine("    return getCount();")
+            .addLine("  }")
+            .addLine("")
+            .addLine("  public static class Builder extends DataType_Builder {}")
+            .addLine("}")
+            .build())
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setCount(3);")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertEquals(3, value.hashCode());")
+            .addLine("assertEquals(3, value.hashCode());")
+            .addLine("assertEquals(2, DataType.hashCodeCalls);")
+            .build())
+        .runTest();
+  }
+}
@@ -48,20 +48,56 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  String name;",
+        "  int age;",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
         "",
-        "  private String name;",
-        "  private int age;",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -69,9 +105,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -86,9 +122,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -101,43 +137,112 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
         "    if (value.getAge() != _defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(B template) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!template.getName().equals(_defaults.getName())) {",
         "      setName(template.getName());",
         "    }",
         "    if (template.getAge() != _defaults.getAge()) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -160,7 +265,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -177,14 +282,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -192,7 +300,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -205,7 +316,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -222,14 +333,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -237,7 +351,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -259,20 +376,56 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  String name;",
+        "  int age;",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
         "",
-        "  private String name;",
-        "  private int age;",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -280,9 +433,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -297,9 +450,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -312,43 +465,112 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
         "    if (value.getAge() != _defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(B template) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!template.getName().equals(_defaults.getName())) {",
         "      setName(template.getName());",
         "    }",
         "    if (template.getAge() != _defaults.getAge()) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -371,7 +593,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -388,16 +610,28 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -410,7 +644,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -427,16 +661,28 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -457,18 +703,54 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  String name;",
+        "  int age;",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private String name;",
-        "  private int age;",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -476,12 +758,12 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    if (name == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name = name;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -496,9 +778,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -511,43 +793,110 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
         "    if (value.getAge() != _defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(B template) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!template.getName().equals(_defaults.getName())) {",
         "      setName(template.getName());",
         "    }",
         "    if (template.getAge() != _defaults.getAge()) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -569,7 +918,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -586,14 +935,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -601,7 +953,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -614,7 +969,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -631,14 +986,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -646,7 +1004,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -668,6 +1029,7 @@ public class DefaultedPropertiesSourceTest {
     QualifiedName person = QualifiedName.of("com.example", "Person");
     TypeMirror string = newTopLevelClass("java.lang.String");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(string)
@@ -703,10 +1065,17 @@ public class DefaultedPropertiesSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age, shoeSize)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -728,25 +1097,37 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
-        "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    SHOE_SIZE(\"shoeSize\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    SHOE_SIZE(\"shoeSize\", 0, 0x4L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -755,11 +1136,52 @@ public class DefaultedPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private int shoeSize;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  int shoeSize;",
+        "  long _unsetProperties = 0x5L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -767,13 +1189,13 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    if (name == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name = name;",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -782,10 +1204,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
         "      throw new IllegalStateException(\"name not set\");",
         "    }",
-
         "    return name;",
         "  }",
         "",
@@ -794,9 +1215,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -811,10 +1232,10 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setShoeSize(int shoeSize) {",
+        "  public B setShoeSize(int shoeSize) {",
         "    this.shoeSize = shoeSize;",
-        "    _unsetProperties.remove(Person_Builder.Property.SHOE_SIZE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x4L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -823,7 +1244,7 @@ public class DefaultedPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getShoeSize() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)) {",
+        "    if ((_unsetProperties & 0x4L) != 0) {",
         "      throw new IllegalStateException(\"shoeSize not set\");",
         "    }",
         "    return shoeSize;",
@@ -832,57 +1253,56 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
         "    if (value.getAge() != _defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)",
+        "    if ((_defaults._unsetProperties & 0x4L) != 0",
         "        || value.getShoeSize() != _defaults.getShoeSize()) {",
         "      setShoeSize(value.getShoeSize());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
         "    if (template.getAge() != _defaults.getAge()) {",
         "      setAge(template.getAge());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)",
+        "    if ((base._unsetProperties & 0x4L) == 0",
+        "        && ((_defaults._unsetProperties & 0x4L) != 0",
         "            || template.getShoeSize() != _defaults.getShoeSize())) {",
         "      setShoeSize(template.getShoeSize());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
         "    shoeSize = _defaults.shoeSize;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -890,7 +1310,7 @@ public class DefaultedPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -898,7 +1318,74 @@ public class DefaultedPropertiesSourceTest {
         "   * {@link Person#getShoeSize()} is set.",
         "   */",
         "  public boolean isPropertyShoeSizeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.SHOE_SIZE);",
+        "    return (_unsetProperties & 0x4L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -907,8 +1394,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    if (!_unsetProperties.isEmpty()) {",
-        "      throw new IllegalStateException(\"Not set: \" + _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
         "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
@@ -931,7 +1419,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final int age;",
         "    private final int shoeSize;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "      this.shoeSize = builder.shoeSize;",
@@ -954,31 +1442,38 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
-        "        return false;",
-        "      }",
         "      if (age != other.age) {",
         "        return false;",
         "      }",
         "      if (shoeSize != other.shoeSize) {",
         "        return false;",
         "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
         "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, shoeSize});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + shoeSize;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
-        "      return \"Person{\" + \"name=\" + name + \", \" + \"age=\" + age + \", \" "
-            + "+ \"shoeSize=\" + shoeSize + \"}\";",
+        "      return \"Person{\" + \"name=\" + name + \", \" + \"age=\" + age + \", \" + "
+            + "\"shoeSize=\" + shoeSize + \"}\";",
         "    }",
         "  }",
         "",
@@ -986,18 +1481,18 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "    private final int shoeSize;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "      this.shoeSize = builder.shoeSize;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -1010,7 +1505,7 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getShoeSize() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)) {",
+        "      if ((_unsetProperties & 0x4L) != 0) {",
         "        throw new UnsupportedOperationException(\"shoeSize not set\");",
         "      }",
         "      return shoeSize;",
@@ -1018,11 +1513,14 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "      if (_unsetProperties != other._unsetProperties) {",
         "        return false;",
         "      }",
         "      if (age != other.age) {",
@@ -1031,23 +1529,31 @@ public class DefaultedPropertiesSourceTest {
         "      if (shoeSize != other.shoeSize) {",
         "        return false;",
         "      }",
-        "      return _unsetProperties.equals(other._unsetProperties);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, shoeSize, _unsetProperties});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + shoeSize;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      StringBuilder result = new StringBuilder(\"partial Person{\");",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) == 0) {",
         "        result.append(\"name=\").append(name);",
         "        result.append(\", \");",
         "      }",
         "      result.append(\"age=\").append(age);",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.SHOE_SIZE)) {",
+        "      if ((_unsetProperties & 0x4L) == 0) {",
         "        result.append(\", \");",
         "        result.append(\"shoeSize=\").append(shoeSize);",
         "      }",
@@ -1068,19 +1574,55 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  String name;",
+        "  int age;",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private String name;",
-        "  private int age;",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -1088,9 +1630,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1100,7 +1642,7 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    return setName(mapper.apply(getName()));",
         "  }",
         "",
@@ -1116,9 +1658,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1128,7 +1670,7 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    return setAge(mapper.apply(getAge()));",
         "  }",
         "",
@@ -1142,43 +1684,111 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
         "    if (value.getAge() != _defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(B template) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!template.getName().equals(_defaults.getName())) {",
         "      setName(template.getName());",
         "    }",
         "    if (template.getAge() != _defaults.getAge()) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1201,7 +1811,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1218,16 +1828,28 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1240,7 +1862,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1257,16 +1879,28 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1287,20 +1921,56 @@ public class DefaultedPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  String name;",
+        "  int age;",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
         "",
-        "  private String name;",
-        "  private int age;",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#name()}.",
@@ -1308,9 +1978,9 @@ public class DefaultedPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder name(String name) {",
+        "  public B name(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1325,9 +1995,9 @@ public class DefaultedPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(int age) {",
+        "  public B age(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1340,43 +2010,112 @@ public class DefaultedPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!value.name().equals(_defaults.name())) {",
         "      name(value.name());",
         "    }",
         "    if (value.age() != _defaults.age()) {",
         "      age(value.age());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B mergeFrom(B template) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    if (!template.name().equals(_defaults.name())) {",
         "      name(template.name());",
         "    }",
         "    if (template.age() != _defaults.age()) {",
         "      age(template.age());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1399,7 +2138,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1416,14 +2155,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -1431,7 +2173,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1444,7 +2189,7 @@ public class DefaultedPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1461,14 +2206,17 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -1476,7 +2224,10 @@ public class DefaultedPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1489,10 +2240,13 @@ public class DefaultedPropertiesSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
     try {
-      return new Formatter().formatSource(sourceBuilder.toString());
+      return new Formatter().formatSource(aBuilderSource.toString())
+          + new Formatter().formatSource(sourceBuilder.toString());
     } catch (FormatterException e) {
       throw new RuntimeException(e);
     }
@@ -1502,6 +2256,7 @@ public class DefaultedPropertiesSourceTest {
     QualifiedName person = QualifiedName.of("com.example", "Person");
     TypeMirror string = newTopLevelClass("java.lang.String");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(string)
@@ -1527,10 +2282,17 @@ public class DefaultedPropertiesSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -222,6 +222,36 @@ public class DefaultedPropertiesTest {
         .runTest();
   }
 
+  @Test
+  public void testClear_mutableDefaultNotShared() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface Histogram {")
+            .addLine("  int[] getBuckets();")
+            .addLine("")
+            .addLine("  class Builder extends Histogram_Builder {")
+            .addLine("    public Builder() {")
+            .addLine("      setBuckets(new int[] { 0, 0 });")
+            .addLine("    }")
+            .addLine("  }")
+            .addLine("}")
+            .build())
+        .with(new TestBuilder()
+            .addImport("com.example.Histogram")
+            .addLine("Histogram.Builder first = new Histogram.Builder();")
+            .addLine("first.clear();")
+            .addLine("first.getBuckets()[0] = 5;")
+            .addLine("Histogram.Builder second = new Histogram.Builder();")
+            .addLine("second.clear();")
+            .addLine("assertEquals(0, second.getBuckets()[0]);")
+            .addLine("assertEquals(0, second.build().getBuckets()[0]);")
+            .build())
+        .runTest();
+  }
+
   private static TestBuilder testBuilder() {
     return new TestBuilder().addImport("com.example.DataType");
   }
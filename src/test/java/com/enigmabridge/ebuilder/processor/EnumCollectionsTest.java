@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.enigmabridge.ebuilder.processor.util.feature.GuavaLibrary.GUAVA;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for {@code @EBuilder(enumCollections = true)}. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class EnumCollectionsTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final JavaFileObject ENUM_COLLECTIONS_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s(enumCollections = true)", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  enum Color { RED, GREEN, BLUE }")
+      .addLine("")
+      .addLine("  %s<Color> getColors();", Set.class)
+      .addLine("  %s<Color, String> getNames();", Map.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  private static final JavaFileObject ENUM_MULTISET_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s(enumCollections = true)", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  enum Color { RED, GREEN, BLUE }")
+      .addLine("")
+      .addLine("  %s<Color> getCounts();", Multiset.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testBuilderViewsIterateInDeclarationOrder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.BLUE);")
+            .addLine("builder.addColors(Color.RED);")
+            .addLine("builder.putNames(Color.BLUE, \"blue\");")
+            .addLine("builder.putNames(Color.RED, \"red\");")
+            .addLine("assertThat(builder.getColors()).containsExactly(Color.RED, Color.BLUE)")
+            .addLine("    .inOrder();")
+            .addLine("assertThat(builder.getNames().keySet())")
+            .addLine("    .containsExactly(Color.RED, Color.BLUE).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testValueIteratesInDeclarationOrder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.BLUE, Color.GREEN, Color.RED);")
+            .addLine("builder.putNames(Color.BLUE, \"blue\");")
+            .addLine("builder.putNames(Color.GREEN, \"green\");")
+            .addLine("builder.putNames(Color.RED, \"red\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getColors())")
+            .addLine("    .containsExactly(Color.RED, Color.GREEN, Color.BLUE).inOrder();")
+            .addLine("assertThat(value.getNames().values())")
+            .addLine("    .containsExactly(\"red\", \"green\", \"blue\").inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testValueHoldsImmutableEnumCollections() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.BLUE, Color.RED);")
+            .addLine("builder.putNames(Color.BLUE, \"blue\");")
+            .addLine("builder.putNames(Color.RED, \"red\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getColors().getClass().getSimpleName())")
+            .addLine("    .isEqualTo(\"ImmutableEnumSet\");")
+            .addLine("assertThat(value.getNames().getClass().getSimpleName())")
+            .addLine("    .isEqualTo(\"ImmutableEnumMap\");")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testValueCollectionsAreUnmodifiable() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.BLUE, Color.RED);")
+            .addLine("DataType value = builder.build();")
+            .addLine("builder.addColors(Color.GREEN);")
+            .addLine("assertThat(value.getColors()).containsExactly(Color.RED, Color.BLUE);")
+            .addLine("try {")
+            .addLine("  value.getColors().add(Color.GREEN);")
+            .addLine("  fail(\"Expected UnsupportedOperationException\");")
+            .addLine("} catch (UnsupportedOperationException expected) { }")
+            .addLine("try {")
+            .addLine("  value.getNames().put(Color.GREEN, \"green\");")
+            .addLine("  fail(\"Expected UnsupportedOperationException\");")
+            .addLine("} catch (UnsupportedOperationException expected) { }")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFromValue() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addColors(Color.BLUE);")
+            .addLine("template.putNames(Color.BLUE, \"blue\");")
+            .addLine("DataType value = template.build();")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mergeFrom(value);")
+            .addLine("builder.addColors(Color.RED);")
+            .addLine("builder.putNames(Color.RED, \"red\");")
+            .addLine("DataType merged = builder.build();")
+            .addLine("assertThat(merged.getColors()).containsExactly(Color.RED, Color.BLUE)")
+            .addLine("    .inOrder();")
+            .addLine("assertThat(merged.getNames().keySet())")
+            .addLine("    .containsExactly(Color.RED, Color.BLUE).inOrder();")
+            .addLine("assertThat(value.getColors()).containsExactly(Color.BLUE);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFromBuilder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder source = new DataType.Builder();")
+            .addLine("source.addColors(Color.BLUE);")
+            .addLine("source.putNames(Color.BLUE, \"blue\");")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.GREEN);")
+            .addLine("builder.putNames(Color.GREEN, \"green\");")
+            .addLine("builder.mergeFrom(source);")
+            .addLine("DataType merged = builder.build();")
+            .addLine("assertThat(merged.getColors()).containsExactly(Color.GREEN, Color.BLUE)")
+            .addLine("    .inOrder();")
+            .addLine("assertThat(merged.getNames().values())")
+            .addLine("    .containsExactly(\"green\", \"blue\").inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testClear() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_COLLECTIONS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addColors(Color.BLUE, Color.RED);")
+            .addLine("builder.putNames(Color.BLUE, \"blue\");")
+            .addLine("builder.clearColors();")
+            .addLine("builder.clearNames();")
+            .addLine("assertThat(builder.getColors()).isEmpty();")
+            .addLine("assertThat(builder.getNames()).isEmpty();")
+            .addLine("builder.addColors(Color.GREEN);")
+            .addLine("builder.putNames(Color.GREEN, \"green\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getColors()).containsExactly(Color.GREEN);")
+            .addLine("assertThat(value.getNames().keySet()).containsExactly(Color.GREEN);")
+            .addLine("builder.clear();")
+            .addLine("assertThat(builder.build().getColors()).isEmpty();")
+            .addLine("assertThat(builder.build().getNames()).isEmpty();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMultisetIteratesInDeclarationOrder() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(ENUM_MULTISET_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addCounts(Color.BLUE, Color.RED, Color.BLUE);")
+            .addLine("assertThat(builder.getCounts().elementSet())")
+            .addLine("    .containsExactly(Color.RED, Color.BLUE).inOrder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getCounts()).isInstanceOf(%s.class);",
+                ImmutableMultiset.class)
+            .addLine("assertThat(%s.copyOf(value.getCounts()))", ImmutableList.class)
+            .addLine("    .containsExactly(Color.RED, Color.BLUE, Color.BLUE).inOrder();")
+            .addLine("builder.clearCounts();")
+            .addLine("builder.addCounts(Color.GREEN);")
+            .addLine("assertThat(builder.build().getCounts()).containsExactly(Color.GREEN);")
+            .build())
+        .runTest();
+  }
+
+  private static TestBuilder testBuilder() {
+    return new TestBuilder()
+        .addImport("com.example.DataType")
+        .addImport("com.example.DataType.Color");
+  }
+}
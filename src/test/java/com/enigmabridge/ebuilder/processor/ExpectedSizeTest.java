@@ -0,0 +1,289 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.enigmabridge.ebuilder.processor.util.feature.GuavaLibrary.GUAVA;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.SetMultimap;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.ExpectedSize;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for collection properties annotated with {@link ExpectedSize}. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class ExpectedSizeTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final JavaFileObject SIZED_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  @%s(4) %s<String> getItems();", ExpectedSize.class, List.class)
+      .addLine("  @%s(4) %s<String> getElements();", ExpectedSize.class, Set.class)
+      .addLine("  @%s(4) %s<String, Integer> getEntries();", ExpectedSize.class, Map.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  private static final JavaFileObject SIZED_GUAVA_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  @%s(4) %s<String> getTokens();", ExpectedSize.class, Multiset.class)
+      .addLine("  @%s(4) %s<String, Integer> getSetPairs();",
+          ExpectedSize.class, SetMultimap.class)
+      .addLine("  @%s(4) %s<String, Integer> getListPairs();",
+          ExpectedSize.class, ListMultimap.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testAddBeyondExpectedSize() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("for (int i = 0; i < 10; i++) {")
+            .addLine("  builder.addItems(\"item\" + i);")
+            .addLine("  builder.addElements(\"element\" + i);")
+            .addLine("  builder.putEntries(\"entry\" + i, i);")
+            .addLine("}")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems()).hasSize(10);")
+            .addLine("assertThat(value.getItems().get(9)).isEqualTo(\"item9\");")
+            .addLine("assertThat(value.getElements()).hasSize(10);")
+            .addLine("assertThat(value.getEntries()).hasSize(10);")
+            .addLine("assertThat(value.getEntries().get(\"entry9\")).isEqualTo(9);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testClearThenAdd() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addItems(\"a\", \"b\");")
+            .addLine("builder.addElements(\"a\", \"b\");")
+            .addLine("builder.putEntries(\"a\", 1);")
+            .addLine("builder.clearItems();")
+            .addLine("builder.clearElements();")
+            .addLine("builder.clearEntries();")
+            .addLine("builder.addItems(\"c\");")
+            .addLine("builder.addElements(\"c\");")
+            .addLine("builder.putEntries(\"c\", 3);")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems()).isEqualTo(%s.of(\"c\"));", ImmutableList.class)
+            .addLine("assertThat(value.getElements()).isEqualTo(%s.of(\"c\"));", ImmutableSet.class)
+            .addLine("assertThat(value.getEntries()).isEqualTo(%s.of(\"c\", 3));",
+                ImmutableMap.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFromValueThenAdd() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addItems(\"a\");")
+            .addLine("template.addElements(\"a\");")
+            .addLine("template.putEntries(\"a\", 1);")
+            .addLine("DataType value = template.build();")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mergeFrom(value);")
+            .addLine("builder.addItems(\"b\");")
+            .addLine("builder.addElements(\"b\");")
+            .addLine("builder.putEntries(\"b\", 2);")
+            .addLine("DataType copy = builder.build();")
+            .addLine("assertThat(copy.getItems()).isEqualTo(%s.of(\"a\", \"b\"));",
+                ImmutableList.class)
+            .addLine("assertThat(copy.getElements()).isEqualTo(%s.of(\"a\", \"b\"));",
+                ImmutableSet.class)
+            .addLine("assertThat(copy.getEntries()).isEqualTo(%s.of(\"a\", 1, \"b\", 2));",
+                ImmutableMap.class)
+            .addLine("assertThat(value.getItems()).isEqualTo(%s.of(\"a\"));", ImmutableList.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFromValue_reusesImmutableCollections() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addItems(\"a\");")
+            .addLine("template.addElements(\"a\");")
+            .addLine("template.putEntries(\"a\", 1);")
+            .addLine("DataType value = template.build();")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mergeFrom(value);")
+            .addLine("DataType copy = builder.build();")
+            .addLine("assertThat(copy.getItems()).isSameAs(value.getItems());")
+            .addLine("assertThat(copy.getElements()).isSameAs(value.getElements());")
+            .addLine("assertThat(copy.getEntries()).isSameAs(value.getEntries());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testClearAfterAdoption() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addAllItems(%s.of(\"a\", \"b\"));", ImmutableList.class)
+            .addLine("builder.addAllElements(%s.of(\"a\", \"b\"));", ImmutableSet.class)
+            .addLine("builder.putAllEntries(%s.of(\"a\", 1));", ImmutableMap.class)
+            .addLine("%s<String> items = builder.getItems();", List.class)
+            .addLine("builder.clearItems();")
+            .addLine("builder.clearElements();")
+            .addLine("builder.clearEntries();")
+            .addLine("builder.addItems(\"c\");")
+            .addLine("builder.addElements(\"c\");")
+            .addLine("builder.putEntries(\"c\", 3);")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems()).isEqualTo(%s.of(\"c\"));", ImmutableList.class)
+            .addLine("assertThat(value.getElements()).isEqualTo(%s.of(\"c\"));", ImmutableSet.class)
+            .addLine("assertThat(value.getEntries()).isEqualTo(%s.of(\"c\", 3));",
+                ImmutableMap.class)
+            .addLine("assertThat(items).isEqualTo(%s.of(\"c\"));", ImmutableList.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testEnsureCapacityAfterAdoption() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("%1$s<String> items = %1$s.of(\"a\", \"b\");", ImmutableList.class)
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addAllItems(items);")
+            .addLine("builder.ensureItemsCapacity(1);")
+            .addLine("builder.addItems(\"c\");")
+            .addLine("assertThat(builder.build().getItems())")
+            .addLine("    .isEqualTo(%s.of(\"a\", \"b\", \"c\"));", ImmutableList.class)
+            .addLine("assertThat(items).isEqualTo(%s.of(\"a\", \"b\"));", ImmutableList.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testGuavaCollections_mergeClearAndAdd() {
+    assumeTrue("Guava available", features.get(GUAVA).isAvailable());
+    behaviorTester
+        .with(new Processor(features))
+        .with(SIZED_GUAVA_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addTokens(\"a\");")
+            .addLine("template.putSetPairs(\"a\", 1);")
+            .addLine("template.putListPairs(\"a\", 1);")
+            .addLine("DataType value = template.build();")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mergeFrom(value);")
+            .addLine("DataType copy = builder.build();")
+            .addLine("assertThat(copy.getTokens()).isSameAs(value.getTokens());")
+            .addLine("assertThat(copy.getSetPairs()).isSameAs(value.getSetPairs());")
+            .addLine("assertThat(copy.getListPairs()).isSameAs(value.getListPairs());")
+            .addLine("builder.addTokens(\"b\");")
+            .addLine("builder.putSetPairs(\"b\", 2);")
+            .addLine("builder.putListPairs(\"a\", 2);")
+            .addLine("copy = builder.build();")
+            .addLine("assertThat(copy.getTokens()).isEqualTo(%s.of(\"a\", \"b\"));",
+                ImmutableMultiset.class)
+            .addLine("assertThat(copy.getSetPairs()).isEqualTo(%s.of(\"a\", 1, \"b\", 2));",
+                ImmutableSetMultimap.class)
+            .addLine("assertThat(copy.getListPairs()).isEqualTo(%s.of(\"a\", 1, \"a\", 2));",
+                ImmutableListMultimap.class)
+            .addLine("builder.clearTokens();")
+            .addLine("builder.clearSetPairs();")
+            .addLine("builder.clearListPairs();")
+            .addLine("builder.addTokens(\"c\");")
+            .addLine("builder.putSetPairs(\"c\", 3);")
+            .addLine("builder.putListPairs(\"c\", 3);")
+            .addLine("copy = builder.build();")
+            .addLine("assertThat(copy.getTokens()).isEqualTo(%s.of(\"c\"));",
+                ImmutableMultiset.class)
+            .addLine("assertThat(copy.getSetPairs()).isEqualTo(%s.of(\"c\", 3));",
+                ImmutableSetMultimap.class)
+            .addLine("assertThat(copy.getListPairs()).isEqualTo(%s.of(\"c\", 3));",
+                ImmutableListMultimap.class)
+            .addLine("assertThat(value.getTokens()).isEqualTo(%s.of(\"a\"));",
+                ImmutableMultiset.class)
+            .build())
+        .runTest();
+  }
+}
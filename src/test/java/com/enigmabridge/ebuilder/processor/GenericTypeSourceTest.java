@@ -50,26 +50,38 @@ public class GenericTypeSourceTest {
         " * derived from the API of {@link Person}.",
         " */",
         "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder<A, B> {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
-        "    return new Person.Builder<A, B>().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder, A, B> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -78,10 +90,51 @@ public class GenericTypeSourceTest {
         "    }",
         "  }",
         "",
-        "  private A name;",
-        "  private B age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  A name;",
+        "  B age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -89,10 +142,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder<A, B> setName(A name) {",
+        "  public B setName(A name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -101,8 +154,9 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public A getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -112,10 +166,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code age} is null",
         "   */",
-        "  public Person.Builder<A, B> setAge(B age) {",
+        "  public B setAge(B age) {",
         "    this.age = Preconditions.checkNotNull(age);",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -124,58 +178,59 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public B getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person<A, B> value) {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<A, B>();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || !value.getAge().equals(_defaults.getAge())) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || "
+            + "!value.getAge().equals(_defaults.getAge())) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person.Builder<A, B> template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder<A, B> base = (Person_Builder<A, B>) template;",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<A, B>();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder<A, B> base = (Person_ABuilder<A, B>) template;",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0",
         "            || !template.getAge().equals(_defaults.getAge()))) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder<A, B> clear() {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<A, B>();",
-        "    name = _defaults.name;",
-        "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder<A, B>) this;",
+        "  public B clear() {",
+        "    Person_ABuilder<A, B> _newDefaults = getNewBuilder();",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    name = _newDefaults.name;",
+        "    age = _newDefaults.age;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -183,7 +238,7 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -191,7 +246,77 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder<A, B>",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder, A, B> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
+        "    return (Person.Builder<A, B>) new Person.Builder<A, B>().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getThisBuilder() {",
+        "    return (Person.Builder<A, B>) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getNewBuilder() {",
+        "    return new Person.Builder<A, B>();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder<?, ?> _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected Person.Builder<A, B> getDefaultsBuilder() {",
+        "    Person.Builder<?, ?> defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return (Person.Builder<A, B>) defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder<A, B>> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -200,8 +325,10 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person<A, B> build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value<A, B>(this);",
         "  }",
         "",
@@ -223,7 +350,7 @@ public class GenericTypeSourceTest {
         "    private final A name;",
         "    private final B age;",
         "",
-        "    private Value(Person_Builder<A, B> builder) {",
+        "    private Value(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -240,6 +367,9 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -255,7 +385,10 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -267,17 +400,17 @@ public class GenericTypeSourceTest {
         "  private static final class Partial<A, B> extends Person<A, B> {",
         "    private final A name;",
         "    private final B age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder<A, B> builder) {",
+        "    Partial(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public A getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -285,7 +418,7 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public B getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -293,32 +426,40 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial<?, ?> other = (Person_Builder.Partial<?, ?>) obj;",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
         "      if (name != other.name && (name == null || !name.equals(other.name))) {",
         "        return false;",
         "      }",
         "      if (age != other.age && (age == null || !age.equals(other.age))) {",
         "        return false;",
         "      }",
-        "      return _unsetProperties.equals(other._unsetProperties);",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, _unsetProperties});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -336,26 +477,38 @@ public class GenericTypeSourceTest {
         " * derived from the API of {@link Person}.",
         " */",
         "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder<A, B> {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
-        "    return new Person.Builder<A, B>().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder, A, B> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -364,10 +517,51 @@ public class GenericTypeSourceTest {
         "    }",
         "  }",
         "",
-        "  private A name;",
-        "  private B age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  A name;",
+        "  B age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -375,10 +569,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder<A, B> setName(A name) {",
+        "  public B setName(A name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -387,8 +581,9 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public A getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -398,10 +593,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code age} is null",
         "   */",
-        "  public Person.Builder<A, B> setAge(B age) {",
+        "  public B setAge(B age) {",
         "    this.age = Preconditions.checkNotNull(age);",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -410,58 +605,59 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public B getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person<A, B> value) {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || !value.getAge().equals(_defaults.getAge())) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || "
+            + "!value.getAge().equals(_defaults.getAge())) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person.Builder<A, B> template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder<A, B> base = (Person_Builder<A, B>) template;",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder<A, B> base = (Person_ABuilder<A, B>) template;",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0",
         "            || !template.getAge().equals(_defaults.getAge()))) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder<A, B> clear() {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    name = _defaults.name;",
-        "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder<A, B>) this;",
+        "  public B clear() {",
+        "    Person_ABuilder<A, B> _newDefaults = getNewBuilder();",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    name = _newDefaults.name;",
+        "    age = _newDefaults.age;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -469,7 +665,7 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -477,7 +673,77 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder<A, B>",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder, A, B> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
+        "    return (Person.Builder<A, B>) new Person.Builder<A, B>().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getThisBuilder() {",
+        "    return (Person.Builder<A, B>) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getNewBuilder() {",
+        "    return new Person.Builder<A, B>();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder<?, ?> _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected Person.Builder<A, B> getDefaultsBuilder() {",
+        "    Person.Builder<?, ?> defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return (Person.Builder<A, B>) defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder<A, B>> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -486,8 +752,10 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person<A, B> build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value<>(this);",
         "  }",
         "",
@@ -509,7 +777,7 @@ public class GenericTypeSourceTest {
         "    private final A name;",
         "    private final B age;",
         "",
-        "    private Value(Person_Builder<A, B> builder) {",
+        "    private Value(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -526,16 +794,28 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value<?, ?> other = (Person_Builder.Value<?, ?>) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -547,17 +827,17 @@ public class GenericTypeSourceTest {
         "  private static final class Partial<A, B> extends Person<A, B> {",
         "    private final A name;",
         "    private final B age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder<A, B> builder) {",
+        "    Partial(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public A getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -565,7 +845,7 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public B getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -573,28 +853,40 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial<?, ?> other = (Person_Builder.Partial<?, ?>) obj;",
-        "      return Objects.equals(name, other.name)",
-        "          && Objects.equals(age, other.age)",
-        "          && Objects.equals(_unsetProperties, other._unsetProperties);",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age, _unsetProperties);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -611,26 +903,38 @@ public class GenericTypeSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder<A, B> {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
-        "    return new Person.Builder<A, B>().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder, A, B> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -639,10 +943,51 @@ public class GenericTypeSourceTest {
         "    }",
         "  }",
         "",
-        "  private A name;",
-        "  private B age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  A name;",
+        "  B age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -650,10 +995,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder<A, B> setName(A name) {",
+        "  public B setName(A name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -664,7 +1009,7 @@ public class GenericTypeSourceTest {
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
-        "  public Person.Builder<A, B> mapName(UnaryOperator<A> mapper) {",
+        "  public B mapName(UnaryOperator<A> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    return setName(mapper.apply(getName()));",
         "  }",
@@ -675,8 +1020,9 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public A getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -686,10 +1032,10 @@ public class GenericTypeSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code age} is null",
         "   */",
-        "  public Person.Builder<A, B> setAge(B age) {",
+        "  public B setAge(B age) {",
         "    this.age = Preconditions.checkNotNull(age);",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder<A, B>) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -700,7 +1046,7 @@ public class GenericTypeSourceTest {
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
-        "  public Person.Builder<A, B> mapAge(UnaryOperator<B> mapper) {",
+        "  public B mapAge(UnaryOperator<B> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    return setAge(mapper.apply(getAge()));",
         "  }",
@@ -711,58 +1057,59 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public B getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person<A, B> value) {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || !value.getAge().equals(_defaults.getAge())) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || "
+            + "!value.getAge().equals(_defaults.getAge())) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder<A, B> mergeFrom(Person.Builder<A, B> template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder<A, B> base = (Person_Builder<A, B>) template;",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder<A, B> base = (Person_ABuilder<A, B>) template;",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0",
         "            || !template.getAge().equals(_defaults.getAge()))) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder<A, B>) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder<A, B> clear() {",
-        "    Person_Builder<A, B> _defaults = new Person.Builder<>();",
-        "    name = _defaults.name;",
-        "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder<A, B>) this;",
+        "  public B clear() {",
+        "    Person_ABuilder<A, B> _newDefaults = getNewBuilder();",
+        "    Person_ABuilder<A, B> _defaults = getDefaultsBuilder();",
+        "    name = _newDefaults.name;",
+        "    age = _newDefaults.age;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -770,7 +1117,7 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -778,7 +1125,76 @@ public class GenericTypeSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder<A, B>",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder, A, B> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static <A, B> Person.Builder<A, B> from(Person<A, B> value) {",
+        "    return (Person.Builder<A, B>) new Person.Builder<A, B>().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getThisBuilder() {",
+        "    return (Person.Builder<A, B>) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder<A, B>} builder",
+        "   * class extending this abstract class {@link Person_Builder<A, B>}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder<A, B> getNewBuilder() {",
+        "    return new Person.Builder<A, B>();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder<?, ?> _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected Person.Builder<A, B> getDefaultsBuilder() {",
+        "    Person.Builder<?, ?> defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return (Person.Builder<A, B>) defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder<A, B>> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -787,8 +1203,10 @@ public class GenericTypeSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person<A, B> build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value<>(this);",
         "  }",
         "",
@@ -810,7 +1228,7 @@ public class GenericTypeSourceTest {
         "    private final A name;",
         "    private final B age;",
         "",
-        "    private Value(Person_Builder<A, B> builder) {",
+        "    private Value(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -827,16 +1245,28 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value<?, ?> other = (Person_Builder.Value<?, ?>) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -848,17 +1278,17 @@ public class GenericTypeSourceTest {
         "  private static final class Partial<A, B> extends Person<A, B> {",
         "    private final A name;",
         "    private final B age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder<A, B> builder) {",
+        "    Partial(Person_ABuilder<A, B> builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public A getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -866,7 +1296,7 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public B getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -874,28 +1304,40 @@ public class GenericTypeSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial<?, ?> other = (Person_Builder.Partial<?, ?>) obj;",
-        "      return Objects.equals(name, other.name)",
-        "          && Objects.equals(age, other.age)",
-        "          && Objects.equals(_unsetProperties, other._unsetProperties);",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age, _unsetProperties);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -903,10 +1345,13 @@ public class GenericTypeSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
     try {
-      return new Formatter().formatSource(sourceBuilder.toString());
+      return new Formatter().formatSource(aBuilderSource.toString())
+          + new Formatter().formatSource(sourceBuilder.toString());
     } catch (FormatterException e) {
       throw new RuntimeException(e);
     }
@@ -915,6 +1360,7 @@ public class GenericTypeSourceTest {
   private static Metadata createMetadata() {
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     TypeVariable typeVariableA = newTypeVariable("A");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
@@ -940,10 +1386,17 @@ public class GenericTypeSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters("A", "B"))
+        .setGeneratedABuilder(generatedABuilder.withParameters("A", "B"))
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder", "A", "B"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder", "A", "B"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters("A", "B"))
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters("A", "B"))
         .setValueType(generatedBuilder.nestedType("Value").withParameters("A", "B"))
         .build();
@@ -15,7 +15,7 @@
  */
 package com.enigmabridge.ebuilder.processor;
 
-import com.enigmabridge.ebuilder.FreeBuilder;
+import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
@@ -30,6 +30,7 @@ import org.junit.runners.Parameterized.Parameters;
 import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 
 import java.util.List;
+import java.util.Optional;
 
 @RunWith(Parameterized.class)
 @UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
@@ -50,7 +51,7 @@ public class GenericTypeTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType<A, B> {")
             .addLine("  A getPropertyA();")
             .addLine("  B getPropertyB();")
@@ -76,7 +77,7 @@ public class GenericTypeTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType<A, B> {")
             .addLine("  A getPropertyA();")
             .addLine("  B getPropertyB();")
@@ -94,7 +95,7 @@ public class GenericTypeTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType<A extends Number, B extends Number> {")
             .addLine("  A getPropertyA();")
             .addLine("  B getPropertyB();")
@@ -115,4 +116,48 @@ public class GenericTypeTest {
         .runTest();
   }
 
+  @Test
+  public void testMergeFromAndNestedBuilder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface DataType<K, V> {")
+            .addLine("  K getKey();")
+            .addLine("  %s<V> getFirst();", Optional.class)
+            .addLine("")
+            .addLine("  public static class Builder<K, V> extends DataType_Builder<K, V> {}")
+            .addLine("}")
+            .build())
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface Holder {")
+            .addLine("  DataType<String, Integer> getItem();")
+            .addLine("")
+            .addLine("  public static class Builder extends Holder_Builder {}")
+            .addLine("}")
+            .build())
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addImport("com.example.Holder")
+            .addLine("DataType.Builder<String, Integer> template = new DataType.Builder<>();")
+            .addLine("template.setKey(\"key\");")
+            .addLine("template.setFirst(1);")
+            .addLine("DataType.Builder<String, Integer> builder = new DataType.Builder<>();")
+            .addLine("builder.mergeFrom(template);")
+            .addLine("assertEquals(template.build(), builder.build());")
+            .addLine("builder.mergeFrom(template.build());")
+            .addLine("assertEquals(\"key\", builder.build().getKey());")
+            .addLine("assertEquals(%s.of(1), builder.build().getFirst());", Optional.class)
+            .addLine("Holder.Builder holder = new Holder.Builder();")
+            .addLine("holder.getItemBuilder().mergeFrom(template);")
+            .addLine("holder.getItemBuilder().setKey(\"nested\");")
+            .addLine("assertEquals(\"nested\", holder.build().getItem().getKey());")
+            .addLine("assertEquals(%s.of(1), holder.build().getItem().getFirst());", Optional.class)
+            .build())
+        .runTest();
+  }
+
 }
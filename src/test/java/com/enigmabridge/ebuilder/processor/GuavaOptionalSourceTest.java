@@ -53,26 +53,62 @@ public class GuavaOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -80,9 +116,9 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -90,7 +126,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setName(Optional<? extends String> name) {",
+        "  public B setName(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return setName(name.get());",
         "    } else {",
@@ -103,7 +139,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableName(@Nullable String name) {",
+        "  public B setNullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return setName(name);",
         "    } else {",
@@ -117,9 +153,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -134,9 +170,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -144,7 +180,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(Optional<? extends Integer> age) {",
+        "  public B setAge(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return setAge(age.get());",
         "    } else {",
@@ -157,7 +193,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableAge(@Nullable Integer age) {",
+        "  public B setNullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return setAge(age);",
         "    } else {",
@@ -171,9 +207,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -186,41 +222,112 @@ public class GuavaOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    if (value.getName().isPresent()) {",
         "      setName(value.getName().get());",
         "    }",
         "    if (value.getAge().isPresent()) {",
         "      setAge(value.getAge().get());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    if (template.getName().isPresent()) {",
-        "      setName(template.getName().get());",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      setName(base.name);",
         "    }",
-        "    if (template.getAge().isPresent()) {",
-        "      setAge(template.getAge().get());",
+        "    if (base.age != null) {",
+        "      setAge(base.age);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -243,13 +350,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -266,6 +373,9 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -281,15 +391,18 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -298,13 +411,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -321,6 +434,9 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -336,15 +452,18 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -361,26 +480,62 @@ public class GuavaOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -388,9 +543,9 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -398,7 +553,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setName(Optional<? extends String> name) {",
+        "  public B setName(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return setName(name.get());",
         "    } else {",
@@ -411,7 +566,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableName(@Nullable String name) {",
+        "  public B setNullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return setName(name);",
         "    } else {",
@@ -425,9 +580,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -442,9 +597,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -452,7 +607,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(Optional<? extends Integer> age) {",
+        "  public B setAge(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return setAge(age.get());",
         "    } else {",
@@ -465,7 +620,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableAge(@Nullable Integer age) {",
+        "  public B setNullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return setAge(age);",
         "    } else {",
@@ -479,9 +634,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -494,41 +649,112 @@ public class GuavaOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    if (value.getName().isPresent()) {",
         "      setName(value.getName().get());",
         "    }",
         "    if (value.getAge().isPresent()) {",
         "      setAge(value.getAge().get());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    if (template.getName().isPresent()) {",
-        "      setName(template.getName().get());",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      setName(base.name);",
         "    }",
-        "    if (template.getAge().isPresent()) {",
-        "      setAge(template.getAge().get());",
+        "    if (base.age != null) {",
+        "      setAge(base.age);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -551,13 +777,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -574,24 +800,36 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -600,13 +838,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -623,24 +861,36 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -657,25 +907,61 @@ public class GuavaOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -683,9 +969,9 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -693,7 +979,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setName(Optional<? extends String> name) {",
+        "  public B setName(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return setName(name.get());",
         "    } else {",
@@ -706,7 +992,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableName(@Nullable String name) {",
+        "  public B setNullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return setName(name);",
         "    } else {",
@@ -723,13 +1009,13 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    Optional<String> oldName = getName();",
         "    if (oldName.isPresent()) {",
         "      setNullableName(mapper.apply(oldName.get()));",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -738,9 +1024,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -755,9 +1041,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -765,7 +1051,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(Optional<? extends Integer> age) {",
+        "  public B setAge(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return setAge(age.get());",
         "    } else {",
@@ -778,7 +1064,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableAge(@Nullable Integer age) {",
+        "  public B setNullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return setAge(age);",
         "    } else {",
@@ -795,13 +1081,13 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    Optional<Integer> oldAge = getAge();",
         "    if (oldAge.isPresent()) {",
         "      setNullableAge(mapper.apply(oldAge.get()));",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -810,9 +1096,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -825,41 +1111,111 @@ public class GuavaOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    if (value.getName().isPresent()) {",
         "      setName(value.getName().get());",
         "    }",
         "    if (value.getAge().isPresent()) {",
         "      setAge(value.getAge().get());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    if (template.getName().isPresent()) {",
-        "      setName(template.getName().get());",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      setName(base.name);",
         "    }",
-        "    if (template.getAge().isPresent()) {",
-        "      setAge(template.getAge().get());",
+        "    if (base.age != null) {",
+        "      setAge(base.age);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -882,13 +1238,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -905,24 +1261,36 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -931,13 +1299,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -954,24 +1322,36 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -987,26 +1367,62 @@ public class GuavaOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#name()}.",
@@ -1014,9 +1430,9 @@ public class GuavaOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder name(String name) {",
+        "  public B name(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1024,7 +1440,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder name(Optional<? extends String> name) {",
+        "  public B name(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return name(name.get());",
         "    } else {",
@@ -1037,7 +1453,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder nullableName(@Nullable String name) {",
+        "  public B nullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return name(name);",
         "    } else {",
@@ -1051,9 +1467,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1068,9 +1484,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(int age) {",
+        "  public B age(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1078,7 +1494,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(Optional<? extends Integer> age) {",
+        "  public B age(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return age(age.get());",
         "    } else {",
@@ -1091,7 +1507,7 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder nullableAge(@Nullable Integer age) {",
+        "  public B nullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return age(age);",
         "    } else {",
@@ -1105,9 +1521,9 @@ public class GuavaOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1120,41 +1536,112 @@ public class GuavaOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    if (value.name().isPresent()) {",
         "      name(value.name().get());",
         "    }",
         "    if (value.age().isPresent()) {",
         "      age(value.age().get());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    if (template.name().isPresent()) {",
-        "      name(template.name().get());",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      name(base.name);",
         "    }",
-        "    if (template.age().isPresent()) {",
-        "      age(template.age().get());",
+        "    if (base.age != null) {",
+        "      age(base.age);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1177,13 +1664,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1200,6 +1687,9 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -1215,15 +1705,18 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -1232,13 +1725,13 @@ public class GuavaOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1255,6 +1748,9 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -1270,15 +1766,18 @@ public class GuavaOptionalSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -1286,10 +1785,13 @@ public class GuavaOptionalSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
     try {
-      return new Formatter().formatSource(sourceBuilder.toString());
+      return new Formatter().formatSource(aBuilderSource.toString())
+          + new Formatter().formatSource(sourceBuilder.toString());
     } catch (FormatterException e) {
       throw new RuntimeException(e);
     }
@@ -1303,6 +1805,7 @@ public class GuavaOptionalSourceTest {
     GenericTypeMirrorImpl optionalString = optional.newMirror(string);
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(optionalString)
@@ -1328,10 +1831,17 @@ public class GuavaOptionalSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.SetMultimap;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.JavaFileObject;
+
+/**
+ * Behavioral tests for the reuse of immutable collections passed to, or merged into, a builder.
+ */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class ImmutableCollectionAdoptionTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.WITH_GUAVA;
+  }
+
+  private static final JavaFileObject COLLECTIONS_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  %s<String> getItems();", List.class)
+      // Shares its name with the addAllElements parameter
+      .addLine("  %s<String> getElements();", Set.class)
+      .addLine("  %s<String, String> getEntries();", Map.class)
+      .addLine("  %s<String> getTokens();", Multiset.class)
+      .addLine("  %s<String, String> getSetPairs();", SetMultimap.class)
+      .addLine("  %s<String, String> getListPairs();", ListMultimap.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testAddAll_reusesImmutableCollections() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addAllFromValue(code);
+    code.addLine("DataType copy = builder.build();")
+        .addLine("assertThat(copy.getItems()).isSameAs(value.getItems());")
+        .addLine("assertThat(copy.getElements()).isSameAs(value.getElements());")
+        .addLine("assertThat(copy.getEntries()).isSameAs(value.getEntries());")
+        .addLine("assertThat(copy.getTokens()).isSameAs(value.getTokens());")
+        .addLine("assertThat(copy.getSetPairs()).isSameAs(value.getSetPairs());")
+        .addLine("assertThat(copy.getListPairs()).isSameAs(value.getListPairs());");
+    runTest(code);
+  }
+
+  @Test
+  public void testAddAll_thenMutate() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addAllFromValue(code);
+    addMoreToBuilder(code);
+    code.addLine("DataType copy = builder.build();")
+        .addLine("assertThat(copy.getItems()).isEqualTo(%s.of(\"item\", \"more\"));",
+            ImmutableList.class)
+        .addLine("assertThat(copy.getElements()).isEqualTo(%s.of(\"element\", \"more\"));",
+            ImmutableSet.class)
+        .addLine("assertThat(copy.getEntries())")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"entry\", \"more\", \"more\"));",
+            ImmutableMap.class)
+        .addLine("assertThat(copy.getTokens()).isEqualTo(%s.of(\"token\", \"more\"));",
+            ImmutableMultiset.class)
+        .addLine("assertThat(copy.getSetPairs())")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"set\", \"more\", \"more\"));",
+            ImmutableSetMultimap.class)
+        .addLine("assertThat(copy.getListPairs())")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"list\", \"more\", \"more\"));",
+            ImmutableListMultimap.class);
+    assertValueUnchanged(code);
+    runTest(code);
+  }
+
+  @Test
+  public void testAddAll_thenGetterViewsStayLive() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addAllFromValue(code);
+    addGetterViews(code);
+    assertViewsContainValue(code);
+    addMoreToBuilder(code);
+    assertViewsContainValueAndMore(code);
+    assertValueUnchanged(code);
+    runTest(code);
+  }
+
+  @Test
+  public void testClear_afterAddAll() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addAllFromValue(code);
+    code.addLine("builder.clearItems();")
+        .addLine("builder.clearElements();")
+        .addLine("builder.clearEntries();")
+        .addLine("builder.clearTokens();")
+        .addLine("builder.clearSetPairs();")
+        .addLine("builder.clearListPairs();")
+        .addLine("DataType empty = builder.build();")
+        .addLine("assertThat(empty.getItems()).isEmpty();")
+        .addLine("assertThat(empty.getElements()).isEmpty();")
+        .addLine("assertThat(empty.getEntries()).isEmpty();")
+        .addLine("assertThat(empty.getTokens()).isEmpty();")
+        .addLine("assertThat(empty.getSetPairs().isEmpty()).isTrue();")
+        .addLine("assertThat(empty.getListPairs().isEmpty()).isTrue();");
+    addGetterViews(code);
+    addMoreToBuilder(code);
+    code.addLine("assertThat(items).isEqualTo(%s.of(\"more\"));", ImmutableList.class)
+        .addLine("assertThat(elements).isEqualTo(%s.of(\"more\"));", ImmutableSet.class)
+        .addLine("assertThat(entries).isEqualTo(%s.of(\"more\", \"more\"));", ImmutableMap.class)
+        .addLine("assertThat(tokens).isEqualTo(%s.of(\"more\"));", ImmutableMultiset.class)
+        .addLine("assertThat(setPairs).isEqualTo(%s.of(\"more\", \"more\"));",
+            ImmutableSetMultimap.class)
+        .addLine("assertThat(listPairs).isEqualTo(%s.of(\"more\", \"more\"));",
+            ImmutableListMultimap.class);
+    assertValueUnchanged(code);
+    runTest(code);
+  }
+
+  @Test
+  public void testMergeFromValue_reusesImmutableCollections() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();")
+        .addLine("builder.mergeFrom(value);")
+        .addLine("DataType copy = builder.build();")
+        .addLine("assertThat(copy.getItems()).isSameAs(value.getItems());")
+        .addLine("assertThat(copy.getElements()).isSameAs(value.getElements());")
+        .addLine("assertThat(copy.getEntries()).isSameAs(value.getEntries());")
+        .addLine("assertThat(copy.getTokens()).isSameAs(value.getTokens());")
+        .addLine("assertThat(copy.getSetPairs()).isSameAs(value.getSetPairs());")
+        .addLine("assertThat(copy.getListPairs()).isSameAs(value.getListPairs());");
+    runTest(code);
+  }
+
+  @Test
+  public void testMergeFromValue_keepsGetterViewsLive() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addGetterViews(code);
+    code.addLine("builder.mergeFrom(value);");
+    assertViewsContainValue(code);
+    addMoreToBuilder(code);
+    assertViewsContainValueAndMore(code);
+    runTest(code);
+  }
+
+  @Test
+  public void testMergeFromBuilder_keepsGetterViewsLive() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder source = new DataType.Builder();")
+        .addLine("source.mergeFrom(value);")
+        .addLine("DataType.Builder builder = new DataType.Builder();");
+    addGetterViews(code);
+    code.addLine("builder.mergeFrom(source);");
+    assertViewsContainValue(code);
+    addMoreToBuilder(code);
+    assertViewsContainValueAndMore(code);
+    runTest(code);
+  }
+
+  @Test
+  public void testMergeFromValue_afterClearKeepsGetterViewsLive() {
+    TestBuilder code = valueTestBuilder()
+        .addLine("DataType.Builder builder = new DataType.Builder();")
+        .addLine("builder.mergeFrom(value);");
+    addGetterViews(code);
+    code.addLine("builder.clear();")
+        .addLine("builder.mergeFrom(value);");
+    assertViewsContainValue(code);
+    runTest(code);
+  }
+
+  private void runTest(TestBuilder code) {
+    behaviorTester
+        .with(new Processor(features))
+        .with(COLLECTIONS_TYPE)
+        .with(code.build())
+        .runTest();
+  }
+
+  /** Returns a {@link TestBuilder} that has built a {@code DataType value} with one entry each. */
+  private static TestBuilder valueTestBuilder() {
+    return new TestBuilder()
+        .addImport("com.example.DataType")
+        .addLine("DataType.Builder template = new DataType.Builder();")
+        .addLine("template.addItems(\"item\");")
+        .addLine("template.addElements(\"element\");")
+        .addLine("template.putEntries(\"key\", \"entry\");")
+        .addLine("template.addTokens(\"token\");")
+        .addLine("template.putSetPairs(\"key\", \"set\");")
+        .addLine("template.putListPairs(\"key\", \"list\");")
+        .addLine("DataType value = template.build();");
+  }
+
+  private static void addGetterViews(TestBuilder code) {
+    code.addLine("%s<String> items = builder.getItems();", List.class)
+        .addLine("%s<String> elements = builder.getElements();", Set.class)
+        .addLine("%s<String, String> entries = builder.getEntries();", Map.class)
+        .addLine("%s<String> tokens = builder.getTokens();", Multiset.class)
+        .addLine("%s<String, String> setPairs = builder.getSetPairs();", SetMultimap.class)
+        .addLine("%s<String, String> listPairs = builder.getListPairs();", ListMultimap.class);
+  }
+
+  private static void assertViewsContainValue(TestBuilder code) {
+    code.addLine("assertThat(items).isEqualTo(%s.of(\"item\"));", ImmutableList.class)
+        .addLine("assertThat(elements).isEqualTo(%s.of(\"element\"));", ImmutableSet.class)
+        .addLine("assertThat(entries).isEqualTo(%s.of(\"key\", \"entry\"));",
+            ImmutableMap.class)
+        .addLine("assertThat(tokens).isEqualTo(%s.of(\"token\"));", ImmutableMultiset.class)
+        .addLine("assertThat(setPairs).isEqualTo(%s.of(\"key\", \"set\"));",
+            ImmutableSetMultimap.class)
+        .addLine("assertThat(listPairs).isEqualTo(%s.of(\"key\", \"list\"));",
+            ImmutableListMultimap.class);
+  }
+
+  private static void addAllFromValue(TestBuilder code) {
+    code.addLine("builder.addAllItems(value.getItems());")
+        .addLine("builder.addAllElements(value.getElements());")
+        .addLine("builder.putAllEntries(value.getEntries());")
+        .addLine("builder.addAllTokens(value.getTokens());")
+        .addLine("builder.putAllSetPairs(value.getSetPairs());")
+        .addLine("builder.putAllListPairs(value.getListPairs());");
+  }
+
+  private static void addMoreToBuilder(TestBuilder code) {
+    code.addLine("builder.addItems(\"more\");")
+        .addLine("builder.addElements(\"more\");")
+        .addLine("builder.putEntries(\"more\", \"more\");")
+        .addLine("builder.addTokens(\"more\");")
+        .addLine("builder.putSetPairs(\"more\", \"more\");")
+        .addLine("builder.putListPairs(\"more\", \"more\");");
+  }
+
+  private static void assertViewsContainValueAndMore(TestBuilder code) {
+    code.addLine("assertThat(items).isEqualTo(%s.of(\"item\", \"more\"));", ImmutableList.class)
+        .addLine("assertThat(elements).isEqualTo(%s.of(\"element\", \"more\"));",
+            ImmutableSet.class)
+        .addLine("assertThat(entries)")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"entry\", \"more\", \"more\"));",
+            ImmutableMap.class)
+        .addLine("assertThat(tokens).isEqualTo(%s.of(\"token\", \"more\"));",
+            ImmutableMultiset.class)
+        .addLine("assertThat(setPairs)")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"set\", \"more\", \"more\"));",
+            ImmutableSetMultimap.class)
+        .addLine("assertThat(listPairs)")
+        .addLine("    .isEqualTo(%s.of(\"key\", \"list\", \"more\", \"more\"));",
+            ImmutableListMultimap.class);
+  }
+
+  private static void assertValueUnchanged(TestBuilder code) {
+    code.addLine("assertThat(value.getItems()).isEqualTo(%s.of(\"item\"));", ImmutableList.class)
+        .addLine("assertThat(value.getElements()).isEqualTo(%s.of(\"element\"));",
+            ImmutableSet.class)
+        .addLine("assertThat(value.getTokens()).isEqualTo(%s.of(\"token\"));",
+            ImmutableMultiset.class);
+  }
+}
@@ -399,6 +399,22 @@ public class JavaUtilOptionalPropertyTest {
         .runTest();
   }
 
+  @Test
+  public void testMergeFrom_builder_overwritesSetValue() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(OPTIONAL_PROPERTY_TYPE)
+        .with(new TestBuilder()
+            .addLine("com.example.DataType.Builder template = com.example.DataType.builder();")
+            .addLine("template.setItem(\"template\");")
+            .addLine("com.example.DataType.Builder builder = com.example.DataType.builder();")
+            .addLine("builder.setItem(\"builder\");")
+            .addLine("builder.mergeFrom(template);")
+            .addLine("assertEquals(%s.of(\"template\"), builder.getItem());", Optional.class)
+            .build())
+        .runTest();
+  }
+
   @Test
   public void testMergeFrom_valueInstance_emptyOptional() {
     behaviorTester
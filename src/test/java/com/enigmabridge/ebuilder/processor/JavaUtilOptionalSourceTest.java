@@ -53,25 +53,61 @@ public class JavaUtilOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -79,9 +115,9 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -89,7 +125,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setName(Optional<? extends String> name) {",
+        "  public B setName(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return setName(name.get());",
         "    } else {",
@@ -102,7 +138,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableName(@Nullable String name) {",
+        "  public B setNullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return setName(name);",
         "    } else {",
@@ -119,7 +155,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    return setName(getName().map(mapper));",
         "  }",
         "",
@@ -129,9 +165,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -146,9 +182,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -156,7 +192,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(Optional<? extends Integer> age) {",
+        "  public B setAge(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return setAge(age.get());",
         "    } else {",
@@ -169,7 +205,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableAge(@Nullable Integer age) {",
+        "  public B setNullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return setAge(age);",
         "    } else {",
@@ -186,7 +222,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    return setAge(getAge().map(mapper));",
         "  }",
         "",
@@ -196,9 +232,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -211,33 +247,107 @@ public class JavaUtilOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    value.getName().ifPresent(this::setName);",
         "    value.getAge().ifPresent(this::setAge);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    template.getName().ifPresent(this::setName);",
-        "    template.getAge().ifPresent(this::setAge);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      setName(base.name);",
+        "    }",
+        "    if (base.age != null) {",
+        "      setAge(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -260,13 +370,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -283,24 +393,36 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -309,13 +431,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -332,24 +454,36 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -366,23 +500,59 @@ public class JavaUtilOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -390,9 +560,9 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Objects.requireNonNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -400,7 +570,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setName(Optional<? extends String> name) {",
+        "  public B setName(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return setName(name.get());",
         "    } else {",
@@ -413,7 +583,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableName(@Nullable String name) {",
+        "  public B setNullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return setName(name);",
         "    } else {",
@@ -430,7 +600,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    return setName(getName().map(mapper));",
         "  }",
         "",
@@ -440,9 +610,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -457,9 +627,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -467,7 +637,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(Optional<? extends Integer> age) {",
+        "  public B setAge(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return setAge(age.get());",
         "    } else {",
@@ -480,7 +650,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setNullableAge(@Nullable Integer age) {",
+        "  public B setNullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return setAge(age);",
         "    } else {",
@@ -497,7 +667,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    return setAge(getAge().map(mapper));",
         "  }",
         "",
@@ -507,9 +677,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -522,33 +692,105 @@ public class JavaUtilOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    value.getName().ifPresent(this::setName);",
         "    value.getAge().ifPresent(this::setAge);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    template.getName().ifPresent(this::setName);",
-        "    template.getAge().ifPresent(this::setAge);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      setName(base.name);",
+        "    }",
+        "    if (base.age != null) {",
+        "      setAge(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -570,13 +812,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -593,16 +835,28 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -626,13 +880,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -649,16 +903,28 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -690,25 +956,61 @@ public class JavaUtilOptionalSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private String name = null;",
+        "  String name = null;",
         "  // Store a nullable object instead of an Optional. Escape analysis then",
         "  // allows the JVM to optimize away the Optional objects created by and",
         "  // passed to our API.",
-        "  private Integer age = null;",
+        "  Integer age = null;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#name()}.",
@@ -716,9 +1018,9 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder name(String name) {",
+        "  public B name(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -726,7 +1028,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder name(Optional<? extends String> name) {",
+        "  public B name(Optional<? extends String> name) {",
         "    if (name.isPresent()) {",
         "      return name(name.get());",
         "    } else {",
@@ -739,7 +1041,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder nullableName(@Nullable String name) {",
+        "  public B nullableName(@Nullable String name) {",
         "    if (name != null) {",
         "      return name(name);",
         "    } else {",
@@ -756,7 +1058,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    return name(name().map(mapper));",
         "  }",
         "",
@@ -766,9 +1068,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    this.name = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -783,9 +1085,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(int age) {",
+        "  public B age(int age) {",
         "    this.age = age;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -793,7 +1095,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(Optional<? extends Integer> age) {",
+        "  public B age(Optional<? extends Integer> age) {",
         "    if (age.isPresent()) {",
         "      return age(age.get());",
         "    } else {",
@@ -806,7 +1108,7 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder nullableAge(@Nullable Integer age) {",
+        "  public B nullableAge(@Nullable Integer age) {",
         "    if (age != null) {",
         "      return age(age);",
         "    } else {",
@@ -823,7 +1125,7 @@ public class JavaUtilOptionalSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mapper} is null",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    return age(age().map(mapper));",
         "  }",
         "",
@@ -833,9 +1135,9 @@ public class JavaUtilOptionalSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    this.age = null;",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -848,33 +1150,107 @@ public class JavaUtilOptionalSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
+        "  public B mergeFrom(T value) {",
         "    value.name().ifPresent(this::name);",
         "    value.age().ifPresent(this::age);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    template.name().ifPresent(this::name);",
-        "    template.age().ifPresent(this::age);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name != null) {",
+        "      name(base.name);",
+        "    }",
+        "    if (base.age != null) {",
+        "      age(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -897,13 +1273,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -920,24 +1296,36 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -946,13 +1334,13 @@ public class JavaUtilOptionalSourceTest {
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final String name;",
+        "    final String name;",
         "    // Store a nullable object instead of an Optional. Escape analysis then",
         "    // allows the JVM to optimize away the Optional objects created by our",
         "    // getter method.",
-        "    private final Integer age;",
+        "    final Integer age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -969,24 +1357,36 @@ public class JavaUtilOptionalSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age && (age == null || !age.equals(other.age))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + (age == null ? 0 : age.hashCode());",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (name != null ? \"name=\" + name : null), "
-            + "(age != null ? \"age=\" + age : null))",
+        "              (name != null ? \"name=\" + name : null), (age != null ? \"age=\" + age "
+            + ": null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -994,10 +1394,13 @@ public class JavaUtilOptionalSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
     try {
-      return new Formatter().formatSource(sourceBuilder.toString());
+      return new Formatter().formatSource(aBuilderSource.toString())
+          + new Formatter().formatSource(sourceBuilder.toString());
     } catch (FormatterException e) {
       throw new RuntimeException(e);
     }
@@ -1011,6 +1414,7 @@ public class JavaUtilOptionalSourceTest {
     GenericTypeMirrorImpl optionalString = optional.newMirror(string);
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(optionalString)
@@ -1036,10 +1440,17 @@ public class JavaUtilOptionalSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -20,7 +20,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimaps;
-import com.enigmabridge.ebuilder.FreeBuilder;
+import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
@@ -51,7 +51,7 @@ public class ListMultimapMutateMethodTest {
 
   private static final JavaFileObject UNCHECKED_PROPERTY = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  public abstract %s<String, String> getItems();", ListMultimap.class)
       .addLine("")
@@ -61,7 +61,7 @@ public class ListMultimapMutateMethodTest {
 
   private static final JavaFileObject CHECKED_PROPERTY = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  public abstract %s<String, String> getItems();", ListMultimap.class)
       .addLine("")
@@ -71,7 +71,8 @@ public class ListMultimapMutateMethodTest {
           Preconditions.class)
       .addLine("      %s.checkArgument(!value.isEmpty(), \"value may not be empty\");",
           Preconditions.class)
-      .addLine("      return super.putItems(key, value);")
+      .addLine("      super.putItems(key, value);")
+      .addLine("      return this;")
       .addLine("    }")
       .addLine("  }")
       .addLine("}")
@@ -79,13 +80,14 @@ public class ListMultimapMutateMethodTest {
 
   private static final JavaFileObject INTERNED_PROPERTY = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  public abstract %s<String, String> getItems();", ListMultimap.class)
       .addLine("")
       .addLine("  public static class Builder extends DataType_Builder {")
       .addLine("    @Override public Builder putItems(String key, String value) {")
-      .addLine("      return super.putItems(key.intern(), value.intern());")
+      .addLine("      super.putItems(key.intern(), value.intern());")
+      .addLine("      return this;")
       .addLine("    }")
       .addLine("  }")
       .addLine("}")
@@ -484,13 +486,139 @@ public class ListMultimapMutateMethodTest {
         .runTest();
   }
 
+  @Test
+  public void mutateAndSetValueViaEntriesModifiesUnderlyingProperty_whenUnchecked() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(UNCHECKED_PROPERTY)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.putItems(\"one\", \"A\");")
+            .addLine("builder.putItems(\"two\", \"B\");")
+            .addLine("builder.putItems(\"one\", \"C\");")
+            .addLine("builder.mutateItems(items -> items.entries().forEach(")
+            .addLine("    entry -> entry.setValue(entry.getValue().toLowerCase())));")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems())")
+            .addLine("    .contains(\"one\", \"a\", \"c\")")
+            .addLine("    .and(\"two\", \"b\")")
+            .addLine("    .andNothingElse()")
+            .addLine("    .inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void mutateAndSetValueViaEntriesModifiesUnderlyingProperty_whenChecked() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(CHECKED_PROPERTY)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.putItems(\"one\", \"A\");")
+            .addLine("builder.putItems(\"two\", \"B\");")
+            .addLine("builder.putItems(\"one\", \"C\");")
+            .addLine("builder.mutateItems(items -> items.entries().forEach(")
+            .addLine("    entry -> entry.setValue(entry.getValue().toLowerCase())));")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems())")
+            .addLine("    .contains(\"one\", \"a\", \"c\")")
+            .addLine("    .and(\"two\", \"b\")")
+            .addLine("    .andNothingElse()")
+            .addLine("    .inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void mutateAndSetValueViaEntriesChecksArguments() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("value may not be empty");
+    behaviorTester
+        .with(new Processor(features))
+        .with(CHECKED_PROPERTY)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.putItems(\"one\", \"A\");")
+            .addLine("builder.mutateItems(")
+            .addLine("    items -> items.entries().iterator().next().setValue(\"\"));")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void mutateAndSetValueViaEntriesKeepsSubstitute() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(INTERNED_PROPERTY)
+        .with(testBuilder()
+            .addLine("String s = new String(\"foobar\");")
+            .addLine("String i = s.intern();")
+            .addLine("assertThat(s).isNotSameAs(i);")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.putAllItems(\"one\", ImmutableList.of(\"A\", \"B\"));")
+            .addLine("builder.mutateItems(items -> items.entries().iterator().next().setValue(s));")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems().get(\"one\").get(0)).isSameAs(i);")
+            .addLine("assertThat(value.getItems().get(\"one\").get(1)).isEqualTo(\"B\");")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void mutateAndRemoveViaEntriesModifiesUnderlyingProperty() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(UNCHECKED_PROPERTY)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.putItems(\"one\", \"A\");")
+            .addLine("builder.putItems(\"two\", \"B\");")
+            .addLine("builder.putItems(\"one\", \"C\");")
+            .addLine("builder.putItems(\"three\", \"D\");")
+            .addLine("builder.mutateItems(items -> items.entries().removeIf(")
+            .addLine("    entry -> !entry.getValue().equals(\"C\")));")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getItems())")
+            .addLine("    .contains(\"one\", \"C\")")
+            .addLine("    .andNothingElse();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void mutateAndPutGroupsValuesByKey() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(UNCHECKED_PROPERTY)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mutateItems(items -> {")
+            .addLine("  items.put(\"one\", \"A\");")
+            .addLine("  items.put(\"two\", \"B\");")
+            .addLine("  items.put(\"one\", \"C\");")
+            .addLine("});")
+            .addLine("assertThat(builder.getItems())")
+            .addLine("    .contains(\"one\", \"A\", \"C\")")
+            .addLine("    .and(\"two\", \"B\")")
+            .addLine("    .andNothingElse()")
+            .addLine("    .inOrder();")
+            .addLine("assertThat(builder.build().getItems())")
+            .addLine("    .contains(\"one\", \"A\", \"C\")")
+            .addLine("    .and(\"two\", \"B\")")
+            .addLine("    .andNothingElse()")
+            .addLine("    .inOrder();")
+            .build())
+        .runTest();
+  }
+
   @Test
   public void mutateAndPutModifiesUnderlyingProperty_whenUnchecked_prefixless() {
     behaviorTester
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract %s<String, String> items();", ListMultimap.class)
             .addLine("")
@@ -519,7 +647,7 @@ public class ListMultimapMutateMethodTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract %s<String, String> items();", ListMultimap.class)
             .addLine("")
@@ -529,7 +657,8 @@ public class ListMultimapMutateMethodTest {
                 Preconditions.class)
             .addLine("      %s.checkArgument(!value.isEmpty(), \"value may not be empty\");",
                 Preconditions.class)
-            .addLine("      return super.putItems(key, value);")
+            .addLine("      super.putItems(key, value);")
+            .addLine("      return this;")
             .addLine("    }")
             .addLine("  }")
             .addLine("}")
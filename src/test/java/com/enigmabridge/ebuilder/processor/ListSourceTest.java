@@ -48,20 +48,56 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  List<String> name = ImmutableList.of();",
+        "  List<Integer> age = ImmutableList.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
         "",
-        "  private List<String> name = ImmutableList.of();",
-        "  private List<Integer> age = ImmutableList.of();",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#getName()}.",
@@ -69,12 +105,12 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableList) {",
         "      this.name = new ArrayList<String>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -85,7 +121,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -97,20 +133,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.name instanceof ImmutableList",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.name = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (name instanceof ImmutableList) {",
-        "          name = new ArrayList<String>(name);",
-        "        }",
-        "        ((ArrayList<?>) name).ensureCapacity(name.size() + elementsSize);",
+        "        ensureNameCapacity(this.name.size() + elementsSize);",
         "      }",
         "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getName()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    if (this.name instanceof ImmutableList) {",
+        "      ArrayList<String> mutable = new ArrayList<String>(Math.max(minCapacity, "
+            + "this.name.size()));",
+        "      mutable.addAll(this.name);",
+        "      this.name = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.name).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -118,13 +176,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableList) {",
         "      name = ImmutableList.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -133,8 +191,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<String> getName() {",
-        "    if (name instanceof ImmutableList) {",
-        "      name = new ArrayList<String>(name);",
+        "    if (this.name instanceof ImmutableList) {",
+        "      this.name = new ArrayList<String>(this.name);",
         "    }",
         "    return Collections.unmodifiableList(name);",
         "  }",
@@ -144,12 +202,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    if (this.age instanceof ImmutableList) {",
         "      this.age = new ArrayList<Integer>(this.age);",
         "    }",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -158,7 +216,7 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    return addAllAge(Ints.asList(elements));",
         "  }",
         "",
@@ -170,20 +228,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.age instanceof ImmutableList",
+        "        && this.age.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.age = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (age instanceof ImmutableList) {",
-        "          age = new ArrayList<Integer>(age);",
-        "        }",
-        "        ((ArrayList<?>) age).ensureCapacity(age.size() + elementsSize);",
+        "        ensureAgeCapacity(this.age.size() + elementsSize);",
         "      }",
         "    }",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getAge()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    if (this.age instanceof ImmutableList) {",
+        "      ArrayList<Integer> mutable = new ArrayList<Integer>(Math.max(minCapacity, "
+            + "this.age.size()));",
+        "      mutable.addAll(this.age);",
+        "      this.age = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.age).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -191,13 +271,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    if (age instanceof ImmutableList) {",
         "      age = ImmutableList.of();",
         "    } else {",
         "      age.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -206,8 +286,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<Integer> getAge() {",
-        "    if (age instanceof ImmutableList) {",
-        "      age = new ArrayList<Integer>(age);",
+        "    if (this.age instanceof ImmutableList) {",
+        "      this.age = new ArrayList<Integer>(this.age);",
         "    }",
         "    return Collections.unmodifiableList(age);",
         "  }",
@@ -215,42 +295,141 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableList.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
-        "    }",
-        "    if (value instanceof Person_Builder.Value && age == ImmutableList.<Integer>of()) {",
-        "      age = value.getAge();",
+        "    } else if (value.getName() instanceof ImmutableList",
+        "        && name instanceof ImmutableList",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(value.getName());",
         "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<String>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
+        "    }",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllAge(value.getAge());",
+        "    } else if (value.getAge() instanceof ImmutableList",
+        "        && age instanceof ImmutableList",
+        "        && age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(value.getAge());",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<Integer>(this.age);",
+        "      }",
+        "      age.addAll(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableList && name instanceof ImmutableList && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<String>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    if (base.age instanceof ImmutableList && age instanceof ImmutableList && "
+            + "age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(base.age);",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<Integer>(this.age);",
+        "      }",
+        "      age.addAll(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -270,10 +449,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -290,6 +469,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -305,7 +487,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -315,10 +500,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -335,6 +520,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -350,7 +538,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -372,20 +563,56 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  List<String> name = ImmutableList.of();",
+        "  List<Integer> age = ImmutableList.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
         "",
-        "  private List<String> name = ImmutableList.of();",
-        "  private List<Integer> age = ImmutableList.of();",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#getName()}.",
@@ -393,12 +620,12 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableList) {",
         "      this.name = new ArrayList<>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -409,7 +636,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -421,20 +648,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.name instanceof ImmutableList",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.name = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (name instanceof ImmutableList) {",
-        "          name = new ArrayList<>(name);",
-        "        }",
-        "        ((ArrayList<?>) name).ensureCapacity(name.size() + elementsSize);",
+        "        ensureNameCapacity(this.name.size() + elementsSize);",
         "      }",
         "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getName()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    if (this.name instanceof ImmutableList) {",
+        "      ArrayList<String> mutable = new ArrayList<>(Math.max(minCapacity, "
+            + "this.name.size()));",
+        "      mutable.addAll(this.name);",
+        "      this.name = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.name).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -442,13 +691,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableList) {",
         "      name = ImmutableList.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -457,8 +706,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<String> getName() {",
-        "    if (name instanceof ImmutableList) {",
-        "      name = new ArrayList<>(name);",
+        "    if (this.name instanceof ImmutableList) {",
+        "      this.name = new ArrayList<>(this.name);",
         "    }",
         "    return Collections.unmodifiableList(name);",
         "  }",
@@ -468,12 +717,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    if (this.age instanceof ImmutableList) {",
         "      this.age = new ArrayList<>(this.age);",
         "    }",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -482,7 +731,7 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    return addAllAge(Ints.asList(elements));",
         "  }",
         "",
@@ -494,20 +743,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.age instanceof ImmutableList",
+        "        && this.age.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.age = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (age instanceof ImmutableList) {",
-        "          age = new ArrayList<>(age);",
-        "        }",
-        "        ((ArrayList<?>) age).ensureCapacity(age.size() + elementsSize);",
+        "        ensureAgeCapacity(this.age.size() + elementsSize);",
         "      }",
         "    }",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getAge()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    if (this.age instanceof ImmutableList) {",
+        "      ArrayList<Integer> mutable = new ArrayList<>(Math.max(minCapacity, "
+            + "this.age.size()));",
+        "      mutable.addAll(this.age);",
+        "      this.age = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.age).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -515,13 +786,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    if (age instanceof ImmutableList) {",
         "      age = ImmutableList.of();",
         "    } else {",
         "      age.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -530,8 +801,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<Integer> getAge() {",
-        "    if (age instanceof ImmutableList) {",
-        "      age = new ArrayList<>(age);",
+        "    if (this.age instanceof ImmutableList) {",
+        "      this.age = new ArrayList<>(this.age);",
         "    }",
         "    return Collections.unmodifiableList(age);",
         "  }",
@@ -539,42 +810,141 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableList.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
-        "    }",
-        "    if (value instanceof Person_Builder.Value && age == ImmutableList.<Integer>of()) {",
-        "      age = value.getAge();",
+        "    } else if (value.getName() instanceof ImmutableList",
+        "        && name instanceof ImmutableList",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(value.getName());",
         "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
+        "    }",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllAge(value.getAge());",
+        "    } else if (value.getAge() instanceof ImmutableList",
+        "        && age instanceof ImmutableList",
+        "        && age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(value.getAge());",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<>(this.age);",
+        "      }",
+        "      age.addAll(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableList && name instanceof ImmutableList && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    if (base.age instanceof ImmutableList && age instanceof ImmutableList && "
+            + "age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(base.age);",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<>(this.age);",
+        "      }",
+        "      age.addAll(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -594,10 +964,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -614,16 +984,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -633,10 +1015,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -653,16 +1035,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -684,19 +1078,55 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  List<String> name = ImmutableList.of();",
+        "  List<Integer> age = ImmutableList.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
         "",
-        "  private List<String> name = ImmutableList.of();",
-        "  private List<Integer> age = ImmutableList.of();",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#getName()}.",
@@ -704,12 +1134,12 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableList) {",
         "      this.name = new ArrayList<>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -720,7 +1150,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -732,18 +1162,40 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.name instanceof ImmutableList",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.name = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (name instanceof ImmutableList) {",
-        "          name = new ArrayList<>(name);",
-        "        }",
-        "        ((ArrayList<?>) name).ensureCapacity(name.size() + elementsSize);",
+        "        ensureNameCapacity(this.name.size() + elementsSize);",
         "      }",
         "    }",
         "    elements.forEach(this::addName);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getName()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    if (this.name instanceof ImmutableList) {",
+        "      ArrayList<String> mutable = new ArrayList<>(Math.max(minCapacity, "
+            + "this.name.size()));",
+        "      mutable.addAll(this.name);",
+        "      this.name = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.name).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -756,13 +1208,13 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mutator} is null",
         "   */",
-        "  public Person.Builder mutateName(Consumer<? super List<String>> mutator) {",
+        "  public B mutateName(Consumer<? super List<String>> mutator) {",
         "    if (this.name instanceof ImmutableList) {",
         "      this.name = new ArrayList<>(this.name);",
         "    }",
         "    // If addName is overridden, this method will be updated to delegate to it",
         "    mutator.accept(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -770,13 +1222,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableList) {",
         "      name = ImmutableList.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -785,8 +1237,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<String> getName() {",
-        "    if (name instanceof ImmutableList) {",
-        "      name = new ArrayList<>(name);",
+        "    if (this.name instanceof ImmutableList) {",
+        "      this.name = new ArrayList<>(this.name);",
         "    }",
         "    return Collections.unmodifiableList(name);",
         "  }",
@@ -796,12 +1248,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    if (this.age instanceof ImmutableList) {",
         "      this.age = new ArrayList<>(this.age);",
         "    }",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -810,7 +1262,7 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    return addAllAge(Ints.asList(elements));",
         "  }",
         "",
@@ -822,18 +1274,40 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.age instanceof ImmutableList",
+        "        && this.age.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.age = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (age instanceof ImmutableList) {",
-        "          age = new ArrayList<>(age);",
-        "        }",
-        "        ((ArrayList<?>) age).ensureCapacity(age.size() + elementsSize);",
+        "        ensureAgeCapacity(this.age.size() + elementsSize);",
         "      }",
         "    }",
         "    elements.forEach(this::addAge);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getAge()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    if (this.age instanceof ImmutableList) {",
+        "      ArrayList<Integer> mutable = new ArrayList<>(Math.max(minCapacity, "
+            + "this.age.size()));",
+        "      mutable.addAll(this.age);",
+        "      this.age = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.age).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -846,13 +1320,13 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mutator} is null",
         "   */",
-        "  public Person.Builder mutateAge(Consumer<? super List<Integer>> mutator) {",
+        "  public B mutateAge(Consumer<? super List<Integer>> mutator) {",
         "    if (this.age instanceof ImmutableList) {",
         "      this.age = new ArrayList<>(this.age);",
         "    }",
         "    // If addAge is overridden, this method will be updated to delegate to it",
         "    mutator.accept(age);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -860,13 +1334,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    if (age instanceof ImmutableList) {",
         "      age = ImmutableList.of();",
         "    } else {",
         "      age.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -875,8 +1349,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<Integer> getAge() {",
-        "    if (age instanceof ImmutableList) {",
-        "      age = new ArrayList<>(age);",
+        "    if (this.age instanceof ImmutableList) {",
+        "      this.age = new ArrayList<>(this.age);",
         "    }",
         "    return Collections.unmodifiableList(age);",
         "  }",
@@ -884,42 +1358,140 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableList.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
-        "    }",
-        "    if (value instanceof Person_Builder.Value && age == ImmutableList.<Integer>of()) {",
-        "      age = value.getAge();",
+        "    } else if (value.getName() instanceof ImmutableList",
+        "        && name instanceof ImmutableList",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(value.getName());",
         "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
+        "    }",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllAge(value.getAge());",
+        "    } else if (value.getAge() instanceof ImmutableList",
+        "        && age instanceof ImmutableList",
+        "        && age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(value.getAge());",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<>(this.age);",
+        "      }",
+        "      age.addAll(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableList && name instanceof ImmutableList && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    if (base.age instanceof ImmutableList && age instanceof ImmutableList && "
+            + "age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(base.age);",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<>(this.age);",
+        "      }",
+        "      age.addAll(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -939,10 +1511,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -959,16 +1531,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -978,10 +1562,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -998,16 +1582,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1028,18 +1624,54 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final ArrayList<String> name = new ArrayList<String>();",
+        "  final ArrayList<Integer> age = new ArrayList<Integer>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private final ArrayList<String> name = new ArrayList<String>();",
-        "  private final ArrayList<Integer> age = new ArrayList<Integer>();",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#getName()}.",
@@ -1047,12 +1679,12 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (element == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1063,7 +1695,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -1075,15 +1707,26 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
-        "      name.ensureCapacity(name.size() + elementsSize);",
+        "      ensureNameCapacity(this.name.size() + elementsSize);",
         "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getName()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    name.ensureCapacity(minCapacity);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1091,9 +1734,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1110,9 +1753,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1121,12 +1764,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    age.ensureCapacity(age.size() + elements.length);",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1137,15 +1780,26 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
-        "      age.ensureCapacity(age.size() + elementsSize);",
+        "      ensureAgeCapacity(this.age.size() + elementsSize);",
         "    }",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getAge()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    age.ensureCapacity(minCapacity);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1153,9 +1807,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    age.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1170,34 +1824,109 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    addAllName(value.getName());",
-        "    addAllAge(value.getAge());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.addAll(value.getName());",
+        "    } else {",
+        "      addAllName(value.getName());",
+        "    }",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      age.addAll(value.getAge());",
+        "    } else {",
+        "      addAllAge(value.getAge());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.addAll(base.name);",
+        "    age.addAll(base.age);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1216,10 +1945,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableList(builder.name, String.class);",
         "      this.age = immutableList(builder.age, Integer.class);",
         "    }",
@@ -1236,6 +1965,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -1251,7 +1983,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1261,10 +1996,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableList(builder.name, String.class);",
         "      this.age = immutableList(builder.age, Integer.class);",
         "    }",
@@ -1281,6 +2016,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -1296,7 +2034,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1320,7 +2061,7 @@ public class ListSourceTest {
         "      default:",
         "        return Collections.unmodifiableList(",
         "            Arrays.asList(elements.toArray((E[]) Array.newInstance(type, "
-           + "elements.size()))));",
+            + "elements.size()))));",
         "    }",
         "  }",
         "}\n"));
@@ -1335,18 +2076,54 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final ArrayList<String> name = new ArrayList<>();",
+        "  final ArrayList<Integer> age = new ArrayList<>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private final ArrayList<String> name = new ArrayList<>();",
-        "  private final ArrayList<Integer> age = new ArrayList<>();",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#getName()}.",
@@ -1354,9 +2131,9 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    this.name.add(Objects.requireNonNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1367,7 +2144,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -1379,15 +2156,26 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
-        "      name.ensureCapacity(name.size() + elementsSize);",
+        "      ensureNameCapacity(this.name.size() + elementsSize);",
         "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getName()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    name.ensureCapacity(minCapacity);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1395,9 +2183,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1414,9 +2202,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1425,12 +2213,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    age.ensureCapacity(age.size() + elements.length);",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1441,15 +2229,26 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
-        "      age.ensureCapacity(age.size() + elementsSize);",
+        "      ensureAgeCapacity(this.age.size() + elementsSize);",
         "    }",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#getAge()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    age.ensureCapacity(minCapacity);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1457,9 +2256,9 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    age.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1474,34 +2273,109 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    addAllName(value.getName());",
-        "    addAllAge(value.getAge());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.addAll(value.getName());",
+        "    } else {",
+        "      addAllName(value.getName());",
+        "    }",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      age.addAll(value.getAge());",
+        "    } else {",
+        "      addAllAge(value.getAge());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.addAll(base.name);",
+        "    age.addAll(base.age);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1520,10 +2394,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableList(builder.name, String.class);",
         "      this.age = immutableList(builder.age, Integer.class);",
         "    }",
@@ -1540,16 +2414,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1559,10 +2445,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableList(builder.name, String.class);",
         "      this.age = immutableList(builder.age, Integer.class);",
         "    }",
@@ -1579,16 +2465,28 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      if (!age.equals(other.age)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1627,20 +2525,56 @@ public class ListSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  List<String> name = ImmutableList.of();",
+        "  List<Integer> age = ImmutableList.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private List<String> name = ImmutableList.of();",
-        "  private List<Integer> age = ImmutableList.of();",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the list to be returned from {@link Person#name()}.",
@@ -1648,12 +2582,12 @@ public class ListSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableList) {",
         "      this.name = new ArrayList<String>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1664,7 +2598,7 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -1676,20 +2610,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.name instanceof ImmutableList",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.name = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (name instanceof ImmutableList) {",
-        "          name = new ArrayList<String>(name);",
-        "        }",
-        "        ((ArrayList<?>) name).ensureCapacity(name.size() + elementsSize);",
+        "        ensureNameCapacity(this.name.size() + elementsSize);",
         "      }",
         "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#name()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureNameCapacity(int minCapacity) {",
+        "    if (this.name instanceof ImmutableList) {",
+        "      ArrayList<String> mutable = new ArrayList<String>(Math.max(minCapacity, "
+            + "this.name.size()));",
+        "      mutable.addAll(this.name);",
+        "      this.name = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.name).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1697,13 +2653,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableList) {",
         "      name = ImmutableList.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1712,8 +2668,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<String> name() {",
-        "    if (name instanceof ImmutableList) {",
-        "      name = new ArrayList<String>(name);",
+        "    if (this.name instanceof ImmutableList) {",
+        "      this.name = new ArrayList<String>(this.name);",
         "    }",
         "    return Collections.unmodifiableList(name);",
         "  }",
@@ -1723,12 +2679,12 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int element) {",
+        "  public B addAge(int element) {",
         "    if (this.age instanceof ImmutableList) {",
         "      this.age = new ArrayList<Integer>(this.age);",
         "    }",
         "    this.age.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1737,7 +2693,7 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder addAge(int... elements) {",
+        "  public B addAge(int... elements) {",
         "    return addAllAge(Ints.asList(elements));",
         "  }",
         "",
@@ -1749,20 +2705,42 @@ public class ListSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllAge(Iterable<? extends Integer> elements) {",
+        "  public B addAllAge(Iterable<? extends Integer> elements) {",
+        "    if (elements instanceof ImmutableList",
+        "        && this.age instanceof ImmutableList",
+        "        && this.age.isEmpty()) {",
+        "      // Adopt the immutable list; it will be copied if this builder is modified",
+        "      this.age = ImmutableList.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    if (elements instanceof Collection) {",
         "      int elementsSize = ((Collection<?>) elements).size();",
         "      if (elementsSize != 0) {",
-        "        if (age instanceof ImmutableList) {",
-        "          age = new ArrayList<Integer>(age);",
-        "        }",
-        "        ((ArrayList<?>) age).ensureCapacity(age.size() + elementsSize);",
+        "        ensureAgeCapacity(this.age.size() + elementsSize);",
         "      }",
         "    }",
         "    for (int element : elements) {",
         "      addAge(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Ensures the list to be returned from {@link Person#age()} can hold at least",
+        "   * {@code minCapacity} elements without reallocating.",
+        "   *",
+        "   * @return this {@code Builder} object",
+        "   */",
+        "  public B ensureAgeCapacity(int minCapacity) {",
+        "    if (this.age instanceof ImmutableList) {",
+        "      ArrayList<Integer> mutable = new ArrayList<Integer>(Math.max(minCapacity, "
+            + "this.age.size()));",
+        "      mutable.addAll(this.age);",
+        "      this.age = mutable;",
+        "    } else {",
+        "      ((ArrayList<?>) this.age).ensureCapacity(minCapacity);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1770,13 +2748,13 @@ public class ListSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearAge() {",
+        "  public B clearAge() {",
         "    if (age instanceof ImmutableList) {",
         "      age = ImmutableList.of();",
         "    } else {",
         "      age.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1785,8 +2763,8 @@ public class ListSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public List<Integer> age() {",
-        "    if (age instanceof ImmutableList) {",
-        "      age = new ArrayList<Integer>(age);",
+        "    if (this.age instanceof ImmutableList) {",
+        "      this.age = new ArrayList<Integer>(this.age);",
         "    }",
         "    return Collections.unmodifiableList(age);",
         "  }",
@@ -1794,42 +2772,141 @@ public class ListSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableList.<String>of()) {",
-        "      name = value.name();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.name());",
-        "    }",
-        "    if (value instanceof Person_Builder.Value && age == ImmutableList.<Integer>of()) {",
-        "      age = value.age();",
+        "    } else if (value.name() instanceof ImmutableList",
+        "        && name instanceof ImmutableList",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(value.name());",
         "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<String>(this.name);",
+        "      }",
+        "      name.addAll(value.name());",
+        "    }",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllAge(value.age());",
+        "    } else if (value.age() instanceof ImmutableList",
+        "        && age instanceof ImmutableList",
+        "        && age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(value.age());",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<Integer>(this.age);",
+        "      }",
+        "      age.addAll(value.age());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    addAllName(base.name);",
-        "    addAllAge(base.age);",
-        "    return (Person.Builder) this;",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableList && name instanceof ImmutableList && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableList.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableList) {",
+        "        this.name = new ArrayList<String>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    if (base.age instanceof ImmutableList && age instanceof ImmutableList && "
+            + "age.isEmpty()) {",
+        "      age = ImmutableList.copyOf(base.age);",
+        "    } else {",
+        "      if (this.age instanceof ImmutableList) {",
+        "        this.age = new ArrayList<Integer>(this.age);",
+        "      }",
+        "      age.addAll(base.age);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
         "    clearAge();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1849,10 +2926,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -1869,6 +2946,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -1884,7 +2964,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1894,10 +2977,10 @@ public class ListSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final List<String> name;",
-        "    private final List<Integer> age;",
+        "    final List<String> name;",
+        "    final List<Integer> age;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableList.copyOf(builder.name);",
         "      this.age = ImmutableList.copyOf(builder.age);",
         "    }",
@@ -1914,6 +2997,9 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -1929,7 +3015,10 @@ public class ListSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1942,9 +3031,12 @@ public class ListSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
-    return CompilationUnitBuilder.formatSource(sourceBuilder.toString());
+    return CompilationUnitBuilder.formatSource(aBuilderSource.toString())
+        + CompilationUnitBuilder.formatSource(sourceBuilder.toString());
   }
 
   /**
@@ -1959,6 +3051,7 @@ public class ListSourceTest {
     GenericTypeMirrorImpl listString = list.newMirror(string);
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(listString)
@@ -1984,10 +3077,17 @@ public class ListSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -1995,11 +3095,13 @@ public class ListSourceTest {
         .clearProperties()
         .addProperties(name.toBuilder()
             .setCodeGenerator(new ListPropertyFactory.CodeGenerator(
-                metadata, name, false, string, Optional.<TypeMirror>absent()))
+                metadata, name, false, string, Optional.<TypeMirror>absent(),
+                Optional.<Integer>absent()))
             .build())
         .addProperties(age.toBuilder()
             .setCodeGenerator(new ListPropertyFactory.CodeGenerator(
-                metadata, age, false, integer, Optional.<TypeMirror>of(INT)))
+                metadata, age, false, integer, Optional.<TypeMirror>of(INT),
+                Optional.<Integer>absent()))
             .build())
         .build();
   }
@@ -46,18 +46,53 @@ public class MapSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Map<Integer, String> name = ImmutableMap.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
         "",
-        "  private final LinkedHashMap<Integer, String> name = "
-            + "new LinkedHashMap<Integer, String>();",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Associates {@code key} with {@code value} in the map to be returned from",
@@ -68,10 +103,13 @@ public class MapSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code value} is null",
         "   */",
-        "  public Person.Builder putName(int key, String value) {",
+        "  public B putName(int key, String value) {",
         "    Preconditions.checkNotNull(value);",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    name.put(key, value);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -82,11 +120,17 @@ public class MapSourceTest {
         "   * @throws NullPointerException if {@code map} is null or contains a",
         "   *     null key or value",
         "   */",
-        "  public Person.Builder putAllName(Map<? extends Integer, ? extends String> map) {",
+        "  public B putAllName(Map<? extends Integer, ? extends String> map) {",
+        "    if (map instanceof ImmutableMap && this.name instanceof ImmutableMap && "
+            + "this.name.isEmpty()) {",
+        "      // Adopt the immutable map; it will be copied if this builder is modified",
+        "      this.name = ImmutableMap.copyOf(map);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (Map.Entry<? extends Integer, ? extends String> entry : map.entrySet()) {",
         "      putName(entry.getKey(), entry.getValue());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -95,9 +139,12 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder removeName(int key) {",
+        "  public B removeName(int key) {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    name.remove(key);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -106,9 +153,13 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
-        "    name.clear();",
-        "    return (Person.Builder) this;",
+        "  public B clearName() {",
+        "    if (name instanceof ImmutableMap) {",
+        "      name = ImmutableMap.of();",
+        "    } else {",
+        "      name.clear();",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -117,35 +168,126 @@ public class MapSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Map<Integer, String> getName() {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    return Collections.unmodifiableMap(name);",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    putAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
+        "      putAllName(value.getName());",
+        "    } else if (value.getName() instanceof ImmutableMap",
+        "        && name instanceof ImmutableMap",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(value.getName());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "      }",
+        "      name.putAll(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    putAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableMap && name instanceof ImmutableMap && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "      }",
+        "      name.putAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    name.clear();",
+        "  public B clear() {",
+        "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -165,9 +307,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -178,6 +320,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -190,7 +335,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -200,9 +347,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -213,6 +360,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -225,7 +375,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -246,17 +398,53 @@ public class MapSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Map<Integer, String> name = ImmutableMap.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
         "",
-        "  private final LinkedHashMap<Integer, String> name = new LinkedHashMap<>();",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Associates {@code key} with {@code value} in the map to be returned from",
@@ -267,10 +455,13 @@ public class MapSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code value} is null",
         "   */",
-        "  public Person.Builder putName(int key, String value) {",
+        "  public B putName(int key, String value) {",
         "    Preconditions.checkNotNull(value);",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<>(this.name);",
+        "    }",
         "    name.put(key, value);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -281,11 +472,17 @@ public class MapSourceTest {
         "   * @throws NullPointerException if {@code map} is null or contains a",
         "   *     null key or value",
         "   */",
-        "  public Person.Builder putAllName(Map<? extends Integer, ? extends String> map) {",
+        "  public B putAllName(Map<? extends Integer, ? extends String> map) {",
+        "    if (map instanceof ImmutableMap && this.name instanceof ImmutableMap && "
+            + "this.name.isEmpty()) {",
+        "      // Adopt the immutable map; it will be copied if this builder is modified",
+        "      this.name = ImmutableMap.copyOf(map);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (Map.Entry<? extends Integer, ? extends String> entry : map.entrySet()) {",
         "      putName(entry.getKey(), entry.getValue());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -294,9 +491,12 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder removeName(int key) {",
+        "  public B removeName(int key) {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<>(this.name);",
+        "    }",
         "    name.remove(key);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -305,9 +505,13 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
-        "    name.clear();",
-        "    return (Person.Builder) this;",
+        "  public B clearName() {",
+        "    if (name instanceof ImmutableMap) {",
+        "      name = ImmutableMap.of();",
+        "    } else {",
+        "      name.clear();",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -316,35 +520,126 @@ public class MapSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Map<Integer, String> getName() {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<>(this.name);",
+        "    }",
         "    return Collections.unmodifiableMap(name);",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    putAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
+        "      putAllName(value.getName());",
+        "    } else if (value.getName() instanceof ImmutableMap",
+        "        && name instanceof ImmutableMap",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(value.getName());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<>(this.name);",
+        "      }",
+        "      name.putAll(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    putAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableMap && name instanceof ImmutableMap && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<>(this.name);",
+        "      }",
+        "      name.putAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    name.clear();",
+        "  public B clear() {",
+        "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -364,9 +659,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -377,16 +672,24 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -396,9 +699,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -409,16 +712,24 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -438,18 +749,53 @@ public class MapSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final LinkedHashMap<Integer, String> name = new LinkedHashMap<Integer, String>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private final LinkedHashMap<Integer, String> name = "
-            + "new LinkedHashMap<Integer, String>();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Associates {@code key} with {@code value} in the map to be returned from",
@@ -460,12 +806,12 @@ public class MapSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code value} is null",
         "   */",
-        "  public Person.Builder putName(int key, String value) {",
+        "  public B putName(int key, String value) {",
         "    if (value == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    name.put(key, value);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -476,11 +822,11 @@ public class MapSourceTest {
         "   * @throws NullPointerException if {@code map} is null or contains a",
         "   *     null key or value",
         "   */",
-        "  public Person.Builder putAllName(Map<? extends Integer, ? extends String> map) {",
+        "  public B putAllName(Map<? extends Integer, ? extends String> map) {",
         "    for (Map.Entry<? extends Integer, ? extends String> entry : map.entrySet()) {",
         "      putName(entry.getKey(), entry.getValue());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -489,9 +835,9 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder removeName(int key) {",
+        "  public B removeName(int key) {",
         "    name.remove(key);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -500,9 +846,9 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -517,29 +863,102 @@ public class MapSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    putAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.putAll(value.getName());",
+        "    } else {",
+        "      putAllName(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    putAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.putAll(base.name);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    name.clear();",
+        "  public B clear() {",
+        "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -558,9 +977,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableMap(builder.name);",
         "    }",
         "",
@@ -571,6 +990,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -583,7 +1005,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -593,9 +1017,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableMap(builder.name);",
         "    }",
         "",
@@ -606,6 +1030,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -618,7 +1045,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -650,17 +1079,53 @@ public class MapSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final LinkedHashMap<Integer, String> name = new LinkedHashMap<>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private final LinkedHashMap<Integer, String> name = new LinkedHashMap<>();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Associates {@code key} with {@code value} in the map to be returned from",
@@ -671,10 +1136,10 @@ public class MapSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code value} is null",
         "   */",
-        "  public Person.Builder putName(int key, String value) {",
+        "  public B putName(int key, String value) {",
         "    Objects.requireNonNull(value);",
         "    name.put(key, value);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -685,11 +1150,11 @@ public class MapSourceTest {
         "   * @throws NullPointerException if {@code map} is null or contains a",
         "   *     null key or value",
         "   */",
-        "  public Person.Builder putAllName(Map<? extends Integer, ? extends String> map) {",
+        "  public B putAllName(Map<? extends Integer, ? extends String> map) {",
         "    for (Map.Entry<? extends Integer, ? extends String> entry : map.entrySet()) {",
         "      putName(entry.getKey(), entry.getValue());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -698,9 +1163,9 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder removeName(int key) {",
+        "  public B removeName(int key) {",
         "    name.remove(key);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -709,9 +1174,9 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -726,29 +1191,102 @@ public class MapSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    putAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.putAll(value.getName());",
+        "    } else {",
+        "      putAllName(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    putAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.putAll(base.name);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    name.clear();",
+        "  public B clear() {",
+        "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -767,9 +1305,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableMap(builder.name);",
         "    }",
         "",
@@ -780,16 +1318,24 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -799,9 +1345,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableMap(builder.name);",
         "    }",
         "",
@@ -812,16 +1358,24 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -853,18 +1407,53 @@ public class MapSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Map<Integer, String> name = ImmutableMap.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private final LinkedHashMap<Integer, String> name = "
-            + "new LinkedHashMap<Integer, String>();",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Associates {@code key} with {@code value} in the map to be returned from",
@@ -875,10 +1464,13 @@ public class MapSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code value} is null",
         "   */",
-        "  public Person.Builder putName(int key, String value) {",
+        "  public B putName(int key, String value) {",
         "    Preconditions.checkNotNull(value);",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    name.put(key, value);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -889,11 +1481,17 @@ public class MapSourceTest {
         "   * @throws NullPointerException if {@code map} is null or contains a",
         "   *     null key or value",
         "   */",
-        "  public Person.Builder putAllName(Map<? extends Integer, ? extends String> map) {",
+        "  public B putAllName(Map<? extends Integer, ? extends String> map) {",
+        "    if (map instanceof ImmutableMap && this.name instanceof ImmutableMap && "
+            + "this.name.isEmpty()) {",
+        "      // Adopt the immutable map; it will be copied if this builder is modified",
+        "      this.name = ImmutableMap.copyOf(map);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (Map.Entry<? extends Integer, ? extends String> entry : map.entrySet()) {",
         "      putName(entry.getKey(), entry.getValue());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -902,9 +1500,12 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder removeName(int key) {",
+        "  public B removeName(int key) {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    name.remove(key);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -913,9 +1514,13 @@ public class MapSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
-        "    name.clear();",
-        "    return (Person.Builder) this;",
+        "  public B clearName() {",
+        "    if (name instanceof ImmutableMap) {",
+        "      name = ImmutableMap.of();",
+        "    } else {",
+        "      name.clear();",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -924,35 +1529,126 @@ public class MapSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Map<Integer, String> name() {",
+        "    if (this.name instanceof ImmutableMap) {",
+        "      this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "    }",
         "    return Collections.unmodifiableMap(name);",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    putAllName(value.name());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
+        "      putAllName(value.name());",
+        "    } else if (value.name() instanceof ImmutableMap",
+        "        && name instanceof ImmutableMap",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(value.name());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "      }",
+        "      name.putAll(value.name());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    putAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableMap && name instanceof ImmutableMap && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableMap.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableMap) {",
+        "        this.name = new LinkedHashMap<Integer, String>(this.name);",
+        "      }",
+        "      name.putAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    name.clear();",
+        "  public B clear() {",
+        "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -972,9 +1668,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -985,6 +1681,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -997,7 +1696,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1007,9 +1708,9 @@ public class MapSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Map<Integer, String> name;",
+        "    final Map<Integer, String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableMap.copyOf(builder.name);",
         "    }",
         "",
@@ -1020,6 +1721,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -1032,7 +1736,9 @@ public class MapSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1044,9 +1750,12 @@ public class MapSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
-    return CompilationUnitBuilder.formatSource(sourceBuilder.toString());
+    return CompilationUnitBuilder.formatSource(aBuilderSource.toString())
+        + CompilationUnitBuilder.formatSource(sourceBuilder.toString());
   }
 
   /**
@@ -1061,6 +1770,7 @@ public class MapSourceTest {
     GenericTypeMirrorImpl mapIntString = map.newMirror(integer, string);
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(mapIntString)
@@ -1076,10 +1786,17 @@ public class MapSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -1093,7 +1810,9 @@ public class MapSourceTest {
                 integer,
                 Optional.<TypeMirror>of(INT),
                 string,
-                Optional.<TypeMirror>absent()))
+                Optional.<TypeMirror>absent(),
+                false,
+                Optional.<Integer>absent()))
             .build())
         .build();
   }
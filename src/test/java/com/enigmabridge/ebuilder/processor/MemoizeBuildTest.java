@@ -0,0 +1,319 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage.FUNCTION_PACKAGE;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for {@code @EBuilder(memoizeBuild = true)}. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class MemoizeBuildTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final JavaFileObject MEMOIZED_TYPE = memoizedType(true);
+
+  /** Nested builders that do not memoize are always assumed to have changed. */
+  private static final JavaFileObject UNMEMOIZED_ITEM_TYPE = memoizedType(false);
+
+  private static JavaFileObject memoizedType(boolean memoizedItem) {
+    return new SourceBuilder()
+        .addLine("package com.example;")
+        .addLine("@%s(memoizeBuild = true)", EBuilder.class)
+        .addLine("public interface DataType {")
+        .addLine("  @%s(memoizeBuild = %s)", EBuilder.class, memoizedItem)
+        .addLine("  interface Item {")
+        .addLine("    String getName();")
+        .addLine("")
+        .addLine("    class Builder extends DataType_Item_Builder {")
+        .addLine("      public Builder() {")
+        .addLine("        setName(\"none\");")
+        .addLine("      }")
+        .addLine("    }")
+        .addLine("  }")
+        .addLine("")
+        .addLine("  int getCount();")
+        .addLine("  %s<String> getNames();", List.class)
+        .addLine("  %s<String, Integer> getScores();", Map.class)
+        .addLine("  Item getItem();")
+        .addLine("")
+        .addLine("  class Builder extends DataType_Builder {")
+        .addLine("    public Builder() {")
+        .addLine("      setCount(0);")
+        .addLine("    }")
+        .addLine("  }")
+        .addLine("}")
+        .build();
+  }
+
+  @Parameter public FeatureSet features;
+
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testBuildReturnsSameInstanceUntilModified() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.addNames(\"a\");")
+            .addLine("value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("assertEquals(3, value.getCount());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testBuildReturnsSameInstance_nestedValueSet() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Item.Builder itemBuilder = new DataType.Item.Builder();")
+            .addLine("itemBuilder.setName(\"item\");")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setItem(itemBuilder.build());")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("// Fetching the nested builder without changing it keeps the value")
+            .addLine("builder.getItemBuilder();")
+            .addLine("assertSame(value, builder.build());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testBuildPartialIsNotMemoized() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertNotSame(value, builder.buildPartial());")
+            .addLine("assertSame(value, builder.build());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testEachMutatorClearsMemoizedValue() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("")
+            .addLine("builder.setCount(1);")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(1, value.getCount());")
+            .addLine("")
+            .addLine("builder.addNames(\"a\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("builder.addNames(\"b\", \"c\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("builder.addAllNames(%s.of(\"d\"));", ImmutableList.class)
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(\"a\", \"b\", \"c\", \"d\"), value.getNames());",
+                ImmutableList.class)
+            .addLine("builder.clearNames();")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(), value.getNames());", ImmutableList.class)
+            .addLine("")
+            .addLine("builder.putScores(\"a\", 1);")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("builder.putAllScores(%s.of(\"b\", 2));", ImmutableMap.class)
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("builder.removeScores(\"a\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(\"b\", 2), value.getScores());", ImmutableMap.class)
+            .addLine("builder.clearScores();")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(), value.getScores());", ImmutableMap.class)
+            .addLine("")
+            .addLine("DataType.Item.Builder itemBuilder = new DataType.Item.Builder();")
+            .addLine("itemBuilder.setName(\"first\");")
+            .addLine("builder.setItem(itemBuilder.build());")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"first\", value.getItem().getName());")
+            .addLine("itemBuilder.setName(\"second\");")
+            .addLine("builder.setItem(itemBuilder);")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"second\", value.getItem().getName());")
+            .addLine("")
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.setCount(5);")
+            .addLine("builder.mergeFrom(template.build());")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(5, value.getCount());")
+            .addLine("template.setCount(6);")
+            .addLine("builder.mergeFrom(template);")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(6, value.getCount());")
+            .addLine("")
+            .addLine("builder.clear();")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(0, value.getCount());")
+            .addLine("assertSame(value, builder.build());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMutateMethodsClearMemoizedValue() {
+    assumeTrue("Environment has lambdas", features.get(FUNCTION_PACKAGE).consumer().isPresent());
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("builder.mutateNames(names -> names.add(\"a\"));")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(\"a\"), value.getNames());", ImmutableList.class)
+            .addLine("builder.mutateScores(scores -> scores.put(\"a\", 1));")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(%s.of(\"a\", 1), value.getScores());", ImmutableMap.class)
+            .addLine("builder.mutateItem(item -> {")
+            .addLine("  item.setName(\"mutated\");")
+            .addLine("});")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"mutated\", value.getItem().getName());")
+            .addLine("builder.mapCount(count -> count + 1);")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(1, value.getCount());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testChangeThroughNestedBuilderReachesParent() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType.Item.Builder itemBuilder = builder.getItemBuilder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertEquals(\"none\", value.getItem().getName());")
+            .addLine("itemBuilder.setName(\"changed\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"changed\", value.getItem().getName());")
+            .addLine("assertSame(value, builder.build());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testChangeThroughUnmemoizedNestedBuilderReachesParent() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(UNMEMOIZED_ITEM_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("builder.getItemBuilder().setName(\"changed\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"changed\", value.getItem().getName());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testUnmemoizedNestedBuilderOutlivesSetterAndClear() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(UNMEMOIZED_ITEM_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Item.Builder other = new DataType.Item.Builder();")
+            .addLine("other.setName(\"set\");")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType.Item.Builder itemBuilder = builder.getItemBuilder();")
+            .addLine("builder.setItem(other.build());")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertNotSame(value, builder.build());")
+            .addLine("// The requested builder still writes through to the parent")
+            .addLine("itemBuilder.setName(\"changed\");")
+            .addLine("assertEquals(\"changed\", builder.build().getItem().getName());")
+            .addLine("builder.clear();")
+            .addLine("value = builder.build();")
+            .addLine("assertNotSame(value, builder.build());")
+            .addLine("itemBuilder.setName(\"cleared\");")
+            .addLine("assertEquals(\"cleared\", builder.build().getItem().getName());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMemoizedNestedBuilderSurvivesSetterAndClear() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(MEMOIZED_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Item.Builder other = new DataType.Item.Builder();")
+            .addLine("other.setName(\"set\");")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("DataType.Item.Builder itemBuilder = builder.getItemBuilder();")
+            .addLine("builder.setItem(other.build());")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("builder.clear();")
+            .addLine("value = builder.build();")
+            .addLine("assertSame(value, builder.build());")
+            .addLine("itemBuilder.setName(\"changed\");")
+            .addLine("assertNotSame(value, value = builder.build());")
+            .addLine("assertEquals(\"changed\", value.getItem().getName());")
+            .build())
+        .runTest();
+  }
+
+  private static TestBuilder testBuilder() {
+    return new TestBuilder().addImport("com.example.DataType");
+  }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import static com.enigmabridge.ebuilder.processor.util.feature.FunctionPackage.FUNCTION_PACKAGE;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for {@code List<?>} properties stored with {@code primitiveLists = true}. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class PrimitiveListPropertyFactoryTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final JavaFileObject PRIMITIVE_LISTS_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s(primitiveLists = true)", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  %s<Integer> getInts();", List.class)
+      .addLine("  %s<Long> getLongs();", List.class)
+      .addLine("  %s<Double> getDoubles();", List.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  private static final String VALIDATION_ERROR_MESSAGE = "Value must be non-negative";
+
+  private static final JavaFileObject VALIDATED_INTS = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s(primitiveLists = true)", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  %s<Integer> getInts();", List.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {")
+      .addLine("    @Override public Builder addInts(int element) {")
+      .addLine("      %s.checkArgument(element >= 0, \"%s\");",
+          Preconditions.class, VALIDATION_ERROR_MESSAGE)
+      .addLine("      super.addInts(element);")
+      .addLine("      return this;")
+      .addLine("    }")
+      .addLine("  }")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testAdd() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1);")
+            .addLine("builder.addInts(2);")
+            .addLine("builder.addLongs(3L);")
+            .addLine("builder.addDoubles(4.5);")
+            .addLine("assertThat(builder.getInts()).containsExactly(1, 2).inOrder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getInts()).containsExactly(1, 2).inOrder();")
+            .addLine("assertThat(value.getLongs()).containsExactly(3L);")
+            .addLine("assertThat(value.getDoubles()).containsExactly(4.5);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddVarargs() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2);")
+            .addLine("builder.addInts(3);")
+            .addLine("builder.addInts();")
+            .addLine("builder.addLongs(4L, 5L);")
+            .addLine("builder.addDoubles(6.5, 7.5);")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getInts()).containsExactly(1, 2, 3).inOrder();")
+            .addLine("assertThat(value.getLongs()).containsExactly(4L, 5L).inOrder();")
+            .addLine("assertThat(value.getDoubles()).containsExactly(6.5, 7.5).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1);")
+            .addLine("builder.addAllInts(%s.of(2, 3));", ImmutableList.class)
+            .addLine("builder.addAllInts(new %s<Integer>(%s.asList(4, 5)));",
+                ArrayList.class, Arrays.class)
+            .addLine("builder.addAllLongs(%s.asList(6L, 7L));", Arrays.class)
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getInts()).containsExactly(1, 2, 3, 4, 5).inOrder();")
+            .addLine("assertThat(value.getLongs()).containsExactly(6L, 7L).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll_iterable() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("final %s<Integer> list = %s.of(1, 2);", List.class, ImmutableList.class)
+            .addLine("Iterable<Integer> iterable = new Iterable<Integer>() {")
+            .addLine("  @Override public %s<Integer> iterator() {", Iterator.class)
+            .addLine("    return list.iterator();")
+            .addLine("  }")
+            .addLine("};")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addAllInts(iterable);")
+            .addLine("assertThat(builder.build().getInts()).containsExactly(1, 2).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll_builderViewToItself() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2, 3);")
+            .addLine("builder.addAllInts(builder.getInts());")
+            .addLine("assertThat(builder.getInts()).containsExactly(1, 2, 3, 1, 2, 3).inOrder();")
+            .addLine("assertThat(builder.build().getInts())")
+            .addLine("    .containsExactly(1, 2, 3, 1, 2, 3).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll_valueList() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2);")
+            .addLine("DataType value = builder.build();")
+            .addLine("builder.addAllInts(value.getInts());")
+            .addLine("assertThat(builder.getInts()).containsExactly(1, 2, 1, 2).inOrder();")
+            .addLine("assertThat(value.getInts()).containsExactly(1, 2).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFrom_builder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addInts(1, 2);")
+            .addLine("template.addDoubles(3.5);")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(0);")
+            .addLine("builder.mergeFrom(template);")
+            .addLine("template.addInts(4);")
+            .addLine("assertThat(builder.getInts()).containsExactly(0, 1, 2).inOrder();")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getInts()).containsExactly(0, 1, 2).inOrder();")
+            .addLine("assertThat(value.getLongs()).isEmpty();")
+            .addLine("assertThat(value.getDoubles()).containsExactly(3.5);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMergeFrom_value() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addInts(1, 2);")
+            .addLine("template.addLongs(3L);")
+            .addLine("DataType value = template.build();")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(0);")
+            .addLine("builder.mergeFrom(value);")
+            .addLine("DataType copy = builder.build();")
+            .addLine("assertThat(copy.getInts()).containsExactly(0, 1, 2).inOrder();")
+            .addLine("assertThat(copy.getLongs()).containsExactly(3L);")
+            .addLine("assertThat(value.getInts()).containsExactly(1, 2).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testOverriddenAdd_varargs() {
+    thrown.expectMessage(VALIDATION_ERROR_MESSAGE);
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_INTS)
+        .with(testBuilder()
+            .addLine("new DataType.Builder().addInts(3, -2);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testOverriddenAdd_addAll() {
+    thrown.expectMessage(VALIDATION_ERROR_MESSAGE);
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_INTS)
+        .with(testBuilder()
+            .addLine("new DataType.Builder().addAllInts(%s.of(3, -2));", ImmutableList.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testOverriddenAdd_mergeFromBuilder() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_INTS)
+        .with(testBuilder()
+            .addLine("DataType.Builder template = new DataType.Builder();")
+            .addLine("template.addInts(1, 2);")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mergeFrom(template);")
+            .addLine("builder.mergeFrom(template.build());")
+            .addLine("assertThat(builder.build().getInts()).containsExactly(1, 2, 1, 2).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll_nullElement() {
+    thrown.expect(NullPointerException.class);
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("new DataType.Builder().addAllInts(%s.asList(1, null));", Arrays.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testAddAll_nullElementInIterable() {
+    thrown.expect(NullPointerException.class);
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("final %s<Integer> list = %s.asList(1, null);", List.class, Arrays.class)
+            .addLine("new DataType.Builder().addAllInts(new Iterable<Integer>() {")
+            .addLine("  @Override public %s<Integer> iterator() {", Iterator.class)
+            .addLine("    return list.iterator();")
+            .addLine("  }")
+            .addLine("});")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testOverriddenAdd_nullElement() {
+    thrown.expect(NullPointerException.class);
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_INTS)
+        .with(testBuilder()
+            .addLine("new DataType.Builder().addAllInts(%s.asList(1, null));", Arrays.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMutate_inPlace() {
+    assumeTrue("Environment has lambdas", features.get(FUNCTION_PACKAGE).consumer().isPresent());
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2, 3, 4);")
+            .addLine("builder.mutateInts(ints -> {")
+            .addLine("  ints.add(0, 0);")
+            .addLine("  ints.set(2, 20);")
+            .addLine("  ints.remove(3);")
+            .addLine("  ints.removeIf(i -> i == 1);")
+            .addLine("  ints.add(5);")
+            .addLine("  assertThat(builder.getInts()).containsExactly(0, 20, 4, 5).inOrder();")
+            .addLine("});")
+            .addLine("DataType value = builder.build();")
+            .addLine("assertThat(value.getInts()).containsExactly(0, 20, 4, 5).inOrder();")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testMutate_removeRange() {
+    assumeTrue("Environment has lambdas", features.get(FUNCTION_PACKAGE).consumer().isPresent());
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.mutateDoubles(doubles -> doubles.clear());")
+            .addLine("builder.addDoubles(0.5, 1.5, 2.5, 3.5);")
+            .addLine("builder.mutateDoubles(doubles -> doubles.subList(1, 3).clear());")
+            .addLine("assertThat(builder.getDoubles()).containsExactly(0.5, 3.5).inOrder();")
+            .addLine("builder.mutateDoubles(doubles -> doubles.clear());")
+            .addLine("builder.addDoubles(4.5);")
+            .addLine("assertThat(builder.build().getDoubles()).containsExactly(4.5);")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testOverriddenAdd_mutateAdd() {
+    assumeTrue("Environment has lambdas", features.get(FUNCTION_PACKAGE).consumer().isPresent());
+    thrown.expectMessage(VALIDATION_ERROR_MESSAGE);
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_INTS)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2);")
+            .addLine("builder.mutateInts(ints -> ints.add(1, 3));")
+            .addLine("assertThat(builder.getInts()).containsExactly(1, 3, 2).inOrder();")
+            .addLine("builder.mutateInts(ints -> ints.set(0, -1));")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testEqualsAndHashCodeMatchBoxedList() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, -2, 3);")
+            .addLine("builder.addLongs(4L, Long.MAX_VALUE);")
+            .addLine("builder.addDoubles(0.5, Double.NaN, -0.0);")
+            .addLine("DataType value = builder.build();")
+            .addLine("%1$s<Integer> ints = new %1$s<Integer>(%2$s.asList(1, -2, 3));",
+                ArrayList.class, Arrays.class)
+            .addLine("%1$s<Long> longs = new %1$s<Long>(%2$s.asList(4L, Long.MAX_VALUE));",
+                ArrayList.class, Arrays.class)
+            .addLine("%1$s<Double> doubles = new %1$s<Double>(%2$s.asList(0.5, Double.NaN, -0.0));",
+                ArrayList.class, Arrays.class)
+            .addLine("assertEquals(ints, value.getInts());")
+            .addLine("assertEquals(value.getInts(), ints);")
+            .addLine("assertEquals(ints.hashCode(), value.getInts().hashCode());")
+            .addLine("assertEquals(longs, value.getLongs());")
+            .addLine("assertEquals(value.getLongs(), longs);")
+            .addLine("assertEquals(longs.hashCode(), value.getLongs().hashCode());")
+            .addLine("assertEquals(doubles, value.getDoubles());")
+            .addLine("assertEquals(value.getDoubles(), doubles);")
+            .addLine("assertEquals(doubles.hashCode(), value.getDoubles().hashCode());")
+            .addLine("assertFalse(value.getInts().equals(%s.asList(1, -2)));", Arrays.class)
+            .addLine("assertFalse(value.getDoubles().equals(%s.asList(0.5, Double.NaN, 0.0)));",
+                Arrays.class)
+            .addLine("assertEquals(value, builder.build());")
+            .addLine("assertEquals(value.hashCode(), builder.build().hashCode());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testIndexOf_doubleNaNAndNegativeZero() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addDoubles(0.0, Double.NaN, -0.0, Double.NaN, 0.0);")
+            .addLine("%s<Double> doubles = builder.build().getDoubles();", List.class)
+            .addLine("%1$s<Double> boxed = new %1$s<Double>(doubles);", ArrayList.class)
+            .addLine("assertEquals(1, doubles.indexOf(Double.NaN));")
+            .addLine("assertEquals(3, doubles.lastIndexOf(Double.NaN));")
+            .addLine("assertEquals(2, doubles.indexOf(-0.0));")
+            .addLine("assertEquals(2, doubles.lastIndexOf(-0.0));")
+            .addLine("assertEquals(0, doubles.indexOf(0.0));")
+            .addLine("assertEquals(4, doubles.lastIndexOf(0.0));")
+            .addLine("assertEquals(-1, doubles.indexOf(1.0));")
+            .addLine("assertEquals(-1, doubles.indexOf(0));")
+            .addLine("assertTrue(doubles.contains(Double.NaN));")
+            .addLine("for (Double element : boxed) {")
+            .addLine("  assertEquals(boxed.indexOf(element), doubles.indexOf(element));")
+            .addLine("  assertEquals(boxed.lastIndexOf(element), doubles.lastIndexOf(element));")
+            .addLine("}")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testSerialization() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(PRIMITIVE_LISTS_TYPE)
+        .with(testBuilder()
+            .addImport(ByteArrayInputStream.class)
+            .addImport(ByteArrayOutputStream.class)
+            .addImport(ObjectInputStream.class)
+            .addImport(ObjectOutputStream.class)
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.addInts(1, 2, 3);")
+            .addLine("builder.addDoubles(Double.NaN, -0.0);")
+            .addLine("DataType value = builder.build();")
+            .addLine("ByteArrayOutputStream bytes = new ByteArrayOutputStream();")
+            .addLine("ObjectOutputStream out = new ObjectOutputStream(bytes);")
+            .addLine("out.writeObject(value.getInts());")
+            .addLine("out.writeObject(value.getLongs());")
+            .addLine("out.writeObject(value.getDoubles());")
+            .addLine("out.close();")
+            .addLine("ObjectInputStream in =")
+            .addLine("    new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));")
+            .addLine("Object ints = in.readObject();")
+            .addLine("Object longs = in.readObject();")
+            .addLine("Object doubles = in.readObject();")
+            .addLine("assertEquals(value.getInts().getClass(), ints.getClass());")
+            .addLine("assertEquals(value.getInts(), ints);")
+            .addLine("assertEquals(value.getLongs(), longs);")
+            .addLine("assertEquals(value.getDoubles(), doubles);")
+            .build())
+        .runTest();
+  }
+
+  private static TestBuilder testBuilder() {
+    return new TestBuilder().addImport("com.example.DataType");
+  }
+}
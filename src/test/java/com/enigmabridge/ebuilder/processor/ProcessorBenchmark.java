@@ -0,0 +1,320 @@
+/*
+ * Copyright 2014 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.enigmabridge.ebuilder.processor.PhaseListener.Phase;
+import com.enigmabridge.ebuilder.processor.util.QualifiedName;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TempJavaFileManager;
+import com.google.common.collect.ImmutableList;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Compile-time benchmark for the {@link Processor}.
+ *
+ * <p>Synthesizes {@code types} &#64;EBuilder types of {@code properties} properties each, cycling
+ * through every supported kind of property, alternating bean and prefixless naming, and making
+ * every fourth type generic. Then runs the processor over them in memory, and reports, per
+ * compilation, the wall time, allocation and peak heap of each processing phase, as well as of
+ * javac as a whole. Generated sources are not compiled ({@code -proc:only}), so the javac total is
+ * parsing, entering and annotation processing.
+ *
+ * <p>Usage: {@code ProcessorBenchmark [types [properties [warmups [iterations [options...]]]]]},
+ * defaulting to 500 types of 20 properties, 2 warmup and 5 measured compilations. Any further
+ * arguments are javac options, e.g. {@code -Aebuilder.format=fast}. Run with a fixed heap
+ * ({@code -Xms == -Xmx}) for stable numbers.
+ */
+public class ProcessorBenchmark {
+
+  /** Types per synthesized package, so the import manager sees realistically sized packages. */
+  private static final int TYPES_PER_PACKAGE = 50;
+
+  /** Every kind of property synthesized, in the order properties cycle through them. */
+  enum PropertyKind {
+    STRING("String"),
+    PRIMITIVE("int"),
+    NULLABLE("@javax.annotation.Nullable String"),
+    LIST("java.util.List<String>"),
+    SET("java.util.Set<Integer>"),
+    MAP("java.util.Map<String, Integer>"),
+    LIST_MULTIMAP("com.google.common.collect.ListMultimap<String, Integer>"),
+    SET_MULTIMAP("com.google.common.collect.SetMultimap<String, String>"),
+    MULTISET("com.google.common.collect.Multiset<String>"),
+    GUAVA_OPTIONAL("com.google.common.base.Optional<String>"),
+    JAVA_OPTIONAL("java.util.Optional<Integer>"),
+    BUILDABLE(null),
+    GENERIC("java.util.Map<String, java.util.List<Integer>>");
+
+    private final String declaration;
+
+    PropertyKind(String declaration) {
+      this.declaration = declaration;
+    }
+
+    /** Returns the declared type of a property of this kind on type number {@code index}. */
+    String declaration(int index) {
+      if (this == BUILDABLE) {
+        // Nest the previous type, so buildable properties resolve across packages too.
+        if (index == 0) {
+          return STRING.declaration;
+        }
+        return qualifiedTypeName(index - 1) + (isGeneric(index - 1) ? "<String, Integer>" : "");
+      }
+      return declaration;
+    }
+  }
+
+  /** Running totals for one phase of processing. */
+  private static class PhaseStats {
+    long nanos;
+    long allocatedBytes;
+    long peakHeapBytes;
+
+    void add(PhaseStats other) {
+      nanos += other.nanos;
+      allocatedBytes += other.allocatedBytes;
+      peakHeapBytes = Math.max(peakHeapBytes, other.peakHeapBytes);
+    }
+  }
+
+  /**
+   * Accumulates the wall time and allocation of each phase, and the heap in use as each phase
+   * finishes. The processor runs on the compiling thread, so thread allocation counters are exact.
+   */
+  private static class PhaseRecorder implements PhaseListener {
+    private final Map<Phase, PhaseStats> stats = new EnumMap<Phase, PhaseStats>(Phase.class);
+    private long startNanos;
+    private long startAllocatedBytes;
+
+    PhaseRecorder() {
+      for (Phase phase : Phase.values()) {
+        stats.put(phase, new PhaseStats());
+      }
+    }
+
+    @Override
+    public void phaseStarted(TypeElement type, Phase phase) {
+      startAllocatedBytes = allocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void phaseFinished(TypeElement type, Phase phase) {
+      long nanos = System.nanoTime() - startNanos;
+      PhaseStats phaseStats = stats.get(phase);
+      phaseStats.nanos += nanos;
+      phaseStats.allocatedBytes += allocatedBytes() - startAllocatedBytes;
+      phaseStats.peakHeapBytes = Math.max(phaseStats.peakHeapBytes, usedHeapBytes());
+    }
+
+    @Override
+    public void typeAnalysed(TypeElement type, Metadata metadata) {}
+
+    @Override
+    public void sourceGenerated(TypeElement type, QualifiedName name, int length) {}
+  }
+
+  public static void main(String[] args) {
+    int types = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+    int properties = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+    int warmups = (args.length > 2) ? Integer.parseInt(args[2]) : 2;
+    int iterations = (args.length > 3) ? Integer.parseInt(args[3]) : 5;
+    List<String> options = new ArrayList<String>();
+    options.add("-proc:only");
+    for (int i = 4; i < args.length; i++) {
+      options.add(args[i]);
+    }
+
+    List<JavaFileObject> sources = synthesize(types, properties);
+    System.out.printf("%d types x %d properties, %d warmups, %d iterations, options %s%n",
+        types, properties, warmups, iterations, options);
+    verify(sources, options);
+    for (int i = 0; i < warmups; i++) {
+      compile(sources, options, PhaseListener.NONE);
+    }
+    Map<Phase, PhaseStats> totals = new EnumMap<Phase, PhaseStats>(Phase.class);
+    for (Phase phase : Phase.values()) {
+      totals.put(phase, new PhaseStats());
+    }
+    PhaseStats javacTotal = new PhaseStats();
+    for (int i = 0; i < iterations; i++) {
+      PhaseRecorder recorder = new PhaseRecorder();
+      PhaseStats javac = compile(sources, options, recorder);
+      javacTotal.add(javac);
+      for (Phase phase : Phase.values()) {
+        totals.get(phase).add(recorder.stats.get(phase));
+      }
+    }
+    System.out.printf("%-12s %12s %12s %12s%n", "phase", "ms/compile", "MB alloc", "MB peak");
+    for (Phase phase : Phase.values()) {
+      report(phase.name().toLowerCase(), totals.get(phase), iterations);
+    }
+    report("javac", javacTotal, iterations);
+  }
+
+  /** Returns {@code types} source files of {@code properties} properties each. */
+  static List<JavaFileObject> synthesize(int types, int properties) {
+    PropertyKind[] kinds = PropertyKind.values();
+    List<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+    for (int i = 0; i < types; i++) {
+      boolean bean = (i % 2 == 0);
+      String typeName = "Type" + i;
+      String typeParameters = isGeneric(i) ? "<K, V>" : "";
+      SourceBuilder source = new SourceBuilder()
+          .addLine("package %s;", packageName(i))
+          .addLine("@%s", com.enigmabridge.ebuilder.EBuilder.class)
+          .addLine("public abstract class %s%s {", typeName, typeParameters);
+      for (int p = 0; p < properties; p++) {
+        source.addLine("  public abstract %s %s();",
+            kinds[p % kinds.length].declaration(i), bean ? "getProperty" + p : "property" + p);
+      }
+      if (isGeneric(i)) {
+        source
+            .addLine("  public abstract K %s();", bean ? "getKey" : "key")
+            .addLine("  public abstract java.util.List<V> %s();", bean ? "getValues" : "values");
+      }
+      source
+          .addLine("  public static class Builder%s extends %s_Builder%s {}",
+              typeParameters, typeName, typeParameters)
+          .addLine("}");
+      sources.add(source.build());
+    }
+    return sources;
+  }
+
+  /**
+   * Compiles {@code sources} and everything generated from them, failing on any error. The
+   * measured compilations use {@code -proc:only}, under which javac never attributes the generated
+   * sources, so code that does not compile would otherwise go unnoticed.
+   */
+  private static void verify(List<JavaFileObject> sources, List<String> options) {
+    List<String> fullOptions = new ArrayList<String>(options);
+    fullOptions.remove("-proc:only");
+    failOnErrors(run(sources, fullOptions, PhaseListener.NONE));
+  }
+
+  /** Compiles {@code sources} in memory, returning the cost of the compilation as a whole. */
+  private static PhaseStats compile(
+      List<JavaFileObject> sources, List<String> options, PhaseListener listener) {
+    System.gc();
+    resetPeakHeap();
+    PhaseStats stats = new PhaseStats();
+    long startAllocatedBytes = allocatedBytes();
+    long startNanos = System.nanoTime();
+    List<Diagnostic<? extends JavaFileObject>> diagnostics = run(sources, options, listener);
+    stats.nanos = System.nanoTime() - startNanos;
+    stats.allocatedBytes = allocatedBytes() - startAllocatedBytes;
+    stats.peakHeapBytes = peakHeapBytes();
+    failOnErrors(diagnostics);
+    return stats;
+  }
+
+  private static List<Diagnostic<? extends JavaFileObject>> run(
+      List<JavaFileObject> sources, List<String> options, PhaseListener listener) {
+    TempJavaFileManager fileManager = TempJavaFileManager.newTempFileManager(null, null, null);
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(
+        null,
+        fileManager,
+        diagnostics,
+        options,
+        null,
+        sources);
+    task.setProcessors(ImmutableList.of(new Processor(null, listener)));
+    task.call();
+    return diagnostics.getDiagnostics();
+  }
+
+  /**
+   * Fails on any error, whether on a synthesized type (the processor bailed out early) or in a
+   * generated source (the processor emitted code that does not compile).
+   */
+  private static void failOnErrors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        throw new AssertionError("Compilation failed: " + diagnostic);
+      }
+    }
+  }
+
+  private static void report(String name, PhaseStats stats, int iterations) {
+    System.out.printf("%-12s %12.1f %12.1f %12.1f%n",
+        name,
+        stats.nanos / 1e6 / iterations,
+        stats.allocatedBytes / 1e6 / iterations,
+        stats.peakHeapBytes / 1e6);
+  }
+
+  private static boolean isGeneric(int index) {
+    return index % 4 == 3;
+  }
+
+  private static String packageName(int index) {
+    return "com.example.bench.p" + (index / TYPES_PER_PACKAGE);
+  }
+
+  private static String qualifiedTypeName(int index) {
+    return packageName(index) + ".Type" + index;
+  }
+
+  /** Returns the bytes allocated so far by the current thread, or 0 if not supported. */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  private static long usedHeapBytes() {
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static void resetPeakHeap() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /** Returns an upper bound on peak heap use since {@link #resetPeakHeap}. */
+  private static long peakHeapBytes() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+}
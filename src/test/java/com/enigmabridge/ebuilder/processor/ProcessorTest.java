@@ -15,33 +15,65 @@
  */
 package com.enigmabridge.ebuilder.processor;
 
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.assertThat;
+import static javax.tools.StandardLocation.SOURCE_OUTPUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.google.common.annotations.GwtCompatible;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 import com.google.common.testing.EqualsTester;
 import com.google.gwt.user.client.rpc.SerializationException;
 import com.google.gwt.user.server.rpc.RPC;
-import com.enigmabridge.ebuilder.FreeBuilder;
+import com.enigmabridge.ebuilder.EBuilder;
 import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
 import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
 import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
 import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TempJavaFileManager;
 import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
 import java.io.*;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @RunWith(Parameterized.class)
 @UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
@@ -54,7 +86,7 @@ public class ProcessorTest {
 
   private static final JavaFileObject NO_BUILDER_CLASS = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  public abstract int getPropertyA();")
       .addLine("  public abstract boolean isPropertyB();")
@@ -64,7 +96,7 @@ public class ProcessorTest {
   private static final String PROPERTY_B_DESCRIPTION = "whether the object is property B.";
   private static final JavaFileObject TWO_PROPERTY_FREE_BUILDER_TYPE = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  /** Returns %s */", PROPERTY_A_DESCRIPTION)
       .addLine("  public abstract int getPropertyA();")
@@ -80,7 +112,7 @@ public class ProcessorTest {
 
   private static final JavaFileObject TWO_PROPERTY_FREE_BUILDER_INTERFACE = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public interface DataType {")
       .addLine("  int getPropertyA();")
       .addLine("  boolean isPropertyB();")
@@ -91,7 +123,7 @@ public class ProcessorTest {
 
   private static final JavaFileObject STRING_PROPERTY_TYPE = new SourceBuilder()
       .addLine("package com.example;")
-      .addLine("@%s", FreeBuilder.class)
+      .addLine("@%s", EBuilder.class)
       .addLine("public abstract class DataType {")
       .addLine("  public abstract String getName();")
       .addLine("")
@@ -102,9 +134,31 @@ public class ProcessorTest {
       .addLine("}")
       .build();
 
+  private static final List<JavaFileObject> PROFILED_TYPES = ImmutableList.of(
+      new SourceBuilder()
+          .addLine("package com.example;")
+          .addLine("@%s", EBuilder.class)
+          .addLine("public interface Person {")
+          .addLine("  String getName();")
+          .addLine("  int getAge();")
+          .addLine("")
+          .addLine("  class Builder extends Person_Builder {}")
+          .addLine("}")
+          .build(),
+      new SourceBuilder()
+          .addLine("package com.example;")
+          .addLine("@%s", EBuilder.class)
+          .addLine("public interface Address {")
+          .addLine("  String getCity();")
+          .addLine("")
+          .addLine("  class Builder extends Address_Builder {}")
+          .addLine("}")
+          .build());
+
   @Parameter public FeatureSet features;
 
   @Rule public final ExpectedException thrown = ExpectedException.none();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
   @Shared public BehaviorTester behaviorTester;
 
   @Test
@@ -145,7 +199,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType {")
             .addLine("  int propertyA();")
             .addLine("  boolean propertyB();")
@@ -196,7 +250,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract int getPropertyA();")
             .addLine("  public abstract boolean isPropertyB();")
@@ -244,7 +298,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  /** Returns %s */", PROPERTY_A_DESCRIPTION)
             .addLine("  public abstract int getPropertyA();")
@@ -272,7 +326,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  /** Returns %s */", PROPERTY_A_DESCRIPTION)
             .addLine("  public abstract int getPropertyA();")
@@ -302,7 +356,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  /** Returns %s */", PROPERTY_A_DESCRIPTION)
             .addLine("  public abstract int getPropertyA();")
@@ -335,7 +389,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  /** Returns %s */", PROPERTY_A_DESCRIPTION)
             .addLine("  public abstract int getPropertyA();")
@@ -366,7 +420,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract int getPropertyA();")
             .addLine("  public abstract boolean isPropertyB();")
@@ -395,7 +449,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract String getTemplate();")
             .addLine("")
@@ -488,7 +542,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract double getValue();")
             .addLine("")
@@ -541,7 +595,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public static class Builder extends DataType_Builder {}")
             .addLine("  public static Builder builder() {")
@@ -591,7 +645,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("@%s(serializable = true)", GwtCompatible.class)
             .addLine("public interface DataType {")
             .addLine("  String getPropertyA();")
@@ -617,7 +671,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("@%s(serializable = true)", GwtCompatible.class)
             .addLine("public interface DataType {")
             .addLine("  int getPropertyA();")
@@ -643,7 +697,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("@%s(serializable = true)", GwtCompatible.class)
             .addLine("public interface DataType {")
             .addLine("  %s<%s> getNames();", List.class, String.class)
@@ -707,7 +761,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class Person {")
             .addLine("  public abstract String getName();")
             .addLine("  public abstract int getAge();")
@@ -763,7 +817,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class Person {")
             .addLine("  public abstract String getName();")
             .addLine("  public abstract int getAge();")
@@ -796,7 +850,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class Person {")
             .addLine("  public abstract String getName();")
             .addLine("  public abstract int getAge();")
@@ -824,7 +878,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class Person {")
             .addLine("  public abstract String getName();")
             .addLine("  public abstract int getAge();")
@@ -862,7 +916,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class Person {")
             .addLine("  public abstract String getName();")
             .addLine("  public abstract int getAge();")
@@ -901,7 +955,7 @@ public class ProcessorTest {
             .build())
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType {")
             .addLine("  java.lang.String getProperty();")
             .addLine("")
@@ -928,7 +982,7 @@ public class ProcessorTest {
             .build())
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public interface DataType {")
             .addLine("  Value getProperty();")
             .addLine("")
@@ -965,7 +1019,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract int getPropertyA();")
             .addLine("  public abstract boolean isPropertyB();")
@@ -992,7 +1046,7 @@ public class ProcessorTest {
         .with(new Processor(features))
         .with(new SourceBuilder()
             .addLine("package com.example;")
-            .addLine("@%s", FreeBuilder.class)
+            .addLine("@%s", EBuilder.class)
             .addLine("@%s(builder = DataType.Builder.class)", JsonDeserialize.class)
             .addLine("public abstract class DataType {")
             .addLine("  public abstract int getPropertyA();", JsonProperty.class)
@@ -1016,4 +1070,334 @@ public class ProcessorTest {
         .runTest();
   }
 
+  @Test
+  public void testFormatThreads_outputMatchesSerial() throws IOException {
+    List<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+    for (int i = 0; i < 8; i++) {
+      sources.add(new SourceBuilder()
+          .addLine("package com.example;")
+          .addLine("@%s", EBuilder.class)
+          .addLine("public interface DataType%s {", i)
+          .addLine("  int getPropertyA();")
+          .addLine("  %s<String> getNames();", List.class)
+          .addLine("  %s<String, Integer> getScores();", Map.class)
+          .addLine("")
+          .addLine("  class Builder extends DataType%s_Builder {}", i)
+          .addLine("}")
+          .build());
+    }
+    DiagnosticCollector<JavaFileObject> serialDiagnostics =
+        new DiagnosticCollector<JavaFileObject>();
+    Map<String, String> serial =
+        generateSources(serialDiagnostics, ImmutableList.<String>of(), sources);
+    DiagnosticCollector<JavaFileObject> pooledDiagnostics =
+        new DiagnosticCollector<JavaFileObject>();
+    Map<String, String> pooled = generateSources(
+        pooledDiagnostics, ImmutableList.of("-A" + Processor.FORMAT_THREADS_OPTION + "=4"), sources);
+
+    assertEquals(ImmutableList.of(), errors(serialDiagnostics));
+    assertEquals(ImmutableList.of(), errors(pooledDiagnostics));
+    // Two compilation units per type
+    assertEquals(16, serial.size());
+    assertEquals(serial, pooled);
+  }
+
+  @Test
+  public void testFormatThreads_formatterFailureReportedOnOwningType() throws IOException {
+    JavaFileObject before = new SourceBuilder()
+        .addLine("package com.example;")
+        .addLine("@%s", EBuilder.class)
+        .addLine("public interface Before {")
+        .addLine("  int getPropertyA();")
+        .addLine("")
+        .addLine("  class Builder extends Before_Builder {}")
+        .addLine("}")
+        .build();
+    // javac 8 only warns about '_' as an identifier, but the formatter rejects it outright
+    JavaFileObject unformattableType = new SourceBuilder()
+        .addLine("package com.example;")
+        .addLine("@%s", EBuilder.class)
+        .addLine("public interface UnformattableType {")
+        .addLine("  int get_();")
+        .addLine("")
+        .addLine("  class Builder extends UnformattableType_Builder {}")
+        .addLine("}")
+        .build();
+    JavaFileObject after = new SourceBuilder()
+        .addLine("package com.example;")
+        .addLine("@%s", EBuilder.class)
+        .addLine("public interface After {")
+        .addLine("  int getPropertyA();")
+        .addLine("")
+        .addLine("  class Builder extends After_Builder {}")
+        .addLine("}")
+        .build();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    Map<String, String> generated = generateSources(
+        diagnostics,
+        ImmutableList.of("-A" + Processor.FORMAT_THREADS_OPTION + "=4"),
+        ImmutableList.of(before, unformattableType, after));
+
+    // The failure also leaves javac's unresolved references to UnformattableType_Builder behind
+    List<Diagnostic<? extends JavaFileObject>> failures =
+        new ArrayList<Diagnostic<? extends JavaFileObject>>();
+    for (Diagnostic<? extends JavaFileObject> error : errors(diagnostics)) {
+      if (error.getMessage(null).contains("Formatter failed")) {
+        failures.add(error);
+      }
+    }
+    assertEquals(1, failures.size());
+    assertSame(unformattableType, failures.get(0).getSource());
+    // Types on either side of the failure are still written
+    assertEquals(
+        ImmutableSet.of(
+            "com/example/After_ABuilder.java",
+            "com/example/After_Builder.java",
+            "com/example/Before_ABuilder.java",
+            "com/example/Before_Builder.java"),
+        generated.keySet());
+  }
+
+  @Test
+  public void testProfile_csv() throws IOException {
+    File report = temporaryFolder.newFile("profile.csv");
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    Map<String, String> generated = generateSources(
+        diagnostics,
+        ImmutableList.of("-A" + Profiler.OPTION + "=" + report.getPath()),
+        PROFILED_TYPES);
+
+    assertEquals(ImmutableList.of(), errors(diagnostics));
+    List<String> lines = Files.readLines(report, UTF_8);
+    assertEquals(
+        "type,properties,generatedChars,analysisNanos,generationNanos,formattingNanos,writingNanos",
+        lines.get(0));
+    assertEquals(3, lines.size());
+    assertThat(lines.get(1))
+        .startsWith("com.example.Person,2," + generatedChars(generated, "Person") + ",");
+    assertThat(lines.get(2))
+        .startsWith("com.example.Address,1," + generatedChars(generated, "Address") + ",");
+    assertEquals(7, lines.get(1).split(",").length);
+    assertProfileNote(diagnostics, report);
+  }
+
+  @Test
+  public void testProfile_json() throws IOException {
+    File report = temporaryFolder.newFile("profile.json");
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    Map<String, String> generated = generateSources(
+        diagnostics,
+        ImmutableList.of("-A" + Profiler.OPTION + "=" + report.getPath()),
+        PROFILED_TYPES);
+
+    assertEquals(ImmutableList.of(), errors(diagnostics));
+    String json = Files.toString(report, UTF_8);
+    assertThat(json).startsWith("{\"types\": [\n");
+    assertThat(json).endsWith("\n]}\n");
+    assertThat(json).contains("{\"type\": \"com.example.Person\", \"properties\": 2, "
+        + "\"generatedChars\": " + generatedChars(generated, "Person") + ", \"analysisNanos\": ");
+    assertThat(json).contains("{\"type\": \"com.example.Address\", \"properties\": 1, "
+        + "\"generatedChars\": " + generatedChars(generated, "Address") + ", \"analysisNanos\": ");
+    assertThat(json).contains("\"writingNanos\": ");
+    assertProfileNote(diagnostics, report);
+  }
+
+  /** Returns the length of the two compilation units generated for {@code type}. */
+  private static int generatedChars(Map<String, String> generated, String type) {
+    return generated.get("com/example/" + type + "_ABuilder.java").length()
+        + generated.get("com/example/" + type + "_Builder.java").length();
+  }
+
+  private static void assertProfileNote(
+      DiagnosticCollector<JavaFileObject> diagnostics, File report) {
+    List<String> notes = new ArrayList<String>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.NOTE
+          && diagnostic.getMessage(null).startsWith("EBuilder processed")) {
+        notes.add(diagnostic.getMessage(null));
+      }
+    }
+    assertEquals(1, notes.size());
+    assertThat(notes.get(0)).startsWith("EBuilder processed 2 types (analysis ");
+    assertThat(notes.get(0)).contains("; slowest com.example.");
+    assertThat(notes.get(0)).endsWith("; profile written to " + report.getAbsolutePath());
+  }
+
+  @Test
+  public void testOriginatingElements() throws IOException {
+    final RecordingFiler filer = new RecordingFiler();
+    Processor processor = new Processor(features) {
+      @Override
+      public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(new RecordingEnvironment(processingEnv, filer));
+      }
+    };
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    generateSources(processor, diagnostics, ImmutableList.<String>of(), ImmutableList.of(
+        new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("public class Item {}")
+            .build(),
+        new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("public interface Named {")
+            .addLine("  String getName();")
+            .addLine("}")
+            .build(),
+        new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface Order extends Named {")
+            .addLine("  Item getItem();")
+            .addLine("  java.util.Map<Integer, java.util.List<Item>> getItemsByQuantity();")
+            .addLine("")
+            .addLine("  class Builder extends Order_Builder {}")
+            .addLine("}")
+            .build()));
+
+    assertEquals(ImmutableList.of(), errors(diagnostics));
+    assertEquals(
+        ImmutableSet.of("com.example.Order_ABuilder", "com.example.Order_Builder"),
+        filer.originatingElements.keySet());
+    for (Set<String> elements : filer.originatingElements.values()) {
+      assertThat(elements).containsAllOf(
+          "com.example.Order",
+          "com.example.Named",
+          "com.example.Item",
+          "java.util.Map",
+          "java.lang.Integer",
+          "java.util.List");
+    }
+  }
+
+  /** Runs the processor over {@code sources}, returning the generated sources by file name. */
+  private Map<String, String> generateSources(
+      DiagnosticCollector<JavaFileObject> diagnostics,
+      List<String> options,
+      List<JavaFileObject> sources) throws IOException {
+    return generateSources(new Processor(features), diagnostics, options, sources);
+  }
+
+  /** Runs {@code processor} over {@code sources}, returning the generated sources by file name. */
+  private static Map<String, String> generateSources(
+      Processor processor,
+      DiagnosticCollector<JavaFileObject> diagnostics,
+      List<String> options,
+      List<JavaFileObject> sources) throws IOException {
+    TempJavaFileManager fileManager = TempJavaFileManager.newTempFileManager(null, null, null);
+    List<String> allOptions = new ArrayList<String>(options);
+    allOptions.add("-proc:only");
+    CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(
+        null,
+        fileManager,
+        diagnostics,
+        allOptions,
+        null,
+        sources);
+    task.setProcessors(ImmutableList.of(processor));
+    task.call();
+    Map<String, String> generated = new TreeMap<String, String>();
+    for (JavaFileObject file : fileManager.list(
+        SOURCE_OUTPUT, "", EnumSet.of(JavaFileObject.Kind.SOURCE), true)) {
+      generated.put(file.getName(), file.getCharContent(false).toString());
+    }
+    return generated;
+  }
+
+  private static List<Diagnostic<? extends JavaFileObject>> errors(
+      DiagnosticCollector<JavaFileObject> diagnostics) {
+    List<Diagnostic<? extends JavaFileObject>> errors =
+        new ArrayList<Diagnostic<? extends JavaFileObject>>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic);
+      }
+    }
+    return errors;
+  }
+
+  /** Records the originating elements of each source file created, by qualified type name. */
+  private static class RecordingFiler implements Filer {
+    final Map<String, Set<String>> originatingElements = new TreeMap<String, Set<String>>();
+    Filer delegate;
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      Set<String> names = new LinkedHashSet<String>();
+      for (Element element : originatingElements) {
+        names.add(((TypeElement) element).getQualifiedName().toString());
+      }
+      this.originatingElements.put(name.toString(), names);
+      return delegate.createSourceFile(name, originatingElements);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      return delegate.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(
+        Location location,
+        CharSequence pkg,
+        CharSequence relativeName,
+        Element... originatingElements) throws IOException {
+      return delegate.createResource(location, pkg, relativeName, originatingElements);
+    }
+
+    @Override
+    public FileObject getResource(Location location, CharSequence pkg, CharSequence relativeName)
+        throws IOException {
+      return delegate.getResource(location, pkg, relativeName);
+    }
+  }
+
+  /** Forwards to the compiler's environment, creating files through a {@link RecordingFiler}. */
+  private static class RecordingEnvironment implements ProcessingEnvironment {
+    private final ProcessingEnvironment delegate;
+    private final RecordingFiler filer;
+
+    RecordingEnvironment(ProcessingEnvironment delegate, RecordingFiler filer) {
+      this.delegate = delegate;
+      this.filer = filer;
+      filer.delegate = delegate.getFiler();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+      return delegate.getOptions();
+    }
+
+    @Override
+    public Messager getMessager() {
+      return delegate.getMessager();
+    }
+
+    @Override
+    public Filer getFiler() {
+      return filer;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+      return delegate.getElementUtils();
+    }
+
+    @Override
+    public Types getTypeUtils() {
+      return delegate.getTypeUtils();
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+      return delegate.getSourceVersion();
+    }
+
+    @Override
+    public Locale getLocale() {
+      return delegate.getLocale();
+    }
+  }
 }
@@ -48,27 +48,39 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -77,10 +89,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -88,10 +141,10 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -100,8 +153,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -110,10 +164,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -122,58 +176,58 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.getAge() != _defaults.getAge()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.getAge() != "
+            + "_defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.getAge() != _defaults.getAge())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.getAge() != "
+            + "_defaults.getAge())) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -181,7 +235,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -189,7 +243,76 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -198,8 +321,10 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
         "",
@@ -221,7 +346,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -238,14 +363,17 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -253,7 +381,10 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -265,17 +396,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -283,7 +414,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -291,32 +422,40 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "      if (_unsetProperties != other._unsetProperties) {",
         "        return false;",
         "      }",
         "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      return _unsetProperties.equals(other._unsetProperties);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, _unsetProperties});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -333,27 +472,39 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -362,10 +513,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -373,10 +565,10 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -385,8 +577,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -395,10 +588,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -407,58 +600,58 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.getAge() != _defaults.getAge()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.getAge() != "
+            + "_defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.getAge() != _defaults.getAge())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.getAge() != "
+            + "_defaults.getAge())) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -466,7 +659,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -474,7 +667,76 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -483,8 +745,10 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
         "",
@@ -506,7 +770,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -523,16 +787,28 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -544,17 +820,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -562,7 +838,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -570,28 +846,40 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name)",
-        "          && Objects.equals(age, other.age)",
-        "          && Objects.equals(_unsetProperties, other._unsetProperties);",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age, _unsetProperties);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -607,25 +895,37 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
-        "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -634,10 +934,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -645,13 +986,13 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    if (name == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name = name;",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -660,7 +1001,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
         "      throw new IllegalStateException(\"name not set\");",
         "    }",
         "    return name;",
@@ -671,10 +1012,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -683,7 +1024,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getAge() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
         "      throw new IllegalStateException(\"age not set\");",
         "    }",
         "    return age;",
@@ -692,50 +1033,49 @@ public class RequiredPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.getAge() != _defaults.getAge()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.getAge() != "
+            + "_defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.getAge() != _defaults.getAge())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.getAge() != "
+            + "_defaults.getAge())) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -743,7 +1083,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -751,7 +1091,74 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -760,8 +1167,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    if (!_unsetProperties.isEmpty()) {",
-        "      throw new IllegalStateException(\"Not set: \" + _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
         "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
@@ -783,7 +1191,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -800,14 +1208,17 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -815,7 +1226,10 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -827,17 +1241,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -845,7 +1259,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -853,33 +1267,43 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "      if (_unsetProperties != other._unsetProperties) {",
         "        return false;",
         "      }",
         "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      return _unsetProperties.equals(other._unsetProperties);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, _unsetProperties});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      StringBuilder result = new StringBuilder(\"partial Person{\");",
         "      String separator = \"\";",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) == 0) {",
         "        result.append(\"name=\").append(name);",
         "        separator = \", \";",
         "      }",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) == 0) {",
         "        result.append(separator);",
         "        result.append(\"age=\").append(age);",
         "      }",
@@ -899,25 +1323,37 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
-        "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -926,10 +1362,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -937,10 +1414,10 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Objects.requireNonNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -949,7 +1426,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
         "      throw new IllegalStateException(\"name not set\");",
         "    }",
         "    return name;",
@@ -960,10 +1437,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -972,7 +1449,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getAge() {",
-        "    if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
         "      throw new IllegalStateException(\"age not set\");",
         "    }",
         "    return age;",
@@ -981,50 +1458,49 @@ public class RequiredPropertiesSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.getAge() != _defaults.getAge()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.getAge() != "
+            + "_defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.getAge() != _defaults.getAge())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.getAge() != "
+            + "_defaults.getAge())) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1032,7 +1508,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -1040,7 +1516,74 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -1049,8 +1592,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    if (!_unsetProperties.isEmpty()) {",
-        "      throw new IllegalStateException(\"Not set: \" + _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
         "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
@@ -1072,7 +1616,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1089,16 +1633,28 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1110,17 +1666,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -1128,7 +1684,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -1136,29 +1692,43 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name)",
-        "          && Objects.equals(age, other.age)",
-        "          && Objects.equals(_unsetProperties, other._unsetProperties);",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age, _unsetProperties);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      StringBuilder result = new StringBuilder(\"partial Person{\");",
         "      String separator = \"\";",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) == 0) {",
         "        result.append(\"name=\").append(name);",
         "        separator = \", \";",
         "      }",
-        "      if (!_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) == 0) {",
         "        result.append(separator);",
         "        result.append(\"age=\").append(age);",
         "      }",
@@ -1179,26 +1749,38 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1207,10 +1789,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#getName()}.",
@@ -1218,10 +1841,10 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder setName(String name) {",
+        "  public B setName(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1232,7 +1855,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
-        "  public Person.Builder mapName(UnaryOperator<String> mapper) {",
+        "  public B mapName(UnaryOperator<String> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    return setName(mapper.apply(getName()));",
         "  }",
@@ -1243,8 +1866,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String getName() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -1253,10 +1877,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder setAge(int age) {",
+        "  public B setAge(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1267,7 +1891,7 @@ public class RequiredPropertiesSourceTest {
         "   * @throws NullPointerException if {@code mapper} is null or returns null",
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
-        "  public Person.Builder mapAge(UnaryOperator<Integer> mapper) {",
+        "  public B mapAge(UnaryOperator<Integer> mapper) {",
         "    Preconditions.checkNotNull(mapper);",
         "    return setAge(mapper.apply(getAge()));",
         "  }",
@@ -1278,58 +1902,58 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int getAge() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.getName().equals(_defaults.getName())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.getName().equals(_defaults.getName())) {",
         "      setName(value.getName());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.getAge() != _defaults.getAge()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.getAge() != "
+            + "_defaults.getAge()) {",
         "      setAge(value.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.getName().equals(_defaults.getName()))) {",
         "      setName(template.getName());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.getAge() != _defaults.getAge())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.getAge() != "
+            + "_defaults.getAge())) {",
         "      setAge(template.getAge());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1337,7 +1961,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getName()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -1345,7 +1969,75 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#getAge()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -1354,8 +2046,10 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
         "",
@@ -1377,7 +2071,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1394,16 +2088,28 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name) && Objects.equals(age, other.age);",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1415,17 +2121,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String getName() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -1433,7 +2139,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int getAge() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -1441,28 +2147,40 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name)",
-        "          && Objects.equals(age, other.age)",
-        "          && Objects.equals(_unsetProperties, other._unsetProperties);",
+        "      if (_unsetProperties != other._unsetProperties) {",
+        "        return false;",
+        "      }",
+        "      if (age != other.age) {",
+        "        return false;",
+        "      }",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name, age, _unsetProperties);",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -1478,27 +2196,39 @@ public class RequiredPropertiesSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
-        "",
-        "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
-        "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
         "",
         "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
         "",
-        "  private enum Property {",
-        "    NAME(\"name\"),",
-        "    AGE(\"age\"),",
+        "  enum Property {",
+        "    NAME(\"name\", 0, 0x1L),",
+        "    AGE(\"age\", 0, 0x2L),",
         "    ;",
         "",
-        "    private final String name;",
+        "    final String name;",
+        "    final int field;",
+        "    final long mask;",
         "",
-        "    private Property(String name) {",
+        "    Property(String name, int field, long mask) {",
         "      this.name = name;",
+        "      this.field = field;",
+        "      this.mask = mask;",
+        "    }",
+        "",
+        "    /**",
+        "     * Returns the properties marked as unset in the given tracking fields.",
+        "     * Only used when reporting errors.",
+        "     */",
+        "    static EnumSet<Property> unset(long... unsetProperties) {",
+        "      EnumSet<Property> result = EnumSet.noneOf(Property.class);",
+        "      for (Property property : Property.values()) {",
+        "        if ((unsetProperties[property.field] & property.mask) != 0) {",
+        "          result.add(property);",
+        "        }",
+        "      }",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1507,10 +2237,51 @@ public class RequiredPropertiesSourceTest {
         "    }",
         "  }",
         "",
-        "  private String name;",
-        "  private int age;",
-        "  private final EnumSet<Person_Builder.Property> _unsetProperties =",
-        "      EnumSet.allOf(Person_Builder.Property.class);",
+        "  String name;",
+        "  int age;",
+        "  long _unsetProperties = 0x3L;",
+        "",
+        "  /**",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
+        "   */",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Sets the value to be returned by {@link Person#name()}.",
@@ -1518,10 +2289,10 @@ public class RequiredPropertiesSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code name} is null",
         "   */",
-        "  public Person.Builder name(String name) {",
+        "  public B name(String name) {",
         "    this.name = Preconditions.checkNotNull(name);",
-        "    _unsetProperties.remove(Person_Builder.Property.NAME);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x1L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1530,8 +2301,9 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public String name() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.NAME), \"name not set\");",
+        "    if ((_unsetProperties & 0x1L) != 0) {",
+        "      throw new IllegalStateException(\"name not set\");",
+        "    }",
         "    return name;",
         "  }",
         "",
@@ -1540,10 +2312,10 @@ public class RequiredPropertiesSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder age(int age) {",
+        "  public B age(int age) {",
         "    this.age = age;",
-        "    _unsetProperties.remove(Person_Builder.Property.AGE);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties &= ~0x2L;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1552,58 +2324,57 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if the field has not been set",
         "   */",
         "  public int age() {",
-        "    Preconditions.checkState(",
-        "        !_unsetProperties.contains(Person_Builder.Property.AGE), \"age not set\");",
+        "    if ((_unsetProperties & 0x2L) != 0) {",
+        "      throw new IllegalStateException(\"age not set\");",
+        "    }",
         "    return age;",
         "  }",
         "",
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        || !value.name().equals(_defaults.name())) {",
+        "  public B mergeFrom(T value) {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((_defaults._unsetProperties & 0x1L) != 0 || "
+            + "!value.name().equals(_defaults.name())) {",
         "      name(value.name());",
         "    }",
-        "    if (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        || value.age() != _defaults.age()) {",
+        "    if ((_defaults._unsetProperties & 0x2L) != 0 || value.age() != _defaults.age()) {",
         "      age(value.age());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
+        "  public B mergeFrom(B template) {",
         "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
-        "    Person_Builder base = (Person_Builder) template;",
-        "    Person_Builder _defaults = new Person.Builder();",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.NAME)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.NAME)",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
+        "    if ((base._unsetProperties & 0x1L) == 0",
+        "        && ((_defaults._unsetProperties & 0x1L) != 0",
         "            || !template.name().equals(_defaults.name()))) {",
         "      name(template.name());",
         "    }",
-        "    if (!base._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "        && (_defaults._unsetProperties.contains(Person_Builder.Property.AGE)",
-        "            || template.age() != _defaults.age())) {",
+        "    if ((base._unsetProperties & 0x2L) == 0",
+        "        && ((_defaults._unsetProperties & 0x2L) != 0 || template.age() != "
+            + "_defaults.age())) {",
         "      age(template.age());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
-        "    Person_Builder _defaults = new Person.Builder();",
+        "  public B clear() {",
+        "    Person_ABuilder _defaults = getDefaultsBuilder();",
         "    name = _defaults.name;",
         "    age = _defaults.age;",
-        "    _unsetProperties.clear();",
-        "    _unsetProperties.addAll(_defaults._unsetProperties);",
-        "    return (Person.Builder) this;",
+        "    _unsetProperties = _defaults._unsetProperties;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1611,7 +2382,7 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#name()} is set.",
         "   */",
         "  public boolean isPropertyNameSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.NAME);",
+        "    return (_unsetProperties & 0x1L) == 0;",
         "  }",
         "",
         "  /**",
@@ -1619,7 +2390,76 @@ public class RequiredPropertiesSourceTest {
         "   * {@link Person#age()} is set.",
         "   */",
         "  public boolean isPropertyAgeSet() {",
-        "    return _unsetProperties.contains(Person_Builder.Property.AGE);",
+        "    return (_unsetProperties & 0x2L) == 0;",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  private static final Joiner COMMA_JOINER = Joiner.on(\", \").skipNulls();",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
+        "    return (Person.Builder) this;",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
         "  }",
         "",
         "  /**",
@@ -1628,8 +2468,10 @@ public class RequiredPropertiesSourceTest {
         "   * @throws IllegalStateException if any field has not been set",
         "   */",
         "  public Person build() {",
-        "    Preconditions.checkState(_unsetProperties.isEmpty(),"
-            + " \"Not set: %s\", _unsetProperties);",
+        "    if (_unsetProperties != 0) {",
+        "      throw new IllegalStateException(",
+        "          \"Not set: \" + Person_ABuilder.Property.unset(_unsetProperties));",
+        "    }",
         "    return new Person_Builder.Value(this);",
         "  }",
         "",
@@ -1651,7 +2493,7 @@ public class RequiredPropertiesSourceTest {
         "    private final String name;",
         "    private final int age;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
         "    }",
@@ -1668,14 +2510,17 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      if (!name.equals(other.name)) {",
+        "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      if (age != other.age) {",
+        "      if (!name.equals(other.name)) {",
         "        return false;",
         "      }",
         "      return true;",
@@ -1683,7 +2528,10 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      result = 31 * result + age;",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1695,17 +2543,17 @@ public class RequiredPropertiesSourceTest {
         "  private static final class Partial extends Person {",
         "    private final String name;",
         "    private final int age;",
-        "    private final EnumSet<Person_Builder.Property> _unsetProperties;",
+        "    private final long _unsetProperties;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = builder.name;",
         "      this.age = builder.age;",
-        "      this._unsetProperties = builder._unsetProperties.clone();",
+        "      this._unsetProperties = builder._unsetProperties;",
         "    }",
         "",
         "    @Override",
         "    public String name() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.NAME)) {",
+        "      if ((_unsetProperties & 0x1L) != 0) {",
         "        throw new UnsupportedOperationException(\"name not set\");",
         "      }",
         "      return name;",
@@ -1713,7 +2561,7 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public int age() {",
-        "      if (_unsetProperties.contains(Person_Builder.Property.AGE)) {",
+        "      if ((_unsetProperties & 0x2L) != 0) {",
         "        throw new UnsupportedOperationException(\"age not set\");",
         "      }",
         "      return age;",
@@ -1721,32 +2569,40 @@ public class RequiredPropertiesSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "      if (_unsetProperties != other._unsetProperties) {",
         "        return false;",
         "      }",
         "      if (age != other.age) {",
         "        return false;",
         "      }",
-        "      return _unsetProperties.equals(other._unsetProperties);",
+        "      if (name != other.name && (name == null || !name.equals(other.name))) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name, age, _unsetProperties});",
+        "      int result = 1;",
+        "      result = 31 * result + (name == null ? 0 : name.hashCode());",
+        "      result = 31 * result + age;",
+        "      result = 31 * result + (int) (_unsetProperties ^ (_unsetProperties >>> 32));",
+        "      return result;",
         "    }",
         "",
         "    @Override",
         "    public String toString() {",
         "      return \"partial Person{\"",
         "          + COMMA_JOINER.join(",
-        "              (!_unsetProperties.contains(Person_Builder.Property.NAME) "
-            + "? \"name=\" + name : null),",
-        "              (!_unsetProperties.contains(Person_Builder.Property.AGE) "
-            + "? \"age=\" + age : null))",
+        "              ((_unsetProperties & 0x1L) == 0 ? \"name=\" + name : null),",
+        "              ((_unsetProperties & 0x2L) == 0 ? \"age=\" + age : null))",
         "          + \"}\";",
         "    }",
         "  }",
@@ -1754,10 +2610,13 @@ public class RequiredPropertiesSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
     try {
-      return new Formatter().formatSource(sourceBuilder.toString());
+      return new Formatter().formatSource(aBuilderSource.toString())
+          + new Formatter().formatSource(sourceBuilder.toString());
     } catch (FormatterException e) {
       throw new RuntimeException(e);
     }
@@ -1767,6 +2626,7 @@ public class RequiredPropertiesSourceTest {
     QualifiedName person = QualifiedName.of("com.example", "Person");
     TypeMirror string = newTopLevelClass("java.lang.String");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(string)
@@ -1792,10 +2652,17 @@ public class RequiredPropertiesSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name, age)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
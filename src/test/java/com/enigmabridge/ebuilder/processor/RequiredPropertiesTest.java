@@ -300,6 +300,58 @@ public class RequiredPropertiesTest {
         .runTest();
   }
 
+  @Test
+  public void testIsPropertySet() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(REQUIRED_PROPERTIES_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("assertFalse(builder.isPropertyPropertyASet());")
+            .addLine("assertFalse(builder.isPropertyPropertyBSet());")
+            .addLine("builder.setPropertyA(11);")
+            .addLine("assertTrue(builder.isPropertyPropertyASet());")
+            .addLine("assertFalse(builder.isPropertyPropertyBSet());")
+            .addLine("builder.setPropertyB(true);")
+            .addLine("assertTrue(builder.isPropertyPropertyASet());")
+            .addLine("assertTrue(builder.isPropertyPropertyBSet());")
+            .addLine("builder.clear();")
+            .addLine("assertFalse(builder.isPropertyPropertyASet());")
+            .addLine("assertFalse(builder.isPropertyPropertyBSet());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testIsPropertySet_manyProperties() {
+    // 70 required properties span two unset-property bit fields
+    SourceBuilder type = new SourceBuilder()
+        .addLine("package com.example;")
+        .addLine("@%s", EBuilder.class)
+        .addLine("public abstract class DataType {");
+    for (int i = 0; i < 70; i++) {
+      type.addLine("  public abstract int getProperty%s();", i);
+    }
+    type.addLine("")
+        .addLine("  public static class Builder extends DataType_Builder {}")
+        .addLine("}");
+    behaviorTester
+        .with(new Processor(features))
+        .with(type.build())
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("assertFalse(builder.isPropertyProperty0Set());")
+            .addLine("assertFalse(builder.isPropertyProperty69Set());")
+            .addLine("builder.setProperty69(69);")
+            .addLine("assertFalse(builder.isPropertyProperty0Set());")
+            .addLine("assertTrue(builder.isPropertyProperty69Set());")
+            .addLine("builder.setProperty0(0);")
+            .addLine("assertTrue(builder.isPropertyProperty0Set());")
+            .addLine("assertFalse(builder.isPropertyProperty68Set());")
+            .build())
+        .runTest();
+  }
+
   private static TestBuilder testBuilder() {
     return new TestBuilder().addImport("com.example.DataType");
   }
@@ -46,17 +46,53 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Set<String> name = ImmutableSet.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
         "",
-        "  private Set<String> name = ImmutableSet.of();",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#getName()}.",
@@ -66,12 +102,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -83,7 +119,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -96,11 +132,18 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableSet",
+        "        && this.name instanceof ImmutableSet",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable set; it will be copied if this builder is modified",
+        "      this.name = ImmutableSet.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -110,12 +153,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    this.name.remove(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -123,13 +166,13 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableSet) {",
         "      name = ImmutableSet.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -138,8 +181,8 @@ public class SetSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Set<String> getName() {",
-        "    if (name instanceof ImmutableSet) {",
-        "      name = new LinkedHashSet<String>(name);",
+        "    if (this.name instanceof ImmutableSet) {",
+        "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    return Collections.unmodifiableSet(name);",
         "  }",
@@ -147,33 +190,117 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableSet.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
+        "    } else if (value.getName() instanceof ImmutableSet",
+        "        && name instanceof ImmutableSet",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(value.getName());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<String>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableSet && name instanceof ImmutableSet && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<String>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -193,9 +320,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -206,6 +333,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -218,7 +348,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -228,9 +360,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -241,6 +373,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -253,7 +388,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -274,17 +411,53 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Set<String> name = ImmutableSet.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private Set<String> name = ImmutableSet.of();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#getName()}.",
@@ -294,12 +467,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -311,7 +484,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -324,11 +497,18 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableSet",
+        "        && this.name instanceof ImmutableSet",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable set; it will be copied if this builder is modified",
+        "      this.name = ImmutableSet.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -338,12 +518,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    this.name.remove(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -351,13 +531,13 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableSet) {",
         "      name = ImmutableSet.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -366,8 +546,8 @@ public class SetSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Set<String> getName() {",
-        "    if (name instanceof ImmutableSet) {",
-        "      name = new LinkedHashSet<>(name);",
+        "    if (this.name instanceof ImmutableSet) {",
+        "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    return Collections.unmodifiableSet(name);",
         "  }",
@@ -375,33 +555,117 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableSet.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
+        "    } else if (value.getName() instanceof ImmutableSet",
+        "        && name instanceof ImmutableSet",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(value.getName());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableSet && name instanceof ImmutableSet && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -421,9 +685,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -434,16 +698,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -453,9 +725,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -466,16 +738,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -496,16 +776,52 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "abstract class Person_Builder {",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Set<String> name = ImmutableSet.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private Set<String> name = ImmutableSet.of();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#getName()}.",
@@ -515,12 +831,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -532,7 +848,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -545,9 +861,16 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableSet",
+        "        && this.name instanceof ImmutableSet",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable set; it will be copied if this builder is modified",
+        "      this.name = ImmutableSet.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    elements.forEach(this::addName);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -557,12 +880,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    this.name.remove(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -575,13 +898,13 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code mutator} is null",
         "   */",
-        "  public Person.Builder mutateName(Consumer<? super Set<String>> mutator) {",
-        "    if (name instanceof ImmutableSet) {",
-        "      name = new LinkedHashSet<>(name);",
+        "  public B mutateName(Consumer<? super Set<String>> mutator) {",
+        "    if (this.name instanceof ImmutableSet) {",
+        "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    // If addName is overridden, this method will be updated to delegate to it",
         "    mutator.accept(name);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -589,13 +912,13 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableSet) {",
         "      name = ImmutableSet.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -604,8 +927,8 @@ public class SetSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Set<String> getName() {",
-        "    if (name instanceof ImmutableSet) {",
-        "      name = new LinkedHashSet<>(name);",
+        "    if (this.name instanceof ImmutableSet) {",
+        "      this.name = new LinkedHashSet<>(this.name);",
         "    }",
         "    return Collections.unmodifiableSet(name);",
         "  }",
@@ -613,33 +936,116 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableSet.<String>of()) {",
-        "      name = value.getName();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.getName());",
+        "    } else if (value.getName() instanceof ImmutableSet",
+        "        && name instanceof ImmutableSet",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(value.getName());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<>(this.name);",
+        "      }",
+        "      name.addAll(value.getName());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableSet && name instanceof ImmutableSet && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -659,9 +1065,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -672,16 +1078,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -691,9 +1105,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -704,16 +1118,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -733,17 +1155,53 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final LinkedHashSet<String> name = new LinkedHashSet<String>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
+        "",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
         "",
-        "  private final LinkedHashSet<String> name = new LinkedHashSet<String>();",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#getName()}.",
@@ -753,12 +1211,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (element == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name.add(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -770,7 +1228,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -783,11 +1241,11 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -797,12 +1255,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    if (element == null) {",
         "      throw new NullPointerException();",
         "    }",
         "    this.name.remove(element);",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -810,9 +1268,9 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -827,29 +1285,102 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    addAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.addAll(value.getName());",
+        "    } else {",
+        "      addAllName(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.addAll(base.name);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -868,9 +1399,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableSet(builder.name);",
         "    }",
         "",
@@ -881,6 +1412,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -893,7 +1427,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -903,9 +1439,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableSet(builder.name);",
         "    }",
         "",
@@ -916,6 +1452,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -928,7 +1467,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -959,17 +1500,53 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  final LinkedHashSet<String> name = new LinkedHashSet<>();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private final LinkedHashSet<String> name = new LinkedHashSet<>();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#getName()}.",
@@ -979,9 +1556,9 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    this.name.add(Objects.requireNonNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -993,7 +1570,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -1006,11 +1583,11 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1020,9 +1597,9 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    this.name.remove(Objects.requireNonNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1030,9 +1607,9 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    name.clear();",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1047,29 +1624,102 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    addAllName(value.getName());",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(T value) {",
+        "    if (value instanceof Person_Builder.Value) {",
+        "      name.addAll(value.getName());",
+        "    } else {",
+        "      addAllName(value.getName());",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    name.addAll(base.name);",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1088,9 +1738,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = immutableSet(builder.name);",
         "    }",
         "",
@@ -1101,16 +1751,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Value other = (Person_Builder.Value) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1120,9 +1778,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = immutableSet(builder.name);",
         "    }",
         "",
@@ -1133,16 +1791,24 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
         "      Person_Builder.Partial other = (Person_Builder.Partial) obj;",
-        "      return Objects.equals(name, other.name);",
+        "      if (!name.equals(other.name)) {",
+        "        return false;",
+        "      }",
+        "      return true;",
         "    }",
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Objects.hash(name);",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1173,17 +1839,53 @@ public class SetSourceTest {
         " * Auto-generated superclass of {@link Person.Builder},",
         " * derived from the API of {@link Person}.",
         " */",
-        "@Generated(\"org.inferred.freebuilder.processor.CodeGenerator\")",
-        "abstract class Person_Builder {",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_ABuilder<",
+        "    T extends com.example.Person, B extends com.example.Person_ABuilder> {",
+        "",
+        "  Set<String> name = ImmutableSet.of();",
         "",
         "  /**",
-        "   * Creates a new builder using {@code value} as a template.",
+        "   * Abstract build method, returns immutable value class.",
+        "   * Implemented in side (non-inherited) builder.",
+        "   *",
+        "   * @return this {@code T} object",
         "   */",
-        "  public static Person.Builder from(Person value) {",
-        "    return new Person.Builder().mergeFrom(value);",
-        "  }",
+        "  public abstract T build();",
         "",
-        "  private Set<String> name = ImmutableSet.of();",
+        "  /**",
+        "   * Abstract method returns the actual builder instance with the",
+        "   * high type. This is returned in each value setter so the return",
+        "   * value is compatible with top-level builder. Used in builder inheritance.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getThisBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a new builder instance of the",
+        "   * high type. It is used to detect default values on runtime for merging purposes.",
+        "   *",
+        "   * @return this {@code B} object",
+        "   */",
+        "  protected abstract B getNewBuilder();",
+        "",
+        "  /**",
+        "   * Abstract method returns a shared builder instance of the high type holding",
+        "   * the default values. It is used instead of {@link #getNewBuilder()} to detect",
+        "   * default values when merging and clearing, and must never be modified.",
+        "   *",
+        "   * @return a {@code B} object holding the default values",
+        "   */",
+        "  protected abstract B getDefaultsBuilder();",
+        "",
+        "  /**",
+        "   * Method for setting default values to builder properties.",
+        "   * By default it is empty or calls super.",
+        "   * In order to set inheritable default values, override this method in .",
+        "   * the abstract builder. For local default values inherit in specific builder.",
+        "   */",
+        "  protected void defaultValues() {}",
         "",
         "  /**",
         "   * Adds {@code element} to the set to be returned from {@link Person#name()}.",
@@ -1193,12 +1895,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder addName(String element) {",
+        "  public B addName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    this.name.add(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1210,7 +1912,7 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addName(String... elements) {",
+        "  public B addName(String... elements) {",
         "    return addAllName(Arrays.asList(elements));",
         "  }",
         "",
@@ -1223,11 +1925,18 @@ public class SetSourceTest {
         "   * @throws NullPointerException if {@code elements} is null or contains a",
         "   *     null element",
         "   */",
-        "  public Person.Builder addAllName(Iterable<? extends String> elements) {",
+        "  public B addAllName(Iterable<? extends String> elements) {",
+        "    if (elements instanceof ImmutableSet",
+        "        && this.name instanceof ImmutableSet",
+        "        && this.name.isEmpty()) {",
+        "      // Adopt the immutable set; it will be copied if this builder is modified",
+        "      this.name = ImmutableSet.copyOf(elements);",
+        "      return getThisBuilder();",
+        "    }",
         "    for (String element : elements) {",
         "      addName(element);",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1237,12 +1946,12 @@ public class SetSourceTest {
         "   * @return this {@code Builder} object",
         "   * @throws NullPointerException if {@code element} is null",
         "   */",
-        "  public Person.Builder removeName(String element) {",
+        "  public B removeName(String element) {",
         "    if (this.name instanceof ImmutableSet) {",
         "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    this.name.remove(Preconditions.checkNotNull(element));",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1250,13 +1959,13 @@ public class SetSourceTest {
         "   *",
         "   * @return this {@code Builder} object",
         "   */",
-        "  public Person.Builder clearName() {",
+        "  public B clearName() {",
         "    if (name instanceof ImmutableSet) {",
         "      name = ImmutableSet.of();",
         "    } else {",
         "      name.clear();",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
@@ -1265,8 +1974,8 @@ public class SetSourceTest {
         "   * Changes to this builder will be reflected in the view.",
         "   */",
         "  public Set<String> name() {",
-        "    if (name instanceof ImmutableSet) {",
-        "      name = new LinkedHashSet<String>(name);",
+        "    if (this.name instanceof ImmutableSet) {",
+        "      this.name = new LinkedHashSet<String>(this.name);",
         "    }",
         "    return Collections.unmodifiableSet(name);",
         "  }",
@@ -1274,33 +1983,117 @@ public class SetSourceTest {
         "  /**",
         "   * Sets all property values using the given {@code Person} as a template.",
         "   */",
-        "  public Person.Builder mergeFrom(Person value) {",
-        "    if (value instanceof Person_Builder.Value && name == ImmutableSet.<String>of()) {",
-        "      name = value.name();",
-        "    } else {",
+        "  public B mergeFrom(T value) {",
+        "    if (!(value instanceof Person_Builder.Value)) {",
         "      addAllName(value.name());",
+        "    } else if (value.name() instanceof ImmutableSet",
+        "        && name instanceof ImmutableSet",
+        "        && name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(value.name());",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<String>(this.name);",
+        "      }",
+        "      name.addAll(value.name());",
         "    }",
-        "    return (Person.Builder) this;",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Copies values from the given {@code Builder}.",
         "   * Does not affect any properties not set on the input.",
         "   */",
-        "  public Person.Builder mergeFrom(Person.Builder template) {",
-        "    addAllName(((Person_Builder) template).name);",
-        "    return (Person.Builder) this;",
+        "  public B mergeFrom(B template) {",
+        "    // Upcast to access private fields; otherwise, oddly, we get an access violation.",
+        "    Person_ABuilder base = (Person_ABuilder) template;",
+        "    if (base.name instanceof ImmutableSet && name instanceof ImmutableSet && "
+            + "name.isEmpty()) {",
+        "      name = ImmutableSet.copyOf(base.name);",
+        "    } else {",
+        "      if (this.name instanceof ImmutableSet) {",
+        "        this.name = new LinkedHashSet<String>(this.name);",
+        "      }",
+        "      name.addAll(base.name);",
+        "    }",
+        "    return getThisBuilder();",
         "  }",
         "",
         "  /**",
         "   * Resets the state of this builder.",
         "   */",
-        "  public Person.Builder clear() {",
+        "  public B clear() {",
         "    clearName();",
+        "    return getThisBuilder();",
+        "  }",
+        "}",
+        "/**",
+        " * Auto-generated superclass of {@link Person.Builder},",
+        " * derived from the API of {@link Person}.",
+        " */",
+        "@Generated(\"com.enigmabridge.ebuilder.processor.CodeGenerator\")",
+        "abstract class Person_Builder",
+        "    extends Person_ABuilder<com.example.Person, com.example.Person_Builder> {",
+        "",
+        "  /**",
+        "   * Creates a new builder using {@code value} as a template.",
+        "   */",
+        "  public static Person.Builder from(Person value) {",
+        "    return (Person.Builder) new Person.Builder().mergeFrom(value);",
+        "  }",
+        "",
+        "  /**",
+        "   * Default constructor with default values.",
+        "   */",
+        "  public Person_Builder() {",
+        "    initBuilder();",
+        "  }",
+        "",
+        "  /**",
+        "   * Returns this builder object as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getThisBuilder() {",
         "    return (Person.Builder) this;",
         "  }",
         "",
         "  /**",
+        "   * Returns a new builder instance as a top-level {@link Person.Builder} builder",
+        "   * class extending this abstract class {@link Person_Builder}.",
+        "   * Used for default value generation.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getNewBuilder() {",
+        "    return new Person.Builder();",
+        "  }",
+        "",
+        "  private static volatile Person.Builder _defaultsBuilder;",
+        "",
+        "  /**",
+        "   * Returns a builder holding the default values, created on first use and then",
+        "   * shared by all {@link Person.Builder} instances. Used for default value detection.",
+        "   */",
+        "  @Override",
+        "  protected Person.Builder getDefaultsBuilder() {",
+        "    Person.Builder defaults = _defaultsBuilder;",
+        "    if (defaults == null) {",
+        "      defaults = getNewBuilder();",
+        "      _defaultsBuilder = defaults;",
+        "    }",
+        "    return defaults;",
+        "  }",
+        "",
+        "  /**",
+        "   * Initializes the builder object with default values.",
+        "   * Returns the builder type - usable in upper builder factory.",
+        "   */",
+        "  @SuppressWarnings(\"unchecked\")",
+        "  protected <BB extends Person_ABuilder> BB initBuilder() {",
+        "    defaultValues();",
+        "    return (BB) this;",
+        "  }",
+        "",
+        "  /**",
         "   * Returns a newly-created {@link Person} based on the contents of the {@code Builder}.",
         "   */",
         "  public Person build() {",
@@ -1320,9 +2113,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Value extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    private Value(Person_Builder builder) {",
+        "    private Value(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -1333,6 +2126,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Value)) {",
         "        return false;",
         "      }",
@@ -1345,7 +2141,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1355,9 +2153,9 @@ public class SetSourceTest {
         "  }",
         "",
         "  private static final class Partial extends Person {",
-        "    private final Set<String> name;",
+        "    final Set<String> name;",
         "",
-        "    Partial(Person_Builder builder) {",
+        "    Partial(Person_ABuilder builder) {",
         "      this.name = ImmutableSet.copyOf(builder.name);",
         "    }",
         "",
@@ -1368,6 +2166,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public boolean equals(Object obj) {",
+        "      if (obj == this) {",
+        "        return true;",
+        "      }",
         "      if (!(obj instanceof Person_Builder.Partial)) {",
         "        return false;",
         "      }",
@@ -1380,7 +2181,9 @@ public class SetSourceTest {
         "",
         "    @Override",
         "    public int hashCode() {",
-        "      return Arrays.hashCode(new Object[] {name});",
+        "      int result = 1;",
+        "      result = 31 * result + name.hashCode();",
+        "      return result;",
         "    }",
         "",
         "    @Override",
@@ -1392,9 +2195,12 @@ public class SetSourceTest {
   }
 
   private static String generateSource(Metadata metadata, Feature<?>... features) {
+    SourceBuilder aBuilderSource = SourceStringBuilder.simple(features);
+    new CodeGenerator().writeABuilderSource(aBuilderSource, metadata);
     SourceBuilder sourceBuilder = SourceStringBuilder.simple(features);
     new CodeGenerator().writeBuilderSource(sourceBuilder, metadata);
-    return CompilationUnitBuilder.formatSource(sourceBuilder.toString());
+    return CompilationUnitBuilder.formatSource(aBuilderSource.toString())
+        + CompilationUnitBuilder.formatSource(sourceBuilder.toString());
   }
 
   /**
@@ -1407,6 +2213,7 @@ public class SetSourceTest {
     GenericTypeMirrorImpl setString = set.newMirror(string);
     QualifiedName person = QualifiedName.of("com.example", "Person");
     QualifiedName generatedBuilder = QualifiedName.of("com.example", "Person_Builder");
+    QualifiedName generatedABuilder = QualifiedName.of("com.example", "Person_ABuilder");
     Property name = new Property.Builder()
         .setAllCapsName("NAME")
         .setBoxedType(setString)
@@ -1422,10 +2229,17 @@ public class SetSourceTest {
         .setBuilderFactory(BuilderFactory.NO_ARGS_CONSTRUCTOR)
         .setBuilderSerializable(false)
         .setGeneratedBuilder(generatedBuilder.withParameters())
+        .setGeneratedABuilder(generatedABuilder.withParameters())
+        .setGeneratedABuilderParametrized(generatedABuilder.withParameters(
+            "T extends com.example.Person", "B extends com.example.Person_ABuilder"))
+        .setGeneratedABuilderParametrizedSpec(generatedABuilder.withParameters(
+            "com.example.Person", "com.example.Person_Builder"))
+        .setTypeGen("T")
+        .setBuildGen("B")
         .setInterfaceType(false)
         .setPartialType(generatedBuilder.nestedType("Partial").withParameters())
         .addProperties(name)
-        .setPropertyEnum(generatedBuilder.nestedType("Property").withParameters())
+        .setPropertyEnum(generatedABuilder.nestedType("Property").withParameters())
         .setType(person.withParameters())
         .setValueType(generatedBuilder.nestedType("Value").withParameters())
         .build();
@@ -1433,7 +2247,8 @@ public class SetSourceTest {
         .clearProperties()
         .addProperties(name.toBuilder()
             .setCodeGenerator(new SetPropertyFactory.CodeGenerator(
-                metadata, name, string, Optional.<TypeMirror>absent(), false))
+                metadata, name, string, Optional.<TypeMirror>absent(), false, false,
+                Optional.<Integer>absent()))
             .build())
         .build();
   }
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+import com.enigmabridge.ebuilder.EBuilder;
+import com.enigmabridge.ebuilder.processor.util.feature.FeatureSet;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTestRunner.Shared;
+import com.enigmabridge.ebuilder.processor.util.testing.BehaviorTester;
+import com.enigmabridge.ebuilder.processor.util.testing.CompilationException;
+import com.enigmabridge.ebuilder.processor.util.testing.ParameterizedBehaviorTestFactory;
+import com.enigmabridge.ebuilder.processor.util.testing.SourceBuilder;
+import com.enigmabridge.ebuilder.processor.util.testing.TestBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.tools.JavaFileObject;
+
+/** Behavioral tests for {@code withX} methods declared on {@code @EBuilder} types. */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(ParameterizedBehaviorTestFactory.class)
+public class WitherTest {
+
+  @Parameters(name = "{0}")
+  public static List<FeatureSet> featureSets() {
+    return FeatureSets.ALL;
+  }
+
+  private static final String VALIDATION_ERROR_MESSAGE = "Name must not be empty";
+
+  private static final JavaFileObject WITHER_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  String getName();")
+      .addLine("  int getCount();")
+      .addLine("  %s<String> getNick();", Optional.class)
+      .addLine("  %s<String> getTags();", List.class)
+      .addLine("")
+      .addLine("  DataType withName(String name);")
+      .addLine("  DataType withCount(int count);")
+      .addLine("  DataType withNick(%s<String> nick);", Optional.class)
+      .addLine("  DataType withTags(%s<String> tags);", List.class)
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {}")
+      .addLine("}")
+      .build();
+
+  private static final JavaFileObject VALIDATED_WITHER_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  String getName();")
+      .addLine("  int getCount();")
+      .addLine("")
+      .addLine("  DataType withName(String name);")
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {")
+      .addLine("    @Override public Builder setName(String name) {")
+      .addLine("      %s.checkArgument(!name.isEmpty(), \"%s\");",
+          Preconditions.class, VALIDATION_ERROR_MESSAGE)
+      .addLine("      super.setName(name);")
+      .addLine("      return this;")
+      .addLine("    }")
+      .addLine("  }")
+      .addLine("}")
+      .build();
+
+  private static final String BUILD_VALIDATION_ERROR_MESSAGE = "Count must not be negative";
+
+  private static final JavaFileObject VALIDATED_BUILD_TYPE = new SourceBuilder()
+      .addLine("package com.example;")
+      .addLine("@%s", EBuilder.class)
+      .addLine("public interface DataType {")
+      .addLine("  String getName();")
+      .addLine("  int getCount();")
+      .addLine("")
+      .addLine("  DataType withCount(int count);")
+      .addLine("")
+      .addLine("  public static class Builder extends DataType_Builder {")
+      .addLine("    @Override public DataType build() {")
+      .addLine("      DataType value = super.build();")
+      .addLine("      %s.checkState(value.getCount() >= 0, \"%s\");",
+          Preconditions.class, BUILD_VALIDATION_ERROR_MESSAGE)
+      .addLine("      return value;")
+      .addLine("    }")
+      .addLine("  }")
+      .addLine("}")
+      .build();
+
+  @Parameter public FeatureSet features;
+
+  @Rule public final ExpectedException thrown = ExpectedException.none();
+  @Shared public BehaviorTester behaviorTester;
+
+  @Test
+  public void testWither_directConstructor() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(WITHER_TYPE)
+        .with(testBuilder()
+            .addLine("DataType renamed = value.withName(\"other\");")
+            .addLine("assertEquals(\"other\", renamed.getName());")
+            .addLine("assertEquals(3, renamed.getCount());")
+            .addLine("assertEquals(%s.of(\"nick\"), renamed.getNick());", Optional.class)
+            .addLine("assertEquals(%s.of(\"a\", \"b\"), renamed.getTags());", ImmutableList.class)
+            .addLine("assertEquals(\"name\", value.getName());")
+            .addLine("DataType recounted = value.withCount(4);")
+            .addLine("assertEquals(4, recounted.getCount());")
+            .addLine("assertEquals(\"name\", recounted.getName());")
+            .addLine("assertEquals(3, value.getCount());")
+            .addLine("DataType.Builder builder = DataType.Builder.from(value);")
+            .addLine("builder.setCount(4);")
+            .addLine("assertEquals(builder.build(), recounted);")
+            .addLine("assertEquals(builder.build().hashCode(), recounted.hashCode());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_directConstructor_null() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(WITHER_TYPE)
+        .with(testBuilder()
+            .addLine("value.withName(null);")
+            .build());
+    thrown.expect(NullPointerException.class);
+    behaviorTester.runTest();
+  }
+
+  @Test
+  public void testWither_overriddenSetter() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_WITHER_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.setCount(3);")
+            .addLine("DataType value = builder.build().withName(\"other\");")
+            .addLine("assertEquals(\"other\", value.getName());")
+            .addLine("assertEquals(3, value.getCount());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_overriddenSetter_validates() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_WITHER_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.build().withName(\"\");")
+            .build());
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage(VALIDATION_ERROR_MESSAGE);
+    behaviorTester.runTest();
+  }
+
+  @Test
+  public void testWither_overriddenBuild() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_BUILD_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.setCount(3);")
+            .addLine("DataType value = builder.build().withCount(4);")
+            .addLine("assertEquals(\"name\", value.getName());")
+            .addLine("assertEquals(4, value.getCount());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_overriddenBuild_validates() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(VALIDATED_BUILD_TYPE)
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.build().withCount(-1);")
+            .build());
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage(BUILD_VALIDATION_ERROR_MESSAGE);
+    behaviorTester.runTest();
+  }
+
+  @Test
+  public void testWither_optional() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(WITHER_TYPE)
+        .with(testBuilder()
+            .addLine("DataType changed = value.withNick(%s.of(\"other\"));", Optional.class)
+            .addLine("assertEquals(%s.of(\"other\"), changed.getNick());", Optional.class)
+            .addLine("assertEquals(\"name\", changed.getName());")
+            .addLine("assertEquals(%s.of(\"a\", \"b\"), changed.getTags());", ImmutableList.class)
+            .addLine("DataType cleared = value.withNick(%s.<String>empty());", Optional.class)
+            .addLine("assertFalse(cleared.getNick().isPresent());")
+            .addLine("assertEquals(%s.of(\"nick\"), value.getNick());", Optional.class)
+            .addLine("// The direct constructor copies the nullable field behind the Optional")
+            .addLine("assertFalse(cleared.withName(\"other\").getNick().isPresent());")
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_collection() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(WITHER_TYPE)
+        .with(testBuilder()
+            .addLine("%1$s<String> tags = new %1$s<String>();", ArrayList.class)
+            .addLine("tags.add(\"c\");")
+            .addLine("DataType changed = value.withTags(tags);")
+            .addLine("tags.add(\"d\");")
+            .addLine("assertEquals(%s.of(\"c\"), changed.getTags());", ImmutableList.class)
+            .addLine("assertEquals(%s.of(\"a\", \"b\"), value.getTags());", ImmutableList.class)
+            .addLine("assertEquals(\"name\", changed.getName());")
+            .addLine("assertEquals(%s.of(\"nick\"), changed.getNick());", Optional.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_multiset() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface DataType {")
+            .addLine("  String getName();")
+            .addLine("  %s<String> getWords();", Multiset.class)
+            .addLine("")
+            .addLine("  DataType withName(String name);")
+            .addLine("  DataType withWords(%s<String> words);", Multiset.class)
+            .addLine("")
+            .addLine("  public static class Builder extends DataType_Builder {}")
+            .addLine("}")
+            .build())
+        .with(new TestBuilder()
+            .addImport("com.example.DataType")
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setName(\"name\");")
+            .addLine("builder.addWords(\"a\", \"a\", \"b\");")
+            .addLine("DataType value = builder.build();")
+            .addLine("DataType renamed = value.withName(\"other\");")
+            .addLine("assertEquals(\"other\", renamed.getName());")
+            .addLine("assertEquals(%s.of(\"a\", \"a\", \"b\"), renamed.getWords());",
+                ImmutableMultiset.class)
+            .addLine("DataType changed = value.withWords(%s.of(\"c\", \"c\"));",
+                ImmutableMultiset.class)
+            .addLine("assertEquals(%s.of(\"c\", \"c\"), changed.getWords());",
+                ImmutableMultiset.class)
+            .addLine("assertEquals(\"name\", changed.getName());")
+            .addLine("assertEquals(%s.of(\"a\", \"a\", \"b\"), value.getWords());",
+                ImmutableMultiset.class)
+            .build())
+        .runTest();
+  }
+
+  @Test
+  public void testWither_partial() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(WITHER_TYPE)
+        .with(testBuilder()
+            .addLine("DataType.Builder builder = new DataType.Builder();")
+            .addLine("builder.setCount(3);")
+            .addLine("builder.addTags(\"a\");")
+            .addLine("DataType partial = builder.buildPartial();")
+            .addLine("DataType changed = partial.withCount(4);")
+            .addLine("assertEquals(4, changed.getCount());")
+            .addLine("assertEquals(%s.of(\"a\"), changed.getTags());", ImmutableList.class)
+            .addLine("assertEquals(3, partial.getCount());")
+            .addLine("DataType named = partial.withName(\"name\");")
+            .addLine("assertEquals(\"name\", named.getName());")
+            .addLine("assertEquals(3, named.getCount());")
+            .addLine("changed.getName();")
+            .build());
+    thrown.expect(UnsupportedOperationException.class);
+    thrown.expectMessage("name not set");
+    behaviorTester.runTest();
+  }
+
+  @Test
+  public void testWither_noBuilderFactory() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface DataType {")
+            .addLine("  String getName();")
+            .addLine("")
+            .addLine("  DataType withName(String name);")
+            .addLine("")
+            .addLine("  public abstract static class Builder extends DataType_Builder {}")
+            .addLine("}")
+            .build());
+    thrown.expect(CompilationException.class);
+    thrown.expectMessage("withName requires a Builder that is not abstract");
+    behaviorTester.runTest();
+  }
+
+  @Test
+  public void testWither_noMatchingProperty() {
+    behaviorTester
+        .with(new Processor(features))
+        .with(new SourceBuilder()
+            .addLine("package com.example;")
+            .addLine("@%s", EBuilder.class)
+            .addLine("public interface DataType {")
+            .addLine("  String getName();")
+            .addLine("")
+            .addLine("  DataType withNickname(String nickname);")
+            .addLine("")
+            .addLine("  public static class Builder extends DataType_Builder {}")
+            .addLine("}")
+            .build());
+    thrown.expect(CompilationException.class);
+    thrown.expectMessage("No property found for withNickname");
+    behaviorTester.runTest();
+  }
+
+  private static TestBuilder testBuilder() {
+    return new TestBuilder()
+        .addImport("com.example.DataType")
+        .addLine("DataType.Builder template = new DataType.Builder();")
+        .addLine("template.setName(\"name\");")
+        .addLine("template.setCount(3);")
+        .addLine("template.setNick(\"nick\");")
+        .addLine("template.addTags(\"a\", \"b\");")
+        .addLine("DataType value = template.build();");
+  }
+}
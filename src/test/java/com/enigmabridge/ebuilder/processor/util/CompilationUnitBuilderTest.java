@@ -19,14 +19,18 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.truth.Truth.assertThat;
 import static javax.lang.model.util.ElementFilter.fieldsIn;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
 import com.enigmabridge.ebuilder.processor.util.testing.ModelRule;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting;
 import com.enigmabridge.ebuilder.processor.util.feature.StaticFeatureSet;
 import org.junit.Before;
 import org.junit.Rule;
@@ -206,6 +210,73 @@ public class CompilationUnitBuilderTest {
     source.addLine("%s", errorType);
   }
 
+  @Test
+  public void testAddLine_typeGeneratedEarlierInRound() {
+    PackageSiblings siblings = new PackageSiblings(model.elementUtils());
+    CompilationUnitBuilder first = newSourceWriter(siblings, "com.example", "List");
+    first.addLine("// This should be explicit: %s", java.util.List.class);
+    assertThat(first.toString()).contains("// This should be explicit: java.util.List\n");
+    // The package has now been scanned, so the type just written is only seen once registered.
+    siblings.addGeneratedType(QualifiedName.of("com.example", "List"));
+
+    CompilationUnitBuilder second = newSourceWriter(siblings, "com.example", "Bar");
+    second.addLine("// This should be short: %s", QualifiedName.of("com.example", "List"));
+    second.addLine("// This should be explicit: %s", java.util.List.class);
+    assertThat(second.toString()).doesNotContain("import java.util.List;\n");
+    assertThat(second.toString()).contains("// This should be short: List\n");
+    assertThat(second.toString()).contains("// This should be explicit: java.util.List\n");
+  }
+
+  @Test
+  public void testIsStreamable() {
+    assertFalse(newSourceWriter("com.example", "Bar").isStreamable());
+    assertTrue(newUnformattedSourceWriter("com.example", "Bar").isStreamable());
+  }
+
+  @Test
+  public void testWriteTo_emptyUnit() throws IOException {
+    CompilationUnitBuilder source = newUnformattedSourceWriter("com.example", "Bar");
+    StringWriter writer = new StringWriter();
+    source.writeTo(writer);
+    assertEquals(
+        "// Autogenerated code. Do not modify.\n"
+            + "package com.example;\n\n",
+        writer.toString());
+    assertEquals(source.toString(), writer.toString());
+    assertEquals(writer.toString().length(), source.length());
+  }
+
+  @Test
+  public void testWriteTo_largerThanWriteBuffer() throws IOException {
+    CompilationUnitBuilder source = newUnformattedSourceWriter("com.example", "Bar");
+    source.addLine("public class Bar {");
+    for (int i = 0; i < 1000; i++) {
+      source.addLine("  private %s field%s;", AtomicLong.class, i);
+    }
+    source.addLine("}");
+    StringWriter writer = new StringWriter();
+    source.writeTo(writer);
+    assertThat(writer.toString().length()).isGreaterThan(8192);
+    assertThat(writer.toString()).contains("import java.util.concurrent.atomic.AtomicLong;\n");
+    assertThat(writer.toString()).contains("  private AtomicLong field999;\n}\n");
+    assertEquals(source.toString(), writer.toString());
+    assertEquals(writer.toString().length(), source.length());
+  }
+
+  @Test
+  public void testWriteTo_formattedSourceNotStreamable() throws IOException {
+    CompilationUnitBuilder source = newSourceWriter("com.example", "Bar");
+    thrown.expect(IllegalStateException.class);
+    source.writeTo(new StringWriter());
+  }
+
+  @Test
+  public void testLength_formattedSourceNotStreamable() {
+    CompilationUnitBuilder source = newSourceWriter("com.example", "Bar");
+    thrown.expect(IllegalStateException.class);
+    source.length();
+  }
+
   private CompilationUnitBuilder newSourceWriter(String pkg, String simpleName) {
     ProcessingEnvironment environment = Mockito.spy(model.environment());
     doReturn(filer).when(environment).getFiler();
@@ -215,4 +286,23 @@ public class CompilationUnitBuilderTest {
         ImmutableSet.<QualifiedName>of(),
         new StaticFeatureSet());
   }
+
+  private CompilationUnitBuilder newSourceWriter(
+      PackageSiblings siblings, String pkg, String simpleName) {
+    return new CompilationUnitBuilder(
+        siblings,
+        Optional.<FormatCache>absent(),
+        QualifiedName.of(pkg, simpleName),
+        ImmutableSet.<QualifiedName>of(),
+        new StaticFeatureSet());
+  }
+
+  private CompilationUnitBuilder newUnformattedSourceWriter(String pkg, String simpleName) {
+    return new CompilationUnitBuilder(
+        new PackageSiblings(model.elementUtils()),
+        Optional.<FormatCache>absent(),
+        QualifiedName.of(pkg, simpleName),
+        ImmutableSet.<QualifiedName>of(),
+        new StaticFeatureSet(SourceFormatting.NONE));
+  }
 }
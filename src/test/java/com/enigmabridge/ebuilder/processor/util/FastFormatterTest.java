@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link FastFormatter}. */
+@RunWith(JUnit4.class)
+public class FastFormatterTest {
+
+  @Test
+  public void testReindentsBlocks() {
+    assertEquals(
+        "class Foo {\n"
+            + "  void bar() {\n"
+            + "    if (baz) {\n"
+            + "      qux();\n"
+            + "    } else {\n"
+            + "      quux();\n"
+            + "    }\n"
+            + "  }\n"
+            + "}\n",
+        FastFormatter.formatSource(
+            "class Foo {\n"
+                + "void bar() {\n"
+                + "      if (baz) {\n"
+                + "qux();\n"
+                + "  } else {\n"
+                + "quux();\n"
+                + "}\n"
+                + "}\n"
+                + "}\n"));
+  }
+
+  @Test
+  public void testBreaksAfterOpenBraceAndStatements() {
+    assertEquals(
+        "void bar() {\n"
+            + "  Preconditions.checkNotNull(x);\n"
+            + "  int y = 1;\n"
+            + "  for (int i = 0; i < y; i++) {\n"
+            + "    int[] z = new int[] {1, 2};\n"
+            + "  }\n"
+            + "}\n",
+        FastFormatter.formatSource(
+            "void bar() {Preconditions.checkNotNull(x);\n"
+                + "int y = 1;for (int i = 0; i < y; i++) {\n"
+                + "int[] z = new int[] {1, 2};\n"
+                + "}\n"
+                + "}\n"));
+  }
+
+  @Test
+  public void testIgnoresBracesInLiteralsAndComments() {
+    assertEquals(
+        "void bar() {\n"
+            + "  String s = \"{\\\"\";\n"
+            + "  char c = '}';\n"
+            + "  // {\n"
+            + "  /* } */\n"
+            + "}\n",
+        FastFormatter.formatSource(
+            "void bar() {\n"
+                + "String s = \"{\\\"\";\n"
+                + "char c = '}';\n"
+                + "// {\n"
+                + "/* } */\n"
+                + "}\n"));
+  }
+
+  @Test
+  public void testJavadocAndBlankLines() {
+    assertEquals(
+        "class Foo {\n"
+            + "\n"
+            + "  /**\n"
+            + "   * Docs.\n"
+            + "   */\n"
+            + "  int x;\n"
+            + "}\n",
+        FastFormatter.formatSource(
+            "class Foo {\n"
+                + "\n"
+                + "   \n"
+                + "/**\n"
+                + "* Docs.   \n"
+                + " */\n"
+                + "int x;\n"
+                + "}\n"));
+  }
+
+  @Test
+  public void testContinuationIndent() {
+    assertEquals(
+        "void bar() {\n"
+            + "  return a\n"
+            + "      && foo(b,\n"
+            + "      c);\n"
+            + "}\n",
+        FastFormatter.formatSource(
+            "void bar() {\n"
+                + "return a\n"
+                + "&& foo(b,\n"
+                + "c);\n"
+                + "}\n"));
+  }
+}
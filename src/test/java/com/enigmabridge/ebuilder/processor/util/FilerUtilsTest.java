@@ -17,15 +17,25 @@ package com.enigmabridge.ebuilder.processor.util;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.enigmabridge.ebuilder.processor.util.feature.EnvironmentFeatureSet;
+import com.enigmabridge.ebuilder.processor.util.feature.SourceFormatting;
+import com.enigmabridge.ebuilder.processor.util.feature.StaticFeatureSet;
 import com.enigmabridge.ebuilder.processor.util.testing.ModelRule;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -46,6 +56,7 @@ import java.io.StringWriter;
 import java.io.Writer;
 
 import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.tools.JavaFileObject;
@@ -72,7 +83,7 @@ public class FilerUtilsTest {
 
   @Test
   public void testSimplePath() throws IOException {
-    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, originatingElement, "Hello!");
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, "Hello!", originatingElement);
     assertEquals("Hello!", source.toString());
   }
 
@@ -94,7 +105,7 @@ public class FilerUtilsTest {
     });
     when(sourceFile.openWriter()).thenReturn(mockWriter);
 
-    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, originatingElement, "Hello!");
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, "Hello!", originatingElement);
     verify(mockWriter).close();
   }
 
@@ -109,7 +120,57 @@ public class FilerUtilsTest {
     thrown.expectMessage("Error appending");
     thrown.expect(suppressed(instanceOf(IOException.class)));
     thrown.expect(suppressed(hasProperty("message", equalTo("Error closing"))));
-    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, originatingElement, "Hello!");
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, "Hello!", originatingElement);
+  }
+
+  @Test
+  public void testCompilationUnit_emptyBody() throws IOException {
+    CompilationUnitBuilder code = newUnformattedCompilationUnit();
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, code, originatingElement);
+    assertEquals(
+        "// Autogenerated code. Do not modify.\n"
+            + "package com.example;\n\n",
+        source.toString());
+    assertEquals(code.length(), source.toString().length());
+  }
+
+  @Test
+  public void testCompilationUnit_bodyLargerThanWriteBuffer() throws IOException {
+    CompilationUnitBuilder code = newUnformattedCompilationUnit();
+    code.addLine("public class bar {");
+    for (int i = 0; i < 1000; i++) {
+      code.addLine("  private int field%s;", i);
+    }
+    code.addLine("}");
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, code, originatingElement);
+    assertThat(source.toString().length(), greaterThan(8192));
+    assertEquals(code.toString(), source.toString());
+    assertEquals(code.length(), source.toString().length());
+  }
+
+  @Test
+  public void testCompilationUnit_formattedSourceNotStreamable() throws IOException {
+    CompilationUnitBuilder code = new CompilationUnitBuilder(
+        new PackageSiblings(model.elementUtils()),
+        Optional.<FormatCache>absent(),
+        CLASS_TO_WRITE,
+        ImmutableSet.<QualifiedName>of(),
+        new StaticFeatureSet(SourceFormatting.PRETTY));
+    thrown.expect(IllegalStateException.class);
+    FilerUtils.writeCompilationUnit(filer, CLASS_TO_WRITE, code, originatingElement);
+  }
+
+  /** Returns a compilation unit configured by {@code -Aebuilder.format=none}. */
+  private CompilationUnitBuilder newUnformattedCompilationUnit() {
+    ProcessingEnvironment environment = Mockito.spy(model.environment());
+    doReturn(ImmutableMap.of(SourceFormatting.OPTION, "none")).when(environment).getOptions();
+    CompilationUnitBuilder code = new CompilationUnitBuilder(
+        environment,
+        CLASS_TO_WRITE,
+        ImmutableSet.<QualifiedName>of(),
+        new EnvironmentFeatureSet(environment));
+    assertTrue(code.isStreamable());
+    return code;
   }
 
   private static Matcher<Throwable> suppressed(Matcher<?> matcher) {
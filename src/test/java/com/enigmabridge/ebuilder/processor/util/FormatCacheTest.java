@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.io.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+
+/** Tests for {@link FormatCache}. */
+@RunWith(JUnit4.class)
+public class FormatCacheTest {
+
+  private static final long HOUR = 60 * 60 * 1000;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testMissThenHit() {
+    FormatCache cache = new FormatCache(folder.getRoot(), 10, "v1");
+    String key = cache.keyFor("class Foo {}");
+    assertEquals(Optional.absent(), cache.get(key));
+    cache.put(key, "class Foo {}\n");
+    assertEquals(Optional.of("class Foo {}\n"), cache.get(key));
+    assertEquals(Optional.absent(), cache.get(cache.keyFor("class Bar {}")));
+  }
+
+  @Test
+  public void testHitAcrossInstances() {
+    FormatCache cache = new FormatCache(folder.getRoot(), 10, "v1");
+    cache.put(cache.keyFor("class Foo {}"), "class Foo {}\n");
+    FormatCache other = new FormatCache(folder.getRoot(), 10, "v1");
+    assertEquals(Optional.of("class Foo {}\n"), other.get(other.keyFor("class Foo {}")));
+  }
+
+  @Test
+  public void testKeyChangesWithVersion() {
+    FormatCache cache = new FormatCache(folder.getRoot(), 10, "v1");
+    cache.put(cache.keyFor("class Foo {}"), "class Foo {}\n");
+    FormatCache upgraded = new FormatCache(folder.getRoot(), 10, "v2");
+    assertThat(upgraded.keyFor("class Foo {}")).isNotEqualTo(cache.keyFor("class Foo {}"));
+    assertEquals(Optional.absent(), upgraded.get(upgraded.keyFor("class Foo {}")));
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    FormatCache cache = new FormatCache(folder.getRoot(), 2, "v1");
+    String oldest = cache.keyFor("class A {}");
+    String older = cache.keyFor("class B {}");
+    String newest = cache.keyFor("class C {}");
+    cache.put(oldest, "A");
+    cache.put(older, "B");
+    cache.put(newest, "C");
+    long now = System.currentTimeMillis();
+    entry(oldest).setLastModified(now - 3 * HOUR);
+    entry(older).setLastModified(now - 2 * HOUR);
+    entry(newest).setLastModified(now - HOUR);
+    // A hit makes the oldest entry the most recently used.
+    assertEquals(Optional.of("A"), cache.get(oldest));
+
+    cache.evict();
+
+    assertTrue(entry(oldest).exists());
+    assertFalse(entry(older).exists());
+    assertTrue(entry(newest).exists());
+  }
+
+  @Test
+  public void testEvictKeepsEntriesWithinLimit() {
+    FormatCache cache = new FormatCache(folder.getRoot(), 2, "v1");
+    cache.put(cache.keyFor("class A {}"), "A");
+    cache.put(cache.keyFor("class B {}"), "B");
+    cache.evict();
+    assertEquals(Optional.of("A"), cache.get(cache.keyFor("class A {}")));
+    assertEquals(Optional.of("B"), cache.get(cache.keyFor("class B {}")));
+  }
+
+  @Test
+  public void testEvictDeletesStaleTemporaryFiles() throws IOException {
+    FormatCache cache = new FormatCache(folder.getRoot(), 10, "v1");
+    File stale = folder.newFile("abandoned.1234.tmp");
+    stale.setLastModified(System.currentTimeMillis() - 2 * HOUR);
+    File inProgress = folder.newFile("writing.5678.tmp");
+    String key = cache.keyFor("class Foo {}");
+    cache.put(key, "class Foo {}\n");
+
+    cache.evict();
+
+    assertFalse(stale.exists());
+    assertTrue(inProgress.exists());
+    assertEquals("class Foo {}\n", Files.toString(entry(key), UTF_8));
+  }
+
+  @Test
+  public void testMissingDirectoryIsCreatedOnPut() {
+    File directory = new File(folder.getRoot(), "cache");
+    FormatCache cache = new FormatCache(directory, 10, "v1");
+    String key = cache.keyFor("class Foo {}");
+    assertEquals(Optional.absent(), cache.get(key));
+    cache.evict();
+    cache.put(key, "class Foo {}\n");
+    assertEquals(Optional.of("class Foo {}\n"), cache.get(key));
+  }
+
+  private File entry(String key) {
+    return new File(folder.getRoot(), key + ".java");
+  }
+}
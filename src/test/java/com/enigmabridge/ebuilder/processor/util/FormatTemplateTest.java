@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.enigmabridge.ebuilder.processor.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.MissingFormatArgumentException;
+
+/** Tests for {@link FormatTemplate}. */
+@RunWith(JUnit4.class)
+public class FormatTemplateTest {
+
+  @Test
+  public void testMatchesStringFormat() {
+    assertFormatsLikeStringFormat("no specifiers");
+    assertFormatsLikeStringFormat("%s and %s", "a", "b");
+    assertFormatsLikeStringFormat("%2$s, %1$s, %s, %1$s", "a", "b");
+    assertFormatsLikeStringFormat("100%% %s%n", (Object) null);
+    assertFormatsLikeStringFormat("%s", "extra", "args");
+    assertFormatsLikeStringFormat(
+        "%12$s", "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l");
+  }
+
+  @Test
+  public void testFallsBackForOtherSpecifiers() {
+    assertFormatsLikeStringFormat("0x%xL, %d, %-5s|", 255, 3, "ab");
+  }
+
+  @Test
+  public void testMissingArgument() {
+    try {
+      FormatTemplate.of("%s %2$s").appendTo(new StringBuilder(), "a");
+    } catch (MissingFormatArgumentException e) {
+      assertEquals("%2$s", e.getFormatSpecifier());
+      return;
+    }
+    throw new AssertionError("Expected MissingFormatArgumentException");
+  }
+
+  @Test
+  public void testCachedByFormatString() {
+    String fmt = "cached %s";
+    assertSame(FormatTemplate.of(fmt), FormatTemplate.of(fmt));
+  }
+
+  private static void assertFormatsLikeStringFormat(String fmt, Object... args) {
+    StringBuilder result = new StringBuilder();
+    FormatTemplate.of(fmt).appendTo(result, args);
+    assertEquals(String.format(fmt, args), result.toString());
+  }
+}